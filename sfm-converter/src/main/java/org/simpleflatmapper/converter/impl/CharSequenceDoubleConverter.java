@@ -1,12 +1,13 @@
 package org.simpleflatmapper.converter.impl;
 
 import org.simpleflatmapper.converter.Converter;
+import org.simpleflatmapper.util.FloatingPointParser;
 
 public class CharSequenceDoubleConverter implements Converter<CharSequence, Double> {
     @Override
     public Double convert(CharSequence in) throws Exception {
         if (in == null) return null;
-        return Double.valueOf(in.toString());
+        return FloatingPointParser.parseDouble(in);
     }
 
     public String toString() {
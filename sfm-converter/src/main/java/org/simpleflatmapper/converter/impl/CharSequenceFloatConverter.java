@@ -1,12 +1,13 @@
 package org.simpleflatmapper.converter.impl;
 
 import org.simpleflatmapper.converter.Converter;
+import org.simpleflatmapper.util.FloatingPointParser;
 
 public class CharSequenceFloatConverter implements Converter<CharSequence, Float> {
     @Override
     public Float convert(CharSequence in) throws Exception {
         if (in == null) return null;
-        return Float.valueOf(in.toString());
+        return FloatingPointParser.parseFloat(in);
     }
 
     public String toString() {
@@ -1,22 +1,36 @@
 package org.simpleflatmapper.converter.impl;
 
 import org.simpleflatmapper.converter.Converter;
+import org.simpleflatmapper.util.date.CompiledDatePattern;
 
 import java.text.SimpleDateFormat;
+import java.util.Calendar;
 import java.util.Date;
 
 
 public class CharSequenceToDateConverter implements Converter<CharSequence, Date> {
 
     private final String format;
+    private final CompiledDatePattern compiledPattern;
 
     public CharSequenceToDateConverter(String format) {
         this.format = format;
+        this.compiledPattern = CompiledDatePattern.compile(format);
     }
 
     @Override
     public Date convert(CharSequence in) throws Exception {
         if (in == null || in.length() == 0) return null;
+        if (compiledPattern != null) {
+            if (compiledPattern.isEpochMillis()) {
+                return new Date(CompiledDatePattern.parseEpochMillis(in));
+            }
+            long fields = compiledPattern.parse(in);
+            if (fields != CompiledDatePattern.INVALID) {
+                // the calendar of a new SimpleDateFormat
+                return CompiledDatePattern.toDate(fields, Calendar.getInstance());
+            }
+        }
         return new SimpleDateFormat(format).parse(in.toString());
     }
 }
@@ -4,7 +4,6 @@ import org.simpleflatmapper.converter.AbstractConverterFactory;
 import org.simpleflatmapper.converter.Converter;
 import org.simpleflatmapper.converter.ConvertingTypes;
 
-import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 
 public abstract class AbstractMultiFormatConverterFactory<I, O> extends AbstractConverterFactory<I, O> {
@@ -16,23 +15,16 @@ public abstract class AbstractMultiFormatConverterFactory<I, O> extends Abstract
     @Override
     public Converter<? super I, ? extends O> newConverter(ConvertingTypes targetedTypes, Object... params) {
 
-        DateTimeFormatter[] dateTimeFormatters = JavaTimeHelper.getDateTimeFormatters(params);
+        CompiledDateTimeFormatter[] dateTimeFormatters = JavaTimeHelper.getCompiledDateTimeFormatters(params);
         
         if (dateTimeFormatters.length == 0) {
             return null;
         }
 
-        ZoneId zoneId = JavaTimeHelper.getZoneId(params);
-
         Converter<I, O>[] converters = new Converter[dateTimeFormatters.length];
 
         for(int i = 0; i < dateTimeFormatters.length; i++) {
-            DateTimeFormatter dateTimeFormatter = dateTimeFormatters[i];
-            if (dateTimeFormatter.getZone() == null) {
-                dateTimeFormatter.withZone(zoneId);
-            }
-
-            converters[i] = newConverter(dateTimeFormatter);
+            converters[i] = newConverter(dateTimeFormatters[i]);
         }
 
         if (converters.length == 1) {
@@ -43,6 +35,18 @@ public abstract class AbstractMultiFormatConverterFactory<I, O> extends Abstract
 
     }
 
+    /**
+     * override to use the compiled pattern of the formatter, by default the converter uses the formatter only.
+     * @param formatter the formatter and its compiled pattern
+     * @return the converter
+     */
+    protected Converter<I, O> newConverter(CompiledDateTimeFormatter formatter) {
+        if (formatter.getFormatter() == null) {
+            throw new IllegalArgumentException("Cannot convert " + formatter + " to " + convertingTypes.getTo());
+        }
+        return newConverter(formatter.getFormatter());
+    }
+
     @SuppressWarnings("unchecked")
     protected abstract Converter<I, O> newConverter(DateTimeFormatter formatter);
 }
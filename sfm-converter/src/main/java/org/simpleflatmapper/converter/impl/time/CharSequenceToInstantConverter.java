@@ -7,15 +7,19 @@ import java.time.format.DateTimeFormatter;
 
 public class CharSequenceToInstantConverter implements Converter<CharSequence, Instant> {
 
-    private final DateTimeFormatter dateTimeFormatter;
+    private final CompiledDateTimeFormatter dateTimeFormatter;
 
     public CharSequenceToInstantConverter(DateTimeFormatter dateTimeFormatter) {
+        this(new CompiledDateTimeFormatter(dateTimeFormatter));
+    }
+
+    public CharSequenceToInstantConverter(CompiledDateTimeFormatter dateTimeFormatter) {
         this.dateTimeFormatter = dateTimeFormatter;
     }
 
     @Override
     public Instant convert(CharSequence in) throws Exception {
         if (in == null || in.length() == 0) return null;
-        return dateTimeFormatter.parse(in, Instant::from);
+        return dateTimeFormatter.parseInstant(in);
     }
 }
@@ -9,15 +9,19 @@ import java.time.format.DateTimeFormatter;
 
 public class CharSequenceToLocalDateConverter implements Converter<CharSequence, LocalDate> {
 
-    private final DateTimeFormatter dateTimeFormatter;
+    private final CompiledDateTimeFormatter dateTimeFormatter;
 
     public CharSequenceToLocalDateConverter(DateTimeFormatter dateTimeFormatter) {
+        this(new CompiledDateTimeFormatter(dateTimeFormatter));
+    }
+
+    public CharSequenceToLocalDateConverter(CompiledDateTimeFormatter dateTimeFormatter) {
         this.dateTimeFormatter = dateTimeFormatter;
     }
 
     @Override
     public LocalDate convert(CharSequence in) throws Exception {
         if (in == null || in.length() == 0) return null;
-        return LocalDate.parse(in, dateTimeFormatter);
+        return dateTimeFormatter.parseLocalDate(in);
     }
 }
@@ -9,15 +9,19 @@ import java.time.format.DateTimeFormatter;
 
 public class CharSequenceToLocalDateTimeConverter implements Converter<CharSequence, LocalDateTime> {
 
-    private final DateTimeFormatter dateTimeFormatter;
+    private final CompiledDateTimeFormatter dateTimeFormatter;
 
     public CharSequenceToLocalDateTimeConverter(DateTimeFormatter dateTimeFormatter) {
+        this(new CompiledDateTimeFormatter(dateTimeFormatter));
+    }
+
+    public CharSequenceToLocalDateTimeConverter(CompiledDateTimeFormatter dateTimeFormatter) {
         this.dateTimeFormatter = dateTimeFormatter;
     }
 
     @Override
     public LocalDateTime convert(CharSequence in) throws Exception {
         if (in == null || in.length() == 0) return null;
-        return LocalDateTime.parse(in, dateTimeFormatter);
+        return dateTimeFormatter.parseLocalDateTime(in);
     }
 }
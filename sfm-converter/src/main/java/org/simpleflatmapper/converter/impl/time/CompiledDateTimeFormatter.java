@@ -0,0 +1,163 @@
+package org.simpleflatmapper.converter.impl.time;
+
+import org.simpleflatmapper.util.date.CompiledDatePattern;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.chrono.IsoChronology;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.DecimalStyle;
+import java.util.Objects;
+
+/**
+ * A DateTimeFormatter with the compiled pattern it was created from, the values matching the compiled pattern are
+ * parsed without going through the formatter, the other values fall back to the formatter.
+ */
+public final class CompiledDateTimeFormatter {
+
+    private static final int NANOS_PER_MILLI = 1000000;
+
+    private final DateTimeFormatter formatter;
+    private final CompiledDatePattern pattern;
+    private final ZoneId zone;
+    // the offset of the zone if fixed
+    private final ZoneOffset zoneOffset;
+
+    /**
+     * @param formatter the formatter, null for the epoch millis pattern
+     * @param pattern the compiled pattern of the formatter, null if none
+     * @param zone the zone of the values without offset, null if none, must be the formatter zone if both a formatter
+     *             and a pattern are given
+     */
+    public CompiledDateTimeFormatter(DateTimeFormatter formatter, CompiledDatePattern pattern, ZoneId zone) {
+        if (formatter == null && (pattern == null || !pattern.isEpochMillis() || zone == null)) {
+            throw new IllegalArgumentException("No formatter for pattern " + pattern);
+        }
+        if (formatter != null && pattern != null && !Objects.equals(formatter.getZone(), zone)) {
+            throw new IllegalArgumentException("Zone " + zone + " differs from the formatter zone " + formatter.getZone());
+        }
+        this.formatter = formatter;
+        this.pattern = pattern;
+        this.zone = zone;
+        this.zoneOffset = zone != null && zone.getRules().isFixedOffset() ? zone.getRules().getOffset(Instant.EPOCH) : null;
+    }
+
+    public CompiledDateTimeFormatter(DateTimeFormatter formatter) {
+        this(formatter, null, formatter.getZone());
+    }
+
+    /**
+     * @return the formatter, null for the epoch millis pattern
+     */
+    public DateTimeFormatter getFormatter() {
+        return formatter;
+    }
+
+    public LocalDate parseLocalDate(CharSequence in) {
+        if (pattern != null) {
+            if (pattern.isEpochMillis()) {
+                return parseEpochMillis(in).atZone(zone).toLocalDate();
+            }
+            long fields = pattern.parse(in);
+            if (fields != CompiledDatePattern.INVALID) {
+                return LocalDate.of(CompiledDatePattern.year(fields), CompiledDatePattern.month(fields), CompiledDatePattern.dayOfMonth(fields));
+            }
+        }
+        return LocalDate.parse(in, formatter);
+    }
+
+    public LocalDateTime parseLocalDateTime(CharSequence in) {
+        if (pattern != null) {
+            if (pattern.isEpochMillis()) {
+                return LocalDateTime.ofInstant(parseEpochMillis(in), zone);
+            }
+            if (pattern.hasTime()) {
+                long fields = pattern.parse(in);
+                if (fields != CompiledDatePattern.INVALID) {
+                    return LocalDateTime.ofEpochSecond(CompiledDatePattern.localEpochSecond(fields), CompiledDatePattern.millisecond(fields) * NANOS_PER_MILLI, ZoneOffset.UTC);
+                }
+            }
+        }
+        return LocalDateTime.parse(in, formatter);
+    }
+
+    public Instant parseInstant(CharSequence in) {
+        if (pattern != null) {
+            if (pattern.isEpochMillis()) {
+                return parseEpochMillis(in);
+            }
+            if (pattern.hasTime()) {
+                long fields = pattern.parse(in);
+                if (fields != CompiledDatePattern.INVALID) {
+                    long localEpochSecond = CompiledDatePattern.localEpochSecond(fields);
+                    int nanos = CompiledDatePattern.millisecond(fields) * NANOS_PER_MILLI;
+                    if (CompiledDatePattern.hasOffset(fields)) {
+                        return Instant.ofEpochSecond(localEpochSecond - CompiledDatePattern.offsetSeconds(fields), nanos);
+                    } else if (zoneOffset != null) {
+                        return Instant.ofEpochSecond(localEpochSecond - zoneOffset.getTotalSeconds(), nanos);
+                    } else if (zone != null) {
+                        // gaps and overlaps resolved as the formatter does
+                        return LocalDateTime.ofEpochSecond(localEpochSecond, nanos, ZoneOffset.UTC).atZone(zone).toInstant();
+                    }
+                }
+            }
+        }
+        return formatter.parse(in, Instant::from);
+    }
+
+    private Instant parseEpochMillis(CharSequence in) {
+        try {
+            return Instant.ofEpochMilli(CompiledDatePattern.parseEpochMillis(in));
+        } catch (NumberFormatException e) {
+            throw new DateTimeParseException("Unable to parse epoch millis " + in, in, 0, e);
+        }
+    }
+
+    /**
+     * compile the pattern of a formatter, the pattern strings and the ISO formatters are supported.
+     * An ISO formatter is only compiled if its chronology, resolver style and resolver fields are the ones of
+     * the ISO constant, its zone is passed to the CompiledDateTimeFormatter.
+     * @param pattern the pattern the formatter was created from, null if none
+     * @param formatter the formatter
+     * @return the compiled pattern, null if not supported
+     */
+    public static CompiledDatePattern compile(String pattern, DateTimeFormatter formatter) {
+        if (!DecimalStyle.STANDARD.equals(formatter.getDecimalStyle())) {
+            return null;
+        }
+        if (pattern != null) {
+            return CompiledDatePattern.compile(pattern);
+        }
+        if (isIsoFormatter(formatter, DateTimeFormatter.ISO_LOCAL_DATE)) {
+            return CompiledDatePattern.isoLocalDate();
+        } else if (isIsoFormatter(formatter, DateTimeFormatter.ISO_LOCAL_DATE_TIME)) {
+            return CompiledDatePattern.isoLocalDateTime();
+        } else if (isIsoFormatter(formatter, DateTimeFormatter.ISO_OFFSET_DATE_TIME)) {
+            return CompiledDatePattern.isoOffsetDateTime();
+        }
+        return null;
+    }
+
+    // the constant or a copy with the same parsing rules, the zone is applied by the CompiledDateTimeFormatter
+    private static boolean isIsoFormatter(DateTimeFormatter formatter, DateTimeFormatter iso) {
+        if (formatter == iso) {
+            return true;
+        }
+        return formatter.getChronology() == IsoChronology.INSTANCE
+                && formatter.getResolverStyle() == iso.getResolverStyle()
+                && Objects.equals(formatter.getResolverFields(), iso.getResolverFields())
+                && formatter.toString().equals(iso.toString());
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledDateTimeFormatter{" +
+                "formatter=" + formatter +
+                ", pattern=" + pattern +
+                '}';
+    }
+}
@@ -166,6 +166,11 @@ public class JavaTimeConverterFactoryProducer extends AbstractConverterFactoryPr
             protected Converter<CharSequence, Instant> newConverter(DateTimeFormatter formatter) {
                 return new CharSequenceToInstantConverter(formatter);
             }
+
+            @Override
+            protected Converter<CharSequence, Instant> newConverter(CompiledDateTimeFormatter formatter) {
+                return new CharSequenceToInstantConverter(formatter);
+            }
         });
 
         factoryConverter(consumer, new AbstractMultiFormatConverterFactory<CharSequence, LocalDate>(CharSequence.class, LocalDate.class) {
@@ -174,6 +179,11 @@ public class JavaTimeConverterFactoryProducer extends AbstractConverterFactoryPr
             protected Converter<CharSequence, LocalDate> newConverter(DateTimeFormatter formatter) {
                 return new CharSequenceToLocalDateConverter(formatter);
             }
+
+            @Override
+            protected Converter<CharSequence, LocalDate> newConverter(CompiledDateTimeFormatter formatter) {
+                return new CharSequenceToLocalDateConverter(formatter);
+            }
         });
         factoryConverter(consumer, new AbstractMultiFormatConverterFactory<CharSequence, LocalDateTime>(CharSequence.class, LocalDateTime.class) {
             @SuppressWarnings("unchecked")
@@ -181,6 +191,11 @@ public class JavaTimeConverterFactoryProducer extends AbstractConverterFactoryPr
             protected Converter<CharSequence, LocalDateTime> newConverter(DateTimeFormatter formatter) {
                 return new CharSequenceToLocalDateTimeConverter(formatter);
             }
+
+            @Override
+            protected Converter<CharSequence, LocalDateTime> newConverter(CompiledDateTimeFormatter formatter) {
+                return new CharSequenceToLocalDateTimeConverter(formatter);
+            }
         });
         factoryConverter(consumer, new AbstractMultiFormatConverterFactory<CharSequence, LocalTime>(CharSequence.class, LocalTime.class) {
             @SuppressWarnings("unchecked")
@@ -2,6 +2,7 @@ package org.simpleflatmapper.converter.impl.time;
 
 import org.simpleflatmapper.util.Supplier;
 import org.simpleflatmapper.util.SupplierHelper;
+import org.simpleflatmapper.util.date.CompiledDatePattern;
 import org.simpleflatmapper.util.date.DateFormatSupplier;
 import org.simpleflatmapper.util.date.DefaultDateFormatSupplier;
 
@@ -61,6 +62,49 @@ public final class JavaTimeHelper {
         return dtf.toArray(new DateTimeFormatter[0]);
     }
 
+    /**
+     * same as {@link #getDateTimeFormatters(Object...)} with the compiled patterns of the formatters,
+     * see {@link CompiledDatePattern}, the {@link CompiledDatePattern#EPOCH_MILLIS} pattern has no formatter.
+     * @param properties the properties
+     * @return the formatters
+     */
+    public static CompiledDateTimeFormatter[] getCompiledDateTimeFormatters(Object... properties) {
+        List<CompiledDateTimeFormatter> dtf = new ArrayList<CompiledDateTimeFormatter>();
+
+        ZoneId zoneId = getZoneId(properties);
+
+        DefaultDateFormatSupplier defaultDateFormatSupplier = null;
+        for(Object prop : properties) {
+            if (prop instanceof DateFormatSupplier) {
+                dtf.add(toCompiledDateTimeFormatter(((DateFormatSupplier) prop).get(), zoneId));
+            } else {
+                DateTimeFormatter dateTimeFormatter = toDateTimeFormatter(prop, zoneId);
+                if (dateTimeFormatter != null) {
+                    dtf.add(new CompiledDateTimeFormatter(dateTimeFormatter, CompiledDateTimeFormatter.compile(null, dateTimeFormatter), dateTimeFormatter.getZone()));
+                } else if (prop instanceof DefaultDateFormatSupplier) {
+                    defaultDateFormatSupplier = (DefaultDateFormatSupplier) prop;
+                }
+            }
+        }
+
+        if (dtf.isEmpty()) {
+            if (defaultDateFormatSupplier == null) {
+                throw new IllegalStateException("No date format specified");
+            }
+            dtf.add(toCompiledDateTimeFormatter(defaultDateFormatSupplier.get(), zoneId));
+        }
+
+        return dtf.toArray(new CompiledDateTimeFormatter[0]);
+    }
+
+    private static CompiledDateTimeFormatter toCompiledDateTimeFormatter(String format, ZoneId zoneId) {
+        if (CompiledDatePattern.EPOCH_MILLIS.equals(format)) {
+            return new CompiledDateTimeFormatter(null, CompiledDatePattern.compile(format), zoneId != null ? zoneId : ZoneId.systemDefault());
+        }
+        DateTimeFormatter dateTimeFormatter = withZone(format, zoneId);
+        return new CompiledDateTimeFormatter(dateTimeFormatter, CompiledDateTimeFormatter.compile(format, dateTimeFormatter), dateTimeFormatter.getZone());
+    }
+
     @SuppressWarnings("unchecked")
     private static DateTimeFormatter toDateTimeFormatter(Object prop, ZoneId zoneId) {
         if (SupplierHelper.isSupplierOf(prop, DateTimeFormatter.class)) {
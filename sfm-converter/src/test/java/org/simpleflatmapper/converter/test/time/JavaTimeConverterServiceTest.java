@@ -3,6 +3,9 @@ package org.simpleflatmapper.converter.test.time;
 import org.junit.Test;
 import org.simpleflatmapper.converter.Converter;
 import org.simpleflatmapper.converter.ConverterService;
+import org.simpleflatmapper.converter.impl.time.CompiledDateTimeFormatter;
+import org.simpleflatmapper.util.date.CompiledDatePattern;
+import org.simpleflatmapper.util.date.DateFormatSupplier;
 
 import java.text.SimpleDateFormat;
 import java.time.Instant;
@@ -17,14 +20,18 @@ import java.time.YearMonth;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.time.chrono.ThaiBuddhistChronology;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
 import java.util.Calendar;
 import java.util.Date;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -345,6 +352,78 @@ public class JavaTimeConverterServiceTest {
     }
 
 
+    @Test
+    public void testCharacterToTimeCompiledPattern() throws Exception {
+        ZoneId zoneId = ZoneId.of("Europe/Paris");
+        LocalDateTime localDateTime = LocalDateTime.of(2021, 3, 28, 13, 45, 12, 123000000);
+
+        assertEquals(localDateTime.toLocalDate(), convert("2021-03-28", LocalDate.class, "yyyy-MM-dd", zoneId));
+        assertEquals(localDateTime.toLocalDate(), convert("20210328", LocalDate.class, "yyyyMMdd", zoneId));
+        assertEquals(localDateTime.withNano(0), convert("2021-03-28 13:45:12", LocalDateTime.class, "yyyy-MM-dd HH:mm:ss", zoneId));
+        assertEquals(localDateTime.atZone(zoneId).toInstant(), convert("2021-03-28T13:45:12.123", Instant.class, "yyyy-MM-dd'T'HH:mm:ss.SSS", zoneId));
+        assertEquals(localDateTime.toInstant(ZoneOffset.ofHours(-5)), convert("2021-03-28T13:45:12.123-05:00", Instant.class, "yyyy-MM-dd'T'HH:mm:ss.SSSXXX", zoneId));
+        // in the dst gap
+        assertEquals(LocalDateTime.of(2021, 3, 28, 2, 30).atZone(zoneId).toInstant(), convert("2021-03-28 02:30:00", Instant.class, "yyyy-MM-dd HH:mm:ss", zoneId));
+
+        // fall back to the formatter
+        assertEquals(LocalDate.of(2021, 2, 28), convert("2021-02-31", LocalDate.class, "yyyy-MM-dd", zoneId));
+        try {
+            convert("2021-03-2", LocalDate.class, "yyyy-MM-dd", zoneId);
+            fail();
+        } catch (DateTimeParseException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testCharacterToTimeEpochMillis() throws Exception {
+        ZoneId zoneId = ZoneId.of("Europe/Paris");
+        Instant instant = Instant.ofEpochMilli(1616935512123L);
+
+        assertEquals(instant, convert("1616935512123", Instant.class, CompiledDatePattern.EPOCH_MILLIS, zoneId));
+        assertEquals(instant.atZone(zoneId).toLocalDateTime(), convert("1616935512123", LocalDateTime.class, CompiledDatePattern.EPOCH_MILLIS, zoneId));
+        assertEquals(instant.atZone(zoneId).toLocalDate(), convert("1616935512123", LocalDate.class, CompiledDatePattern.EPOCH_MILLIS, zoneId));
+        assertEquals(Instant.ofEpochMilli(-1), convert("-1", Instant.class, CompiledDatePattern.EPOCH_MILLIS, zoneId));
+        try {
+            convert("2021-03-28", Instant.class, CompiledDatePattern.EPOCH_MILLIS, zoneId);
+            fail();
+        } catch (DateTimeParseException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testCompileIsoFormatterChecksTheParsingRules() throws Exception {
+        ZoneId zoneId = ZoneId.of("Europe/Paris");
+        assertNotNull(CompiledDateTimeFormatter.compile(null, DateTimeFormatter.ISO_LOCAL_DATE));
+        assertNotNull(CompiledDateTimeFormatter.compile(null, DateTimeFormatter.ISO_LOCAL_DATE_TIME.withZone(zoneId)));
+        assertNull(CompiledDateTimeFormatter.compile(null, DateTimeFormatter.ISO_LOCAL_DATE.withChronology(ThaiBuddhistChronology.INSTANCE)));
+        assertNull(CompiledDateTimeFormatter.compile(null, DateTimeFormatter.ISO_LOCAL_DATE.withResolverStyle(ResolverStyle.LENIENT)));
+        assertNull(CompiledDateTimeFormatter.compile(null, DateTimeFormatter.ISO_LOCAL_DATE.withResolverFields(ChronoField.YEAR)));
+
+        Converter<? super CharSequence, ? extends LocalDate> converter =
+                ConverterService.getInstance().findConverter(CharSequence.class, LocalDate.class, DateTimeFormatter.ISO_LOCAL_DATE.withChronology(ThaiBuddhistChronology.INSTANCE));
+        assertEquals(LocalDate.of(2021, 3, 28), converter.convert("2564-03-28"));
+
+        try {
+            new CompiledDateTimeFormatter(DateTimeFormatter.ISO_LOCAL_DATE_TIME, CompiledDatePattern.isoLocalDateTime(), zoneId);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private <T> T convert(String value, Class<T> target, final String pattern, ZoneId zoneId) throws Exception {
+        Converter<? super CharSequence, ? extends T> converter =
+                ConverterService.getInstance().findConverter(CharSequence.class, target, new DateFormatSupplier() {
+                    @Override
+                    public String get() {
+                        return pattern;
+                    }
+                }, zoneId);
+        return converter.convert(value);
+    }
+
     @Test
     public void testTemporalToString() throws Exception {
         Converter<? super ZonedDateTime, ? extends CharSequence> converter = ConverterService.getInstance().findConverter(ZonedDateTime.class, CharSequence.class, DateTimeFormatter.ISO_ZONED_DATE_TIME);
@@ -44,6 +44,14 @@ public class CloseableCsvReader implements Closeable, Iterable<String[]> {
         return delegate.read(handler, limit);
     }
 
+    public <RH extends CheckedConsumer<? super CsvRowView>> RH readView(RH handler) throws IOException {
+        return delegate.readView(handler);
+    }
+
+    public <RH extends CheckedConsumer<? super CsvRowView>> RH readView(RH handler, int limit) throws IOException {
+        return delegate.readView(handler, limit);
+    }
+
     @Override
     public Iterator<String[]> iterator() {
         return delegate.iterator();
@@ -58,6 +66,10 @@ public class CloseableCsvReader implements Closeable, Iterable<String[]> {
 
     @Override
     public void close() throws IOException {
-        resource.close();
+        try {
+            delegate.close();
+        } finally {
+            resource.close();
+        }
     }
 }
@@ -97,7 +97,8 @@ public final class CsvMapperFactory extends AbstractMapperFactory<CsvColumnKey,
 				classMeta,
 				defaultDateFormat,
 				cellValueReaderFactory,
-				mapperConfig());
+				mapperConfig(),
+				mapperCacheFactory());
 	}
 
 	/**
@@ -1,6 +1,7 @@
 package org.simpleflatmapper.csv;
 
 import org.simpleflatmapper.csv.impl.CsvColumnDefinitionProviderImpl;
+import org.simpleflatmapper.csv.impl.CsvFilePartitions;
 import org.simpleflatmapper.csv.impl.DynamicCsvMapper;
 import org.simpleflatmapper.csv.parser.*;
 import org.simpleflatmapper.map.property.KeyProperty;
@@ -18,6 +19,7 @@ import org.simpleflatmapper.reflect.meta.ClassMeta;
 import org.simpleflatmapper.util.CloseableIterator;
 import org.simpleflatmapper.util.Predicate;
 import org.simpleflatmapper.util.CheckedConsumer;
+import org.simpleflatmapper.util.Supplier;
 
 import java.io.Closeable;
 import java.io.File;
@@ -29,9 +31,14 @@ import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.util.*;
+import java.util.concurrent.Executor;
 //IFJAVA8_START
+import org.simpleflatmapper.csv.impl.CsvFilePartitionSpliterator;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 //IFJAVA8_END
 
 /**
@@ -132,6 +139,14 @@ public final class CsvParser {
 		return dsl().limit(limit);
 	}
 
+	public static DSL splitBatchSize(int splitBatchSize) {
+		return dsl().splitBatchSize(splitBatchSize);
+	}
+
+	public static DSL readAhead(Executor executor) {
+		return dsl().readAhead(executor);
+	}
+
 	public static <T> MapToDSL<T> mapTo(Type type) {
 		return dsl().mapTo(type);
 	}
@@ -221,6 +236,18 @@ public final class CsvParser {
 		return dsl().forEach(file, consumer);
 	}
 
+	public static <H extends CheckedConsumer<? super CsvRowView>> H forEachView(Reader reader, H consumer) throws IOException {
+		return dsl().forEachView(reader, consumer);
+	}
+
+	public static <H extends CheckedConsumer<? super CsvRowView>> H forEachView(CharSequence content, H consumer) throws IOException {
+		return dsl().forEachView(content, consumer);
+	}
+
+	public static <H extends CheckedConsumer<? super CsvRowView>> H forEachView(File file, H consumer) throws IOException {
+		return dsl().forEachView(file, consumer);
+	}
+
 	public static <CC extends CellConsumer> CC parse(Reader reader, CC cellConsumer) throws IOException {
 		return dsl().parse(reader, cellConsumer);
 	}
@@ -314,6 +341,8 @@ public final class CsvParser {
 		protected final StringPostProcessing stringPostProcessing;
 		protected final org.simpleflatmapper.util.Function<? super CellConsumer, ? extends CellConsumer> cellConsumerWrapper;
 		protected final boolean yamlComment;
+		protected final int splitBatchSize;
+		protected final Executor readAheadExecutor;
 
 		protected enum StringPostProcessing { NONE, UNESCAPE, TRIM_AND_UNESCAPE}
 
@@ -328,9 +357,11 @@ public final class CsvParser {
 			stringPostProcessing = StringPostProcessing.UNESCAPE;
 			cellConsumerWrapper = null;
 			yamlComment = false;
+			splitBatchSize = CsvReader.DEFAULT_SPLIT_BATCH_SIZE;
+			readAheadExecutor = null;
 		}
 
-		protected AbstractDSL(char separatorChar, char quoteChar, char escapeChar, int bufferSize, int skip, int limit, int maxBufferSize, StringPostProcessing stringPostProcessing, org.simpleflatmapper.util.Function<? super CellConsumer, ? extends CellConsumer> cellConsumerWrapper, boolean yamlComment) {
+		protected AbstractDSL(char separatorChar, char quoteChar, char escapeChar, int bufferSize, int skip, int limit, int maxBufferSize, StringPostProcessing stringPostProcessing, org.simpleflatmapper.util.Function<? super CellConsumer, ? extends CellConsumer> cellConsumerWrapper, boolean yamlComment, int splitBatchSize, Executor readAheadExecutor) {
 			this.separatorChar = separatorChar;
 			this.quoteChar = quoteChar;
 			this.escapeChar = escapeChar;
@@ -341,6 +372,8 @@ public final class CsvParser {
 			this.stringPostProcessing = stringPostProcessing;
 			this.cellConsumerWrapper = cellConsumerWrapper;
 			this.yamlComment = yamlComment;
+			this.splitBatchSize = splitBatchSize;
+			this.readAheadExecutor = readAheadExecutor;
 		}
 
 		/**
@@ -364,12 +397,15 @@ public final class CsvParser {
 		}
 
 		private <CC extends CellConsumer> CC parse(CharBuffer charBuffer, CC cellConsumer) throws IOException {
-			CsvReader csvreader = reader(charBuffer);
-
-			if (limit == -1) {
-				return csvreader.parseAll(cellConsumer);
-			} else {
-				return csvreader.parseRows(cellConsumer, limit);
+			CsvReader csvreader = reader(charBuffer, Long.MAX_VALUE);
+			try {
+				if (limit == -1) {
+					return csvreader.parseAll(cellConsumer);
+				} else {
+					return csvreader.parseRows(cellConsumer, limit);
+				}
+			} finally {
+				csvreader.close();
 			}
 		}
 
@@ -382,6 +418,44 @@ public final class CsvParser {
 			}
 		}
 
+		/**
+		 * Parse the file in parallel. The file is split in up to parallelism partitions starting on a row boundary,
+		 * each partition is parsed on the executor with its own cell consumer.
+		 * <p>
+		 * The file is parsed as one partition if the default charset is not ascii compatible, yaml comments are enabled or a limit is set.
+		 * @param file the file
+		 * @param cellConsumerSupplier supplies a cell consumer per partition
+		 * @param executor the executor the partitions are parsed on
+		 * @param parallelism the maximum number of partitions
+		 * @param <CC> the type of the cell consumer
+		 * @return the cell consumers in the order of the partitions in the file
+		 * @throws IOException if and error occurs reading the file
+		 */
+		public final <CC extends CellConsumer> List<CC> parseParallel(File file, Supplier<? extends CC> cellConsumerSupplier, Executor executor, int parallelism) throws IOException {
+			CsvFilePartitions partitions = partitions(file, skip, limit == -1 ? parallelism : 1, executor);
+
+			final List<CC> cellConsumers = new ArrayList<CC>(partitions.size());
+			for(int i = 0; i < partitions.size(); i++) {
+				cellConsumers.add(cellConsumerSupplier.get());
+			}
+
+			partitions.forEach(executor, new CsvFilePartitions.PartitionHandler() {
+				@Override
+				public void handle(Reader reader, int partition) throws Exception {
+					parse(reader, cellConsumers.get(partition));
+				}
+			});
+
+			return cellConsumers;
+		}
+
+		protected final CsvFilePartitions partitions(File file, int nbHeaderRows, int parallelism, Executor executor) throws IOException {
+			TextFormat textFormat = getTextFormat();
+			return CsvFilePartitions.partition(file, DEFAULT_CHARSET, textFormat,
+					getCellTransformer(textFormat, stringPostProcessing).ignoreLeadingSpace(),
+					nbHeaderRows, parallelism, CsvFilePartitions.DEFAULT_MIN_PARTITION_SIZE, executor);
+		}
+
 		/**
 		 * Create a CsvReader and the specified reader. Will skip the number of specified rows.
 		 * @param reader the content
@@ -389,24 +463,38 @@ public final class CsvParser {
 		 * @throws IOException if an io error occurs
 		 */
 		public final CsvReader reader(Reader reader) throws IOException {
-			return reader(charBuffer(reader));
+			return reader(charBuffer(reader), Long.MAX_VALUE);
 		}
 
 		public final CsvReader reader(CharSequence content) throws IOException {
-			return reader(charBuffer(content));
+			return reader(charBuffer(content), content.length());
 		}
 
 		public final CsvReader reader(String content) throws IOException {
-			return reader(charBuffer(content));
+			return reader(charBuffer(content), content.length());
+		}
+
+		/**
+		 * Create a CsvReader on the reader, the sizeHint is used to estimate the size of the streams.
+		 * @param reader the content
+		 * @param sizeHint the length of the content if known, Long.MAX_VALUE otherwise
+		 * @return a CsvReader on the reader.
+		 * @throws IOException if an io error occurs
+		 */
+		protected final CsvReader reader(Reader reader, long sizeHint) throws IOException {
+			return reader(charBuffer(reader), sizeHint);
 		}
 
-		private CsvReader reader(CharBuffer charBuffer) throws IOException {
-			CsvReader csvReader = new CsvReader(charConsumer(charBuffer), cellConsumerWrapper);
+		private CsvReader reader(CharBuffer charBuffer, long sizeHint) throws IOException {
+			CsvReader csvReader = new CsvReader(charConsumer(charBuffer), cellConsumerWrapper, splitBatchSize, sizeHint);
 			csvReader.skipRows(skip);
 			return csvReader;
 		}
 
 		protected CharBuffer charBuffer(Reader reader) throws IOException {
+			if (readAheadExecutor != null) {
+				return new ReadAheadCharBuffer(bufferSize, maxBufferSize, reader, readAheadExecutor);
+			}
 			return new ReaderCharBuffer(bufferSize, maxBufferSize, reader);
 		}
 
@@ -456,7 +544,12 @@ public final class CsvParser {
 		
 
 		public final <H extends CheckedConsumer<String[]>> H forEach(Reader reader, H consumer) throws IOException {
-			return reader(reader).read(consumer);
+			CsvReader csvReader = reader(reader);
+			try {
+				return csvReader.read(consumer);
+			} finally {
+				csvReader.close();
+			}
 		}
 
 		public final <H extends CheckedConsumer<String[]>> H forEach(CharSequence content, H consumer) throws IOException {
@@ -477,6 +570,42 @@ public final class CsvParser {
 			return consumer;
 		}
 
+		/**
+		 * Call the consumer with a reusable view on each row, the cells are not materialised as String.
+		 * @param reader the content
+		 * @param consumer the consumer of the view, the view is only valid during the callback
+		 * @param <H> the type of the consumer
+		 * @return the consumer
+		 * @throws IOException if an io error occurs
+		 * @see CsvRowView
+		 */
+		public final <H extends CheckedConsumer<? super CsvRowView>> H forEachView(Reader reader, H consumer) throws IOException {
+			CsvReader csvReader = reader(reader);
+			try {
+				return csvReader.readView(consumer);
+			} finally {
+				csvReader.close();
+			}
+		}
+
+		public final <H extends CheckedConsumer<? super CsvRowView>> H forEachView(CharSequence content, H consumer) throws IOException {
+			return reader(content).readView(consumer);
+		}
+
+		public final <H extends CheckedConsumer<? super CsvRowView>> H forEachView(String content, H consumer) throws IOException {
+			return reader(content).readView(consumer);
+		}
+
+		public final <H extends CheckedConsumer<? super CsvRowView>> H forEachView(File file, H consumer) throws IOException {
+			CloseableCsvReader csvReader = reader(file);
+			try {
+				csvReader.readView(consumer);
+			} finally {
+				csvReader.close();
+			}
+			return consumer;
+		}
+
 		public final <T> MapToDSL<T> mapTo(Type target) {
 			return new MapToDSL<T>(this, target);
 		}
@@ -554,23 +683,130 @@ public final class CsvParser {
 		//IFJAVA8_START
 		@Deprecated
 		public final Stream<String[]> stream(File file) throws IOException {
-			return onReader(file, this, (reader, dsl) -> dsl.stream(reader).onClose(() -> { try { reader.close(); } catch (IOException e) {} }));
+			return onReader(file, this, (reader, dsl) -> dsl.reader(reader, file.length()).stream().onClose(() -> { try { reader.close(); } catch (IOException e) {} }));
 		}
 
 		public final <R> R stream(File file, Function<Stream<String[]>, R> function) throws IOException {
 			Reader reader = newReader(file);
 			try {
-				return function.apply(stream(reader));
+				return function.apply(reader(reader, file.length()).stream());
 			} catch(IOException ioe) {
 				try { reader.close(); } catch(IOException ioe2) { }
 				throw ioe;
 			}
 		}
+		//IFJAVA8_END
+
+		/**
+		 * Parse the file as a parallel stream, the file is split in partitions starting on a row boundary that are parsed independently.
+		 * The stream is ordered, use forEachOrdered to consume the rows in the order of the file.
+		 * @param file the file
+		 * @param function the function applied to the stream, the stream is closed when the function returns
+		 * @param <R> the type of the result
+		 * @return the result of the function
+		 * @throws IOException if and error occurs reading the file
+		 */
+		//IFJAVA8_START
+		public final <R> R parallelStream(File file, Function<Stream<String[]>, R> function) throws IOException {
+			CsvFilePartitions partitions = partitions(file, skip, Runtime.getRuntime().availableProcessors(), ForkJoinPool.commonPool());
+			CsvFilePartitionSpliterator<String[]> spliterator = new CsvFilePartitionSpliterator<String[]>(partitions, reader -> reader(reader).stream().spliterator());
+			try (Stream<String[]> stream = StreamSupport.stream(spliterator, true).onClose(spliterator::close)) {
+				return function.apply(stream);
+			}
+		}
+		//IFJAVA8_END
+
+		/**
+		 * Parse the file memory mapping it and tokenizing directly on the bytes, only the bytes of the cells are decoded.
+		 * Falls back on the reader if the default charset or the text format is not supported on bytes.
+		 * @param path the file
+		 * @param cellConsumer the callback object for each cell value
+		 * @param <CC> the type of the cell consumer
+		 * @return cellConsumer
+		 * @throws IOException if and error occurs reading the file
+		 * @see ByteBufferCharConsumer#isSupported(Charset, TextFormat)
+		 */
+		//IFJAVA8_START
+		public final <CC extends CellConsumer> CC parse(Path path, CC cellConsumer) throws IOException {
+			CloseableCsvReader csvReader = reader(path);
+			try {
+				if (limit == -1) {
+					return csvReader.parseAll(cellConsumer);
+				} else {
+					return csvReader.parseRows(cellConsumer, limit);
+				}
+			} finally {
+				csvReader.close();
+			}
+		}
+
+		public final <H extends CheckedConsumer<String[]>> H forEach(Path path, H consumer) throws IOException {
+			CloseableCsvReader csvReader = reader(path);
+			try {
+				csvReader.read(consumer);
+			} finally {
+				csvReader.close();
+			}
+			return consumer;
+		}
+
+		public final <H extends CheckedConsumer<? super CsvRowView>> H forEachView(Path path, H consumer) throws IOException {
+			CloseableCsvReader csvReader = reader(path);
+			try {
+				csvReader.readView(consumer);
+			} finally {
+				csvReader.close();
+			}
+			return consumer;
+		}
+		//IFJAVA8_END
+
+		/**
+		 * Create a CsvReader on the memory mapped file.
+		 * @param path the file
+		 * @return a CsvReader on the file that needs to be closed
+		 * @throws IOException if an error occurs opening the file
+		 * @see #parse(Path, CellConsumer)
+		 */
+		//IFJAVA8_START
+		public final CloseableCsvReader reader(Path path) throws IOException {
+			if (!isSupportedOnBytes()) {
+				return reader(path.toFile());
+			}
+			MappedFileWindow window = mappedFileWindow(path);
+			try {
+				return new CloseableCsvReader(reader(window, window.length()), window);
+			} catch (Throwable e) {
+				safeClose(window);
+				throw e;
+			}
+		}
+
+		protected final boolean isSupportedOnBytes() {
+			return ByteBufferCharConsumer.isSupported(DEFAULT_CHARSET, getTextFormat());
+		}
+
+		protected final MappedFileWindow mappedFileWindow(Path path) throws IOException {
+			FileChannel fileChannel = FileChannel.open(path);
+			try {
+				return new MappedFileWindow(fileChannel, MappedFileWindow.DEFAULT_WINDOW_SIZE_1G);
+			} catch (Throwable e) {
+				safeClose(fileChannel);
+				throw e;
+			}
+		}
+
+		protected final CsvReader reader(ByteBufferWindow window, long sizeHint) throws IOException {
+			TextFormat textFormat = getTextFormat();
+			CsvReader csvReader = new CsvReader(new ByteBufferCharConsumer(window, textFormat, getCellTransformer(textFormat, stringPostProcessing), DEFAULT_CHARSET), cellConsumerWrapper, splitBatchSize, sizeHint);
+			csvReader.skipRows(skip);
+			return csvReader;
+		}
 
 		public final <R> R rowStream(File file, Function<Stream<Row>, R> function) throws IOException {
 			Reader reader = newReader(file);
 			try {
-				return function.apply(rowStream(reader));
+				return function.apply(reader(reader, file.length()).rowStream());
 			} catch(IOException ioe) {
 				try { reader.close(); } catch(IOException ioe2) { }
 				throw ioe;
@@ -606,6 +842,10 @@ public final class CsvParser {
 			return new UnescapeCellPreProcessor(textFormat.escapeChar, textFormat.quoteChar);
 		}
 
+		public final int splitBatchSize() {
+			return splitBatchSize;
+		}
+
 		public final int maxBufferSize() {
 			return maxBufferSize;
 		}
@@ -637,7 +877,7 @@ public final class CsvParser {
 		 * @return this
 		 */
 		public D separator(char c) {
-			return newDSL(c, quoteChar, escapeChar, bufferSize, skip, limit, maxBufferSize, stringPostProcessing, cellConsumerWrapper, yamlComment);
+			return newDSL(c, quoteChar, escapeChar, bufferSize, skip, limit, maxBufferSize, stringPostProcessing, cellConsumerWrapper, yamlComment, splitBatchSize, readAheadExecutor);
 		}
 
 		/**
@@ -646,7 +886,7 @@ public final class CsvParser {
 		 * @return this
 		 */
 		public D quote(char c) {
-			return newDSL(separatorChar, c, escapeChar, bufferSize, skip, limit, maxBufferSize, stringPostProcessing, cellConsumerWrapper, yamlComment);
+			return newDSL(separatorChar, c, escapeChar, bufferSize, skip, limit, maxBufferSize, stringPostProcessing, cellConsumerWrapper, yamlComment, splitBatchSize, readAheadExecutor);
 		}
 
 		/**
@@ -655,7 +895,7 @@ public final class CsvParser {
 		 * @return this
 		 */
 		public D escape(char c) {
-			return newDSL(separatorChar, quoteChar, c, bufferSize, skip, limit, maxBufferSize, stringPostProcessing, cellConsumerWrapper, yamlComment);
+			return newDSL(separatorChar, quoteChar, c, bufferSize, skip, limit, maxBufferSize, stringPostProcessing, cellConsumerWrapper, yamlComment, splitBatchSize, readAheadExecutor);
 		}
 
 		/**
@@ -664,7 +904,7 @@ public final class CsvParser {
 		 * @return this
 		 */
 		public D bufferSize(int size) {
-			return newDSL(separatorChar, quoteChar, escapeChar, size, skip, limit, maxBufferSize, stringPostProcessing, cellConsumerWrapper, yamlComment);
+			return newDSL(separatorChar, quoteChar, escapeChar, size, skip, limit, maxBufferSize, stringPostProcessing, cellConsumerWrapper, yamlComment, splitBatchSize, readAheadExecutor);
 		}
 
 		/**
@@ -673,7 +913,7 @@ public final class CsvParser {
 		 * @return this
 		 */
 		public D skip(int skip) {
-			return newDSL(separatorChar, quoteChar, escapeChar, bufferSize, skip, limit, maxBufferSize, stringPostProcessing, cellConsumerWrapper, yamlComment);
+			return newDSL(separatorChar, quoteChar, escapeChar, bufferSize, skip, limit, maxBufferSize, stringPostProcessing, cellConsumerWrapper, yamlComment, splitBatchSize, readAheadExecutor);
 		}
 
 		/**
@@ -682,7 +922,7 @@ public final class CsvParser {
 		 * @return this
 		 */
 		public D limit(int limit) {
-			return newDSL(separatorChar, quoteChar, escapeChar, bufferSize, skip, limit, maxBufferSize, stringPostProcessing, cellConsumerWrapper, yamlComment);
+			return newDSL(separatorChar, quoteChar, escapeChar, bufferSize, skip, limit, maxBufferSize, stringPostProcessing, cellConsumerWrapper, yamlComment, splitBatchSize, readAheadExecutor);
 		}
 
 		/**
@@ -691,11 +931,34 @@ public final class CsvParser {
 		 * @return this
 		 */
 		public D maxBufferSize(int maxBufferSize) {
-			return newDSL(separatorChar, quoteChar, escapeChar, bufferSize, skip, limit, maxBufferSize, stringPostProcessing, cellConsumerWrapper, yamlComment);
+			return newDSL(separatorChar, quoteChar, escapeChar, bufferSize, skip, limit, maxBufferSize, stringPostProcessing, cellConsumerWrapper, yamlComment, splitBatchSize, readAheadExecutor);
 		}
 
 
-		protected abstract D newDSL(char separatorChar, char quoteChar, char escapeChar, int bufferSize, int skip, int limit, int maxBufferSize, StringPostProcessing stringPostProcessing, org.simpleflatmapper.util.Function<? super CellConsumer, ? extends CellConsumer> cellConsumerWrapper, boolean yamlComment);
+		/**
+		 * set the number of rows handed out per split when a stream is processed in parallel.
+		 * @param splitBatchSize the number of rows per batch, default 1024
+		 * @return this
+		 */
+		public D splitBatchSize(int splitBatchSize) {
+			if (splitBatchSize <= 0) throw new IllegalArgumentException("splitBatchSize must be > 0");
+			return newDSL(separatorChar, quoteChar, escapeChar, bufferSize, skip, limit, maxBufferSize, stringPostProcessing, cellConsumerWrapper, yamlComment, splitBatchSize, readAheadExecutor);
+		}
+
+		/**
+		 * read the content of the reader on the executor while the parser consumes the previous block.
+		 * The blocks are of bufferSize chars, see {@link ReadAheadCharBuffer}.
+		 * The executor needs to run the task on another thread, an executor running it on the calling thread is
+		 * rejected when the parse starts. A CsvReader that is not read to the end needs to be closed to stop the
+		 * task, the streams of the CsvReader close it on close.
+		 * @param executor the executor the reader is read on, null to read on the parsing thread
+		 * @return this
+		 */
+		public D readAhead(Executor executor) {
+			return newDSL(separatorChar, quoteChar, escapeChar, bufferSize, skip, limit, maxBufferSize, stringPostProcessing, cellConsumerWrapper, yamlComment, splitBatchSize, executor);
+		}
+
+		protected abstract D newDSL(char separatorChar, char quoteChar, char escapeChar, int bufferSize, int skip, int limit, int maxBufferSize, StringPostProcessing stringPostProcessing, org.simpleflatmapper.util.Function<? super CellConsumer, ? extends CellConsumer> cellConsumerWrapper, boolean yamlComment, int splitBatchSize, Executor readAheadExecutor);
 
 
 	}
@@ -708,14 +971,14 @@ public final class CsvParser {
 		protected DSL() {
 		}
 
-		protected DSL(char separatorChar, char quoteChar, char escapeChar, int bufferSize, int skip, int limit, int maxBufferSize, StringPostProcessing stringPostProcessing, org.simpleflatmapper.util.Function<? super CellConsumer, ? extends CellConsumer> cellConsumerWrapper, boolean yamlComment) {
-			super(separatorChar, quoteChar, escapeChar, bufferSize, skip, limit, maxBufferSize, stringPostProcessing, cellConsumerWrapper, yamlComment);
+		protected DSL(char separatorChar, char quoteChar, char escapeChar, int bufferSize, int skip, int limit, int maxBufferSize, StringPostProcessing stringPostProcessing, org.simpleflatmapper.util.Function<? super CellConsumer, ? extends CellConsumer> cellConsumerWrapper, boolean yamlComment, int splitBatchSize, Executor readAheadExecutor) {
+			super(separatorChar, quoteChar, escapeChar, bufferSize, skip, limit, maxBufferSize, stringPostProcessing, cellConsumerWrapper, yamlComment, splitBatchSize, readAheadExecutor);
 		}
 
 
 
 		public DSL trimSpaces() {
-            return new DSL(separatorChar, quoteChar, escapeChar, bufferSize, skip, limit, maxBufferSize, StringPostProcessing.TRIM_AND_UNESCAPE, cellConsumerWrapper, yamlComment);
+            return new DSL(separatorChar, quoteChar, escapeChar, bufferSize, skip, limit, maxBufferSize, StringPostProcessing.TRIM_AND_UNESCAPE, cellConsumerWrapper, yamlComment, splitBatchSize, readAheadExecutor);
         }
 
 		/**
@@ -732,7 +995,7 @@ public final class CsvParser {
 							return new YamlCellPreProcessor.YamlCellConsumer(cellConsumer, null, getCellTransformer(textFormat, stringPostProcessing));
 						}
 					},
-					true);
+					true, splitBatchSize, readAheadExecutor);
 		}
 
 		/**
@@ -749,16 +1012,16 @@ public final class CsvParser {
 							return new YamlCellPreProcessor.YamlCellConsumer(cellConsumer, cellConsumer, getCellTransformer(textFormat, stringPostProcessing));
 						}
 					},
-					true);
+					true, splitBatchSize, readAheadExecutor);
 		}
 
 		public DSL disableUnescaping() {
-			return new DSL(separatorChar, quoteChar, escapeChar, bufferSize, skip, limit, maxBufferSize, StringPostProcessing.NONE, cellConsumerWrapper, yamlComment);
+			return new DSL(separatorChar, quoteChar, escapeChar, bufferSize, skip, limit, maxBufferSize, StringPostProcessing.NONE, cellConsumerWrapper, yamlComment, splitBatchSize, readAheadExecutor);
 		}
 
 		@Override
-		protected DSL newDSL(char separatorChar, char quoteChar, char escapeChar, int bufferSize, int skip, int limit, int maxBufferSize, StringPostProcessing stringPostProcessing, org.simpleflatmapper.util.Function<? super CellConsumer, ? extends CellConsumer> cellConsumerWrapper, boolean yamlComment) {
-			return new DSL(separatorChar, quoteChar, escapeChar, bufferSize, skip, limit, maxBufferSize, stringPostProcessing, cellConsumerWrapper, yamlComment);
+		protected DSL newDSL(char separatorChar, char quoteChar, char escapeChar, int bufferSize, int skip, int limit, int maxBufferSize, StringPostProcessing stringPostProcessing, org.simpleflatmapper.util.Function<? super CellConsumer, ? extends CellConsumer> cellConsumerWrapper, boolean yamlComment, int splitBatchSize, Executor readAheadExecutor) {
+			return new DSL(separatorChar, quoteChar, escapeChar, bufferSize, skip, limit, maxBufferSize, stringPostProcessing, cellConsumerWrapper, yamlComment, splitBatchSize, readAheadExecutor);
 		}
 
 	}
@@ -766,8 +1029,8 @@ public final class CsvParser {
 
     public static final class DSLYamlComment extends AbstractDSL<DSLYamlComment> {
 
-		protected DSLYamlComment(char separatorChar, char quoteChar, char escapeChar, int bufferSize, int skip, int limit, int maxBufferSize, StringPostProcessing stringPostProcessing, org.simpleflatmapper.util.Function<? super CellConsumer, ? extends CellConsumer> cellConsumerWrapper, boolean yamlComment) {
-			super(separatorChar, quoteChar, escapeChar, bufferSize, skip, limit, maxBufferSize, stringPostProcessing, cellConsumerWrapper, yamlComment);
+		protected DSLYamlComment(char separatorChar, char quoteChar, char escapeChar, int bufferSize, int skip, int limit, int maxBufferSize, StringPostProcessing stringPostProcessing, org.simpleflatmapper.util.Function<? super CellConsumer, ? extends CellConsumer> cellConsumerWrapper, boolean yamlComment, int splitBatchSize, Executor readAheadExecutor) {
+			super(separatorChar, quoteChar, escapeChar, bufferSize, skip, limit, maxBufferSize, stringPostProcessing, cellConsumerWrapper, yamlComment, splitBatchSize, readAheadExecutor);
 		}
 
 		private CsvReader rawReader(CharBuffer charBuffer) throws IOException {
@@ -789,7 +1052,11 @@ public final class CsvParser {
 		}
 
 		private void _forEach(CsvReader reader, CheckedConsumer<String[]> rowConsumer, CheckedConsumer<String> commentConsumer) throws IOException {
-			reader.parseAll(newYamlCellConsumer(rowConsumer, commentConsumer));
+			try {
+				reader.parseAll(newYamlCellConsumer(rowConsumer, commentConsumer));
+			} finally {
+				reader.close();
+			}
 		}
 
 		private YamlCellPreProcessor.YamlCellConsumer newYamlCellConsumer(CheckedConsumer<String[]> rowConsumer, CheckedConsumer<String> commentConsumer) {
@@ -833,8 +1100,8 @@ public final class CsvParser {
 
 
 		@Override
-		protected DSLYamlComment newDSL(char separatorChar, char quoteChar, char escapeChar, int bufferSize, int skip, int limit, int maxBufferSize, StringPostProcessing stringPostProcessing, org.simpleflatmapper.util.Function<? super CellConsumer, ? extends CellConsumer> cellConsumerWrapper, boolean yamlComment) {
-			return new DSLYamlComment(separatorChar, quoteChar, escapeChar, bufferSize, skip, limit, maxBufferSize, stringPostProcessing, cellConsumerWrapper, yamlComment);
+		protected DSLYamlComment newDSL(char separatorChar, char quoteChar, char escapeChar, int bufferSize, int skip, int limit, int maxBufferSize, StringPostProcessing stringPostProcessing, org.simpleflatmapper.util.Function<? super CellConsumer, ? extends CellConsumer> cellConsumerWrapper, boolean yamlComment, int splitBatchSize, Executor readAheadExecutor) {
+			return new DSLYamlComment(separatorChar, quoteChar, escapeChar, bufferSize, skip, limit, maxBufferSize, stringPostProcessing, cellConsumerWrapper, yamlComment, splitBatchSize, readAheadExecutor);
 		}
 
 	}
@@ -1050,12 +1317,44 @@ public final class CsvParser {
 			return forEach(consumer, dsl.reader(content));
 		}
 
+		/**
+		 * Map the file in parallel. The file is split in up to parallelism partitions starting on a row boundary,
+		 * each partition is mapped on the executor. The consumer will be called concurrently and in no particular order.
+		 * @param file the file
+		 * @param consumer the thread safe consumer
+		 * @param executor the executor the partitions are mapped on
+		 * @param parallelism the maximum number of partitions
+		 * @param <H> the type of the consumer
+		 * @return the consumer
+		 * @throws IOException if and error occurs reading the file
+		 * @see AbstractDSL#parseParallel(File, Supplier, Executor, int)
+		 */
+		public final <H extends CheckedConsumer<T>> H forEachParallel(File file, final H consumer, Executor executor, int parallelism) throws IOException {
+			CsvFilePartitions partitions = dsl.partitions(file, nbHeaderRows(), dsl.limit == -1 ? parallelism : 1, executor);
+			partitions.forEach(executor, new CsvFilePartitions.PartitionHandler() {
+				@Override
+				public void handle(Reader reader, int partition) throws Exception {
+					forEach(reader, consumer);
+				}
+			});
+			return consumer;
+		}
+
+		// rows to replay in front of each partition
+		private int nbHeaderRows() {
+			return dsl.skip + (mapper instanceof DynamicCsvMapper ? 1 : 0);
+		}
+
 		private <H extends CheckedConsumer<T>> H forEach(H consumer, CsvReader csvReader) throws IOException {
-			if (dsl.limit == -1) {
-                mapper.forEach(csvReader, consumer);
-            } else {
-                mapper.forEach(csvReader, consumer, dsl.limit);
-            }
+			try {
+				if (dsl.limit == -1) {
+					mapper.forEach(csvReader, consumer);
+				} else {
+					mapper.forEach(csvReader, consumer, dsl.limit);
+				}
+			} finally {
+				csvReader.close();
+			}
 			return consumer;
 		}
 
@@ -1084,7 +1383,7 @@ public final class CsvParser {
 					new OnReaderFactory<Stream<T>, AbstractDSL<?>>() {
 						@Override
 						public Stream<T> apply(Reader reader, AbstractDSL<?> dsl) throws IOException {
-							return stream(reader).onClose(() -> {
+							return mapper.stream(dsl.reader(reader, file.length())).onClose(() -> {
 								try {
 									reader.close();
 								} catch (IOException e) {
@@ -1099,13 +1398,67 @@ public final class CsvParser {
 		public final <R> R stream(File file, Function<Stream<T>, R> function) throws IOException {
 			Reader reader = newReader(file);
 			try {
-				return function.apply(stream(reader));
+				return function.apply(mapper.stream(dsl.reader(reader, file.length())));
 			} catch(IOException ioe) {
 				try { reader.close(); } catch(IOException ioe2) {  }
 				throw ioe;
 			}
 		}
 		//IFJAVA8_END
+
+		/**
+		 * Map the memory mapped file, tokenizing directly on the bytes.
+		 * @param path the file
+		 * @param consumer the consumer
+		 * @param <H> the type of the consumer
+		 * @return the consumer
+		 * @throws IOException if and error occurs reading the file
+		 * @see AbstractDSL#parse(Path, CellConsumer)
+		 */
+		//IFJAVA8_START
+		public final <H extends CheckedConsumer<T>> H forEach(Path path, H consumer) throws IOException {
+			if (!dsl.isSupportedOnBytes()) {
+				return forEach(path.toFile(), consumer);
+			}
+			MappedFileWindow window = dsl.mappedFileWindow(path);
+			try {
+				return forEach(consumer, dsl.reader(window, window.length()));
+			} finally {
+				window.close();
+			}
+		}
+
+		public final <R> R stream(Path path, Function<Stream<T>, R> function) throws IOException {
+			if (!dsl.isSupportedOnBytes()) {
+				return stream(path.toFile(), function);
+			}
+			MappedFileWindow window = dsl.mappedFileWindow(path);
+			try {
+				return function.apply(mapper.stream(dsl.reader(window, window.length())));
+			} finally {
+				window.close();
+			}
+		}
+		//IFJAVA8_END
+
+		/**
+		 * Map the file as a parallel stream, the file is split in partitions starting on a row boundary that are mapped independently.
+		 * The stream is ordered, use forEachOrdered to consume the objects in the order of the file.
+		 * @param file the file
+		 * @param function the function applied to the stream, the stream is closed when the function returns
+		 * @param <R> the type of the result
+		 * @return the result of the function
+		 * @throws IOException if and error occurs reading the file
+		 */
+		//IFJAVA8_START
+		public final <R> R parallelStream(File file, Function<Stream<T>, R> function) throws IOException {
+			CsvFilePartitions partitions = dsl.partitions(file, nbHeaderRows(), Runtime.getRuntime().availableProcessors(), ForkJoinPool.commonPool());
+			CsvFilePartitionSpliterator<T> spliterator = new CsvFilePartitionSpliterator<T>(partitions, reader -> stream(reader).spliterator());
+			try (Stream<T> stream = StreamSupport.stream(spliterator, true).onClose(spliterator::close)) {
+				return function.apply(stream);
+			}
+		}
+		//IFJAVA8_END
 	}
 
 
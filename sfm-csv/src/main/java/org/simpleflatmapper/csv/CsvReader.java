@@ -2,8 +2,8 @@ package org.simpleflatmapper.csv;
 
 import org.simpleflatmapper.csv.impl.CellConsumerCapture;
 import org.simpleflatmapper.csv.impl.CellConsumerFixLengthToCheckConsumer;
+import org.simpleflatmapper.csv.parser.AbstractCharConsumer;
 import org.simpleflatmapper.csv.parser.CellConsumer;
-import org.simpleflatmapper.csv.parser.CharConsumer;
 import org.simpleflatmapper.csv.parser.NullCellConsumer;
 import org.simpleflatmapper.csv.parser.StringArrayCellConsumer;
 import org.simpleflatmapper.util.CheckedConsumer;
@@ -15,7 +15,7 @@ import java.io.IOException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 //IFJAVA8_START
-import java.util.Spliterator;
+import org.simpleflatmapper.csv.impl.BatchingCsvSpliterator;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -25,17 +25,34 @@ import java.util.stream.StreamSupport;
 
 public final class CsvReader implements Iterable<String[]> {
 
-	private final CharConsumer consumer;
+	public static final int DEFAULT_SPLIT_BATCH_SIZE = 1024;
+
+	private final AbstractCharConsumer consumer;
 
 	private final Function<? super CellConsumer, ? extends CellConsumer> cellConsumerWrapper;
 
-	public CsvReader(CharConsumer charConsumer) {
+	private final int splitBatchSize;
+	private final long sizeHint;
+
+	public CsvReader(AbstractCharConsumer charConsumer) {
 		this(charConsumer, null);
 	}
 
-	public CsvReader(CharConsumer charConsumer,  Function<? super CellConsumer, ? extends CellConsumer> cellConsumerWrapper) {
+	public CsvReader(AbstractCharConsumer charConsumer,  Function<? super CellConsumer, ? extends CellConsumer> cellConsumerWrapper) {
+		this(charConsumer, cellConsumerWrapper, DEFAULT_SPLIT_BATCH_SIZE, Long.MAX_VALUE);
+	}
+
+	/**
+	 * @param charConsumer the char consumer
+	 * @param cellConsumerWrapper the cell consumer wrapper, can be null
+	 * @param splitBatchSize the number of rows parsed per split of the streams
+	 * @param sizeHint the length of the content in chars if known, Long.MAX_VALUE otherwise, used to estimate the size of the streams
+	 */
+	public CsvReader(AbstractCharConsumer charConsumer,  Function<? super CellConsumer, ? extends CellConsumer> cellConsumerWrapper, int splitBatchSize, long sizeHint) {
 		this.consumer = charConsumer;
 		this.cellConsumerWrapper = cellConsumerWrapper;
+		this.splitBatchSize = splitBatchSize;
+		this.sizeHint = sizeHint;
 	}
 
 	/**
@@ -109,6 +126,24 @@ public final class CsvReader implements Iterable<String[]> {
 		return consumer;
 	}
 
+	/**
+	 * read the rows as a flyweight view, no String is allocated per cell.
+	 * @param consumer the consumer of the view, the view is only valid during the callback
+	 * @param <RH> the type of the consumer
+	 * @return the consumer
+	 * @throws IOException if an io error occurs
+	 * @see CsvRowView
+	 */
+	public <RH extends CheckedConsumer<? super CsvRowView>> RH readView(RH consumer) throws IOException {
+		parseAll(new CsvRowViewCellConsumer(consumer));
+		return consumer;
+	}
+
+	public <RH extends CheckedConsumer<? super CsvRowView>> RH readView(RH consumer, int limit) throws IOException {
+		parseRows(new CsvRowViewCellConsumer(consumer), limit);
+		return consumer;
+	}
+
 	private CellConsumer toCellConsumer(CheckedConsumer<String[]> consumer) {
 		return StringArrayCellConsumer.newInstance(consumer);
 	}
@@ -128,15 +163,37 @@ public final class CsvReader implements Iterable<String[]> {
 		return new CsvRowArrayIterator(this);
 	}
 
+	public int splitBatchSize() {
+		return splitBatchSize;
+	}
+
+	public long sizeHint() {
+		return sizeHint;
+	}
+
+	/**
+	 * stop the read ahead of the content if any, the reader the content comes from is not closed.
+	 * A parse that stops before the end of the content needs to close the CsvReader.
+	 */
+	public void close() {
+		consumer.close();
+	}
+
+	/**
+	 * The stream splits by handing out batches of parsed rows, each split parses up to splitBatchSize rows
+	 * so that the downstream stages of a parallel stream can run on the batches concurrently.
+	 * @return a stream of String[]
+	 */
 	//IFJAVA8_START
 	public Stream<String[]> stream() {
-		return StreamSupport.stream(new CsvStringArraySpliterator(this), false);
+		return StreamSupport.stream(new CsvStringArraySpliterator(this), false).onClose(this::close);
 	}
 
-	private static class CsvStringArraySpliterator implements Spliterator<String[]> {
+	private static class CsvStringArraySpliterator extends BatchingCsvSpliterator<String[]> {
 		private final CsvReader reader;
 
 		public CsvStringArraySpliterator(CsvReader csvReader) {
+			super(csvReader);
 			this.reader = csvReader;
 		}
 
@@ -157,33 +214,19 @@ public final class CsvReader implements Iterable<String[]> {
                 ErrorHelper.rethrow(e);
 			}
 		}
-
-		@Override
-		public Spliterator<String[]> trySplit() {
-			return null;
-		}
-
-		@Override
-		public long estimateSize() {
-			return Long.MAX_VALUE;
-		}
-
-		@Override
-		public int characteristics() {
-			return Spliterator.ORDERED | Spliterator.NONNULL;
-		}
 	}
 
 	public Stream<Row> rowStream() {
-		return StreamSupport.stream(new CsvRowSpliterator(this), false);
+		return StreamSupport.stream(new CsvRowSpliterator(this), false).onClose(this::close);
 	}
 
-	private static class CsvRowSpliterator implements Spliterator<Row> {
+	private static class CsvRowSpliterator extends BatchingCsvSpliterator<Row> {
 		private final CsvReader reader;
 		
 		private Row.Headers headers;
 
 		public CsvRowSpliterator(CsvReader csvReader) {
+			super(csvReader);
 			this.reader = csvReader;
 		}
 
@@ -210,23 +253,6 @@ public final class CsvReader implements Iterable<String[]> {
 				ErrorHelper.rethrow(e);
 			}
 		}
-
-		@Override
-		public Spliterator<Row> trySplit() {
-			return null;
-		}
-
-		@Override
-		public long estimateSize() {
-			return Long.MAX_VALUE;
-		}
-
-		@Override
-		public int characteristics() {
-			return Spliterator.ORDERED | Spliterator.NONNULL;
-		}
-		
-		
 	}
 	//IFJAVA8_END
 
@@ -0,0 +1,198 @@
+package org.simpleflatmapper.csv;
+
+import org.simpleflatmapper.csv.impl.cellreader.DoubleCellValueReaderImpl;
+
+import java.util.Arrays;
+
+/**
+ * Flyweight view on the current row, the same instance is reused for all the rows of the parse.
+ * <p>
+ * The cell content is copied in a reusable char array of the view, no String is created unless getString is called.
+ * The view and the CharSequence returned by getCell are only valid in the callback, they are overwritten by the next row.
+ */
+public final class CsvRowView {
+
+	private char[] chars = new char[256];
+	private int charsLength;
+
+	private int[] offsets = new int[8];
+	private int[] lengths = new int[8];
+	private int size;
+
+	private CellView[] cellViews = new CellView[8];
+
+	CsvRowView() {
+	}
+
+	void addCell(char[] buffer, int offset, int length) {
+		ensureCellCapacity();
+		ensureCharCapacity(length);
+		System.arraycopy(buffer, offset, chars, charsLength, length);
+		offsets[size] = charsLength;
+		lengths[size] = length;
+		charsLength += length;
+		size++;
+	}
+
+	void reset() {
+		size = 0;
+		charsLength = 0;
+	}
+
+	private void ensureCellCapacity() {
+		if (size >= offsets.length) {
+			int newLength = offsets.length * 2;
+			offsets = Arrays.copyOf(offsets, newLength);
+			lengths = Arrays.copyOf(lengths, newLength);
+			cellViews = Arrays.copyOf(cellViews, newLength);
+		}
+	}
+
+	private void ensureCharCapacity(int length) {
+		int required = charsLength + length;
+		if (required > chars.length) {
+			chars = Arrays.copyOf(chars, Math.max(required, chars.length * 2));
+		}
+	}
+
+	/**
+	 * @return the number of cells in the row
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param i the index of the cell
+	 * @return a CharSequence on the content of the cell, reused for the following rows
+	 */
+	public CharSequence getCell(int i) {
+		checkIndex(i);
+		CellView cellView = cellViews[i];
+		if (cellView == null) {
+			cellView = new CellView(i);
+			cellViews[i] = cellView;
+		}
+		return cellView;
+	}
+
+	public String getString(int i) {
+		checkIndex(i);
+		return new String(chars, offsets[i], lengths[i]);
+	}
+
+	public int length(int i) {
+		checkIndex(i);
+		return lengths[i];
+	}
+
+	public boolean isEmpty(int i) {
+		return length(i) == 0;
+	}
+
+	public int getInt(int i) {
+		long l = getLong(i);
+		if (l < Integer.MIN_VALUE || l > Integer.MAX_VALUE) {
+			throw new NumberFormatException("For input string: \"" + getString(i) + "\"");
+		}
+		return (int) l;
+	}
+
+	public long getLong(int i) {
+		checkIndex(i);
+		return parseLong(chars, offsets[i], lengths[i]);
+	}
+
+	public double getDouble(int i) {
+		checkIndex(i);
+		return DoubleCellValueReaderImpl.parseDouble(chars, offsets[i], lengths[i]);
+	}
+
+	public String[] toStringArray() {
+		String[] values = new String[size];
+		for(int i = 0; i < size; i++) {
+			values[i] = new String(chars, offsets[i], lengths[i]);
+		}
+		return values;
+	}
+
+	private void checkIndex(int i) {
+		if (i < 0 || i >= size) {
+			throw new IndexOutOfBoundsException("Index " + i + " size " + size);
+		}
+	}
+
+	private static long parseLong(char[] chars, int offset, int length) {
+		if (length == 0) {
+			throw new NumberFormatException("For input string: \"\"");
+		}
+		int end = offset + length;
+		int i = offset;
+		boolean negative = false;
+		char first = chars[i];
+		if (first == '-' || first == '+') {
+			negative = first == '-';
+			i++;
+			if (i == end) {
+				throw numberFormatException(chars, offset, length);
+			}
+		}
+
+		// accumulate negatively to handle Long.MIN_VALUE
+		long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		long multMin = limit / 10;
+		long result = 0;
+		for(; i < end; i++) {
+			int digit = chars[i] - '0';
+			if (digit < 0 || digit > 9 || result < multMin) {
+				throw numberFormatException(chars, offset, length);
+			}
+			result *= 10;
+			if (result < limit + digit) {
+				throw numberFormatException(chars, offset, length);
+			}
+			result -= digit;
+		}
+		return negative ? result : -result;
+	}
+
+	private static NumberFormatException numberFormatException(char[] chars, int offset, int length) {
+		return new NumberFormatException("For input string: \"" + new String(chars, offset, length) + "\"");
+	}
+
+	@Override
+	public String toString() {
+		return "CsvRowView{" + Arrays.toString(toStringArray()) + "}";
+	}
+
+	private final class CellView implements CharSequence {
+		private final int index;
+
+		private CellView(int index) {
+			this.index = index;
+		}
+
+		@Override
+		public int length() {
+			return lengths[index];
+		}
+
+		@Override
+		public char charAt(int i) {
+			if (i < 0 || i >= lengths[index]) {
+				throw new IndexOutOfBoundsException("Index " + i + " length " + lengths[index]);
+			}
+			return chars[offsets[index] + i];
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return toString().subSequence(start, end);
+		}
+
+		@Override
+		public String toString() {
+			return new String(chars, offsets[index], lengths[index]);
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package org.simpleflatmapper.csv;
+
+import org.simpleflatmapper.csv.parser.CellConsumer;
+import org.simpleflatmapper.util.CheckedConsumer;
+import org.simpleflatmapper.util.ErrorHelper;
+
+final class CsvRowViewCellConsumer implements CellConsumer {
+
+	private final CheckedConsumer<? super CsvRowView> handler;
+	private final CsvRowView rowView = new CsvRowView();
+
+	CsvRowViewCellConsumer(CheckedConsumer<? super CsvRowView> handler) {
+		this.handler = handler;
+	}
+
+	@Override
+	public void newCell(char[] chars, int offset, int length) {
+		rowView.addCell(chars, offset, length);
+	}
+
+	@Override
+	public boolean endOfRow() {
+		try {
+			handler.accept(rowView);
+		} catch (Exception e) {
+			ErrorHelper.rethrow(e);
+		} finally {
+			rowView.reset();
+		}
+		return true;
+	}
+
+	@Override
+	public void end() {
+		if (rowView.size() > 0) {
+			endOfRow();
+		}
+	}
+}
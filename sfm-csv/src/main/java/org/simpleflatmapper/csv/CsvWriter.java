@@ -3,7 +3,9 @@ package org.simpleflatmapper.csv;
 import org.simpleflatmapper.converter.Converter;
 import org.simpleflatmapper.converter.ConverterService;
 import org.simpleflatmapper.converter.ToStringConverter;
+import org.simpleflatmapper.csv.impl.writer.CharBufferAppendable;
 import org.simpleflatmapper.csv.impl.writer.CsvCellWriter;
+import org.simpleflatmapper.csv.impl.writer.Utf8ByteBufferAppendable;
 import org.simpleflatmapper.csv.mapper.FieldMapperToAppendableFactory;
 import org.simpleflatmapper.map.FieldMapper;
 import org.simpleflatmapper.map.Mapper;
@@ -26,12 +28,20 @@ import org.simpleflatmapper.util.Predicate;
 import org.simpleflatmapper.util.TypeHelper;
 import org.simpleflatmapper.util.TypeReference;
 
+import java.io.Closeable;
+import java.io.Flushable;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
 import java.lang.reflect.Type;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
 import java.text.Format;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * A CsvWriter allows the caller to write object of type T to an appendable in a specified format. See {@link CsvWriter#from(Class)} to create one.
@@ -44,6 +54,21 @@ import java.util.List;
  *     csvWriter.append(obj1).append(obj2);<br>
  * </code>
  * <br>
+ * To write a large number of rows use one of the buffered targets, the rows are written in a char buffer - the int,
+ * long and double values formatted without creating a String - and the buffer is written in bulk to the output.
+ * The writer must then be flushed or closed.
+ * <br>
+ * <code>
+ *     CsvWriter csvWriter = CsvWriter.from(MyObject.class).toBuffered(myWriter);<br>
+ *     csvWriter.append(obj1).append(obj2).close();<br>
+ * </code>
+ * <br>
+ * or write UTF-8 directly in a byte buffer, without going through an OutputStreamWriter.
+ * <br>
+ * <code>
+ *     CsvWriter csvWriter = CsvWriter.from(MyObject.class).toUtf8(new GZIPOutputStream(myOutputStream));<br>
+ * </code>
+ * <br>
  * You can deactivate that by calling {@link CsvWriter.CsvWriterDSL#skipHeaders()}
  * <br>
  * <code>
@@ -64,7 +89,7 @@ import java.util.List;
  *
  * @param <T> the type of object to write
  */
-public class CsvWriter<T>  {
+public class CsvWriter<T> implements Flushable, Closeable {
 
     private final Mapper<T, Appendable> mapper;
     private final Appendable appendable;
@@ -91,6 +116,28 @@ public class CsvWriter<T>  {
         return this;
     }
 
+    /**
+     * flush the underlying appendable if it is {@link Flushable}.
+     * @throws IOException If an I/O error occurs
+     */
+    @Override
+    public void flush() throws IOException {
+        if (appendable instanceof Flushable) {
+            ((Flushable) appendable).flush();
+        }
+    }
+
+    /**
+     * close the underlying appendable if it is {@link Closeable}.
+     * @throws IOException If an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (appendable instanceof Closeable) {
+            ((Closeable) appendable).close();
+        }
+    }
+
     /**
      * Create a DSL on the specified type.
      * @param type the type of object to write
@@ -268,6 +315,146 @@ public class CsvWriter<T>  {
             return new CsvWriter<T>(mapper, appendable, mapper.newMappingContext());
         }
 
+        /**
+         * Create a writer on the specified writer for the type T, writing through a char buffer.
+         * The CsvWriter needs to be flushed or closed.
+         * @param writer the writer to write to
+         * @return a CsvWriter on the specified writer
+         * @throws IOException If an I/O error occurs
+         * @see CharBufferAppendable
+         */
+        public CsvWriter<T> toBuffered(Writer writer) throws IOException {
+            return to(CharBufferAppendable.of(writer));
+        }
+
+        /**
+         * Create a writer on the specified outputStream for the type T, writing through a char buffer encoded in bulk.
+         * The CsvWriter needs to be flushed or closed.
+         * @param outputStream the outputStream to write to
+         * @param charset the charset of the output
+         * @return a CsvWriter on the specified outputStream
+         * @throws IOException If an I/O error occurs
+         * @see CharBufferAppendable
+         */
+        public CsvWriter<T> toBuffered(OutputStream outputStream, Charset charset) throws IOException {
+            return to(CharBufferAppendable.of(outputStream, charset));
+        }
+
+        /**
+         * Create a writer on the specified channel for the type T, writing through a char buffer encoded in bulk.
+         * The CsvWriter needs to be flushed or closed.
+         * @param channel the channel to write to
+         * @param charset the charset of the output
+         * @return a CsvWriter on the specified channel
+         * @throws IOException If an I/O error occurs
+         * @see CharBufferAppendable
+         */
+        public CsvWriter<T> toBuffered(WritableByteChannel channel, Charset charset) throws IOException {
+            return to(CharBufferAppendable.of(channel, charset));
+        }
+
+        /**
+         * Create a writer on the specified outputStream for the type T, encoding the chars in UTF-8 directly in a byte
+         * buffer. The CsvWriter needs to be flushed or closed.
+         * @param outputStream the outputStream to write to
+         * @return a CsvWriter on the specified outputStream
+         * @throws IOException If an I/O error occurs
+         * @see Utf8ByteBufferAppendable
+         */
+        public CsvWriter<T> toUtf8(OutputStream outputStream) throws IOException {
+            return to(Utf8ByteBufferAppendable.of(outputStream));
+        }
+
+        /**
+         * Create a writer on the specified channel for the type T, encoding the chars in UTF-8 directly in a byte
+         * buffer. The CsvWriter needs to be flushed or closed.
+         * @param channel the channel to write to
+         * @return a CsvWriter on the specified channel
+         * @throws IOException If an I/O error occurs
+         * @see Utf8ByteBufferAppendable
+         */
+        public CsvWriter<T> toUtf8(WritableByteChannel channel) throws IOException {
+            return to(Utf8ByteBufferAppendable.of(channel));
+        }
+
+        /**
+         * Create a writer on the specified channel for the type T, encoding the chars in UTF-8 directly in nbBuffers
+         * byte buffers written with one gathering write. The CsvWriter needs to be flushed or closed.
+         * @param channel the channel to write to, ie a FileChannel
+         * @param bufferSize the size of each buffer
+         * @param nbBuffers the number of buffers
+         * @return a CsvWriter on the specified channel
+         * @throws IOException If an I/O error occurs
+         * @see Utf8ByteBufferAppendable
+         */
+        public CsvWriter<T> toUtf8(GatheringByteChannel channel, int bufferSize, int nbBuffers) throws IOException {
+            return to(Utf8ByteBufferAppendable.of(channel, bufferSize, nbBuffers));
+        }
+
+        /**
+         * Create a parallel writer on the specified writer for the type T, formatting batches of
+         * {@link ParallelCsvWriter#DEFAULT_BATCH_SIZE} rows on the executor.
+         * @param writer the writer to write to
+         * @param executor the executor formatting the batches
+         * @return a ParallelCsvWriter on the specified writer
+         * @throws IOException If an I/O error occurs
+         * @see ParallelCsvWriter
+         */
+        public ParallelCsvWriter<T> toParallel(Writer writer, Executor executor) throws IOException {
+            return toParallel(writer, executor, ParallelCsvWriter.DEFAULT_BATCH_SIZE, ParallelCsvWriter.defaultMaxInFlightBatches());
+        }
+
+        /**
+         * Create a parallel writer on the specified writer for the type T, formatting batches of batchSize rows on the
+         * executor, with at most maxInFlightBatches batches in memory.
+         * @param writer the writer to write to
+         * @param executor the executor formatting the batches
+         * @param batchSize the number of rows per batch
+         * @param maxInFlightBatches the maximum number of batches formatted or waiting to be written
+         * @return a ParallelCsvWriter on the specified writer
+         * @throws IOException If an I/O error occurs
+         * @see ParallelCsvWriter
+         */
+        public ParallelCsvWriter<T> toParallel(Writer writer, Executor executor, int batchSize, int maxInFlightBatches) throws IOException {
+            if (!skipHeaders) {
+                addHeaders(writer);
+            }
+            return new ParallelCsvWriter<T>(mapper, ParallelCsvWriter.charsTo(writer), executor, batchSize, maxInFlightBatches);
+        }
+
+        /**
+         * Create a parallel writer on the specified outputStream for the type T, formatting batches of
+         * {@link ParallelCsvWriter#DEFAULT_BATCH_SIZE} rows in UTF-8 on the executor.
+         * @param outputStream the outputStream to write to
+         * @param executor the executor formatting the batches
+         * @return a ParallelCsvWriter on the specified outputStream
+         * @throws IOException If an I/O error occurs
+         * @see ParallelCsvWriter
+         */
+        public ParallelCsvWriter<T> toParallelUtf8(OutputStream outputStream, Executor executor) throws IOException {
+            return toParallelUtf8(outputStream, executor, ParallelCsvWriter.DEFAULT_BATCH_SIZE, ParallelCsvWriter.defaultMaxInFlightBatches());
+        }
+
+        /**
+         * Create a parallel writer on the specified outputStream for the type T, formatting batches of batchSize rows
+         * in UTF-8 on the executor, with at most maxInFlightBatches batches in memory.
+         * @param outputStream the outputStream to write to
+         * @param executor the executor formatting the batches
+         * @param batchSize the number of rows per batch
+         * @param maxInFlightBatches the maximum number of batches formatted or waiting to be written
+         * @return a ParallelCsvWriter on the specified outputStream
+         * @throws IOException If an I/O error occurs
+         * @see ParallelCsvWriter
+         */
+        public ParallelCsvWriter<T> toParallelUtf8(OutputStream outputStream, Executor executor, int batchSize, int maxInFlightBatches) throws IOException {
+            if (!skipHeaders) {
+                Utf8ByteBufferAppendable headers = Utf8ByteBufferAppendable.of(outputStream);
+                addHeaders(headers);
+                headers.flush();
+            }
+            return new ParallelCsvWriter<T>(mapper, ParallelCsvWriter.utf8To(outputStream), executor, batchSize, maxInFlightBatches);
+        }
+
         private void addHeaders(Appendable appendable) throws IOException {
             for(int i = 0; i < columns.length; i++) {
                 if (i != 0) {
@@ -452,6 +639,16 @@ public class CsvWriter<T>  {
         public CsvWriter<T> to(Appendable appendable) throws IOException {
             throw new IllegalStateException("No column defined");
         }
+
+        @Override
+        public ParallelCsvWriter<T> toParallel(Writer writer, Executor executor, int batchSize, int maxInFlightBatches) throws IOException {
+            throw new IllegalStateException("No column defined");
+        }
+
+        @Override
+        public ParallelCsvWriter<T> toParallelUtf8(OutputStream outputStream, Executor executor, int batchSize, int maxInFlightBatches) throws IOException {
+            throw new IllegalStateException("No column defined");
+        }
         protected NoColumnCsvWriterDSL<T> newCsvWriterDSL(Column[] columns,
                                                   CellWriter cellWriter,
                                                   ContextualMapper<T, Appendable> mapper, ClassMeta<T> classMeta,
@@ -0,0 +1,353 @@
+package org.simpleflatmapper.csv;
+
+import org.simpleflatmapper.csv.impl.writer.CharBufferAppendable;
+import org.simpleflatmapper.csv.impl.writer.PrimitiveAppendable;
+import org.simpleflatmapper.csv.impl.writer.Utf8ByteBufferAppendable;
+import org.simpleflatmapper.map.MappingContext;
+import org.simpleflatmapper.map.mapper.ContextualMapper;
+import org.simpleflatmapper.util.ErrorHelper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * A CsvWriter formatting the rows by batch on an executor, each batch in its own buffer with its own mapping context,
+ * the batches are written to the output in the order the rows were appended.
+ * See {@link CsvWriter.CsvWriterDSL#toParallel(Writer, Executor, int, int)} to create one.
+ * <p>
+ * At most maxInFlightBatches batches are formatted or waiting to be written at the same time, {@link #append(Object)}
+ * blocks until a batch is written, which bounds the memory to about maxInFlightBatches buffers of batchSize rows.
+ * <p>
+ * The appended values must not be modified until they are written. append is not thread safe, the rows have to be
+ * appended by one thread at a time. A formatting or output error is rethrown by the next call to append, flush or
+ * close.
+ * <br>
+ * <code>
+ *     ParallelCsvWriter&lt;MyObject&gt; csvWriter = CsvWriter.from(MyObject.class).toParallel(myWriter, executor, 1000, 16);<br>
+ *     for(MyObject obj : objs) csvWriter.append(obj);<br>
+ *     csvWriter.close();<br>
+ * </code>
+ *
+ * @param <T> the type of object to write
+ */
+public final class ParallelCsvWriter<T> implements Flushable, Closeable {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final ContextualMapper<T, Appendable> mapper;
+    private final Output output;
+    private final Executor executor;
+    private final int batchSize;
+    private final Semaphore inFlight;
+    private final ConcurrentLinkedQueue<Buffer> buffers = new ConcurrentLinkedQueue<Buffer>();
+
+    private List<T> batch;
+    private long nextSequence;
+
+    // guarded by this
+    private final Map<Long, Buffer> formatted = new HashMap<Long, Buffer>();
+    private long nextToWrite;
+
+    private volatile Throwable error;
+
+    ParallelCsvWriter(ContextualMapper<T, Appendable> mapper, Output output, Executor executor, int batchSize, int maxInFlightBatches) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Invalid batchSize " + batchSize);
+        }
+        if (maxInFlightBatches < 1) {
+            throw new IllegalArgumentException("Invalid maxInFlightBatches " + maxInFlightBatches);
+        }
+        this.mapper = mapper;
+        this.output = output;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.inFlight = new Semaphore(maxInFlightBatches);
+        this.batch = new ArrayList<T>(batchSize);
+    }
+
+    /**
+     * default number of batches in flight, twice the number of processors.
+     * @return the default number of batches in flight
+     */
+    public static int defaultMaxInFlightBatches() {
+        return 2 * Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * add the value to the current batch, submit the batch when full.
+     * @param value the value to write
+     * @return the current writer
+     * @throws IOException If a previous batch failed
+     */
+    public ParallelCsvWriter<T> append(T value) throws IOException {
+        checkError();
+        batch.add(value);
+        if (batch.size() >= batchSize) {
+            submitBatch();
+        }
+        return this;
+    }
+
+    private void submitBatch() throws IOException {
+        checkError();
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ErrorHelper.rethrow(e);
+        }
+        BatchTask task = new BatchTask(nextSequence++, batch);
+        batch = new ArrayList<T>(batchSize);
+        try {
+            executor.execute(task);
+        } catch (RuntimeException e) {
+            failed(e);
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    /**
+     * submit the current batch, wait for all the batches to be written, and flush the output.
+     * @throws IOException If an I/O error occurs
+     */
+    @Override
+    public void flush() throws IOException {
+        submitBatch();
+        waitForAllWritten();
+        output.flush();
+    }
+
+    /**
+     * submit the current batch, wait for all the batches to be written, and close the output.
+     * @throws IOException If an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            submitBatch();
+            waitForAllWritten();
+        } finally {
+            output.close();
+        }
+    }
+
+    private synchronized void waitForAllWritten() throws IOException {
+        try {
+            while (nextToWrite < nextSequence && error == null) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ErrorHelper.rethrow(e);
+        }
+        checkError();
+    }
+
+    private void checkError() throws IOException {
+        if (error != null) {
+            ErrorHelper.rethrow(error);
+        }
+    }
+
+    private synchronized void failed(Throwable e) {
+        if (error == null) {
+            error = e;
+        }
+        notifyAll();
+    }
+
+    private Buffer takeBuffer() {
+        Buffer buffer = buffers.poll();
+        if (buffer == null) {
+            buffer = new Buffer(output.newBatchBuffer(), mapper.newMappingContext());
+        }
+        return buffer;
+    }
+
+    // write the formatted batches that are next in sequence, one thread at a time
+    private synchronized void formatted(long sequence, Buffer buffer) {
+        formatted.put(sequence, buffer);
+        Buffer next;
+        while ((next = formatted.remove(nextToWrite)) != null) {
+            try {
+                if (error == null) {
+                    next.batchBuffer.writeTo();
+                }
+            } catch (Throwable e) {
+                failed(e);
+            } finally {
+                next.batchBuffer.reset();
+                buffers.offer(next);
+                nextToWrite++;
+                inFlight.release();
+            }
+        }
+        notifyAll();
+    }
+
+    private final class BatchTask implements Runnable {
+        private final long sequence;
+        private final List<T> values;
+
+        private BatchTask(long sequence, List<T> values) {
+            this.sequence = sequence;
+            this.values = values;
+        }
+
+        @Override
+        public void run() {
+            Buffer buffer = takeBuffer();
+            try {
+                Appendable appendable = buffer.batchBuffer.appendable();
+                for (int i = 0; i < values.size(); i++) {
+                    mapper.mapTo(values.get(i), appendable, buffer.mappingContext);
+                }
+                buffer.batchBuffer.endOfBatch();
+            } catch (Throwable e) {
+                failed(e);
+            }
+            formatted(sequence, buffer);
+        }
+    }
+
+    private final class Buffer {
+        private final BatchBuffer batchBuffer;
+        private final MappingContext<T> mappingContext;
+
+        private Buffer(BatchBuffer batchBuffer, MappingContext<T> mappingContext) {
+            this.batchBuffer = batchBuffer;
+            this.mappingContext = mappingContext;
+        }
+    }
+
+    static Output charsTo(Writer writer) {
+        return new WriterOutput(writer);
+    }
+
+    static Output utf8To(OutputStream outputStream) {
+        return new OutputStreamOutput(outputStream);
+    }
+
+    /**
+     * the output and the factory of the buffers the batches are formatted in.
+     */
+    interface Output {
+        BatchBuffer newBatchBuffer();
+        void flush() throws IOException;
+        void close() throws IOException;
+    }
+
+    interface BatchBuffer {
+        PrimitiveAppendable appendable();
+        void endOfBatch() throws IOException;
+        // write the batch to the output
+        void writeTo() throws IOException;
+        void reset();
+    }
+
+    private static final class WriterOutput implements Output {
+        private final Writer writer;
+
+        private WriterOutput(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public BatchBuffer newBatchBuffer() {
+            final CharArrayWriter chars = new CharArrayWriter(CharBufferAppendable.DEFAULT_BUFFER_SIZE);
+            final CharBufferAppendable appendable = CharBufferAppendable.of(chars);
+            return new BatchBuffer() {
+                @Override
+                public PrimitiveAppendable appendable() {
+                    return appendable;
+                }
+
+                @Override
+                public void endOfBatch() throws IOException {
+                    appendable.flush();
+                }
+
+                @Override
+                public void writeTo() throws IOException {
+                    chars.writeTo(writer);
+                }
+
+                @Override
+                public void reset() {
+                    chars.reset();
+                }
+            };
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    private static final class OutputStreamOutput implements Output {
+        private final OutputStream outputStream;
+
+        private OutputStreamOutput(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        public BatchBuffer newBatchBuffer() {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(Utf8ByteBufferAppendable.DEFAULT_BUFFER_SIZE);
+            final Utf8ByteBufferAppendable appendable = Utf8ByteBufferAppendable.of(bytes);
+            return new BatchBuffer() {
+                @Override
+                public PrimitiveAppendable appendable() {
+                    return appendable;
+                }
+
+                @Override
+                public void endOfBatch() throws IOException {
+                    appendable.flush();
+                }
+
+                @Override
+                public void writeTo() throws IOException {
+                    bytes.writeTo(outputStream);
+                }
+
+                @Override
+                public void reset() {
+                    bytes.reset();
+                }
+            };
+        }
+
+        @Override
+        public void flush() throws IOException {
+            outputStream.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            outputStream.close();
+        }
+    }
+}
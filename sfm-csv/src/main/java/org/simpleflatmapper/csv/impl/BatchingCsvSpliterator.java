@@ -0,0 +1,74 @@
+package org.simpleflatmapper.csv.impl;
+
+import org.simpleflatmapper.csv.CsvReader;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Base spliterator for the csv streams, splits by parsing a batch of up to splitBatchSize elements
+ * and handing it out as an array spliterator, the remaining content stays on this spliterator.
+ * <p>
+ * The estimate starts from the length of the content in chars, an upper bound of the number of rows.
+ * @param <T> the element type
+ */
+public abstract class BatchingCsvSpliterator<T> implements Spliterator<T> {
+
+	private final int batchSize;
+	private long estimatedSize;
+
+	protected BatchingCsvSpliterator(CsvReader csvReader) {
+		this(csvReader.splitBatchSize(), csvReader.sizeHint());
+	}
+
+	protected BatchingCsvSpliterator(int batchSize, long sizeHint) {
+		this.batchSize = batchSize;
+		this.estimatedSize = sizeHint;
+	}
+
+	@Override
+	public Spliterator<T> trySplit() {
+		if (batchSize <= 0) {
+			return null;
+		}
+		BatchCollector<T> collector = new BatchCollector<T>(batchSize);
+		while(collector.size < batchSize && tryAdvance(collector)) {
+		}
+
+		if (collector.size == 0) {
+			estimatedSize = 0;
+			return null;
+		}
+
+		if (estimatedSize != Long.MAX_VALUE) {
+			// keep at least one so the remaining content is still split on
+			estimatedSize = Math.max(estimatedSize - collector.size, 1);
+		}
+		return Spliterators.spliterator(collector.batch, 0, collector.size, characteristics());
+	}
+
+	@Override
+	public long estimateSize() {
+		return estimatedSize;
+	}
+
+	@Override
+	public int characteristics() {
+		return Spliterator.ORDERED | Spliterator.NONNULL;
+	}
+
+	private static final class BatchCollector<T> implements Consumer<T> {
+		private final Object[] batch;
+		private int size;
+
+		private BatchCollector(int batchSize) {
+			this.batch = new Object[batchSize];
+		}
+
+		@Override
+		public void accept(T t) {
+			batch[size++] = t;
+		}
+	}
+}
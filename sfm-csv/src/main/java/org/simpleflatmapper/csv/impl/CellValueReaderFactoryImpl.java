@@ -18,6 +18,7 @@ import java.util.Map;
 import java.util.UUID;
 
 import org.simpleflatmapper.util.TypeHelper;
+import org.simpleflatmapper.util.date.CompiledDatePattern;
 
 public final class CellValueReaderFactoryImpl implements CellValueReaderFactory {
 
@@ -58,7 +59,9 @@ public final class CellValueReaderFactoryImpl implements CellValueReaderFactory
 
 		if (propertyClass.equals(Date.class)) {
 			String[] patterns = columnDefinition.dateFormats();
-			if (patterns.length == 1) {
+			if (patterns.length == 1 && CompiledDatePattern.EPOCH_MILLIS.equals(patterns[0])) {
+				reader = (CellValueReader<P>) new EpochMillisDateCellValueReader();
+			} else if (patterns.length == 1) {
 				DateCellValueReader dateCellValueReader = new DateCellValueReader(index, patterns[0], columnDefinition.getTimeZone());
 				reader = (CellValueReader<P>) dateCellValueReader;
 				parsingContextFactoryBuilder.addParsingContextProvider(index, dateCellValueReader);
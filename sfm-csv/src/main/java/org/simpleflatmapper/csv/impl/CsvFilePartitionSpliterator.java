@@ -0,0 +1,155 @@
+package org.simpleflatmapper.csv.impl;
+
+import org.simpleflatmapper.util.ErrorHelper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over a range of partitions of a csv file, split by halving the range of partitions
+ * so that the encounter order of the file is preserved.
+ * @param <T> the element type
+ */
+public final class CsvFilePartitionSpliterator<T> implements Spliterator<T>, Closeable {
+
+	private final CsvFilePartitions partitions;
+	private final PartitionSpliteratorFactory<T> factory;
+	private final List<Closeable> openReaders;
+
+	private int current;
+	private final int end;
+
+	private Reader currentReader;
+	private Spliterator<T> currentSpliterator;
+
+	public CsvFilePartitionSpliterator(CsvFilePartitions partitions, PartitionSpliteratorFactory<T> factory) {
+		this(partitions, factory, new ArrayList<Closeable>(), 0, partitions.size());
+	}
+
+	private CsvFilePartitionSpliterator(CsvFilePartitions partitions, PartitionSpliteratorFactory<T> factory, List<Closeable> openReaders, int start, int end) {
+		this.partitions = partitions;
+		this.factory = factory;
+		this.openReaders = openReaders;
+		this.current = start;
+		this.end = end;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		while(nextPartition()) {
+			if (currentSpliterator.tryAdvance(action)) {
+				return true;
+			}
+			closeCurrent();
+		}
+		return false;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super T> action) {
+		while(nextPartition()) {
+			currentSpliterator.forEachRemaining(action);
+			closeCurrent();
+		}
+	}
+
+	private boolean nextPartition() {
+		if (currentSpliterator != null) {
+			return true;
+		}
+		if (current >= end) {
+			return false;
+		}
+		try {
+			currentReader = partitions.newReader(current);
+			register(currentReader);
+			currentSpliterator = factory.newSpliterator(currentReader);
+			current++;
+			return true;
+		} catch (IOException e) {
+			return ErrorHelper.rethrow(e);
+		}
+	}
+
+	private void closeCurrent() {
+		Reader reader = currentReader;
+		currentReader = null;
+		currentSpliterator = null;
+		unregister(reader);
+		try {
+			reader.close();
+		} catch (IOException e) {
+			// ignore
+		}
+	}
+
+	private void register(Closeable closeable) {
+		synchronized (openReaders) {
+			openReaders.add(closeable);
+		}
+	}
+
+	private void unregister(Closeable closeable) {
+		synchronized (openReaders) {
+			openReaders.remove(closeable);
+		}
+	}
+
+	@Override
+	public Spliterator<T> trySplit() {
+		if (currentSpliterator != null) {
+			return null;
+		}
+		int nb = end - current;
+		if (nb <= 1) {
+			return null;
+		}
+		int mid = current + nb / 2;
+		CsvFilePartitionSpliterator<T> prefix = new CsvFilePartitionSpliterator<T>(partitions, factory, openReaders, current, mid);
+		current = mid;
+		return prefix;
+	}
+
+	@Override
+	public long estimateSize() {
+		// bytes left, good enough for the fork join to balance the splits
+		long size = 0;
+		for(int i = current; i < end; i++) {
+			size += partitions.length(i);
+		}
+		return currentSpliterator != null ? Math.max(size, 1) : size;
+	}
+
+	@Override
+	public int characteristics() {
+		return Spliterator.ORDERED | Spliterator.NONNULL;
+	}
+
+	/**
+	 * close the readers that are still open, shared between all the splits.
+	 */
+	@Override
+	public void close() {
+		List<Closeable> readers;
+		synchronized (openReaders) {
+			readers = new ArrayList<Closeable>(openReaders);
+			openReaders.clear();
+		}
+		for(Closeable reader : readers) {
+			try {
+				reader.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
+	public interface PartitionSpliteratorFactory<T> {
+		Spliterator<T> newSpliterator(Reader reader) throws IOException;
+	}
+}
@@ -0,0 +1,466 @@
+package org.simpleflatmapper.csv.impl;
+
+import org.simpleflatmapper.csv.parser.ByteBufferCharConsumer;
+import org.simpleflatmapper.csv.parser.TextFormat;
+import org.simpleflatmapper.util.ErrorHelper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Split a csv file in byte ranges that start on a row boundary so that each range can be parsed independently.
+ * <p>
+ * The boundaries are resolved in two passes. Each chunk of the file is scanned in parallel simulating the
+ * quote state machine of the {@link org.simpleflatmapper.csv.parser.CharConsumer} for every possible start state,
+ * recording the first row end and the end state for each of them. The actual state at the start of each chunk is
+ * then resolved sequentially from the start of the file, which selects the row boundary that is outside of a quoted area.
+ * <p>
+ * The header rows - skipped rows and/or the mapper headers - are replayed in front of each partition
+ * so that the partitions can be consumed by the same code path as a full file.
+ * <p>
+ * The split is only possible on ascii compatible charsets and without yaml comments, otherwise the file is
+ * returned as one partition.
+ */
+public final class CsvFilePartitions {
+
+	public static final int DEFAULT_MIN_PARTITION_SIZE = 1 << 20;
+
+	private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+
+	private static final int START = 0;
+	private static final int DATA = 1;
+	private static final int QUOTED = 2;
+	private static final int QUOTED_ESCAPED = 3;
+	private static final int AFTER_QUOTE = 4;
+	private static final int NB_STATES = 5;
+
+	private static final int LF = '\n';
+	private static final int CR = '\r';
+	private static final int SPACE = ' ';
+
+	private final File file;
+	private final Charset charset;
+	private final long headerEnd;
+	private final long[] boundaries;
+
+	private CsvFilePartitions(File file, Charset charset, long headerEnd, long[] boundaries) {
+		this.file = file;
+		this.charset = charset;
+		this.headerEnd = headerEnd;
+		this.boundaries = boundaries;
+	}
+
+	/**
+	 * @return the number of partitions
+	 */
+	public int size() {
+		return boundaries.length - 1;
+	}
+
+	/**
+	 * @param partition the partition index
+	 * @return the number of bytes of the partition excluding the header rows
+	 */
+	public long length(int partition) {
+		return boundaries[partition + 1] - boundaries[partition];
+	}
+
+	/**
+	 * @return the offsets of the partitions, partition i is [boundaries[i], boundaries[i + 1])
+	 */
+	public long[] boundaries() {
+		return Arrays.copyOf(boundaries, boundaries.length);
+	}
+
+	public long headerEnd() {
+		return headerEnd;
+	}
+
+	/**
+	 * Open a reader on the partition, the header rows are replayed before the partition content for all partitions but the first one.
+	 * @param partition the partition index
+	 * @return a reader on the partition that needs to be closed
+	 * @throws IOException if an error occurs opening the file
+	 */
+	public Reader newReader(int partition) throws IOException {
+		long prefixEnd = partition == 0 ? 0 : headerEnd;
+		return new InputStreamReader(new PartitionInputStream(file, prefixEnd, boundaries[partition], boundaries[partition + 1]), charset.newDecoder());
+	}
+
+	/**
+	 * Call the handler on each partition on the executor and wait for all of them to complete.
+	 * @param executor the executor
+	 * @param handler the handler
+	 * @throws IOException if an io error occurs in one of the partition
+	 */
+	public void forEach(Executor executor, final PartitionHandler handler) throws IOException {
+		List<FutureTask<Void>> tasks = new ArrayList<FutureTask<Void>>(size());
+		for(int i = 0; i < size(); i++) {
+			final int partition = i;
+			FutureTask<Void> task = new FutureTask<Void>(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					Reader reader = newReader(partition);
+					try {
+						handler.handle(reader, partition);
+					} finally {
+						try { reader.close(); } catch (IOException e) { /* ignore */ }
+					}
+					return null;
+				}
+			});
+			tasks.add(task);
+			if (i < size() - 1) {
+				executor.execute(task);
+			}
+		}
+		// run the last partition on the calling thread
+		tasks.get(tasks.size() - 1).run();
+		waitFor(tasks);
+	}
+
+	public interface PartitionHandler {
+		void handle(Reader reader, int partition) throws Exception;
+	}
+
+	/**
+	 * Split the file in up to nbPartitions partitions.
+	 * @param file the file
+	 * @param charset the charset of the file
+	 * @param textFormat the text format
+	 * @param ignoreLeadingSpace true if leading space are ignored
+	 * @param nbHeaderRows the number of rows to replay in front of each partition
+	 * @param nbPartitions the maximum number of partitions
+	 * @param minPartitionSize the minimum number of bytes in a partition
+	 * @param executor the executor used to scan the file
+	 * @return the partitions
+	 * @throws IOException if an error occurs reading the file
+	 */
+	public static CsvFilePartitions partition(File file,
+											  Charset charset,
+											  TextFormat textFormat,
+											  boolean ignoreLeadingSpace,
+											  int nbHeaderRows,
+											  int nbPartitions,
+											  int minPartitionSize,
+											  Executor executor) throws IOException {
+		long fileLength = file.length();
+
+		if (nbPartitions <= 1 || !isSplittable(charset, textFormat)) {
+			return singlePartition(file, charset, fileLength);
+		}
+
+		StateMachine stateMachine = new StateMachine(textFormat, ignoreLeadingSpace);
+
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+
+			long headerEnd = findHeaderEnd(channel, stateMachine, nbHeaderRows, fileLength);
+			if (headerEnd < 0) {
+				return singlePartition(file, charset, fileLength);
+			}
+
+			long dataLength = fileLength - headerEnd;
+			int nbChunks = (int) Math.max(1, Math.min(nbPartitions, dataLength / Math.max(1, minPartitionSize)));
+			if (nbChunks <= 1) {
+				return singlePartition(file, charset, fileLength);
+			}
+
+			ChunkScan[] scans = scanChunks(channel, stateMachine, headerEnd, fileLength, nbChunks, executor);
+
+			return new CsvFilePartitions(file, charset, headerEnd, resolveBoundaries(scans, fileLength));
+		} finally {
+			raf.close();
+		}
+	}
+
+	private static CsvFilePartitions singlePartition(File file, Charset charset, long fileLength) {
+		return new CsvFilePartitions(file, charset, 0, new long[] {0, fileLength});
+	}
+
+	public static boolean isSplittable(Charset charset, TextFormat textFormat) {
+		return !textFormat.yamlComment
+				&& ByteBufferCharConsumer.isSupported(charset, textFormat);
+	}
+
+	private static long[] resolveBoundaries(ChunkScan[] scans, long fileLength) {
+		long[] boundaries = new long[scans.length + 1];
+		int nbBoundaries = 0;
+		boundaries[nbBoundaries++] = 0;
+
+		int state = START;
+		for(int i = 0; i < scans.length; i++) {
+			ChunkScan scan = scans[i];
+			if (i > 0) {
+				long rowStart = scan.firstRowStart[state];
+				if (rowStart > boundaries[nbBoundaries - 1] && rowStart < fileLength) {
+					boundaries[nbBoundaries++] = rowStart;
+				}
+			}
+			state = scan.endState[state];
+		}
+
+		boundaries[nbBoundaries++] = fileLength;
+		return Arrays.copyOf(boundaries, nbBoundaries);
+	}
+
+	private static ChunkScan[] scanChunks(final FileChannel channel, final StateMachine stateMachine, long start, long end, int nbChunks, Executor executor) throws IOException {
+		long chunkSize = (end - start) / nbChunks;
+
+		List<FutureTask<ChunkScan>> tasks = new ArrayList<FutureTask<ChunkScan>>(nbChunks);
+		for(int i = 0; i < nbChunks; i++) {
+			final long chunkStart = start + i * chunkSize;
+			final long chunkEnd = i == nbChunks - 1 ? end : chunkStart + chunkSize;
+			FutureTask<ChunkScan> task = new FutureTask<ChunkScan>(new Callable<ChunkScan>() {
+				@Override
+				public ChunkScan call() throws Exception {
+					return scanChunk(channel, stateMachine, chunkStart, chunkEnd);
+				}
+			});
+			tasks.add(task);
+			if (i < nbChunks - 1) {
+				executor.execute(task);
+			}
+		}
+		tasks.get(nbChunks - 1).run();
+
+		List<ChunkScan> results = waitFor(tasks);
+		return results.toArray(new ChunkScan[0]);
+	}
+
+	private static <T> List<T> waitFor(List<FutureTask<T>> tasks) throws IOException {
+		List<T> results = new ArrayList<T>(tasks.size());
+		Throwable error = null;
+		for(FutureTask<T> task : tasks) {
+			try {
+				results.add(task.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				if (error == null) error = e;
+			} catch (ExecutionException e) {
+				if (error == null) error = e.getCause();
+			}
+		}
+		if (error != null) {
+			if (error instanceof IOException) {
+				throw (IOException) error;
+			}
+			return ErrorHelper.rethrow(error);
+		}
+		return results;
+	}
+
+	/*
+	 * Simulate the chunk for each of the possible start states until they converge.
+	 */
+	private static ChunkScan scanChunk(FileChannel channel, StateMachine stateMachine, long start, long end) throws IOException {
+		int[] states = new int[NB_STATES];
+		long[] firstRowStart = new long[NB_STATES];
+		for(int i = 0; i < NB_STATES; i++) {
+			states[i] = i;
+			firstRowStart[i] = -1;
+		}
+		boolean converged = false;
+		int nbRowStartMissing = NB_STATES;
+
+		ByteBuffer byteBuffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+		byte[] bytes = byteBuffer.array();
+		long position = start;
+		while(position < end) {
+			byteBuffer.clear();
+			byteBuffer.limit((int) Math.min(bytes.length, end - position));
+			int l = channel.read(byteBuffer, position);
+			if (l <= 0) break;
+
+			for(int i = 0; i < l; i++) {
+				int b = bytes[i] & 0xFF;
+				if (!converged) {
+					for (int h = 0; h < NB_STATES; h++) {
+						int state = states[h];
+						if (b == LF && firstRowStart[h] == -1 && isRowEnd(state)) {
+							firstRowStart[h] = position + i + 1;
+							nbRowStartMissing--;
+						}
+						states[h] = stateMachine.next(state, b);
+					}
+					converged = hasConverged(states);
+				} else {
+					int state = states[0];
+					if (nbRowStartMissing > 0 && b == LF && isRowEnd(state)) {
+						for (int h = 0; h < NB_STATES; h++) {
+							if (firstRowStart[h] == -1) {
+								firstRowStart[h] = position + i + 1;
+							}
+						}
+						nbRowStartMissing = 0;
+					}
+					state = stateMachine.next(state, b);
+					for (int h = 0; h < NB_STATES; h++) {
+						states[h] = state;
+					}
+				}
+			}
+			position += l;
+		}
+		return new ChunkScan(firstRowStart, states);
+	}
+
+	private static boolean hasConverged(int[] states) {
+		int state = states[0];
+		for(int h = 1; h < states.length; h++) {
+			if (states[h] != state) return false;
+		}
+		return true;
+	}
+
+	private static boolean isRowEnd(int state) {
+		return state != QUOTED && state != QUOTED_ESCAPED;
+	}
+
+	private static long findHeaderEnd(FileChannel channel, StateMachine stateMachine, int nbHeaderRows, long fileLength) throws IOException {
+		if (nbHeaderRows <= 0) {
+			return 0;
+		}
+		int nbRows = 0;
+		int state = START;
+		ByteBuffer byteBuffer = ByteBuffer.allocate(4096);
+		byte[] bytes = byteBuffer.array();
+		long position = 0;
+		while(position < fileLength) {
+			byteBuffer.clear();
+			int l = channel.read(byteBuffer, position);
+			if (l <= 0) break;
+			for(int i = 0; i < l; i++) {
+				int b = bytes[i] & 0xFF;
+				if (b == LF && isRowEnd(state)) {
+					nbRows++;
+					if (nbRows == nbHeaderRows) {
+						return position + i + 1;
+					}
+				}
+				state = stateMachine.next(state, b);
+			}
+			position += l;
+		}
+		return -1;
+	}
+
+	private static final class ChunkScan {
+		private final long[] firstRowStart;
+		private final int[] endState;
+
+		private ChunkScan(long[] firstRowStart, int[] endState) {
+			this.firstRowStart = firstRowStart;
+			this.endState = endState;
+		}
+	}
+
+	/*
+	 * Mirror of the CharConsumer transitions that affect where a row can end.
+	 */
+	private static final class StateMachine {
+		private final int separator;
+		private final int quote;
+		private final int escape;
+		private final boolean ignoreLeadingSpace;
+
+		private StateMachine(TextFormat textFormat, boolean ignoreLeadingSpace) {
+			this.separator = textFormat.separatorChar;
+			this.quote = textFormat.quoteChar;
+			this.escape = textFormat.escapeChar;
+			this.ignoreLeadingSpace = ignoreLeadingSpace;
+		}
+
+		int next(int state, int b) {
+			switch (state) {
+				case START:
+					if (b == separator || b == LF || b == CR) return START;
+					if (b == quote) return QUOTED;
+					if (ignoreLeadingSpace && b == SPACE) return START;
+					return DATA;
+				case DATA:
+					if (b == separator || b == LF || b == CR) return START;
+					return DATA;
+				case QUOTED:
+					if (b == quote) return AFTER_QUOTE;
+					if (b == escape) return QUOTED_ESCAPED;
+					return QUOTED;
+				case QUOTED_ESCAPED:
+					return QUOTED;
+				case AFTER_QUOTE:
+					if (b == separator || b == LF || b == CR) return START;
+					if (b == quote) return QUOTED;
+					return AFTER_QUOTE;
+				default:
+					throw new IllegalStateException("Unknown state " + state);
+			}
+		}
+	}
+
+	private static final class PartitionInputStream extends InputStream {
+		private final RandomAccessFile raf;
+		private final FileChannel channel;
+		private final long prefixEnd;
+		private final long start;
+		private final long end;
+		private long position;
+
+		private PartitionInputStream(File file, long prefixEnd, long start, long end) throws IOException {
+			this.raf = new RandomAccessFile(file, "r");
+			this.channel = raf.getChannel();
+			this.prefixEnd = prefixEnd;
+			this.start = start;
+			this.end = end;
+			this.position = prefixEnd > 0 ? 0 : start;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			int l = read(b, 0, 1);
+			return l <= 0 ? -1 : b[0] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (position < prefixEnd) {
+				return read(b, off, len, prefixEnd);
+			}
+			if (position < start) {
+				position = start;
+			}
+			if (position >= end) {
+				return -1;
+			}
+			return read(b, off, len, end);
+		}
+
+		private int read(byte[] b, int off, int len, long limit) throws IOException {
+			int l = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, limit - position)), position);
+			if (l > 0) {
+				position += l;
+			}
+			return l;
+		}
+
+		@Override
+		public void close() throws IOException {
+			raf.close();
+		}
+	}
+}
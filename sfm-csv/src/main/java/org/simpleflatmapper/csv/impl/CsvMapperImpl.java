@@ -130,12 +130,13 @@ public final class CsvMapperImpl<T> implements CsvMapper<T> {
 		return stream(CsvParser.skip(skip).reader(reader));
 	}
 
-    public class CsvSpliterator implements Spliterator<T> {
+    public class CsvSpliterator extends BatchingCsvSpliterator<T> {
 		private final CsvReader csvReader;
 		private final CellConsumer cellConsumer;
 		private T current;
 
 		public CsvSpliterator(CsvReader csvReader) {
+			super(csvReader);
 			this.csvReader = csvReader;
 			this.cellConsumer = newCellConsumer(new CheckedConsumer<T>() {
 				@Override
@@ -174,21 +175,6 @@ public final class CsvMapperImpl<T> implements CsvMapper<T> {
                 ErrorHelper.rethrow(e);
 			}
 		}
-
-		@Override
-		public Spliterator<T> trySplit() {
-			return null;
-		}
-
-		@Override
-		public long estimateSize() {
-			return Long.MAX_VALUE;
-		}
-
-		@Override
-		public int characteristics() {
-			return Spliterator.ORDERED | Spliterator.NONNULL;
-		}
 	}
 
 	//IFJAVA8_END
@@ -5,7 +5,8 @@ import org.simpleflatmapper.csv.parser.CellConsumer;
 import org.simpleflatmapper.map.MapperConfig;
 import org.simpleflatmapper.map.MappingException;
 import org.simpleflatmapper.map.mapper.ColumnDefinitionProvider;
-import org.simpleflatmapper.map.mapper.MapperCache;
+import org.simpleflatmapper.map.mapper.IMapperCache;
+import org.simpleflatmapper.map.mapper.MapperCacheFactory;
 import org.simpleflatmapper.map.mapper.MapperKey;
 import org.simpleflatmapper.reflect.meta.ClassMeta;
 import org.simpleflatmapper.util.CheckedConsumer;
@@ -34,8 +35,7 @@ public final class DynamicCsvMapper<T> implements CsvMapper<T> {
 
 	private final MapperConfig<CsvColumnKey, CsvColumnDefinition> mapperConfig;
 
-	private final MapperCache<CsvColumnKey, CsvMapperImpl<T>> mapperCache =
-			new MapperCache<CsvColumnKey, CsvMapperImpl<T>>(CsvColumnKeyMapperKeyComparator.INSTANCE);
+	private final IMapperCache<CsvColumnKey, CsvMapperImpl<T>> mapperCache;
 
 	public DynamicCsvMapper(final Type target,
 							final ClassMeta<T> classMeta,
@@ -43,11 +43,22 @@ public final class DynamicCsvMapper<T> implements CsvMapper<T> {
 							CellValueReaderFactory cellValueReaderFactory,
 							MapperConfig<CsvColumnKey, CsvColumnDefinition> mapperConfig
     ) {
+		this(target, classMeta, defaultDateFormat, cellValueReaderFactory, mapperConfig, MapperCacheFactory.SORTED);
+	}
+
+	public DynamicCsvMapper(final Type target,
+							final ClassMeta<T> classMeta,
+							String defaultDateFormat,
+							CellValueReaderFactory cellValueReaderFactory,
+							MapperConfig<CsvColumnKey, CsvColumnDefinition> mapperConfig,
+							MapperCacheFactory mapperCacheFactory
+	) {
 		this.classMeta = requireNonNull("classMeta", classMeta);
 		this.target = requireNonNull("target", target);
 		this.defaultDateFormat = defaultDateFormat;
 		this.mapperConfig = mapperConfig;
 		this.cellValueReaderFactory = cellValueReaderFactory;
+		this.mapperCache = mapperCacheFactory.<CsvColumnKey, CsvMapperImpl<T>>newCache(CsvColumnKeyMapperKeyComparator.INSTANCE);
 	}
 
 	public DynamicCsvMapper(Type target, ClassMeta<T> classMeta, ColumnDefinitionProvider<CsvColumnDefinition, CsvColumnKey> columnDefinitionProvider) {
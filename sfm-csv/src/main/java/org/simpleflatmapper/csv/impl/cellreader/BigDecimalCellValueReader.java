@@ -10,6 +10,6 @@ public class BigDecimalCellValueReader implements CellValueReader<BigDecimal> {
     @Override
     public BigDecimal read(char[] chars, int offset, int length, ParsingContext parsingContext) {
         if (length <= 0) return null;
-        return new BigDecimal(new String(chars, offset, length));
+        return new BigDecimal(chars, offset, length);
     }
 }
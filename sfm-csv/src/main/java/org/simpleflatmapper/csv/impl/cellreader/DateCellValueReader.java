@@ -4,6 +4,7 @@ import org.simpleflatmapper.csv.CellValueReader;
 import org.simpleflatmapper.csv.ParsingContext;
 import org.simpleflatmapper.csv.impl.ParsingException;
 import org.simpleflatmapper.map.ParsingContextProvider;
+import org.simpleflatmapper.util.date.CompiledDatePattern;
 
 import java.text.DateFormat;
 import java.text.ParseException;
@@ -17,19 +18,28 @@ public class DateCellValueReader implements CellValueReader<Date>, ParsingContex
 	
 	private final int index;
     private final SimpleDateFormat sdf;
+    private final CompiledDatePattern compiledPattern;
 	public DateCellValueReader(int index, String pattern, TimeZone timeZone) {
         this.index = index;
         this.sdf =  new SimpleDateFormat(pattern);
         this.sdf.setTimeZone(requireNonNull("timeZone", timeZone));
+        this.compiledPattern = CompiledDatePattern.compile(pattern);
 	}
 	
 	@Override
 	public Date read(char[] chars, int offset, int length, ParsingContext parsingContext) {
 		if (length == 0) return null;
 
+		DateFormat df = (DateFormat) parsingContext.getContext(index);
+		if (compiledPattern != null) {
+			long fields = compiledPattern.parse(chars, offset, length);
+			if (fields != CompiledDatePattern.INVALID) {
+				// the calendar of the format, set as the format does
+				return CompiledDatePattern.toDate(fields, df.getCalendar());
+			}
+		}
 		String str = new String(chars, offset, length);
 		try {
-			DateFormat df = (DateFormat) parsingContext.getContext(index);
 			return df.parse(str);
 		} catch (ParseException e) {
 			throw new ParsingException(e.getMessage());
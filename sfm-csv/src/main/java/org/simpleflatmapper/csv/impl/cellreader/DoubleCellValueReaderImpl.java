@@ -1,6 +1,7 @@
 package org.simpleflatmapper.csv.impl.cellreader;
 
 import org.simpleflatmapper.csv.ParsingContext;
+import org.simpleflatmapper.util.FloatingPointParser;
 
 public final class DoubleCellValueReaderImpl implements DoubleCellValueReader {
 
@@ -16,7 +17,7 @@ public final class DoubleCellValueReaderImpl implements DoubleCellValueReader {
 	}
 	public static double parseDouble(char[] chars, int offset, int length) {
         if (length == 0) return Double.NaN;
-        return Double.parseDouble(new String(chars, offset, length));
+        return FloatingPointParser.parseDouble(chars, offset, length);
 	}
 
     @Override
@@ -0,0 +1,29 @@
+package org.simpleflatmapper.csv.impl.cellreader;
+
+import org.simpleflatmapper.csv.CellValueReader;
+import org.simpleflatmapper.csv.ParsingContext;
+import org.simpleflatmapper.csv.impl.ParsingException;
+import org.simpleflatmapper.util.date.CompiledDatePattern;
+
+import java.util.Date;
+
+/**
+ * read the Date of the {@link CompiledDatePattern#EPOCH_MILLIS} pattern, a number of milliseconds since the epoch.
+ */
+public class EpochMillisDateCellValueReader implements CellValueReader<Date> {
+
+	@Override
+	public Date read(char[] chars, int offset, int length, ParsingContext parsingContext) {
+		if (length == 0) return null;
+		try {
+			return new Date(CompiledDatePattern.parseEpochMillis(chars, offset, length));
+		} catch (NumberFormatException e) {
+			throw new ParsingException(e.getMessage());
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "EpochMillisDateCellValueReader{}";
+	}
+}
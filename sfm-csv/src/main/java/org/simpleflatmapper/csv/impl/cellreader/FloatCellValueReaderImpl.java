@@ -1,6 +1,7 @@
 package org.simpleflatmapper.csv.impl.cellreader;
 
 import org.simpleflatmapper.csv.ParsingContext;
+import org.simpleflatmapper.util.FloatingPointParser;
 
 public final class FloatCellValueReaderImpl implements FloatCellValueReader {
 
@@ -17,7 +18,7 @@ public final class FloatCellValueReaderImpl implements FloatCellValueReader {
 	
 	public static float parseFloat(char[] chars, int offset, int length) {
         if (length == 0) return Float.NaN;
-		return Float.parseFloat(new String(chars, offset, length));
+		return FloatingPointParser.parseFloat(chars, offset, length);
 	}
 
     @Override
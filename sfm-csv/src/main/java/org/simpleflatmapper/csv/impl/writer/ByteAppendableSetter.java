@@ -6,13 +6,19 @@ import org.simpleflatmapper.reflect.primitive.ByteSetter;
 public class ByteAppendableSetter implements ByteSetter<Appendable> {
 
     private final CellWriter cellWriter;
+    private final CsvCellWriter csvCellWriter;
 
     public ByteAppendableSetter(CellWriter cellWriter) {
         this.cellWriter = cellWriter;
+        this.csvCellWriter = cellWriter instanceof CsvCellWriter ? (CsvCellWriter) cellWriter : null;
     }
 
     @Override
     public void setByte(Appendable target, byte value) throws Exception {
-        cellWriter.writeValue(Byte.toString(value), target);
+        if (csvCellWriter != null) {
+            csvCellWriter.writeInt(value, target);
+        } else {
+            cellWriter.writeValue(Byte.toString(value), target);
+        }
     }
 }
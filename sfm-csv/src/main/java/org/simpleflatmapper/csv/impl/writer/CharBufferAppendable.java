@@ -0,0 +1,302 @@
+package org.simpleflatmapper.csv.impl.writer;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Appendable writing into a char[] buffer, the buffer is written in bulk to the underlying Writer, OutputStream or
+ * WritableByteChannel when full, on flush and on close.
+ * <p>
+ * The primitive values are formatted directly in the buffer, see {@link PrimitiveAppendable}.
+ * <p>
+ * Not thread safe.
+ */
+public final class CharBufferAppendable implements PrimitiveAppendable, Flushable, Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final char[] buffer;
+    private final CharSink sink;
+    private int position;
+
+    private CharBufferAppendable(CharSink sink, int bufferSize) {
+        if (bufferSize < DecimalDigits.MAX_LENGTH) {
+            throw new IllegalArgumentException("Buffer size " + bufferSize + " lower than " + DecimalDigits.MAX_LENGTH);
+        }
+        this.sink = sink;
+        this.buffer = new char[bufferSize];
+    }
+
+    public static CharBufferAppendable of(Writer writer) {
+        return of(writer, DEFAULT_BUFFER_SIZE);
+    }
+
+    public static CharBufferAppendable of(Writer writer, int bufferSize) {
+        return new CharBufferAppendable(new WriterSink(writer), bufferSize);
+    }
+
+    public static CharBufferAppendable of(OutputStream outputStream, Charset charset) {
+        return of(outputStream, charset, DEFAULT_BUFFER_SIZE);
+    }
+
+    public static CharBufferAppendable of(OutputStream outputStream, Charset charset, int bufferSize) {
+        return new CharBufferAppendable(new OutputStreamSink(outputStream, charset, bufferSize), bufferSize);
+    }
+
+    public static CharBufferAppendable of(WritableByteChannel channel, Charset charset) {
+        return of(channel, charset, DEFAULT_BUFFER_SIZE);
+    }
+
+    public static CharBufferAppendable of(WritableByteChannel channel, Charset charset, int bufferSize) {
+        return new CharBufferAppendable(new ChannelSink(channel, charset, bufferSize), bufferSize);
+    }
+
+    @Override
+    public CharBufferAppendable append(CharSequence csq) throws IOException {
+        if (csq == null) {
+            return append("null");
+        }
+        return append(csq, 0, csq.length());
+    }
+
+    @Override
+    public CharBufferAppendable append(CharSequence csq, int start, int end) throws IOException {
+        if (csq == null) {
+            return append("null", start, end);
+        }
+        if (start < 0 || end > csq.length() || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + csq.length());
+        }
+        char[] buffer = this.buffer;
+        while (start < end) {
+            if (position == buffer.length) {
+                writeBuffer();
+            }
+            int l = Math.min(end - start, buffer.length - position);
+            if (csq instanceof String) {
+                ((String) csq).getChars(start, start + l, buffer, position);
+                position += l;
+            } else {
+                for (int i = start; i < start + l; i++) {
+                    buffer[position++] = csq.charAt(i);
+                }
+            }
+            start += l;
+        }
+        return this;
+    }
+
+    @Override
+    public CharBufferAppendable append(char c) throws IOException {
+        if (position == buffer.length) {
+            writeBuffer();
+        }
+        buffer[position++] = c;
+        return this;
+    }
+
+    @Override
+    public CharBufferAppendable appendInt(int value) throws IOException {
+        return appendLong(value);
+    }
+
+    @Override
+    public CharBufferAppendable appendLong(long value) throws IOException {
+        ensureCapacity(DecimalDigits.MAX_LENGTH);
+        position = DecimalDigits.putLong(value, buffer, position);
+        return this;
+    }
+
+    @Override
+    public CharBufferAppendable appendDouble(double value) throws IOException {
+        ensureCapacity(DecimalDigits.MAX_LENGTH);
+        int end = DecimalDigits.putDouble(value, buffer, position);
+        if (end == -1) {
+            return append(Double.toString(value));
+        }
+        position = end;
+        return this;
+    }
+
+    private void ensureCapacity(int length) throws IOException {
+        if (buffer.length - position < length) {
+            writeBuffer();
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        int consumed = sink.write(buffer, position);
+        int remaining = position - consumed;
+        if (remaining > 0) {
+            // chars the encoder needs more input for, ie a high surrogate
+            System.arraycopy(buffer, consumed, buffer, 0, remaining);
+        }
+        position = remaining;
+    }
+
+    /**
+     * write the buffer to the underlying output and flush it.
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void flush() throws IOException {
+        writeBuffer();
+        sink.flush();
+    }
+
+    /**
+     * write the buffer to the underlying output and close it.
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            writeBuffer();
+            sink.endOfInput();
+        } finally {
+            sink.close();
+        }
+    }
+
+    private interface CharSink {
+        // return the number of chars written
+        int write(char[] chars, int length) throws IOException;
+        void endOfInput() throws IOException;
+        void flush() throws IOException;
+        void close() throws IOException;
+    }
+
+    private static final class WriterSink implements CharSink {
+        private final Writer writer;
+
+        private WriterSink(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public int write(char[] chars, int length) throws IOException {
+            writer.write(chars, 0, length);
+            return length;
+        }
+
+        @Override
+        public void endOfInput() {
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    private static abstract class EncodingSink implements CharSink {
+        private final CharsetEncoder encoder;
+        protected final ByteBuffer bytes;
+
+        protected EncodingSink(Charset charset, int bufferSize) {
+            this.encoder = charset.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            this.bytes = ByteBuffer.allocate(Math.max(bufferSize, (int) Math.ceil(bufferSize * encoder.maxBytesPerChar())));
+        }
+
+        @Override
+        public int write(char[] chars, int length) throws IOException {
+            CharBuffer in = CharBuffer.wrap(chars, 0, length);
+            encode(in, false);
+            return in.position();
+        }
+
+        @Override
+        public void endOfInput() throws IOException {
+            encode(CharBuffer.allocate(0), true);
+            CoderResult result;
+            do {
+                result = encoder.flush(bytes);
+                writeBytes();
+            } while (result.isOverflow());
+        }
+
+        private void encode(CharBuffer in, boolean endOfInput) throws IOException {
+            CoderResult result;
+            do {
+                result = encoder.encode(in, bytes, endOfInput);
+                writeBytes();
+            } while (result.isOverflow());
+        }
+
+        private void writeBytes() throws IOException {
+            bytes.flip();
+            if (bytes.hasRemaining()) {
+                writeBytes(bytes);
+            }
+            bytes.clear();
+        }
+
+        protected abstract void writeBytes(ByteBuffer bytes) throws IOException;
+    }
+
+    private static final class OutputStreamSink extends EncodingSink {
+        private final OutputStream outputStream;
+
+        private OutputStreamSink(OutputStream outputStream, Charset charset, int bufferSize) {
+            super(charset, bufferSize);
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        protected void writeBytes(ByteBuffer bytes) throws IOException {
+            outputStream.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+        }
+
+        @Override
+        public void flush() throws IOException {
+            outputStream.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            outputStream.close();
+        }
+    }
+
+    private static final class ChannelSink extends EncodingSink {
+        private final WritableByteChannel channel;
+
+        private ChannelSink(WritableByteChannel channel, Charset charset, int bufferSize) {
+            super(charset, bufferSize);
+            this.channel = channel;
+        }
+
+        @Override
+        protected void writeBytes(ByteBuffer bytes) throws IOException {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -15,6 +15,7 @@ public final class CsvCellWriter implements CellWriter {
     private final char escape;
     private final String endOfLine;
     private final char[] specialCharacters;
+    private final boolean numbersNeedEscaping;
 
     public CsvCellWriter(char separator, char quote, char escape, boolean alwaysEscape, String endOfLine) {
         this.separator = separator;
@@ -23,6 +24,7 @@ public final class CsvCellWriter implements CellWriter {
         this.alwaysEscape = alwaysEscape;
         this.endOfLine = endOfLine;
         this.specialCharacters = (getSpecialCharacterForEndOfLine(endOfLine) + quote + separator).toCharArray();
+        this.numbersNeedEscaping = alwaysEscape || needsEscaping("0123456789-.");
     }
 
     private String getSpecialCharacterForEndOfLine(String endOfLine) {
@@ -41,6 +43,49 @@ public final class CsvCellWriter implements CellWriter {
         }
     }
 
+    /**
+     * write the int directly in the buffer of a {@link PrimitiveAppendable}, without creating a String.
+     * @param value the value
+     * @param appendable the appendable
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeInt(int value, Appendable appendable) throws IOException {
+        if (!numbersNeedEscaping && appendable instanceof PrimitiveAppendable) {
+            ((PrimitiveAppendable) appendable).appendInt(value);
+        } else {
+            writeValue(Integer.toString(value), appendable);
+        }
+    }
+
+    /**
+     * write the long directly in the buffer of a {@link PrimitiveAppendable}, without creating a String.
+     * @param value the value
+     * @param appendable the appendable
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeLong(long value, Appendable appendable) throws IOException {
+        if (!numbersNeedEscaping && appendable instanceof PrimitiveAppendable) {
+            ((PrimitiveAppendable) appendable).appendLong(value);
+        } else {
+            writeValue(Long.toString(value), appendable);
+        }
+    }
+
+    /**
+     * write the double directly in the buffer of a {@link PrimitiveAppendable}, without creating a String.
+     * @param value the value
+     * @param appendable the appendable
+     * @throws IOException if an I/O error occurs
+     * @see PrimitiveAppendable#appendDouble(double)
+     */
+    public void writeDouble(double value, Appendable appendable) throws IOException {
+        if (!numbersNeedEscaping && appendable instanceof PrimitiveAppendable) {
+            ((PrimitiveAppendable) appendable).appendDouble(value);
+        } else {
+            writeValue(Double.toString(value), appendable);
+        }
+    }
+
     private boolean needsEscaping(CharSequence sequence) {
         char[] specialCharacters = this.specialCharacters;
         for(int i = 0; i < sequence.length(); i++) {
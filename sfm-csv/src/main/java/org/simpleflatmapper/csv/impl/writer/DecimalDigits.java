@@ -0,0 +1,162 @@
+package org.simpleflatmapper.csv.impl.writer;
+
+/**
+ * Formatting of long and double in a char[] or a byte[], ASCII only, without creating a String.
+ * The caller ensures there is room for {@link #MAX_LENGTH} chars.
+ */
+final class DecimalDigits {
+
+    // longest long is 20 chars, longest double in decimal notation is 1 + 7 + 1 + 15
+    static final int MAX_LENGTH = 24;
+
+    // scales of the decimal notation of a double, the unscaled value stays below 1e15
+    private static final int MAX_DOUBLE_SCALE = 15;
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+    static {
+        long p = 1;
+        for (int i = 0; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = p;
+            p *= 10;
+        }
+    }
+
+    private static final String LONG_MIN_VALUE = Long.toString(Long.MIN_VALUE);
+
+    private DecimalDigits() {
+    }
+
+    static int putLong(long value, char[] buffer, int position) {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                LONG_MIN_VALUE.getChars(0, LONG_MIN_VALUE.length(), buffer, position);
+                return position + LONG_MIN_VALUE.length();
+            }
+            buffer[position++] = '-';
+            value = -value;
+        }
+        return putDigits(value, buffer, position);
+    }
+
+    static int putLong(long value, byte[] buffer, int position) {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                for (int i = 0; i < LONG_MIN_VALUE.length(); i++) {
+                    buffer[position++] = (byte) LONG_MIN_VALUE.charAt(i);
+                }
+                return position;
+            }
+            buffer[position++] = '-';
+            value = -value;
+        }
+        return putDigits(value, buffer, position);
+    }
+
+    /**
+     * put the double in decimal notation when its magnitude is between 1e-3 and 1e7, the range where
+     * {@link Double#toString(double)} does not use the scientific notation, with the fewest fraction digits that
+     * read back as the same double.
+     *
+     * @return the new position, -1 if the value has no such notation and nothing was put
+     */
+    static int putDouble(double value, char[] buffer, int position) {
+        double abs = Math.abs(value);
+        int scale = decimalScale(abs);
+        if (scale == -1) {
+            return -1;
+        }
+        if (Double.doubleToRawLongBits(value) < 0) {
+            buffer[position++] = '-';
+        }
+        long pow = POWERS_OF_TEN[scale];
+        long unscaled = Math.round(abs * pow);
+        position = putDigits(unscaled / pow, buffer, position);
+        buffer[position++] = '.';
+        if (scale == 0) {
+            buffer[position++] = '0';
+            return position;
+        }
+        long fraction = unscaled % pow;
+        for (int i = scale - 1; i > 0 && fraction < POWERS_OF_TEN[i]; i--) {
+            buffer[position++] = '0';
+        }
+        return putDigits(fraction, buffer, position);
+    }
+
+    /**
+     * @see #putDouble(double, char[], int)
+     */
+    static int putDouble(double value, byte[] buffer, int position) {
+        double abs = Math.abs(value);
+        int scale = decimalScale(abs);
+        if (scale == -1) {
+            return -1;
+        }
+        if (Double.doubleToRawLongBits(value) < 0) {
+            buffer[position++] = '-';
+        }
+        long pow = POWERS_OF_TEN[scale];
+        long unscaled = Math.round(abs * pow);
+        position = putDigits(unscaled / pow, buffer, position);
+        buffer[position++] = '.';
+        if (scale == 0) {
+            buffer[position++] = '0';
+            return position;
+        }
+        long fraction = unscaled % pow;
+        for (int i = scale - 1; i > 0 && fraction < POWERS_OF_TEN[i]; i--) {
+            buffer[position++] = '0';
+        }
+        return putDigits(fraction, buffer, position);
+    }
+
+    // the smallest scale for which the unscaled value reads back as abs, -1 if none
+    private static int decimalScale(double abs) {
+        if (abs == 0) {
+            return 0;
+        }
+        if (abs >= 1e-3 && abs < 1e7) {
+            for (int scale = 0; scale <= MAX_DOUBLE_SCALE; scale++) {
+                long pow = POWERS_OF_TEN[scale];
+                double scaled = abs * pow;
+                if (scaled >= 1e15) {
+                    break;
+                }
+                if (Math.round(scaled) / (double) pow == abs) {
+                    return scale;
+                }
+            }
+        }
+        return -1;
+    }
+
+    // value is positive
+    private static int putDigits(long value, char[] buffer, int position) {
+        int end = position + nbDigits(value);
+        int i = end;
+        do {
+            buffer[--i] = (char) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+        return end;
+    }
+
+    // value is positive
+    private static int putDigits(long value, byte[] buffer, int position) {
+        int end = position + nbDigits(value);
+        int i = end;
+        do {
+            buffer[--i] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+        return end;
+    }
+
+    private static int nbDigits(long value) {
+        int n = 1;
+        while (n < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[n]) {
+            n++;
+        }
+        return n;
+    }
+}
@@ -6,13 +6,19 @@ import org.simpleflatmapper.reflect.primitive.DoubleSetter;
 public class DoubleAppendableSetter implements DoubleSetter<Appendable> {
 
     private final CellWriter cellWriter;
+    private final CsvCellWriter csvCellWriter;
 
     public DoubleAppendableSetter(CellWriter cellWriter) {
         this.cellWriter = cellWriter;
+        this.csvCellWriter = cellWriter instanceof CsvCellWriter ? (CsvCellWriter) cellWriter : null;
     }
 
     @Override
     public void setDouble(Appendable target, double value) throws Exception {
-        cellWriter.writeValue(Double.toString(value), target);
+        if (csvCellWriter != null) {
+            csvCellWriter.writeDouble(value, target);
+        } else {
+            cellWriter.writeValue(Double.toString(value), target);
+        }
     }
 }
@@ -6,13 +6,19 @@ import org.simpleflatmapper.reflect.primitive.IntSetter;
 public class IntegerAppendableSetter implements IntSetter<Appendable> {
 
     private final CellWriter cellWriter;
+    private final CsvCellWriter csvCellWriter;
 
     public IntegerAppendableSetter(CellWriter cellWriter) {
         this.cellWriter = cellWriter;
+        this.csvCellWriter = cellWriter instanceof CsvCellWriter ? (CsvCellWriter) cellWriter : null;
     }
 
     @Override
     public void setInt(Appendable target, int value) throws Exception {
-        cellWriter.writeValue(Integer.toString(value), target);
+        if (csvCellWriter != null) {
+            csvCellWriter.writeInt(value, target);
+        } else {
+            cellWriter.writeValue(Integer.toString(value), target);
+        }
     }
 }
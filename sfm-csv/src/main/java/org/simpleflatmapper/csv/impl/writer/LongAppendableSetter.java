@@ -6,13 +6,19 @@ import org.simpleflatmapper.reflect.primitive.LongSetter;
 public class LongAppendableSetter implements LongSetter<Appendable> {
 
     private final CellWriter cellWriter;
+    private final CsvCellWriter csvCellWriter;
 
     public LongAppendableSetter(CellWriter cellWriter) {
         this.cellWriter = cellWriter;
+        this.csvCellWriter = cellWriter instanceof CsvCellWriter ? (CsvCellWriter) cellWriter : null;
     }
 
     @Override
     public void setLong(Appendable target, long value) throws Exception {
-        cellWriter.writeValue(Long.toString(value), target);
+        if (csvCellWriter != null) {
+            csvCellWriter.writeLong(value, target);
+        } else {
+            cellWriter.writeValue(Long.toString(value), target);
+        }
     }
 }
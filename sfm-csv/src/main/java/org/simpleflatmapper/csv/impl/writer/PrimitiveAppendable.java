@@ -0,0 +1,27 @@
+package org.simpleflatmapper.csv.impl.writer;
+
+import java.io.IOException;
+
+/**
+ * Appendable that formats the primitive values directly in its buffer, without creating a String.
+ *
+ * @see CharBufferAppendable
+ * @see Utf8ByteBufferAppendable
+ */
+public interface PrimitiveAppendable extends Appendable {
+
+    PrimitiveAppendable appendInt(int value) throws IOException;
+
+    PrimitiveAppendable appendLong(long value) throws IOException;
+
+    /**
+     * append the double in decimal notation when its magnitude is between 1e-3 and 1e7, the range where
+     * {@link Double#toString(double)} does not use the scientific notation, with the fewest fraction digits that
+     * read back as the same double. Falls back to {@link Double#toString(double)} otherwise.
+     *
+     * @param value the value
+     * @return this
+     * @throws IOException if the flush of the buffer fails
+     */
+    PrimitiveAppendable appendDouble(double value) throws IOException;
+}
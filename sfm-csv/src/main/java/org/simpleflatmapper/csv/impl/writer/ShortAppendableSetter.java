@@ -6,13 +6,19 @@ import org.simpleflatmapper.reflect.primitive.ShortSetter;
 public class ShortAppendableSetter implements ShortSetter<Appendable> {
 
     private final CellWriter cellWriter;
+    private final CsvCellWriter csvCellWriter;
 
     public ShortAppendableSetter(CellWriter cellWriter) {
         this.cellWriter = cellWriter;
+        this.csvCellWriter = cellWriter instanceof CsvCellWriter ? (CsvCellWriter) cellWriter : null;
     }
 
     @Override
     public void setShort(Appendable target, short value) throws Exception {
-        cellWriter.writeValue(Short.toString(value), target);
+        if (csvCellWriter != null) {
+            csvCellWriter.writeInt(value, target);
+        } else {
+            cellWriter.writeValue(Short.toString(value), target);
+        }
     }
 }
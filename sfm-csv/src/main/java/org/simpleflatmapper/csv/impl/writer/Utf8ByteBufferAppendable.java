@@ -0,0 +1,343 @@
+package org.simpleflatmapper.csv.impl.writer;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Appendable encoding the chars in UTF-8 directly into reusable byte buffers, ASCII chars are copied as is.
+ * The buffers are written in bulk to the underlying OutputStream - a GZIPOutputStream compresses them as they are
+ * written - or WritableByteChannel when full, on flush and on close.
+ * <p>
+ * On a GatheringByteChannel, like a FileChannel, the appendable can fill several buffers before writing them with
+ * one gathering write.
+ * <p>
+ * Unpaired surrogates are encoded as '?', as {@link String#getBytes(java.nio.charset.Charset)} does.
+ * The primitive values are formatted directly in the buffer, see {@link PrimitiveAppendable}.
+ * <p>
+ * Not thread safe.
+ */
+public final class Utf8ByteBufferAppendable implements PrimitiveAppendable, Flushable, Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    // the longest encoding of a char, 3 bytes, or of a surrogate pair, 4 bytes
+    private static final int MAX_CHAR_LENGTH = 4;
+
+    private final ByteBuffer[] buffers;
+    private final ByteSink sink;
+
+    private int current;
+    private byte[] buffer;
+    private int position;
+    private char highSurrogate;
+
+    private Utf8ByteBufferAppendable(ByteSink sink, int bufferSize, int nbBuffers) {
+        if (bufferSize < DecimalDigits.MAX_LENGTH) {
+            throw new IllegalArgumentException("Buffer size " + bufferSize + " lower than " + DecimalDigits.MAX_LENGTH);
+        }
+        if (nbBuffers < 1) {
+            throw new IllegalArgumentException("Invalid nbBuffers " + nbBuffers);
+        }
+        this.sink = sink;
+        this.buffers = new ByteBuffer[nbBuffers];
+        for (int i = 0; i < nbBuffers; i++) {
+            buffers[i] = ByteBuffer.allocate(bufferSize);
+        }
+        this.buffer = buffers[0].array();
+    }
+
+    public static Utf8ByteBufferAppendable of(OutputStream outputStream) {
+        return of(outputStream, DEFAULT_BUFFER_SIZE);
+    }
+
+    public static Utf8ByteBufferAppendable of(OutputStream outputStream, int bufferSize) {
+        return new Utf8ByteBufferAppendable(new OutputStreamSink(outputStream), bufferSize, 1);
+    }
+
+    public static Utf8ByteBufferAppendable of(WritableByteChannel channel) {
+        return of(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    public static Utf8ByteBufferAppendable of(WritableByteChannel channel, int bufferSize) {
+        return new Utf8ByteBufferAppendable(new ChannelSink(channel), bufferSize, 1);
+    }
+
+    /**
+     * fill nbBuffers buffers before writing them with one gathering write.
+     *
+     * @param channel the channel to write to
+     * @param bufferSize the size of each buffer
+     * @param nbBuffers the number of buffers
+     * @return the appendable
+     */
+    public static Utf8ByteBufferAppendable of(GatheringByteChannel channel, int bufferSize, int nbBuffers) {
+        return new Utf8ByteBufferAppendable(new GatheringChannelSink(channel), bufferSize, nbBuffers);
+    }
+
+    @Override
+    public Utf8ByteBufferAppendable append(CharSequence csq) throws IOException {
+        if (csq == null) {
+            return append("null");
+        }
+        return append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Utf8ByteBufferAppendable append(CharSequence csq, int start, int end) throws IOException {
+        if (csq == null) {
+            return append("null", start, end);
+        }
+        if (start < 0 || end > csq.length() || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + csq.length());
+        }
+        int i = start;
+        while (i < end) {
+            if (highSurrogate != 0) {
+                append(csq.charAt(i++));
+                continue;
+            }
+            // ascii run
+            byte[] buffer = this.buffer;
+            int position = this.position;
+            int l = Math.min(end - i, buffer.length - position);
+            int asciiEnd = i + l;
+            while (i < asciiEnd) {
+                char c = csq.charAt(i);
+                if (c >= 0x80) {
+                    break;
+                }
+                buffer[position++] = (byte) c;
+                i++;
+            }
+            this.position = position;
+            if (i < end) {
+                if (position == buffer.length) {
+                    nextBuffer();
+                } else {
+                    append(csq.charAt(i++));
+                }
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public Utf8ByteBufferAppendable append(char c) throws IOException {
+        if (c < 0x80 && highSurrogate == 0) {
+            if (position == buffer.length) {
+                nextBuffer();
+            }
+            buffer[position++] = (byte) c;
+            return this;
+        }
+        ensureCapacity(MAX_CHAR_LENGTH);
+        byte[] buffer = this.buffer;
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int cp = Character.toCodePoint(high, c);
+                buffer[position++] = (byte) (0xf0 | (cp >> 18));
+                buffer[position++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                buffer[position++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                buffer[position++] = (byte) (0x80 | (cp & 0x3f));
+                return this;
+            }
+            buffer[position++] = '?';
+            return append(c);
+        }
+        if (c < 0x800) {
+            buffer[position++] = (byte) (0xc0 | (c >> 6));
+            buffer[position++] = (byte) (0x80 | (c & 0x3f));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            buffer[position++] = '?';
+        } else {
+            buffer[position++] = (byte) (0xe0 | (c >> 12));
+            buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+            buffer[position++] = (byte) (0x80 | (c & 0x3f));
+        }
+        return this;
+    }
+
+    @Override
+    public Utf8ByteBufferAppendable appendInt(int value) throws IOException {
+        return appendLong(value);
+    }
+
+    @Override
+    public Utf8ByteBufferAppendable appendLong(long value) throws IOException {
+        endOfChars();
+        ensureCapacity(DecimalDigits.MAX_LENGTH);
+        position = DecimalDigits.putLong(value, buffer, position);
+        return this;
+    }
+
+    @Override
+    public Utf8ByteBufferAppendable appendDouble(double value) throws IOException {
+        endOfChars();
+        ensureCapacity(DecimalDigits.MAX_LENGTH);
+        int end = DecimalDigits.putDouble(value, buffer, position);
+        if (end == -1) {
+            return append(Double.toString(value));
+        }
+        position = end;
+        return this;
+    }
+
+    // a high surrogate not followed by a char
+    private void endOfChars() throws IOException {
+        if (highSurrogate != 0) {
+            highSurrogate = 0;
+            append('?');
+        }
+    }
+
+    private void ensureCapacity(int length) throws IOException {
+        if (buffer.length - position < length) {
+            nextBuffer();
+        }
+    }
+
+    private void nextBuffer() throws IOException {
+        buffers[current].limit(position);
+        if (current + 1 < buffers.length) {
+            current++;
+        } else {
+            writeBuffers();
+        }
+        buffer = buffers[current].array();
+        position = 0;
+    }
+
+    // write the buffers up to the current one included and reset
+    private void writeBuffers() throws IOException {
+        sink.write(buffers, current + 1);
+        for (int i = 0; i <= current; i++) {
+            buffers[i].clear();
+        }
+        current = 0;
+    }
+
+    /**
+     * write the buffers to the underlying output and flush it.
+     * A high surrogate at the end of the chars is kept until the next char.
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void flush() throws IOException {
+        buffers[current].limit(position);
+        writeBuffers();
+        buffer = buffers[0].array();
+        position = 0;
+        sink.flush();
+    }
+
+    /**
+     * write the buffers to the underlying output and close it.
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            endOfChars();
+            buffers[current].limit(position);
+            writeBuffers();
+            position = 0;
+        } finally {
+            sink.close();
+        }
+    }
+
+    private interface ByteSink {
+        // write the nb first buffers, each from 0 to its limit
+        void write(ByteBuffer[] buffers, int nb) throws IOException;
+        void flush() throws IOException;
+        void close() throws IOException;
+    }
+
+    private static final class OutputStreamSink implements ByteSink {
+        private final OutputStream outputStream;
+
+        private OutputStreamSink(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        public void write(ByteBuffer[] buffers, int nb) throws IOException {
+            for (int i = 0; i < nb; i++) {
+                ByteBuffer bb = buffers[i];
+                if (bb.limit() > 0) {
+                    outputStream.write(bb.array(), 0, bb.limit());
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            outputStream.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            outputStream.close();
+        }
+    }
+
+    private static class ChannelSink implements ByteSink {
+        private final WritableByteChannel channel;
+
+        private ChannelSink(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(ByteBuffer[] buffers, int nb) throws IOException {
+            for (int i = 0; i < nb; i++) {
+                ByteBuffer bb = buffers[i];
+                while (bb.hasRemaining()) {
+                    channel.write(bb);
+                }
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private static final class GatheringChannelSink extends ChannelSink {
+        private final GatheringByteChannel channel;
+
+        private GatheringChannelSink(GatheringByteChannel channel) {
+            super(channel);
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(ByteBuffer[] buffers, int nb) throws IOException {
+            if (nb == 1) {
+                super.write(buffers, nb);
+                return;
+            }
+            long remaining = 0;
+            for (int i = 0; i < nb; i++) {
+                remaining += buffers[i].remaining();
+            }
+            while (remaining > 0) {
+                remaining -= channel.write(buffers, 0, nb);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.simpleflatmapper.csv.parser;
+
+import java.io.IOException;
+
+/**
+ * Tokenize a buffer into cells and rows.
+ */
+public abstract class AbstractCharConsumer {
+
+	public abstract void consumeAllBuffer(CellConsumer cellConsumer);
+
+	/**
+	 * @param cellConsumer the cell consumer
+	 * @return true if a row was consumed
+	 */
+	public abstract boolean consumeToNextRow(CellConsumer cellConsumer);
+
+	public abstract void finish(CellConsumer cellConsumer);
+
+	/**
+	 * move the buffer to the next block of data.
+	 * @return true if more data was made available
+	 * @throws IOException if an io error occurs
+	 */
+	public abstract boolean next() throws IOException;
+
+	/**
+	 * release the resources held by the buffer, the reader it reads from is not closed.
+	 */
+	public void close() {
+	}
+}
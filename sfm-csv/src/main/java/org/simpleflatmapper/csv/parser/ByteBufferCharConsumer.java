@@ -0,0 +1,455 @@
+package org.simpleflatmapper.csv.parser;
+
+
+import org.simpleflatmapper.util.ErrorHelper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+
+import static org.simpleflatmapper.csv.parser.CharConsumer.*;
+
+/**
+ * Consume a ByteBufferWindow, the separators, quotes and line endings are found directly on the bytes
+ * and only the bytes of the cells are decoded.
+ * <p>
+ * Only works on charsets that encode the ascii chars on one byte that cannot be part of a multi byte sequence,
+ * see {@link #isSupported(Charset, TextFormat)}.
+ */
+public final class ByteBufferCharConsumer extends AbstractCharConsumer {
+
+	private static final int TURN_OFF_LAST_CHAR_MASK = ~(LAST_CHAR_WAS_CR|LAST_CHAR_WAS_SEPARATOR);
+	private static final int TURN_OFF_QUOTED_AREA = ~(QUOTED_AREA);
+	private static final int TURN_OFF_ESCAPED = ~(ESCAPED);
+
+	private static final byte LF = '\n';
+	private static final byte CR = '\r';
+	private static final byte SPACE = ' ';
+	private static final byte COMMENT = '#';
+
+	private static final long LF_PATTERN = ByteScanner.pattern(LF);
+	private static final long CR_PATTERN = ByteScanner.pattern(CR);
+
+	private final ByteBufferWindow csvBuffer;
+	private final TextFormat textFormat;
+	private final CellPreProcessor cellPreProcessor;
+	private final boolean utf8;
+	private final CharsetDecoder charsetDecoder;
+
+	private final long separatorPattern;
+	private final long quotePattern;
+	private final long escapePattern;
+
+	private int _currentIndex = 0;
+	private int _currentState = NONE;
+
+	private char[] cellChars = new char[64];
+
+	public ByteBufferCharConsumer(ByteBufferWindow csvBuffer, TextFormat textFormat, CellPreProcessor cellPreProcessor, Charset charset) {
+		if (!isSupported(charset, textFormat)) {
+			throw new IllegalArgumentException("Charset " + charset + " or text format not supported on bytes");
+		}
+		this.csvBuffer = csvBuffer;
+		this.cellPreProcessor = cellPreProcessor;
+		this.textFormat = textFormat;
+		this.utf8 = "UTF-8".equals(charset.name()) || "US-ASCII".equals(charset.name());
+		this.charsetDecoder = charset.newDecoder();
+		this.separatorPattern = ByteScanner.pattern((byte) textFormat.separatorChar);
+		this.quotePattern = ByteScanner.pattern((byte) textFormat.quoteChar);
+		this.escapePattern = ByteScanner.pattern((byte) textFormat.escapeChar);
+	}
+
+	/**
+	 * @param charset the charset
+	 * @param textFormat the text format
+	 * @return true if the text format chars are ascii and the charset encode the ascii chars on a byte that cannot be part of multi byte sequence.
+	 */
+	public static boolean isSupported(Charset charset, TextFormat textFormat) {
+		return textFormat.separatorChar < 0x80
+				&& textFormat.quoteChar < 0x80
+				&& textFormat.escapeChar < 0x80
+				&& isAsciiCompatible(charset);
+	}
+
+	public static boolean isAsciiCompatible(Charset charset) {
+		String name = charset.name();
+		return "UTF-8".equals(name)
+				|| "US-ASCII".equals(name)
+				|| name.startsWith("ISO-8859-")
+				|| name.startsWith("windows-125");
+	}
+
+	@Override
+	public final void consumeAllBuffer(final CellConsumer cellConsumer) {
+
+		final boolean notIgnoreLeadingSpace = !cellPreProcessor.ignoreLeadingSpace();
+		final boolean yamlComment = textFormat.yamlComment;
+		final byte quoteChar = (byte) textFormat.quoteChar;
+		final byte separatorChar = (byte) textFormat.separatorChar;
+
+		int currentState = _currentState;
+		int currentIndex = _currentIndex;
+
+		final ByteBuffer chars = csvBuffer.buffer;
+		final int bufferSize =  csvBuffer.bufferSize;
+
+		while(currentIndex < bufferSize) {
+			// unescaped loop
+			if ((currentState & QUOTED_AREA) == 0) {
+				if ((currentState & COMMENTED) == 0) {
+					while (currentIndex < bufferSize) {
+						final byte character = chars.get(currentIndex);
+						final int cellEnd = currentIndex;
+
+						currentIndex++;
+
+						if (character == separatorChar) { // separator
+							newCell(chars, csvBuffer.mark, cellEnd, cellConsumer, currentState);
+							csvBuffer.mark = currentIndex;
+							currentState = LAST_CHAR_WAS_SEPARATOR | ROW_DATA;
+							continue;
+						} else if (character == LF) { // \n
+							if ((currentState & LAST_CHAR_WAS_CR) == 0) {
+								newCell(chars, csvBuffer.mark, cellEnd, cellConsumer, currentState);
+								cellConsumer.endOfRow();
+							}
+							csvBuffer.mark = currentIndex;
+							currentState = NONE;
+							continue;
+						} else if (character == CR) { // \r
+							newCell(chars, csvBuffer.mark, cellEnd, cellConsumer, currentState);
+							csvBuffer.mark = currentIndex;
+							currentState = LAST_CHAR_WAS_CR;
+							cellConsumer.endOfRow();
+							continue;
+						} else if ((currentState & (QUOTED|CELL_DATA)) == (CELL_DATA)) {
+							final int ce = ByteScanner.indexOfAny(chars, currentIndex, bufferSize, separatorPattern, LF_PATTERN, CR_PATTERN);
+							if (ce < bufferSize) {
+								final byte c = chars.get(ce);
+								currentIndex = ce + 1;
+								newCell(chars, csvBuffer.mark, ce, cellConsumer, currentState);
+								csvBuffer.mark = currentIndex;
+								if (c == separatorChar) {
+									currentState = LAST_CHAR_WAS_SEPARATOR | ROW_DATA;
+								} else {
+									currentState = (c == LF ? NONE : LAST_CHAR_WAS_CR );
+									cellConsumer.endOfRow();
+								}
+							} else {
+								currentIndex = bufferSize;
+							}
+							continue;
+						} else if (((currentState ^ CELL_DATA) & (QUOTED | CELL_DATA)) != 0 && character == quoteChar) { // no cell data | quoted
+							currentState =
+									  QUOTED_AREA
+									| QUOTED
+									| ((currentState & QUOTED) << 5); // if already quoted it's a double quot need to escape QUOTED << 5 is  CONTAINS_ESCAPED_CHAR
+							break;
+						} else if (yamlComment && (currentState & (CELL_DATA | ROW_DATA)) == 0 && character == COMMENT) {
+							currentState |= COMMENTED;
+							break;
+						}
+
+						currentState &= TURN_OFF_LAST_CHAR_MASK;
+
+						if (notIgnoreLeadingSpace || character != SPACE) {
+							currentState |= CELL_DATA;
+						}
+					}
+				} else { // comment
+					int nextEndOfLineChar = findNexEndOfLineChar(chars, currentIndex, bufferSize);
+					if (nextEndOfLineChar != -1) {
+						newCell(chars, csvBuffer.mark, nextEndOfLineChar, cellConsumer, currentState);
+						cellConsumer.endOfRow();
+						currentIndex = nextEndOfLineChar + 1;
+						csvBuffer.mark = currentIndex;
+						currentState = chars.get(nextEndOfLineChar) == CR ? LAST_CHAR_WAS_CR : NONE;
+					} else {
+						currentIndex = bufferSize;
+					}
+				}
+			} else {
+				// escaped area
+				while(currentIndex < bufferSize) {
+					if ((currentState & ESCAPED) == 0) {
+						final int i = ByteScanner.indexOfAny(chars, currentIndex, bufferSize, quotePattern, escapePattern);
+						if (i == bufferSize) {
+							currentIndex = bufferSize;
+							break;
+						}
+						currentIndex = i + 1;
+						if (chars.get(i) == quoteChar) {
+							currentState &= TURN_OFF_QUOTED_AREA;
+							break;
+						}
+						currentState |= ESCAPED | CONTAINS_ESCAPED_CHAR;
+					} else {
+						currentState &= TURN_OFF_ESCAPED;
+						currentIndex ++;
+					}
+				}
+			}
+		}
+
+		_currentState = currentState;
+		_currentIndex = currentIndex;
+	}
+
+
+	@Override
+	public final boolean consumeToNextRow(CellConsumer cellConsumer) {
+		final boolean notIgnoreLeadingSpace = !cellPreProcessor.ignoreLeadingSpace();
+		final byte separatorChar = (byte) textFormat.separatorChar;
+		final byte quoteChar = (byte) textFormat.quoteChar;
+		final boolean yamlComment = textFormat.yamlComment;
+
+		int currentState = _currentState;
+		int currentIndex = _currentIndex;
+
+		final ByteBuffer chars = csvBuffer.buffer;
+		final int bufferSize =  csvBuffer.bufferSize;
+
+		while(currentIndex < bufferSize) {
+			// unescaped loop
+			if ((currentState & QUOTED_AREA) == 0) {
+				if ((currentState & COMMENTED) == 0) {
+					while(currentIndex < bufferSize) {
+						final byte character = chars.get(currentIndex);
+						final int cellEnd = currentIndex;
+
+						currentIndex ++;
+
+						if (character == separatorChar) { // separator
+							newCell(chars, csvBuffer.mark, cellEnd, cellConsumer, currentState);
+							csvBuffer.mark = currentIndex;
+							currentState = LAST_CHAR_WAS_SEPARATOR | ROW_DATA;
+							continue;
+						} else if (character == LF) { // \n
+							if ((currentState & LAST_CHAR_WAS_CR) == 0) {
+								newCell(chars, csvBuffer.mark, cellEnd, cellConsumer, currentState);
+								if (cellConsumer.endOfRow()) {
+									csvBuffer.mark = currentIndex;
+									_currentState = NONE;
+									_currentIndex = currentIndex;
+									return true;
+								}
+							}
+							csvBuffer.mark = currentIndex;
+							currentState = NONE;
+							continue;
+						} else if (character == CR) { // \r
+							newCell(chars, csvBuffer.mark, cellEnd, cellConsumer, currentState);
+							csvBuffer.mark = currentIndex;
+							currentState = LAST_CHAR_WAS_CR;
+							if (cellConsumer.endOfRow()) {
+								_currentState = currentState;
+								_currentIndex = currentIndex;
+								return true;
+							}
+							continue;
+						} else if ((currentState & (QUOTED|CELL_DATA)) == (CELL_DATA)) {
+							final int ce = ByteScanner.indexOfAny(chars, currentIndex, bufferSize, separatorPattern, LF_PATTERN, CR_PATTERN);
+							if (ce < bufferSize) {
+								final byte c = chars.get(ce);
+								currentIndex = ce + 1;
+								newCell(chars, csvBuffer.mark, ce, cellConsumer, currentState);
+								csvBuffer.mark = currentIndex;
+								if (c == separatorChar) {
+									currentState = LAST_CHAR_WAS_SEPARATOR | ROW_DATA;
+								} else {
+									currentState = c == LF ? NONE : LAST_CHAR_WAS_CR;
+									if (cellConsumer.endOfRow()) {
+										_currentState = currentState;
+										_currentIndex = currentIndex;
+										return true;
+									}
+								}
+							} else {
+								currentIndex = bufferSize;
+							}
+							continue;
+						} else if (((currentState ^ CELL_DATA) & (QUOTED | CELL_DATA)) != 0 && character == quoteChar ) { // no cell data | quoted
+							currentState =
+									QUOTED_AREA
+											| QUOTED
+											| ((currentState & QUOTED) << 5); // if already quoted it's a double quot need to escape QUOTED << 5 is  CONTAINS_ESCAPED_CHAR
+							break;
+						} else if ((currentState & (CELL_DATA | ROW_DATA)) == 0 && yamlComment && character == COMMENT) { // no cell data or row data
+							currentState |= COMMENTED;
+							break;
+						}
+
+						currentState &= TURN_OFF_LAST_CHAR_MASK;
+
+						if (notIgnoreLeadingSpace || character != SPACE) {
+							currentState |= CELL_DATA;
+						}
+					}
+				} else {
+					int nextEndOfLineChar = findNexEndOfLineChar(chars, currentIndex, bufferSize);
+					if (nextEndOfLineChar != -1) {
+						currentIndex = nextEndOfLineChar + 1;
+						newCell(chars, csvBuffer.mark, nextEndOfLineChar, cellConsumer, currentState);
+						csvBuffer.mark = currentIndex;
+						currentState = chars.get(nextEndOfLineChar) == CR ? LAST_CHAR_WAS_CR : NONE;
+						if (cellConsumer.endOfRow()) {
+							_currentState = currentState;
+							_currentIndex = currentIndex;
+							return true;
+						}
+					} else {
+						currentIndex = bufferSize;
+					}
+				}
+			} else {
+				// escaped area
+				while(currentIndex < bufferSize) {
+					if ((currentState & ESCAPED) == 0) {
+						final int i = ByteScanner.indexOfAny(chars, currentIndex, bufferSize, quotePattern, escapePattern);
+						if (i == bufferSize) {
+							currentIndex = bufferSize;
+							break;
+						}
+						currentIndex = i + 1;
+						if (chars.get(i) == quoteChar) {
+							currentState &= TURN_OFF_QUOTED_AREA;
+							break;
+						}
+						currentState |= ESCAPED | CONTAINS_ESCAPED_CHAR;
+					} else {
+						currentState &= TURN_OFF_ESCAPED;
+						currentIndex ++;
+					}
+				}
+			}
+		}
+
+		_currentState = currentState;
+		_currentIndex = currentIndex;
+
+		return false;
+	}
+
+	private int findNexEndOfLineChar(ByteBuffer chars, int start, int end) {
+		int i = ByteScanner.indexOfAny(chars, start, end, CR_PATTERN, LF_PATTERN);
+		return i < end ? i : -1;
+	}
+
+	@Override
+	public final void finish(CellConsumer cellConsumer) {
+		if ( hasUnconsumedData()
+				|| (_currentState & LAST_CHAR_WAS_SEPARATOR) != 0) {
+			newCell(csvBuffer.buffer, csvBuffer.mark, _currentIndex, cellConsumer, _currentState);
+			csvBuffer.mark = _currentIndex + 1;
+			_currentState = NONE;
+		}
+		cellConsumer.end();
+	}
+
+	private boolean hasUnconsumedData() {
+		return _currentIndex > csvBuffer.mark;
+	}
+
+	@Override
+	public boolean next() throws IOException {
+		int mark = csvBuffer.mark;
+		boolean b = csvBuffer.next();
+		_currentIndex -= mark - csvBuffer.mark;
+		return b;
+	}
+
+	private void newCell(ByteBuffer bytes, int start, int end, CellConsumer cellConsumer, int state) {
+		int length = decode(bytes, start, end);
+		cellPreProcessor.newCell(cellChars, 0, length, cellConsumer, state);
+	}
+
+	private int decode(ByteBuffer bytes, int start, int end) {
+		int length = end - start;
+		char[] chars = cellChars;
+		if (chars.length < length) {
+			chars = new char[Math.max(length, chars.length << 1)];
+			cellChars = chars;
+		}
+		int i = start;
+		int j = 0;
+		// ascii fast path
+		for(; i < end; i++) {
+			byte b = bytes.get(i);
+			if (b < 0) break;
+			chars[j++] = (char) b;
+		}
+		if (i < end) {
+			if (utf8) {
+				return decodeUtf8(bytes, i, end, chars, j);
+			} else {
+				return decodeWithCharset(bytes, i, end, chars, j);
+			}
+		}
+		return j;
+	}
+
+	private int decodeUtf8(ByteBuffer bytes, int i, int end, char[] chars, int j) {
+		final int start = i;
+		final int charStart = j;
+		while(i < end) {
+			int b = bytes.get(i);
+			if (b >= 0) {
+				chars[j++] = (char) b;
+				i++;
+			} else if (b >= (byte)0xC2 && b <= (byte)0xDF && i + 1 < end && isContinuation(bytes.get(i + 1))) {
+				chars[j++] = (char) (((b & 0x1F) << 6) | (bytes.get(i + 1) & 0x3F));
+				i += 2;
+			} else if ((b & 0xF0) == 0xE0 && i + 2 < end && isContinuation(bytes.get(i + 1)) && isContinuation(bytes.get(i + 2))) {
+				int c = ((b & 0x0F) << 12) | ((bytes.get(i + 1) & 0x3F) << 6) | (bytes.get(i + 2) & 0x3F);
+				// overlong or surrogate
+				if (c < 0x800 || (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE)) {
+					return decodeWithCharset(bytes, start, end, chars, charStart);
+				}
+				chars[j++] = (char) c;
+				i += 3;
+			} else if (b >= (byte)0xF0 && b <= (byte)0xF4 && i + 3 < end
+					&& isContinuation(bytes.get(i + 1)) && isContinuation(bytes.get(i + 2)) && isContinuation(bytes.get(i + 3))) {
+				int cp = ((b & 0x07) << 18) | ((bytes.get(i + 1) & 0x3F) << 12) | ((bytes.get(i + 2) & 0x3F) << 6) | (bytes.get(i + 3) & 0x3F);
+				// overlong or above the last code point
+				if (cp < Character.MIN_SUPPLEMENTARY_CODE_POINT || cp > Character.MAX_CODE_POINT) {
+					return decodeWithCharset(bytes, start, end, chars, charStart);
+				}
+				chars[j++] = (char) ((cp >>> 10) + (Character.MIN_HIGH_SURROGATE - (Character.MIN_SUPPLEMENTARY_CODE_POINT >>> 10)));
+				chars[j++] = (char) ((cp & 0x3FF) + Character.MIN_LOW_SURROGATE);
+				i += 4;
+			} else {
+				// malformed let the decoder report it
+				return decodeWithCharset(bytes, start, end, chars, charStart);
+			}
+		}
+		return j;
+	}
+
+	private static boolean isContinuation(byte b) {
+		return (b & 0xC0) == 0x80;
+	}
+
+	private int decodeWithCharset(ByteBuffer bytes, int start, int end, char[] chars, int j) {
+		ByteBuffer in = bytes.duplicate();
+		in.limit(end);
+		in.position(start);
+		java.nio.CharBuffer out = java.nio.CharBuffer.wrap(chars, j, chars.length - j);
+		charsetDecoder.reset();
+		try {
+			CoderResult result = charsetDecoder.decode(in, out, true);
+			if (!result.isUnderflow()) {
+				result.throwException();
+			}
+			result = charsetDecoder.flush(out);
+			if (!result.isUnderflow()) {
+				result.throwException();
+			}
+		} catch (CharacterCodingException e) {
+			return ErrorHelper.rethrow(e);
+		}
+		return out.position();
+	}
+}
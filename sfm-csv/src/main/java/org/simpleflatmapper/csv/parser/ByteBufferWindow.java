@@ -0,0 +1,21 @@
+package org.simpleflatmapper.csv.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Byte oriented equivalent of the {@link CharBuffer}, bytes are accessed through absolute get on the buffer.
+ */
+public abstract class ByteBufferWindow {
+
+	protected ByteBuffer buffer;
+	protected int bufferSize;
+	protected int mark;
+
+	public ByteBufferWindow(ByteBuffer buffer, final int bufferSize) {
+		this.buffer = buffer;
+		this.bufferSize = bufferSize;
+	}
+
+	public abstract boolean next() throws IOException;
+}
@@ -0,0 +1,101 @@
+package org.simpleflatmapper.csv.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Find the position of some bytes in a ByteBuffer reading 8 bytes at a time in a long (SWAR).
+ * <p>
+ * The byte match uses the carry free formula so there is no false positive and the first match can be taken
+ * from the highest or lowest set byte depending on the order of the buffer.
+ */
+public final class ByteScanner {
+
+	private static final long ONES = 0x0101010101010101L;
+	private static final long LOW_7_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+	private ByteScanner() {
+	}
+
+	/**
+	 * @param b the byte
+	 * @return the byte repeated in the 8 bytes of a long
+	 */
+	public static long pattern(byte b) {
+		return (b & 0xFFL) * ONES;
+	}
+
+	/**
+	 * @param word the 8 bytes
+	 * @param pattern the pattern of the byte to find
+	 * @return a long with the high bit set for each byte of word equals to the byte of the pattern
+	 */
+	public static long matches(long word, long pattern) {
+		long v = word ^ pattern;
+		return ~(((v & LOW_7_BITS) + LOW_7_BITS) | v | LOW_7_BITS);
+	}
+
+	/**
+	 * @param bytes the buffer
+	 * @param from start index inclusive
+	 * @param to end index exclusive
+	 * @param p1 pattern of the first byte
+	 * @param p2 pattern of the second byte
+	 * @return the index of the first byte matching p1 or p2, to if none
+	 */
+	public static int indexOfAny(ByteBuffer bytes, int from, int to, long p1, long p2) {
+		final boolean bigEndian = bytes.order() == ByteOrder.BIG_ENDIAN;
+		int i = from;
+		for(; i + 8 <= to; i += 8) {
+			long word = bytes.getLong(i);
+			long m = matches(word, p1) | matches(word, p2);
+			if (m != 0) {
+				return i + firstByte(m, bigEndian);
+			}
+		}
+		final byte b1 = (byte) p1;
+		final byte b2 = (byte) p2;
+		for(; i < to; i++) {
+			byte b = bytes.get(i);
+			if (b == b1 || b == b2) {
+				return i;
+			}
+		}
+		return to;
+	}
+
+	/**
+	 * @param bytes the buffer
+	 * @param from start index inclusive
+	 * @param to end index exclusive
+	 * @param p1 pattern of the first byte
+	 * @param p2 pattern of the second byte
+	 * @param p3 pattern of the third byte
+	 * @return the index of the first byte matching p1, p2 or p3, to if none
+	 */
+	public static int indexOfAny(ByteBuffer bytes, int from, int to, long p1, long p2, long p3) {
+		final boolean bigEndian = bytes.order() == ByteOrder.BIG_ENDIAN;
+		int i = from;
+		for(; i + 8 <= to; i += 8) {
+			long word = bytes.getLong(i);
+			long m = matches(word, p1) | matches(word, p2) | matches(word, p3);
+			if (m != 0) {
+				return i + firstByte(m, bigEndian);
+			}
+		}
+		final byte b1 = (byte) p1;
+		final byte b2 = (byte) p2;
+		final byte b3 = (byte) p3;
+		for(; i < to; i++) {
+			byte b = bytes.get(i);
+			if (b == b1 || b == b2 || b == b3) {
+				return i;
+			}
+		}
+		return to;
+	}
+
+	private static int firstByte(long m, boolean bigEndian) {
+		return (bigEndian ? Long.numberOfLeadingZeros(m) : Long.numberOfTrailingZeros(m)) >>> 3;
+	}
+}
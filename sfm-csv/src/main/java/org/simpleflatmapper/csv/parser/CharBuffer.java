@@ -14,4 +14,10 @@ public abstract class CharBuffer {
 	}
 
 	public abstract boolean next() throws IOException;
+
+	/**
+	 * release the resources held by the buffer, the reader it reads from is not closed.
+	 */
+	public void close() {
+	}
 }
@@ -6,7 +6,7 @@ import java.io.IOException;
 /**
  * Consume the charBuffer.
  */
-public final class CharConsumer {
+public final class CharConsumer extends AbstractCharConsumer {
 
 
 	public static final int CONTAINS_ESCAPED_CHAR       = 256;
@@ -42,6 +42,7 @@ public final class CharConsumer {
 		this.textFormat = textFormat;
 	}
 
+	@Override
 	public final void consumeAllBuffer(final CellConsumer cellConsumer) {
 
 		final boolean notIgnoreLeadingSpace = !cellPreProcessor.ignoreLeadingSpace();
@@ -157,6 +158,7 @@ public final class CharConsumer {
 	}
 
 
+	@Override
 	public final boolean consumeToNextRow(CellConsumer cellConsumer) {
 		final boolean notIgnoreLeadingSpace = !cellPreProcessor.ignoreLeadingSpace();
 		final char escapeChar = textFormat.escapeChar;
@@ -308,6 +310,7 @@ public final class CharConsumer {
 		return -1;
 	}
 
+	@Override
 	public final void finish(CellConsumer cellConsumer) {
 		if ( hasUnconsumedData()
 				|| (_currentState & LAST_CHAR_WAS_SEPARATOR) != 0) {
@@ -322,10 +325,16 @@ public final class CharConsumer {
 		return _currentIndex > csvBuffer.mark;
 	}
 
+	@Override
 	public boolean next() throws IOException {
 		int mark = csvBuffer.mark;
 		boolean b = csvBuffer.next();
 		_currentIndex -= mark - csvBuffer.mark;
 		return b;
 	}
+
+	@Override
+	public void close() {
+		csvBuffer.close();
+	}
 }
@@ -0,0 +1,56 @@
+package org.simpleflatmapper.csv.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * Memory map the file by window of at most windowSize bytes.
+ * The next window starts at the mark of the current one so that the unconsumed cell is still available.
+ */
+public final class MappedFileWindow extends ByteBufferWindow implements Closeable {
+
+	public static final int DEFAULT_WINDOW_SIZE_1G = 1 << 30;
+
+	private final FileChannel fileChannel;
+	private final long fileLength;
+	private final int windowSize;
+	private long windowStart;
+
+	public MappedFileWindow(FileChannel fileChannel, int windowSize) throws IOException {
+		super(null, 0);
+		this.fileChannel = fileChannel;
+		this.fileLength = fileChannel.size();
+		this.windowSize = windowSize;
+		map(0);
+	}
+
+	@Override
+	public boolean next() throws IOException {
+		if (windowStart + bufferSize >= fileLength) {
+			return false;
+		}
+		if (mark == 0 && bufferSize == windowSize) {
+			throw new BufferOverflowException("The content in the csv cell exceed the window size " + windowSize);
+		}
+		map(windowStart + mark);
+		return true;
+	}
+
+	private void map(long start) throws IOException {
+		int size = (int) Math.min(windowSize, fileLength - start);
+		buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, start, size);
+		windowStart = start;
+		bufferSize = size;
+		mark = 0;
+	}
+
+	public long length() {
+		return fileLength;
+	}
+
+	@Override
+	public void close() throws IOException {
+		fileChannel.close();
+	}
+}
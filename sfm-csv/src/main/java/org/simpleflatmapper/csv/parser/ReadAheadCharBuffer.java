@@ -0,0 +1,218 @@
+package org.simpleflatmapper.csv.parser;
+
+import org.simpleflatmapper.util.ErrorHelper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CharBuffer that reads ahead on an executor while the parser consumes the current block.
+ * <p>
+ * The blocks come from a pool of NB_BLOCKS arrays exchanged through blocking queues, the reading task parks when all
+ * the blocks are filled and the parser parks when none is ready.
+ * Each block keeps blockSize free chars in front of the data so that next only copies the unconsumed tail
+ * in front of the new data instead of copying the data. If the tail does not fit, the buffer grows as in ReaderCharBuffer.
+ * <p>
+ * The executor must run the task on another thread, an executor running it on the calling thread is rejected. A parse
+ * that does not reach the end of the content needs to close the buffer, through CsvReader.close, to stop the task.
+ */
+public final class ReadAheadCharBuffer extends CharBuffer implements Closeable {
+
+	public static final int NB_BLOCKS = 3;
+
+	private static final long POLL_TIMEOUT_MS = 100;
+
+	private final int blockSize;
+	private final int maxBufferSize;
+	private final ReadAhead readAhead;
+
+	private Block currentBlock;
+	private boolean eof;
+
+	public ReadAheadCharBuffer(int blockSize, int maxBufferSize, Reader reader, Executor executor) {
+		super(new char[0], 0);
+		this.blockSize = blockSize;
+		this.maxBufferSize = maxBufferSize;
+		this.readAhead = new ReadAhead(reader, blockSize, this);
+		readAhead.start(executor);
+	}
+
+	@Override
+	public boolean next() throws IOException {
+		if (eof) {
+			return false;
+		}
+		Block block = readAhead.take();
+		if (block.exception != null) {
+			eof = true;
+			// the IOException as well as the unchecked errors of the reader
+			ErrorHelper.rethrow(block.exception);
+		}
+		if (block == END) {
+			eof = true;
+			return false;
+		}
+
+		int effectiveMark = Math.min(bufferSize, mark);
+		int tail = bufferSize - effectiveMark;
+		if (tail <= blockSize) {
+			// copy the tail in the head room of the new block
+			int start = blockSize - tail;
+			System.arraycopy(buffer, effectiveMark, block.chars, start, tail);
+			readAhead.release(currentBlock);
+			currentBlock = block;
+			buffer = block.chars;
+			mark = start;
+			bufferSize = blockSize + block.length;
+		} else {
+			int newSize = tail + block.length;
+			char[] lbuffer = buffer;
+			if (currentBlock != null || lbuffer.length < newSize) {
+				if (newSize > maxBufferSize) {
+					throw new BufferOverflowException("The content in the csv cell exceed the maxSizeBuffer " + maxBufferSize + ", see CsvParser.DSL.maxSizeBuffer(int) to change the default value");
+				}
+				lbuffer = new char[Math.min(maxBufferSize, Math.max(newSize, lbuffer.length << 1))];
+			}
+			System.arraycopy(buffer, effectiveMark, lbuffer, 0, tail);
+			System.arraycopy(block.chars, blockSize, lbuffer, tail, block.length);
+			readAhead.release(currentBlock);
+			readAhead.release(block);
+			currentBlock = null;
+			buffer = lbuffer;
+			mark = 0;
+			bufferSize = newSize;
+		}
+		return true;
+	}
+
+	/**
+	 * stop the read ahead task, does not close the reader.
+	 */
+	@Override
+	public void close() {
+		eof = true;
+		readAhead.stop();
+	}
+
+	private static final Block END = new Block(null);
+	private static final Block STOP = new Block(null);
+
+	private static final class Block {
+		private final char[] chars;
+		private int length;
+		private Throwable exception;
+
+		private Block(char[] chars) {
+			this.chars = chars;
+		}
+	}
+
+	private static final class ReadAhead implements Runnable {
+		private final Reader reader;
+		private final int blockSize;
+		// the task stops if the buffer is not referenced anymore
+		private final WeakReference<ReadAheadCharBuffer> owner;
+
+		private final BlockingQueue<Block> free = new ArrayBlockingQueue<Block>(NB_BLOCKS);
+		// + 1 for the end or error marker
+		private final BlockingQueue<Block> filled = new ArrayBlockingQueue<Block>(NB_BLOCKS + 1);
+
+		private volatile boolean stopped;
+		private volatile Thread startingThread;
+		private volatile boolean sameThread;
+
+		private ReadAhead(Reader reader, int blockSize, ReadAheadCharBuffer owner) {
+			this.reader = reader;
+			this.blockSize = blockSize;
+			this.owner = new WeakReference<ReadAheadCharBuffer>(owner);
+			for(int i = 0; i < NB_BLOCKS; i++) {
+				free.add(new Block(new char[blockSize << 1]));
+			}
+		}
+
+		private void start(Executor executor) {
+			startingThread = Thread.currentThread();
+			try {
+				executor.execute(this);
+			} finally {
+				startingThread = null;
+			}
+			if (sameThread) {
+				throw new IllegalArgumentException("The read ahead executor ran the task on the calling thread, it needs to run it on another thread");
+			}
+		}
+
+		@Override
+		public void run() {
+			if (Thread.currentThread() == startingThread) {
+				// the parser would never get the blocks
+				sameThread = true;
+				return;
+			}
+			try {
+				while (!stopped) {
+					Block block = free.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+					if (block == STOP) {
+						return;
+					} else if (block == null) {
+						if (owner.get() == null) {
+							return;
+						}
+						continue;
+					}
+					int l = reader.read(block.chars, blockSize, blockSize);
+					if (l == -1) {
+						filled.put(END);
+						return;
+					} else if (l == 0) {
+						free.put(block);
+					} else {
+						block.length = l;
+						filled.put(block);
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				failed(new InterruptedIOException("Read ahead interrupted"));
+			} catch (Throwable e) {
+				// any error ends the task, the parser must get it instead of waiting for a block
+				failed(e);
+			}
+		}
+
+		private void failed(Throwable e) {
+			Block error = new Block(null);
+			error.exception = e;
+			// never full, at most NB_BLOCKS filled blocks and the marker
+			filled.offer(error);
+		}
+
+		private Block take() throws IOException {
+			try {
+				return filled.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted waiting for the read ahead");
+			}
+		}
+
+		private void release(Block block) {
+			if (block != null) {
+				free.offer(block);
+			}
+		}
+
+		private void stop() {
+			stopped = true;
+			// wake up the task if it waits for a free block
+			free.offer(STOP);
+		}
+	}
+}
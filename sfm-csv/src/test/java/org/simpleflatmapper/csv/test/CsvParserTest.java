@@ -39,7 +39,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 //IFJAVA8_START
+import java.util.Spliterator;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 //IFJAVA8_END
@@ -686,6 +690,72 @@ public class CsvParserTest {
 		assertEquals(3, i);
 	}
 
+	@Test
+	public void testParallelParsingFromFile() throws Exception {
+		int nbRows = 300000;
+		StringBuilder sb = new StringBuilder("id,name\n");
+		for(int j = 0; j < nbRows; j++) {
+			sb.append(j).append(",\"name\n").append(j).append("\"\n");
+		}
+		File f = createTempCsv(sb.toString());
+
+		List<String[]> rows = CsvParser.skip(1).parallelStream(f, stream -> stream.collect(Collectors.toList()));
+		assertEquals(nbRows, rows.size());
+		for(int j = 0; j < nbRows; j++) {
+			assertArrayEquals(new String[] { String.valueOf(j), "name\n" + j }, rows.get(j));
+		}
+
+		List<DbObject> objects = CsvParser.mapTo(DbObject.class).parallelStream(f, stream -> stream.collect(Collectors.toList()));
+		assertEquals(nbRows, objects.size());
+		assertEquals(nbRows - 1, objects.get(nbRows - 1).getId());
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			AtomicLong sum = new AtomicLong();
+			CsvParser.mapTo(DbObject.class).forEachParallel(f, o -> sum.addAndGet(o.getId()), executor, 4);
+			assertEquals(((long)nbRows * (nbRows - 1)) / 2, sum.get());
+
+			List<AccumulateCellConsumer> consumers = CsvParser.skip(1).parseParallel(f, AccumulateCellConsumer::new, executor, 4);
+			assertTrue(consumers.size() > 1);
+			assertEquals(nbRows, consumers.stream().mapToInt(c -> c.rows.size()).sum());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testStreamSplitsInBatches() throws IOException {
+		int nbRows = 10000;
+		StringBuilder sb = new StringBuilder("id,name\n");
+		for(int j = 0; j < nbRows; j++) {
+			sb.append(j).append(",name").append(j).append("\n");
+		}
+		String content = sb.toString();
+
+		Spliterator<String[]> spliterator = CsvParser.skip(1).splitBatchSize(100).stream(content).spliterator();
+		long estimate = spliterator.estimateSize();
+		assertEquals(content.length(), estimate);
+		Spliterator<String[]> batch = spliterator.trySplit();
+		assertEquals(100, batch.estimateSize());
+		assertEquals(estimate - 100, spliterator.estimateSize());
+		batch.tryAdvance(row -> assertArrayEquals(new String[] {"0", "name0"}, row));
+		spliterator.tryAdvance(row -> assertArrayEquals(new String[] {"100", "name100"}, row));
+
+		List<String[]> rows = CsvParser.skip(1).splitBatchSize(64).stream(content).parallel().collect(Collectors.toList());
+		assertEquals(nbRows, rows.size());
+		for(int j = 0; j < nbRows; j++) {
+			assertArrayEquals(new String[] { String.valueOf(j), "name" + j }, rows.get(j));
+		}
+
+		List<DbObject> objects = CsvParser.splitBatchSize(64).mapTo(DbObject.class).stream(content).parallel().collect(Collectors.toList());
+		assertEquals(nbRows, objects.size());
+		for(int j = 0; j < nbRows; j++) {
+			assertEquals(j, objects.get(j).getId());
+		}
+
+		assertEquals(nbRows, CsvParser.splitBatchSize(64).reader(content).rowStream().parallel().count());
+	}
+
 	//IFJAVA8_END
 
 	private static class AccumulateCellConsumer implements CellConsumer {
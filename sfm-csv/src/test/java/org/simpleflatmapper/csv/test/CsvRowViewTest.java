@@ -0,0 +1,86 @@
+package org.simpleflatmapper.csv.test;
+
+import org.junit.Test;
+import org.simpleflatmapper.csv.CsvParser;
+import org.simpleflatmapper.csv.CsvRowView;
+import org.simpleflatmapper.util.CheckedConsumer;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CsvRowViewTest {
+
+	@Test
+	public void testViewMatchesStringArrays() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for(int i = 0; i < 1000; i++) {
+			sb.append(i).append(",\"name, ").append(i).append("\"\"\",").append(i * 1.5).append(",,\"multi\nline\"\n");
+		}
+		String content = sb.toString();
+
+		final List<String[]> expected = CsvParser.bufferSize(16).forEach(new StringReader(content), new org.simpleflatmapper.util.ListCollector<String[]>()).getList();
+		final List<String[]> actual = new ArrayList<String[]>();
+		CsvParser.bufferSize(16).forEachView(new StringReader(content), new CheckedConsumer<CsvRowView>() {
+			@Override
+			public void accept(CsvRowView csvRowView) {
+				actual.add(csvRowView.toStringArray());
+			}
+		});
+
+		assertEquals(expected.size(), actual.size());
+		for(int i = 0; i < expected.size(); i++) {
+			assertArrayEquals(expected.get(i), actual.get(i));
+		}
+	}
+
+	@Test
+	public void testTypedGetters() throws IOException {
+		final long[] sum = new long[1];
+		final double[] doubleSum = new double[1];
+		final List<CsvRowView> views = new ArrayList<CsvRowView>();
+		CsvParser.skip(1).forEachView("id,value,name\n1,1.5,a\n-2,2.5,bb\n" + Long.MAX_VALUE + ",3,ccc", new CheckedConsumer<CsvRowView>() {
+			@Override
+			public void accept(CsvRowView csvRowView) {
+				views.add(csvRowView);
+				sum[0] += csvRowView.getLong(0) == Long.MAX_VALUE ? 0 : csvRowView.getInt(0);
+				doubleSum[0] += csvRowView.getDouble(1);
+				CharSequence name = csvRowView.getCell(2);
+				assertEquals(csvRowView.getString(2), name.toString());
+				assertEquals(name.length(), csvRowView.length(2));
+				assertEquals('a' + (name.length() - 1), name.charAt(0));
+				assertSame(name, csvRowView.getCell(2));
+			}
+		});
+		assertEquals(-1, sum[0]);
+		assertEquals(7.0, doubleSum[0], 0.0001);
+		assertEquals(3, views.size());
+		assertSame(views.get(0), views.get(2));
+	}
+
+	@Test
+	public void testInvalidNumber() throws IOException {
+		CsvParser.forEachView("a,9223372036854775808,,-,2147483648", new CheckedConsumer<CsvRowView>() {
+			@Override
+			public void accept(CsvRowView csvRowView) {
+				for(int i = 0; i < csvRowView.size(); i++) {
+					try {
+						csvRowView.getInt(i);
+						fail();
+					} catch (NumberFormatException e) {
+						// expected
+					}
+				}
+				assertTrue(csvRowView.isEmpty(2));
+				assertEquals(Long.MIN_VALUE, -csvRowView.getLong(4) * 4294967296L);
+			}
+		});
+	}
+}
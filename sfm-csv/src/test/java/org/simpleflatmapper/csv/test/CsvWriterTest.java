@@ -14,13 +14,20 @@ import org.simpleflatmapper.util.TypeReference;
 import org.simpleflatmapper.tuple.Tuple2;
 import org.simpleflatmapper.tuple.Tuples;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.StringWriter;
 import java.lang.reflect.Type;
+import java.nio.charset.Charset;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.Assert.*;
 
@@ -204,6 +211,81 @@ public class CsvWriterTest {
         assertEquals("etl0,elt1,elt2\r\ne11,e12,\r\n", sw.toString());
     }
 
+    @Test
+    public void testBufferedWriter() throws ParseException, IOException {
+        StringWriter sw = new StringWriter();
+        CsvWriter<DbObject> csvWriter = CsvWriter.from(DbObject.class).toBuffered(sw);
+        csvWriter.append(newDbObject());
+        assertEquals("", sw.toString());
+        csvWriter.flush();
+        assertEquals(
+                "id,name,email,creation_time,type_ordinal,type_name\r\n" +
+                "13,name,email,2015-06-06 17:46:23,type2,type3\r\n",
+                sw.toString());
+    }
+
+    @Test
+    public void testBufferedWriterOnPrimitives() throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        CsvWriter<Primitives> csvWriter = CsvWriter.from(Primitives.class).toBuffered(bos, Charset.forName("UTF-8"));
+        csvWriter.append(new Primitives(-12, Long.MIN_VALUE, 3.25, 1e-4f, "\u00e9t\u00e9"));
+        csvWriter.append(new Primitives(0, 1234567890123L, -0.001, 1.5f, "a,b"));
+        csvWriter.append(new Primitives(Integer.MAX_VALUE, 0, 1e21, 0f, ""));
+        csvWriter.close();
+
+        assertEquals("i,l,d,f,s\r\n" +
+                "-12,-9223372036854775808,3.25,1.0E-4,\u00e9t\u00e9\r\n" +
+                "0,1234567890123,-0.001,1.5,\"a,b\"\r\n" +
+                "2147483647,0,1.0E21,0.0,\r\n",
+                new String(bos.toByteArray(), "UTF-8"));
+    }
+
+    @Test
+    public void testBufferedWriterEscapesNumbersContainingTheSeparator() throws IOException {
+        StringWriter sw = new StringWriter();
+        CsvWriter<Primitives> csvWriter = CsvWriter.from(Primitives.class).separator('.').skipHeaders().toBuffered(sw);
+        csvWriter.append(new Primitives(-12, 3, 3.25, 1.5f, "s"));
+        csvWriter.close();
+
+        assertEquals("-12.3.\"3.25\".\"1.5\".s\r\n", sw.toString());
+    }
+
+    @Test
+    public void testUtf8WriterToGzip() throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        CsvWriter<Primitives> csvWriter = CsvWriter.from(Primitives.class).toUtf8(new GZIPOutputStream(bos));
+        csvWriter.append(new Primitives(-12, 3, 3.25, 1.5f, "\u00e9t\u00e9 \u20ac"));
+        csvWriter.append(new Primitives(0, 1, -0.5, 0f, "a\"b"));
+        csvWriter.close();
+
+        Reader reader = new InputStreamReader(new GZIPInputStream(new ByteArrayInputStream(bos.toByteArray())), "UTF-8");
+        StringBuilder sb = new StringBuilder();
+        int c;
+        while ((c = reader.read()) != -1) {
+            sb.append((char) c);
+        }
+        assertEquals("i,l,d,f,s\r\n" +
+                "-12,3,3.25,1.5,\u00e9t\u00e9 \u20ac\r\n" +
+                "0,1,-0.5,0.0,\"a\"\"b\"\r\n",
+                sb.toString());
+    }
+
+    public static class Primitives {
+        public final int i;
+        public final long l;
+        public final double d;
+        public final float f;
+        public final String s;
+
+        public Primitives(int i, long l, double d, float f, String s) {
+            this.i = i;
+            this.l = l;
+            this.d = d;
+            this.f = f;
+            this.s = s;
+        }
+    }
+
     public static DbObject newDbObject() throws ParseException {
         DbObject dbObject = new DbObject();
         dbObject.setId(13);
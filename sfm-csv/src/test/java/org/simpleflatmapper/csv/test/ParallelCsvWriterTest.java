@@ -0,0 +1,127 @@
+package org.simpleflatmapper.csv.test;
+
+import org.junit.Test;
+import org.simpleflatmapper.csv.CsvWriter;
+import org.simpleflatmapper.csv.ParallelCsvWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ParallelCsvWriterTest {
+
+    private static final int NB_ROWS = 10000;
+
+    @Test
+    public void testWritesTheRowsInOrder() throws IOException {
+        CsvWriter.CsvWriterDSL<CsvWriterTest.Primitives> dsl = CsvWriter.from(CsvWriterTest.Primitives.class);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            StringWriter expected = new StringWriter();
+            CsvWriter<CsvWriterTest.Primitives> csvWriter = dsl.to(expected);
+
+            StringWriter sw = new StringWriter();
+            ParallelCsvWriter<CsvWriterTest.Primitives> parallelCsvWriter = dsl.toParallel(sw, executor, 7, 3);
+            for (int i = 0; i < NB_ROWS; i++) {
+                CsvWriterTest.Primitives value = newPrimitives(i);
+                csvWriter.append(value);
+                parallelCsvWriter.append(value);
+            }
+            parallelCsvWriter.close();
+
+            assertEquals(expected.toString(), sw.toString());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testWritesTheRowsInOrderInUtf8() throws IOException {
+        CsvWriter.CsvWriterDSL<CsvWriterTest.Primitives> dsl = CsvWriter.from(CsvWriterTest.Primitives.class);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            StringWriter expected = new StringWriter();
+            CsvWriter<CsvWriterTest.Primitives> csvWriter = dsl.to(expected);
+
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            ParallelCsvWriter<CsvWriterTest.Primitives> parallelCsvWriter = dsl.toParallelUtf8(bos, executor);
+            for (int i = 0; i < NB_ROWS; i++) {
+                CsvWriterTest.Primitives value = newPrimitives(i);
+                csvWriter.append(value);
+                parallelCsvWriter.append(value);
+            }
+            parallelCsvWriter.flush();
+            assertEquals(expected.toString(), new String(bos.toByteArray(), "UTF-8"));
+
+            parallelCsvWriter.append(newPrimitives(-1)).close();
+            csvWriter.append(newPrimitives(-1));
+            assertEquals(expected.toString(), new String(bos.toByteArray(), "UTF-8"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailsOnFormattingError() throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            ParallelCsvWriter<Failing> parallelCsvWriter = CsvWriter.from(Failing.class).toParallel(new StringWriter(), executor, 10, 2);
+            try {
+                for (int i = 0; i < NB_ROWS; i++) {
+                    parallelCsvWriter.append(new Failing(i));
+                }
+                parallelCsvWriter.close();
+                fail();
+            } catch (IllegalStateException e) {
+                assertEquals("fail 500", e.getMessage());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testAppendRethrowsTheErrorOfAPreviousBatch() throws IOException {
+        Executor sameThread = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+        ParallelCsvWriter<Failing> parallelCsvWriter = CsvWriter.from(Failing.class).toParallel(new StringWriter(), sameThread, 10, 2);
+        for (int i = 0; i < 510; i++) {
+            parallelCsvWriter.append(new Failing(i));
+        }
+        try {
+            parallelCsvWriter.append(new Failing(510));
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("fail 500", e.getMessage());
+        }
+    }
+
+    private CsvWriterTest.Primitives newPrimitives(int i) {
+        return new CsvWriterTest.Primitives(i, i * 31L, i / 8.0, i / 4f, "name \"" + i + "\" \u00e9");
+    }
+
+    public static class Failing {
+        private final int id;
+
+        public Failing(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            if (id == 500) {
+                throw new IllegalStateException("fail " + id);
+            }
+            return id;
+        }
+    }
+}
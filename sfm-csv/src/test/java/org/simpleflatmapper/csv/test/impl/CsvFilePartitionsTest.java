@@ -0,0 +1,132 @@
+package org.simpleflatmapper.csv.test.impl;
+
+import org.junit.Test;
+import org.simpleflatmapper.csv.CsvParser;
+import org.simpleflatmapper.csv.impl.CsvFilePartitions;
+import org.simpleflatmapper.csv.parser.TextFormat;
+import org.simpleflatmapper.util.ListCollector;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CsvFilePartitionsTest {
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	private static final TextFormat TEXT_FORMAT = new TextFormat(',', '"', '"', false);
+	private static final String[] CELLS = {
+			"value", "\"quoted\"", "\"multi\nline\"", "\"multi\r\nline, with \"\"quote\"\"\"", "", "5\" inches", "\"\"", "été"
+	};
+
+	@Test
+	public void testPartitionsOnRowBoundaries() throws Exception {
+		File file = newFile(randomCsv(2000, "\n"));
+		ExecutorService executorService = Executors.newFixedThreadPool(4);
+		try {
+			CsvFilePartitions partitions = CsvFilePartitions.partition(file, UTF8, TEXT_FORMAT, false, 1, 16, 64, executorService);
+			assertTrue(partitions.size() > 1);
+			assertPartitionsMatchFile(file, partitions, 1);
+		} finally {
+			executorService.shutdown();
+		}
+	}
+
+	@Test
+	public void testPartitionsCrLf() throws Exception {
+		File file = newFile(randomCsv(2000, "\r\n"));
+		ExecutorService executorService = Executors.newFixedThreadPool(4);
+		try {
+			CsvFilePartitions partitions = CsvFilePartitions.partition(file, UTF8, TEXT_FORMAT, false, 0, 16, 64, executorService);
+			assertTrue(partitions.size() > 1);
+			assertPartitionsMatchFile(file, partitions, 0);
+		} finally {
+			executorService.shutdown();
+		}
+	}
+
+	@Test
+	public void testNoSplitOnYamlComment() throws Exception {
+		File file = newFile(randomCsv(2000, "\n"));
+		CsvFilePartitions partitions = CsvFilePartitions.partition(file, UTF8, new TextFormat(',', '"', '"', true), false, 0, 16, 64, null);
+		assertEquals(1, partitions.size());
+		assertEquals(file.length(), partitions.length(0));
+	}
+
+	@Test
+	public void testNoSplitOnUtf16() throws Exception {
+		File file = newFile(randomCsv(2000, "\n"));
+		CsvFilePartitions partitions = CsvFilePartitions.partition(file, Charset.forName("UTF-16"), TEXT_FORMAT, false, 0, 16, 64, null);
+		assertEquals(1, partitions.size());
+	}
+
+	@Test
+	public void testSmallFileIsOnePartition() throws Exception {
+		File file = newFile("a,b\n1,2\n");
+		CsvFilePartitions partitions = CsvFilePartitions.partition(file, UTF8, TEXT_FORMAT, false, 1, 16, CsvFilePartitions.DEFAULT_MIN_PARTITION_SIZE, null);
+		assertEquals(1, partitions.size());
+	}
+
+	private void assertPartitionsMatchFile(File file, CsvFilePartitions partitions, int nbHeaderRows) throws IOException {
+		Reader fileReader = new InputStreamReader(new FileInputStream(file), UTF8);
+		List<String[]> expected;
+		try {
+			expected = CsvParser.forEach(fileReader, new ListCollector<String[]>()).getList();
+		} finally {
+			fileReader.close();
+		}
+
+		List<String[]> actual = new ArrayList<String[]>();
+		for(int i = 0; i < partitions.size(); i++) {
+			Reader reader = partitions.newReader(i);
+			try {
+				actual.addAll(CsvParser.skip(i == 0 ? 0 : nbHeaderRows).forEach(reader, new ListCollector<String[]>()).getList());
+			} finally {
+				reader.close();
+			}
+		}
+
+		assertEquals(expected.size(), actual.size());
+		for(int i = 0; i < expected.size(); i++) {
+			assertArrayEquals(expected.get(i), actual.get(i));
+		}
+	}
+
+	private String randomCsv(int nbRows, String eol) {
+		Random random = new Random(17);
+		StringBuilder sb = new StringBuilder();
+		sb.append("h1,h2,h3").append(eol);
+		for(int i = 0; i < nbRows; i++) {
+			for(int j = 0; j < 3; j++) {
+				if (j > 0) sb.append(',');
+				sb.append(CELLS[random.nextInt(CELLS.length)]);
+			}
+			sb.append(eol);
+		}
+		return sb.toString();
+	}
+
+	private File newFile(String content) throws IOException {
+		File file = File.createTempFile("CsvFilePartitionsTest", ".csv");
+		file.deleteOnExit();
+		FileOutputStream os = new FileOutputStream(file);
+		try {
+			os.write(content.getBytes(UTF8));
+		} finally {
+			os.close();
+		}
+		return file;
+	}
+}
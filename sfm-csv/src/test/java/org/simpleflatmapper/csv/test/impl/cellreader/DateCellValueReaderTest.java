@@ -2,11 +2,18 @@ package org.simpleflatmapper.csv.test.impl.cellreader;
 
 
 import org.junit.Test;
+import org.simpleflatmapper.csv.ParsingContext;
+import org.simpleflatmapper.csv.impl.ParsingException;
 import org.simpleflatmapper.csv.impl.cellreader.DateCellValueReader;
+import org.simpleflatmapper.csv.impl.cellreader.EpochMillisDateCellValueReader;
 
+import java.text.SimpleDateFormat;
+import java.util.Date;
 import java.util.TimeZone;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
 
 public class DateCellValueReaderTest {
 
@@ -14,4 +21,36 @@ public class DateCellValueReaderTest {
     public void testReturnNullOnEmptyString() {
         assertNull(new DateCellValueReader(0, "yyyyMMdd", TimeZone.getDefault()).read(new char[10], 2, 0, null));
     }
+
+    @Test
+    public void testReadSameAsSimpleDateFormat() throws Exception {
+        String pattern = "yyyy-MM-dd HH:mm:ss";
+        TimeZone timeZone = TimeZone.getTimeZone("Europe/Paris");
+        SimpleDateFormat sdf = new SimpleDateFormat(pattern);
+        sdf.setTimeZone(timeZone);
+
+        DateCellValueReader reader = new DateCellValueReader(0, pattern, timeZone);
+        ParsingContext parsingContext = new ParsingContext(new Object[] { reader.newContext() });
+
+        // compiled pattern, lenient value and value not matching the pattern width
+        String[] values = { "2017-06-07 13:45:12", "2021-03-28 02:30:00", "2017-02-30 13:45:12", "2017-6-7 13:45:12" };
+        for (String value : values) {
+            char[] chars = ("_" + value + "_").toCharArray();
+            assertEquals(value, sdf.parse(value), reader.read(chars, 1, value.length(), parsingContext));
+        }
+    }
+
+    @Test
+    public void testEpochMillis() {
+        EpochMillisDateCellValueReader reader = new EpochMillisDateCellValueReader();
+        String value = "1496843112123";
+        assertEquals(new Date(1496843112123L), reader.read(value.toCharArray(), 0, value.length(), null));
+        assertNull(reader.read(new char[10], 2, 0, null));
+        try {
+            reader.read("2017-06-07".toCharArray(), 0, 10, null);
+            fail();
+        } catch (ParsingException e) {
+            // expected
+        }
+    }
 }
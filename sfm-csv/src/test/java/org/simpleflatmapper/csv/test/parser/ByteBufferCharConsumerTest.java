@@ -0,0 +1,171 @@
+package org.simpleflatmapper.csv.test.parser;
+
+import org.junit.Test;
+import org.simpleflatmapper.csv.CsvParser;
+import org.simpleflatmapper.csv.CsvReader;
+import org.simpleflatmapper.csv.parser.BufferOverflowException;
+import org.simpleflatmapper.csv.parser.ByteBufferCharConsumer;
+import org.simpleflatmapper.csv.parser.MappedFileWindow;
+import org.simpleflatmapper.csv.parser.TextFormat;
+import org.simpleflatmapper.csv.parser.UnescapeCellPreProcessor;
+import org.simpleflatmapper.util.ListCollector;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ByteBufferCharConsumerTest {
+
+	private static final String CONTENT =
+			"h1,h2,h3\r\n" +
+			"value,\"quoted, \"\"with\"\" quotes\",\"multi\nline\"\n" +
+			"été,日本語,😀\n" +
+			",,\n" +
+			"last";
+
+	private static final String[][] EXPECTED = {
+			{"h1", "h2", "h3"},
+			{"value", "quoted, \"with\" quotes", "multi\nline"},
+			{"été", "日本語", "😀"},
+			{"", "", ""},
+			{"last"}
+	};
+
+	@Test
+	public void testParseUtf8() throws IOException {
+		assertRows(EXPECTED, parse(CONTENT, Charset.forName("UTF-8"), MappedFileWindow.DEFAULT_WINDOW_SIZE_1G));
+	}
+
+	@Test
+	public void testParseUtf8SmallWindow() throws IOException {
+		assertRows(EXPECTED, parse(CONTENT, Charset.forName("UTF-8"), 32));
+	}
+
+	@Test
+	public void testParseIso88591() throws IOException {
+		String content = "a,\"été\"\nb,ü\n";
+		assertRows(new String[][] {{"a", "été"}, {"b", "ü"}}, parse(content, Charset.forName("ISO-8859-1"), 8));
+	}
+
+	@Test
+	public void testRandomContentMatchesCharConsumer() throws IOException {
+		String[] cells = { "value", "long value with spaces over 8 bytes", "\"quoted\"", "\"quoted, \"\"escaped\"\" over 8 bytes\"",
+				"\"multi\r\nline\"", "", " ", "5\" inches", "été 日本語", "\"\"" };
+		Random random = new Random(7);
+		for(int n = 0; n < 20; n++) {
+			StringBuilder sb = new StringBuilder();
+			int nbRows = random.nextInt(50);
+			for(int i = 0; i < nbRows; i++) {
+				int nbCells = 1 + random.nextInt(5);
+				for(int j = 0; j < nbCells; j++) {
+					if (j > 0) sb.append(',');
+					sb.append(cells[random.nextInt(cells.length)]);
+				}
+				sb.append(random.nextBoolean() ? "\n" : "\r\n");
+			}
+			String content = sb.toString();
+			List<String[]> expected = CsvParser.forEach(content, new ListCollector<String[]>()).getList();
+			assertRows(expected.toArray(new String[0][]), parse(content, Charset.forName("UTF-8"), 64 + random.nextInt(64)));
+		}
+	}
+
+	@Test
+	public void testMalformedUtf8IsReported() throws IOException {
+		byte[][] malformed = {
+				{ (byte) 0xE0, (byte) 0x80, (byte) 0xAF }, // overlong
+				{ (byte) 0xF0, (byte) 0x80, (byte) 0x80, (byte) 0xAF }, // overlong
+				{ (byte) 0xED, (byte) 0xA0, (byte) 0x80 }, // surrogate
+				{ (byte) 0xF4, (byte) 0x90, (byte) 0x80, (byte) 0x80 }, // above U+10FFFF
+		};
+		for (byte[] bytes : malformed) {
+			byte[] content = new byte[bytes.length + 3];
+			content[0] = 'a';
+			content[1] = ',';
+			System.arraycopy(bytes, 0, content, 2, bytes.length);
+			content[content.length - 1] = '\n';
+			try {
+				parse(content, Charset.forName("UTF-8"), 32);
+				fail();
+			} catch (CharacterCodingException e) {
+				// expected, as reported by the decoder
+			}
+		}
+	}
+
+	@Test
+	public void testCellBiggerThanWindow() throws IOException {
+		try {
+			parse("a,bbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbb\n", Charset.forName("UTF-8"), 8);
+			fail();
+		} catch (BufferOverflowException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testIsSupported() {
+		TextFormat textFormat = new TextFormat(',', '"', '"', false);
+		assertTrue(ByteBufferCharConsumer.isSupported(Charset.forName("UTF-8"), textFormat));
+		assertTrue(ByteBufferCharConsumer.isSupported(Charset.forName("windows-1252"), textFormat));
+		assertFalse(ByteBufferCharConsumer.isSupported(Charset.forName("UTF-16"), textFormat));
+		assertFalse(ByteBufferCharConsumer.isSupported(Charset.forName("UTF-8"), new TextFormat('§', '"', '"', false)));
+	}
+
+	@Test
+	public void testDslParsePath() throws IOException {
+		File file = createFile("a,b\n1,\"2\n3\"\n", Charset.forName("US-ASCII"));
+		List<String[]> rows = CsvParser.skip(1).forEach(file.toPath(), new ListCollector<String[]>()).getList();
+		assertRows(new String[][] {{"1", "2\n3"}}, rows);
+	}
+
+	private List<String[]> parse(String content, Charset charset, int windowSize) throws IOException {
+		return parse(content.getBytes(charset), charset, windowSize);
+	}
+
+	private List<String[]> parse(byte[] content, Charset charset, int windowSize) throws IOException {
+		File file = createFile(content);
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			MappedFileWindow window = new MappedFileWindow(raf.getChannel(), windowSize);
+			TextFormat textFormat = new TextFormat(',', '"', '"', false);
+			CsvReader csvReader = new CsvReader(new ByteBufferCharConsumer(window, textFormat, new UnescapeCellPreProcessor('"', '"'), charset));
+			return csvReader.read(new ListCollector<String[]>()).getList();
+		} finally {
+			raf.close();
+		}
+	}
+
+	private void assertRows(String[][] expected, List<String[]> rows) {
+		assertEquals(expected.length, rows.size());
+		for(int i = 0; i < expected.length; i++) {
+			assertArrayEquals(expected[i], rows.get(i));
+		}
+	}
+
+	private File createFile(String content, Charset charset) throws IOException {
+		return createFile(content.getBytes(charset));
+	}
+
+	private File createFile(byte[] content) throws IOException {
+		File file = File.createTempFile("ByteBufferCharConsumerTest", ".csv");
+		file.deleteOnExit();
+		FileOutputStream os = new FileOutputStream(file);
+		try {
+			os.write(content);
+		} finally {
+			os.close();
+		}
+		return file;
+	}
+}
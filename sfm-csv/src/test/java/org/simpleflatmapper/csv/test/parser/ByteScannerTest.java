@@ -0,0 +1,54 @@
+package org.simpleflatmapper.csv.test.parser;
+
+import org.junit.Test;
+import org.simpleflatmapper.csv.parser.ByteScanner;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class ByteScannerTest {
+
+	private static final byte[] ALPHABET = { 'a', ',', '"', '\n', '\r', (byte) 0x80, (byte) 0xFF, 0, 0x7F };
+
+	@Test
+	public void testIndexOfAnyBigEndian() {
+		testIndexOfAny(ByteOrder.BIG_ENDIAN);
+	}
+
+	@Test
+	public void testIndexOfAnyLittleEndian() {
+		testIndexOfAny(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	private void testIndexOfAny(ByteOrder order) {
+		Random random = new Random(31);
+		for(int n = 0; n < 2000; n++) {
+			byte[] bytes = new byte[random.nextInt(40)];
+			for(int i = 0; i < bytes.length; i++) {
+				bytes[i] = random.nextInt(4) == 0 ? ALPHABET[random.nextInt(ALPHABET.length)] : (byte) 'x';
+			}
+			ByteBuffer buffer = ByteBuffer.wrap(bytes).order(order);
+			int from = bytes.length == 0 ? 0 : random.nextInt(bytes.length);
+			byte b1 = ALPHABET[random.nextInt(ALPHABET.length)];
+			byte b2 = ALPHABET[random.nextInt(ALPHABET.length)];
+			byte b3 = ALPHABET[random.nextInt(ALPHABET.length)];
+
+			assertEquals(naiveIndexOf(bytes, from, b1, b2, b2),
+					ByteScanner.indexOfAny(buffer, from, bytes.length, ByteScanner.pattern(b1), ByteScanner.pattern(b2)));
+			assertEquals(naiveIndexOf(bytes, from, b1, b2, b3),
+					ByteScanner.indexOfAny(buffer, from, bytes.length, ByteScanner.pattern(b1), ByteScanner.pattern(b2), ByteScanner.pattern(b3)));
+		}
+	}
+
+	private int naiveIndexOf(byte[] bytes, int from, byte b1, byte b2, byte b3) {
+		for(int i = from; i < bytes.length; i++) {
+			if (bytes[i] == b1 || bytes[i] == b2 || bytes[i] == b3) {
+				return i;
+			}
+		}
+		return bytes.length;
+	}
+}
@@ -0,0 +1,191 @@
+package org.simpleflatmapper.csv.test.parser;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.simpleflatmapper.csv.CsvParser;
+import org.simpleflatmapper.csv.CsvReader;
+import org.simpleflatmapper.csv.parser.BufferOverflowException;
+import org.simpleflatmapper.util.ListCollector;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ReadAheadCharBufferTest {
+
+	private ExecutorService executor;
+
+	@Before
+	public void setUp() {
+		executor = Executors.newSingleThreadExecutor();
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testReadAheadMatchesReader() throws IOException {
+		String[] cells = { "value", "\"quoted, \"\"escaped\"\"\"", "\"multi\nline\"", "", "a cell longer than the block size of 16 chars" };
+		Random random = new Random(3);
+		StringBuilder sb = new StringBuilder();
+		for(int i = 0; i < 2000; i++) {
+			for(int j = 0; j < 4; j++) {
+				if (j > 0) sb.append(',');
+				sb.append(cells[random.nextInt(cells.length)]);
+			}
+			sb.append(random.nextBoolean() ? "\n" : "\r\n");
+		}
+		String content = sb.toString();
+
+		List<String[]> expected = CsvParser.forEach(new StringReader(content), new ListCollector<String[]>()).getList();
+		List<String[]> actual = CsvParser.bufferSize(16).readAhead(executor).forEach(new SmallReadsReader(content, 7), new ListCollector<String[]>()).getList();
+
+		assertEquals(expected.size(), actual.size());
+		for(int i = 0; i < expected.size(); i++) {
+			assertArrayEquals(expected.get(i), actual.get(i));
+		}
+	}
+
+	@Test
+	public void testMaxBufferSize() throws IOException {
+		StringBuilder sb = new StringBuilder("a,");
+		for(int i = 0; i < 100; i++) {
+			sb.append('b');
+		}
+		try {
+			CsvParser.bufferSize(8).maxBufferSize(32).readAhead(executor).forEach(new StringReader(sb.toString()), new ListCollector<String[]>());
+			fail();
+		} catch (BufferOverflowException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testReaderExceptionIsPropagated() {
+		Reader reader = new Reader() {
+			@Override
+			public int read(char[] cbuf, int off, int len) throws IOException {
+				throw new IOException("read failed");
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		try {
+			CsvParser.readAhead(executor).forEach(reader, new ListCollector<String[]>());
+			fail();
+		} catch (IOException e) {
+			assertEquals("read failed", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testReaderRuntimeExceptionIsPropagated() throws IOException {
+		Reader reader = new Reader() {
+			private int nbReads;
+			@Override
+			public int read(char[] cbuf, int off, int len) {
+				if (nbReads++ > 2) {
+					throw new IllegalStateException("read failed");
+				}
+				for(int i = 0; i < len; i++) {
+					cbuf[off + i] = i % 4 == 3 ? '\n' : 'a';
+				}
+				return len;
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		ListCollector<String[]> collector = new ListCollector<String[]>();
+		try {
+			CsvParser.bufferSize(16).readAhead(executor).forEach(reader, collector);
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("read failed", e.getMessage());
+		}
+		assertEquals(12, collector.getList().size());
+	}
+
+	@Test
+	public void testCloseStopsTheReadAhead() throws Exception {
+		Reader endless = new Reader() {
+			@Override
+			public int read(char[] cbuf, int off, int len) {
+				for(int i = 0; i < len; i++) {
+					cbuf[off + i] = i % 4 == 3 ? '\n' : 'a';
+				}
+				return len;
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		CsvReader csvReader = CsvParser.bufferSize(16).readAhead(executor).reader(endless);
+		assertArrayEquals(new String[] {"aaa"}, csvReader.iterator().next());
+
+		csvReader.close();
+
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testSameThreadExecutorIsRejected() throws IOException {
+		Executor sameThread = new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				command.run();
+			}
+		};
+		try {
+			CsvParser.readAhead(sameThread).reader(new StringReader("a,b"));
+			fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	private static class SmallReadsReader extends Reader {
+		private final String content;
+		private final int maxRead;
+		private int index;
+
+		private SmallReadsReader(String content, int maxRead) {
+			this.content = content;
+			this.maxRead = maxRead;
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) {
+			if (index >= content.length()) {
+				return -1;
+			}
+			int l = Math.min(Math.min(len, maxRead), content.length() - index);
+			content.getChars(index, index + l, cbuf, off);
+			index += l;
+			return l;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package org.simpleflatmapper.csv.test.writer;
+
+import org.junit.Test;
+import org.simpleflatmapper.csv.impl.writer.CharBufferAppendable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CharBufferAppendableTest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    @Test
+    public void testAppendLong() throws IOException {
+        long[] values = { 0, 1, -1, 9, 10, 99, 100, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, 1000000000000000000L, 999999999999999999L };
+        StringWriter sw = new StringWriter();
+        StringBuilder expected = new StringBuilder();
+        CharBufferAppendable appendable = CharBufferAppendable.of(sw, 24);
+        for (long value : values) {
+            appendable.appendLong(value).append(',');
+            expected.append(value).append(',');
+        }
+        appendable.flush();
+        assertEquals(expected.toString(), sw.toString());
+    }
+
+    @Test
+    public void testAppendDouble() throws IOException {
+        double[] values = { 0.0, -0.0, 1.0, -1.0, 3.25, 0.1, 0.001, 0.0012, 123456.789, 9999999.0, 1e7, 1e-4, 0.1 + 0.2,
+                Double.NaN, Double.POSITIVE_INFINITY, Double.MIN_VALUE, Double.MAX_VALUE };
+        for (double value : values) {
+            assertEquals(Double.toString(value), appendDouble(value));
+        }
+    }
+
+    @Test
+    public void testAppendDoubleReadsBackAsTheSameValue() throws IOException {
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12) - 4);
+            if (i % 2 == 0) {
+                value = Math.round(value * 1000) / 1000.0;
+            }
+            String str = appendDouble(value);
+            assertEquals(str, value, Double.parseDouble(str), 0);
+            assertTrue(str, str.length() <= Double.toString(value).length());
+        }
+    }
+
+    private String appendDouble(double value) throws IOException {
+        StringWriter sw = new StringWriter();
+        CharBufferAppendable appendable = CharBufferAppendable.of(sw);
+        appendable.appendDouble(value).flush();
+        return sw.toString();
+    }
+
+    @Test
+    public void testAppendCharSequenceLargerThanBuffer() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            sb.append(i).append(' ');
+        }
+        StringWriter sw = new StringWriter();
+        CharBufferAppendable appendable = CharBufferAppendable.of(sw, 32);
+        appendable.append('[').append(sb).append(sb.toString(), 1, 10).append(']');
+        appendable.close();
+        assertEquals("[" + sb + sb.substring(1, 10) + "]", sw.toString());
+    }
+
+    @Test
+    public void testOutputStreamSurrogatePairOnBufferBoundary() throws IOException {
+        String value = "abcdefghijklmnopqrstuvw\ud83d\ude00\u00e9";
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        CharBufferAppendable appendable = CharBufferAppendable.of(bos, UTF8, 24);
+        appendable.append(value).append(value);
+        appendable.close();
+        assertEquals(value + value, new String(bos.toByteArray(), UTF8));
+    }
+
+    @Test
+    public void testChannel() throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        CharBufferAppendable appendable = CharBufferAppendable.of(Channels.newChannel(bos), Charset.forName("UTF-16BE"));
+        appendable.append("val,").appendInt(-3);
+        appendable.flush();
+        assertEquals("val,-3", new String(bos.toByteArray(), "UTF-16BE"));
+    }
+}
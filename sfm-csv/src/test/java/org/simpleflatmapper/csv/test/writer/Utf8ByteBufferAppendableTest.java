@@ -0,0 +1,117 @@
+package org.simpleflatmapper.csv.test.writer;
+
+import org.junit.Test;
+import org.simpleflatmapper.csv.impl.writer.Utf8ByteBufferAppendable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class Utf8ByteBufferAppendableTest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    @Test
+    public void testEncodeLikeString() throws IOException {
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            String str = randomString(random);
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            Utf8ByteBufferAppendable appendable = Utf8ByteBufferAppendable.of(bos, 24);
+            int split = random.nextInt(str.length() + 1);
+            appendable.append(str, 0, split);
+            for (int j = split; j < str.length(); j++) {
+                appendable.append(str.charAt(j));
+            }
+            appendable.close();
+            assertArrayEquals(str.getBytes(UTF8), bos.toByteArray());
+        }
+    }
+
+    private String randomString(Random random) {
+        char[] chars = new char[random.nextInt(200)];
+        for (int i = 0; i < chars.length; i++) {
+            switch (random.nextInt(6)) {
+                case 0:
+                    chars[i] = (char) random.nextInt(0x800);
+                    break;
+                case 1:
+                    chars[i] = (char) random.nextInt(0x10000);
+                    break;
+                case 2:
+                    chars[i] = Character.highSurrogate(0x1f600 + random.nextInt(0x50));
+                    if (i + 1 < chars.length) {
+                        chars[++i] = Character.lowSurrogate(0x1f600 + random.nextInt(0x50));
+                    }
+                    break;
+                default:
+                    chars[i] = (char) random.nextInt(0x80);
+            }
+        }
+        return new String(chars);
+    }
+
+    @Test
+    public void testUnpairedSurrogates() throws IOException {
+        String str = "a\ud83d,\ude00b\ud83d\ud83d\ude00";
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        Utf8ByteBufferAppendable appendable = Utf8ByteBufferAppendable.of(bos);
+        appendable.append(str).append('\ud83d').appendInt(3).append('\ud83d');
+        appendable.close();
+        assertEquals("a?,?b?\ud83d\ude00?3?", new String(bos.toByteArray(), UTF8));
+    }
+
+    @Test
+    public void testNumbers() throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        Utf8ByteBufferAppendable appendable = Utf8ByteBufferAppendable.of(Channels.newChannel(bos), 24);
+        for (int i = 0; i < 10; i++) {
+            appendable.appendInt(Integer.MIN_VALUE).append(',').appendLong(Long.MIN_VALUE).append(',')
+                    .appendDouble(-12.5).append(',').appendDouble(1e-5).append('\n');
+        }
+        appendable.flush();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            expected.append(Integer.MIN_VALUE).append(',').append(Long.MIN_VALUE).append(",-12.5,1.0E-5\n");
+        }
+        assertEquals(expected.toString(), new String(bos.toByteArray(), UTF8));
+    }
+
+    @Test
+    public void testGatheringWriteToFileChannel() throws IOException {
+        File file = File.createTempFile("utf8", ".csv");
+        try {
+            StringBuilder expected = new StringBuilder();
+            FileChannel channel = new FileOutputStream(file).getChannel();
+            Utf8ByteBufferAppendable appendable = Utf8ByteBufferAppendable.of(channel, 64, 3);
+            for (int i = 0; i < 1000; i++) {
+                appendable.append("row\u00e9 ").appendInt(i).append('\n');
+                expected.append("row\u00e9 ").append(i).append('\n');
+            }
+            appendable.close();
+
+            byte[] bytes = new byte[(int) file.length()];
+            FileInputStream fis = new FileInputStream(file);
+            try {
+                int n = 0;
+                while (n < bytes.length) {
+                    n += fis.read(bytes, n, bytes.length - n);
+                }
+            } finally {
+                fis.close();
+            }
+            assertEquals(expected.toString(), new String(bytes, UTF8));
+        } finally {
+            file.delete();
+        }
+    }
+}
@@ -17,6 +17,7 @@ import org.simpleflatmapper.map.mapper.AbstractMapperFactory;
 import org.simpleflatmapper.map.mapper.ConstantTargetFieldMapperFactoryImpl;
 import org.simpleflatmapper.map.mapper.DynamicSetRowMapper;
 import org.simpleflatmapper.map.mapper.FieldMapperColumnDefinitionProviderImpl;
+import org.simpleflatmapper.map.mapper.MapperCacheFactory;
 import org.simpleflatmapper.map.mapper.MapperKey;
 import org.simpleflatmapper.util.TypeReference;
 import org.simpleflatmapper.reflect.meta.ClassMeta;
@@ -108,7 +109,7 @@ public class DatastaxMapperFactory extends AbstractMapperFactory<DatastaxColumnK
     }
     public <T> DatastaxMapper<T> mapTo(Type type) {
         final ClassMeta<T> classMeta = getClassMeta(type);
-        return new DynamicDatastaxSetRowMapper<T>(new MapperFactory<T>(classMeta), new MapperKeyFromRowFactory(), new MapperKeyFromSet());
+        return new DynamicDatastaxSetRowMapper<T>(new MapperFactory<T>(classMeta), new MapperKeyFromRowFactory(), new MapperKeyFromSet(), mapperCacheFactory());
     }
 
     public <T, K> DatastaxCrudDSL<T, K> crud(Class<T> targetType, Class<K> keyType) {
@@ -158,7 +159,8 @@ public class DatastaxMapperFactory extends AbstractMapperFactory<DatastaxColumnK
         public DynamicDatastaxSetRowMapper(
                 UnaryFactory<MapperKey<DatastaxColumnKey>, SetRowMapper<Row, ResultSet, T, DriverException>> mapperFactory,
                 UnaryFactoryWithException<Row, MapperKey<DatastaxColumnKey>, DriverException> mapperKeyFromRow,
-                UnaryFactoryWithException<ResultSet, MapperKey<DatastaxColumnKey>, DriverException> mapperKeyFromSet) {
-            super(mapperFactory, mapperKeyFromRow, mapperKeyFromSet, DatastaxMapperKeyComparator.INSTANCE);        }
+                UnaryFactoryWithException<ResultSet, MapperKey<DatastaxColumnKey>, DriverException> mapperKeyFromSet,
+                MapperCacheFactory mapperCacheFactory) {
+            super(mapperFactory, mapperKeyFromRow, mapperKeyFromSet, DatastaxMapperKeyComparator.INSTANCE, mapperCacheFactory);        }
     }
 }
@@ -0,0 +1,6 @@
+module org.simpleflatmapper.etl {
+        requires transitive org.simpleflatmapper.util;
+        requires transitive org.simpleflatmapper.jdbc;
+
+        exports org.simpleflatmapper.etl;
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package org.simpleflatmapper.etl;
+
+import java.util.List;
+
+/**
+ * Called when a BatchLoader fails to load a batch.
+ * <p>
+ * Throwing an exception stops the pipeline, the exception is then thrown to the producer
+ * by the next call to accept or close. Returning normally skips the batch and carries on.
+ * @param <T> the type of the objects
+ */
+public interface BatchErrorHandler<T> {
+    void handle(List<T> batch, Exception error) throws Exception;
+}
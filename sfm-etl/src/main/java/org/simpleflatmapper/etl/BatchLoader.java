@@ -0,0 +1,13 @@
+package org.simpleflatmapper.etl;
+
+import java.util.List;
+
+/**
+ * Load a batch of objects, called by the consumer threads of the BatchLoaderConsumer.
+ * <p>
+ * The list is reused for the next batch once load returns, it must not be kept.
+ * @param <T> the type of the objects
+ */
+public interface BatchLoader<T> {
+    void load(List<T> batch) throws Exception;
+}
@@ -1,41 +1,309 @@
 package org.simpleflatmapper.etl;
 
-import org.jctools.queues.MessagePassingQueue;
+import org.simpleflatmapper.util.CheckedConsumer;
+import org.simpleflatmapper.util.ErrorHelper;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
-public class BatchLoaderConsumer<T> {
-
-//    private final MessagePassingQueue<T> messagePassingQueue;
-//    private final BatchLoader<T> batchLoader;
-//
-//    private final int limit;
-//    private final ArrayList<T> bucket;
-//
-//    private volatile boolean run = true;
-//    public BatchLoaderConsumer(MessagePassingQueue<T> messagePassingQueue, BatchLoader<T> batchLoader) {
-//        this.messagePassingQueue = messagePassingQueue;
-//        this.batchLoader = batchLoader;
-//    }
-//
-//    public void run() {
-//        final QueueConsumer queueConsumer = new QueueConsumer();
-//        do {
-//            messagePassingQueue.drain(queueConsumer, limit);
-//
-//            batchLoader.load(bucket);
-//
-//            bucket.clear();
-//
-//        } while(run);
-//
-//
-//    }
-//
-//    private class QueueConsumer implements MessagePassingQueue.Consumer<T> {
-//        @Override
-//        public void accept(T e) {
-//            bucket.add(e);
-//        }
-//    }
+import static org.simpleflatmapper.util.Asserts.requireNonNull;
+
+/**
+ * Consumer that pushes the objects into a bounded queue drained in batches by consumer threads calling a BatchLoader,
+ * so that the producer - a csv parser for example - runs while the batches are inserted.
+ * <p>
+ * <code>
+ *     BatchLoaderConsumer&lt;MyObject&gt; loader = BatchLoaderConsumer.builder(new CrudBatchLoader&lt;MyObject&gt;(crud)).batchSize(500).start(executor);<br>
+ *     try {<br>
+ *     &nbsp;&nbsp;&nbsp;&nbsp;CsvParser.mapTo(MyObject.class).forEach(file, loader);<br>
+ *     } finally {<br>
+ *     &nbsp;&nbsp;&nbsp;&nbsp;loader.close();<br>
+ *     }<br>
+ * </code>
+ * <p>
+ * accept blocks when the queue is full. A consumer loads its batch when it is full or when the oldest object of the batch
+ * has waited for the flush interval. close flushes the remaining objects and waits for the consumers.
+ * accept and close are meant to be called from one producer thread at a time.
+ * @param <T> the type of the objects
+ */
+public final class BatchLoaderConsumer<T> implements CheckedConsumer<T>, Closeable {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final long DEFAULT_FLUSH_INTERVAL_MS = 1000;
+
+    private static final Object END = new Object();
+    private static final long CHECK_ERROR_MS = 100;
+
+    private final BatchLoader<T> batchLoader;
+    private final BatchErrorHandler<T> errorHandler;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final int nbConsumers;
+
+    private final BlockingQueue<Object> queue;
+    private final CountDownLatch consumersDone;
+    private final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+
+    private final AtomicLong loadedCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong failedBatchCount = new AtomicLong();
+
+    private boolean closed;
+
+    private BatchLoaderConsumer(BatchLoader<T> batchLoader, BatchErrorHandler<T> errorHandler, int batchSize, long flushIntervalMs, int nbConsumers, int queueCapacity, Executor executor) {
+        this.batchLoader = batchLoader;
+        this.errorHandler = errorHandler;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.nbConsumers = nbConsumers;
+        this.queue = new ArrayBlockingQueue<Object>(queueCapacity);
+        this.consumersDone = new CountDownLatch(nbConsumers);
+        for(int i = 0; i < nbConsumers; i++) {
+            executor.execute(new BatchConsumer());
+        }
+    }
+
+    public static <T> Builder<T> builder(BatchLoader<T> batchLoader) {
+        return new Builder<T>(batchLoader);
+    }
+
+    /**
+     * Queue the object, block while the queue is full.
+     * @param t the object
+     * @throws Exception the error that stopped the pipeline
+     */
+    @Override
+    public void accept(T t) throws Exception {
+        if (closed) {
+            throw new IllegalStateException("BatchLoaderConsumer is closed");
+        }
+        put(t);
+    }
+
+    private void put(Object o) throws IOException {
+        try {
+            do {
+                checkError();
+            } while (!queue.offer(o, CHECK_ERROR_MS, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for space in the queue");
+        }
+    }
+
+    private void checkError() {
+        Throwable e = error.get();
+        if (e != null) {
+            ErrorHelper.rethrow(e);
+        }
+    }
+
+    /**
+     * Flush the queued objects and wait for the consumers to finish.
+     * @throws IOException if interrupted, the error that stopped the pipeline is rethrown as is
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for(int i = 0; i < nbConsumers; i++) {
+            put(END);
+        }
+        try {
+            while(!consumersDone.await(CHECK_ERROR_MS, TimeUnit.MILLISECONDS)) {
+                checkError();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for the consumers");
+        }
+        checkError();
+    }
+
+    /**
+     * @return the number of objects loaded
+     */
+    public long getLoadedCount() {
+        return loadedCount.get();
+    }
+
+    /**
+     * @return the number of batches loaded
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * @return the number of batches that failed and were skipped by the error handler
+     */
+    public long getFailedBatchCount() {
+        return failedBatchCount.get();
+    }
+
+    private class BatchConsumer implements Runnable {
+        private final List<Object> batch = new ArrayList<Object>(batchSize);
+
+        @Override
+        public void run() {
+            try {
+                boolean end = false;
+                long deadline = 0;
+                while (!end && error.get() == null) {
+                    Object o;
+                    if (batch.isEmpty()) {
+                        o = queue.poll(CHECK_ERROR_MS, TimeUnit.MILLISECONDS);
+                        deadline = System.nanoTime() + flushIntervalNanos;
+                    } else {
+                        o = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    }
+                    if (o == END) {
+                        end = true;
+                    } else if (o != null) {
+                        batch.add(o);
+                        if (batch.size() < batchSize) {
+                            queue.drainTo(batch, batchSize - batch.size());
+                            end = removeEnds();
+                        }
+                    }
+                    if (batch.size() >= batchSize
+                            || (end || deadline - System.nanoTime() <= 0) && !batch.isEmpty()) {
+                        load();
+                    }
+                }
+            } catch (Throwable e) {
+                error.compareAndSet(null, e);
+            } finally {
+                consumersDone.countDown();
+            }
+        }
+
+        // the end markers are queued after the last object, give back the ones for the other consumers,
+        // waiting for space as the queue can be smaller than the number of consumers
+        private boolean removeEnds() throws InterruptedException {
+            int nbEnds = 0;
+            int last;
+            while((last = batch.size() - 1) >= 0 && batch.get(last) == END) {
+                batch.remove(last);
+                nbEnds++;
+            }
+            for(int i = 1; i < nbEnds; i++) {
+                while (!queue.offer(END, CHECK_ERROR_MS, TimeUnit.MILLISECONDS)) {
+                    if (error.get() != null) {
+                        // the consumers stop on error, the end markers are not needed anymore
+                        return true;
+                    }
+                }
+            }
+            return nbEnds > 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void load() throws Exception {
+            List<T> values = (List<T>) batch;
+            try {
+                batchLoader.load(values);
+                loadedCount.addAndGet(values.size());
+                batchCount.incrementAndGet();
+            } catch (Exception e) {
+                failedBatchCount.incrementAndGet();
+                errorHandler.handle(values, e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    public static final class Builder<T> {
+        private final BatchLoader<T> batchLoader;
+        private BatchErrorHandler<T> errorHandler;
+        private int batchSize = DEFAULT_BATCH_SIZE;
+        private long flushIntervalMs = DEFAULT_FLUSH_INTERVAL_MS;
+        private int nbConsumers = 1;
+        private int queueCapacity = -1;
+
+        private Builder(BatchLoader<T> batchLoader) {
+            this.batchLoader = requireNonNull("batchLoader", batchLoader);
+        }
+
+        /**
+         * @param batchSize the maximum number of objects passed to the BatchLoader at once
+         * @return the current builder
+         */
+        public Builder<T> batchSize(int batchSize) {
+            if (batchSize <= 0) throw new IllegalArgumentException("batchSize must be positive");
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * @param flushIntervalMs the maximum time an object waits for its batch to fill up
+         * @return the current builder
+         */
+        public Builder<T> flushIntervalMs(long flushIntervalMs) {
+            if (flushIntervalMs < 0) throw new IllegalArgumentException("flushIntervalMs must be positive");
+            this.flushIntervalMs = flushIntervalMs;
+            return this;
+        }
+
+        /**
+         * @param nbConsumers the number of threads loading the batches
+         * @return the current builder
+         */
+        public Builder<T> nbConsumers(int nbConsumers) {
+            if (nbConsumers <= 0) throw new IllegalArgumentException("nbConsumers must be positive");
+            this.nbConsumers = nbConsumers;
+            return this;
+        }
+
+        /**
+         * @param queueCapacity the number of objects queued before accept blocks, default to 2 batches per consumer
+         * @return the current builder
+         */
+        public Builder<T> queueCapacity(int queueCapacity) {
+            if (queueCapacity <= 0) throw new IllegalArgumentException("queueCapacity must be positive");
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * @param errorHandler the handler of the batches that failed to load, by default the error stops the pipeline
+         * @return the current builder
+         */
+        public Builder<T> errorHandler(BatchErrorHandler<T> errorHandler) {
+            this.errorHandler = errorHandler;
+            return this;
+        }
+
+        /**
+         * Start the consumers on the executor, it needs to be able to run nbConsumers tasks concurrently.
+         * @param executor the executor
+         * @return the consumer to push the objects to
+         */
+        public BatchLoaderConsumer<T> start(Executor executor) {
+            requireNonNull("executor", executor);
+            int capacity = queueCapacity > 0 ? queueCapacity : Math.max(batchSize * nbConsumers * 2, nbConsumers);
+            BatchErrorHandler<T> handler = errorHandler != null ? errorHandler : new RethrowBatchErrorHandler<T>();
+            return new BatchLoaderConsumer<T>(batchLoader, handler, batchSize, flushIntervalMs, nbConsumers, capacity, executor);
+        }
+    }
+
+    private static final class RethrowBatchErrorHandler<T> implements BatchErrorHandler<T> {
+        @Override
+        public void handle(List<T> batch, Exception error) throws Exception {
+            throw error;
+        }
+    }
 }
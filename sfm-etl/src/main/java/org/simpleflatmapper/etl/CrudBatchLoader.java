@@ -0,0 +1,25 @@
+package org.simpleflatmapper.etl;
+
+import org.simpleflatmapper.jdbc.ConnectedCrud;
+
+import java.util.List;
+
+import static org.simpleflatmapper.util.Asserts.requireNonNull;
+
+/**
+ * Insert each batch with {@link ConnectedCrud#create(java.util.Collection)}, in one transaction per batch.
+ * @param <T> the type of the objects
+ */
+public final class CrudBatchLoader<T> implements BatchLoader<T> {
+
+    private final ConnectedCrud<T, ?> crud;
+
+    public CrudBatchLoader(ConnectedCrud<T, ?> crud) {
+        this.crud = requireNonNull("crud", crud);
+    }
+
+    @Override
+    public void load(List<T> batch) throws Exception {
+        crud.create(batch);
+    }
+}
@@ -0,0 +1,4 @@
+module org.simpleflatmapper.etl.test {
+        requires org.simpleflatmapper.etl;
+        requires junit;
+}
\ No newline at end of file
@@ -0,0 +1,158 @@
+package org.simpleflatmapper.etl.test;
+
+import org.junit.After;
+import org.junit.Test;
+import org.simpleflatmapper.etl.BatchErrorHandler;
+import org.simpleflatmapper.etl.BatchLoader;
+import org.simpleflatmapper.etl.BatchLoaderConsumer;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BatchLoaderConsumerTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testLoadAllInBatches() throws Exception {
+        CollectingBatchLoader loader = new CollectingBatchLoader();
+        BatchLoaderConsumer<Integer> consumer = BatchLoaderConsumer.builder(loader).batchSize(10).nbConsumers(3).queueCapacity(7).start(executor);
+        for(int i = 0; i < 1005; i++) {
+            consumer.accept(i);
+        }
+        consumer.close();
+
+        List<Integer> values = loader.values();
+        Collections.sort(values);
+        assertEquals(1005, values.size());
+        for(int i = 0; i < values.size(); i++) {
+            assertEquals(i, values.get(i).intValue());
+        }
+        assertEquals(1005, consumer.getLoadedCount());
+        assertEquals(loader.batchSizes.size(), consumer.getBatchCount());
+        for(Integer size : loader.batchSizes) {
+            assertTrue(size <= 10);
+        }
+    }
+
+    @Test
+    public void testQueueSmallerThanTheNumberOfConsumers() throws Exception {
+        for(int n = 0; n < 300; n++) {
+            CollectingBatchLoader loader = new CollectingBatchLoader();
+            int queueCapacity = 1 + n % 3;
+            final BatchLoaderConsumer<Integer> consumer = BatchLoaderConsumer.builder(loader).batchSize(10).nbConsumers(8).queueCapacity(queueCapacity).start(executor);
+            for(int i = 0; i < 25; i++) {
+                consumer.accept(i);
+            }
+            Future<?> close = executor.submit(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    consumer.close();
+                    return null;
+                }
+            });
+            close.get(10, TimeUnit.SECONDS);
+            assertEquals(25, loader.values().size());
+        }
+    }
+
+    @Test
+    public void testFlushInterval() throws Exception {
+        CollectingBatchLoader loader = new CollectingBatchLoader();
+        BatchLoaderConsumer<Integer> consumer = BatchLoaderConsumer.builder(loader).batchSize(1000).flushIntervalMs(10).start(executor);
+        try {
+            consumer.accept(1);
+            consumer.accept(2);
+            long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+            while(loader.values().size() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(2, loader.values().size());
+        } finally {
+            consumer.close();
+        }
+    }
+
+    @Test
+    public void testErrorStopsThePipeline() throws Exception {
+        BatchLoader<Integer> loader = new BatchLoader<Integer>() {
+            @Override
+            public void load(List<Integer> batch) throws Exception {
+                throw new SQLException("insert failed");
+            }
+        };
+        BatchLoaderConsumer<Integer> consumer = BatchLoaderConsumer.builder(loader).batchSize(2).queueCapacity(2).start(executor);
+        try {
+            for(int i = 0; i < 100; i++) {
+                consumer.accept(i);
+            }
+            consumer.close();
+            fail();
+        } catch (SQLException e) {
+            assertEquals("insert failed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testErrorHandlerSkipsBatch() throws Exception {
+        final List<Integer> failed = Collections.synchronizedList(new ArrayList<Integer>());
+        final CollectingBatchLoader collector = new CollectingBatchLoader();
+        BatchLoader<Integer> loader = new BatchLoader<Integer>() {
+            @Override
+            public void load(List<Integer> batch) throws Exception {
+                if (batch.contains(13)) {
+                    throw new SQLException("insert failed");
+                }
+                collector.load(batch);
+            }
+        };
+        BatchLoaderConsumer<Integer> consumer = BatchLoaderConsumer.builder(loader)
+                .batchSize(5)
+                .errorHandler(new BatchErrorHandler<Integer>() {
+                    @Override
+                    public void handle(List<Integer> batch, Exception error) {
+                        failed.addAll(batch);
+                    }
+                })
+                .start(executor);
+        for(int i = 0; i < 100; i++) {
+            consumer.accept(i);
+        }
+        consumer.close();
+
+        assertTrue(failed.contains(13));
+        assertEquals(100, failed.size() + collector.values().size());
+        assertEquals(1, consumer.getFailedBatchCount());
+    }
+
+    private static class CollectingBatchLoader implements BatchLoader<Integer> {
+        private final List<Integer> values = new ArrayList<Integer>();
+        private final List<Integer> batchSizes = new ArrayList<Integer>();
+
+        @Override
+        public synchronized void load(List<Integer> batch) {
+            values.addAll(batch);
+            batchSizes.add(batch.size());
+        }
+
+        synchronized List<Integer> values() {
+            return new ArrayList<Integer>(values);
+        }
+    }
+}
@@ -3,8 +3,12 @@ module org.simpleflatmapper.jdbc {
 
     requires transitive java.sql;
 
+    requires static org.reactivestreams;
+
     exports org.simpleflatmapper.jdbc;
+    exports org.simpleflatmapper.jdbc.async;
     exports org.simpleflatmapper.jdbc.named;
+    exports org.simpleflatmapper.jdbc.partition;
     exports org.simpleflatmapper.jdbc.property;
     exports org.simpleflatmapper.jdbc.property.time;
 
@@ -1,11 +1,26 @@
 package org.simpleflatmapper.jdbc;
 
+import org.simpleflatmapper.jdbc.impl.ChunkCommitter;
 import org.simpleflatmapper.util.CheckedConsumer;
+import org.simpleflatmapper.util.ErrorHelper;
 
 import java.lang.reflect.Type;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+//IFJAVA8_START
+import org.simpleflatmapper.jdbc.async.AsyncConnectedCrud;
+import org.simpleflatmapper.jdbc.partition.PartitionedSelectQuery;
+import java.util.stream.Stream;
+//IFJAVA8_END
 
 /**
  *
@@ -101,6 +116,48 @@ public class ConnectedCrud<T, K> {
         return keyConsumer;
     }
 
+    /**
+     * insert the values pulled from the iterator, chunkSize rows at a time.
+     * see {@link Crud#create(Connection, Iterator, int, int)}.
+     *
+     * @param values      the values
+     * @param chunkSize   the number of rows sent to the db at once
+     * @param commitEvery the number of chunks between commits, 0 to never commit
+     * @throws SQLException if an error occurs
+     */
+    public void create(final Iterator<T> values, final int chunkSize, final int commitEvery) throws SQLException {
+        transactionTemplate
+            .doInTransaction(new SQLFunction<Connection, Object>() {
+                @Override
+                public Object apply(Connection connection) throws SQLException {
+                    delegate.create(connection, values, chunkSize, commitEvery);
+                    return null;
+                }
+            });
+    }
+
+    /**
+     * insert the values of the stream, chunkSize rows at a time.
+     * see {@link Crud#create(Connection, Iterator, int, int)}.
+     *
+     * @param values      the values
+     * @param chunkSize   the number of rows sent to the db at once
+     * @param commitEvery the number of chunks between commits, 0 to never commit
+     * @throws SQLException if an error occurs
+     */
+    //IFJAVA8_START
+    public void create(final Stream<T> values, final int chunkSize, final int commitEvery) throws SQLException {
+        transactionTemplate
+            .doInTransaction(new SQLFunction<Connection, Object>() {
+                @Override
+                public Object apply(Connection connection) throws SQLException {
+                    delegate.create(connection, values, chunkSize, commitEvery);
+                    return null;
+                }
+            });
+    }
+    //IFJAVA8_END
+
     /**
      * retrieve the object with the specified key.
      *
@@ -138,6 +195,33 @@ public class ConnectedCrud<T, K> {
         return consumer;
     }
 
+    /**
+     * retrieve the objects with the specified keys and pass them to the consumer.
+     * The keys are split in chunks read in parallel on the executor, each chunk through its own transaction.
+     * The consumer is called by one thread at a time, the order of the objects is not preserved.
+     *
+     * @param keys       the keys
+     * @param consumer the handler that is callback for each row
+     * @param chunkSize the number of keys per chunk
+     * @param executor the executor the chunks are read on
+     * @throws SQLException if an error occurs
+     */
+    public <RH extends CheckedConsumer<? super T>> RH read(final Collection<K> keys, final RH consumer, int chunkSize, Executor executor) throws SQLException {
+        final CheckedConsumer<T> synchronizedConsumer = new CheckedConsumer<T>() {
+            @Override
+            public synchronized void accept(T t) throws Exception {
+                consumer.accept(t);
+            }
+        };
+        executeInParallelChunks(keys, chunkSize, executor, new KeysFunction<K>() {
+            @Override
+            public void apply(Connection connection, Collection<K> keys) throws SQLException {
+                delegate.read(connection, keys, synchronizedConsumer);
+            }
+        });
+        return consumer;
+    }
+
     /**
      * update the object.
      *
@@ -206,6 +290,25 @@ public class ConnectedCrud<T, K> {
             });
     }
 
+    /**
+     * delete the objects with the specified keys.
+     * The keys are split in chunks deleted in parallel on the executor, each chunk through its own transaction,
+     * if a chunk fails the chunks already committed stay deleted.
+     *
+     * @param keys       the keys
+     * @param chunkSize the number of keys per chunk
+     * @param executor the executor the chunks are deleted on
+     * @throws SQLException if an error occurs
+     */
+    public void delete(final Collection<K> keys, int chunkSize, Executor executor) throws SQLException {
+        executeInParallelChunks(keys, chunkSize, executor, new KeysFunction<K>() {
+            @Override
+            public void apply(Connection connection, Collection<K> keys) throws SQLException {
+                delegate.delete(connection, keys);
+            }
+        });
+    }
+
     /**
      * UPSERT only supported on Mysql
      * @param value the value
@@ -283,14 +386,143 @@ public class ConnectedCrud<T, K> {
         return keyConsumer;
     }
 
+    /**
+     * UPSERT only supported on Mysql and Postgres 9.5.
+     * The values are pulled from the iterator, chunkSize rows at a time.
+     *
+     * @param values      the values
+     * @param chunkSize   the number of rows sent to the db at once
+     * @param commitEvery the number of chunks between commits, 0 to never commit
+     * @throws SQLException if an error occurs
+     */
+    public void createOrUpdate(final Iterator<T> values, final int chunkSize, final int commitEvery) throws SQLException {
+        transactionTemplate
+            .doInTransaction(new SQLFunction<Connection, Object>() {
+                @Override
+                public Object apply(Connection connection) throws SQLException {
+                    delegate.createOrUpdate(connection, values, chunkSize, commitEvery);
+                    return null;
+                }
+            });
+    }
+
+    /**
+     * UPSERT only supported on Mysql and Postgres 9.5.
+     * The values are pulled from the stream, chunkSize rows at a time.
+     *
+     * @param values      the values
+     * @param chunkSize   the number of rows sent to the db at once
+     * @param commitEvery the number of chunks between commits, 0 to never commit
+     * @throws SQLException if an error occurs
+     */
+    //IFJAVA8_START
+    public void createOrUpdate(final Stream<T> values, final int chunkSize, final int commitEvery) throws SQLException {
+        transactionTemplate
+            .doInTransaction(new SQLFunction<Connection, Object>() {
+                @Override
+                public Object apply(Connection connection) throws SQLException {
+                    delegate.createOrUpdate(connection, values, chunkSize, commitEvery);
+                    return null;
+                }
+            });
+    }
+    //IFJAVA8_END
+
+
+    private void executeInParallelChunks(Collection<K> keys, int chunkSize, Executor executor, final KeysFunction<K> function) throws SQLException {
+        ChunkCommitter.checkChunkSize(chunkSize);
+        List<K> list = keys instanceof List ? (List<K>) keys : new ArrayList<K>(keys);
+        List<FutureTask<Object>> tasks = new ArrayList<FutureTask<Object>>();
+        for(int i = 0; i < list.size(); i += chunkSize) {
+            final List<K> chunk = list.subList(i, Math.min(list.size(), i + chunkSize));
+            FutureTask<Object> task = new FutureTask<Object>(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    return transactionTemplate
+                        .doInTransaction(new SQLFunction<Connection, Object>() {
+                            @Override
+                            public Object apply(Connection connection) throws SQLException {
+                                function.apply(connection, chunk);
+                                return null;
+                            }
+                        });
+                }
+            });
+            tasks.add(task);
+            executor.execute(task);
+        }
+
+        Throwable error = null;
+        for(FutureTask<Object> task : tasks) {
+            if (error != null) {
+                // do not start the chunks left
+                task.cancel(false);
+            }
+            try {
+                task.get();
+            } catch (CancellationException e) {
+                // cancelled after the first error
+            } catch (ExecutionException e) {
+                if (error == null) {
+                    error = e.getCause();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+        if (error != null) {
+            ErrorHelper.rethrow(error);
+        }
+    }
+
+    private interface KeysFunction<K> {
+        void apply(Connection connection, Collection<K> keys) throws SQLException;
+    }
 
     public Crud<T, K> crud() {
         return delegate;
     }
 
+    /**
+     * asynchronous view of this crud running the operations on the executor.
+     * The executor should limit the number of operations in flight to the size of the connection pool.
+     *
+     * @param executor the executor
+     * @return the asynchronous crud
+     * @see org.simpleflatmapper.jdbc.async.ConcurrencyLimitedExecutor
+     */
+    //IFJAVA8_START
+    public AsyncConnectedCrud<T, K> async(Executor executor) {
+        return new AsyncConnectedCrud<T, K>(this, executor);
+    }
+    //IFJAVA8_END
+
     public <P> ConnectedSelectQuery<T, P> where(final String whereClause, final Type paramClass) {
         SelectQuery<T, P> selectQuery = delegate.where(whereClause, paramClass);
         return new ConnectedSelectQuery<T, P>(selectQuery, transactionTemplate);
     }
 
+    /**
+     * select query run once per partition, concurrently on the executor, each partition in its own transaction.
+     * <pre>
+     *     crud.&lt;KeyRange&gt;partitionedWhere("id &gt;= :from AND id &lt; :to", KeyRange.class, executor)
+     *         .stream(PartitionPlanners.keyRanges(0, 1000000, 8))
+     * </pre>
+     *
+     * @param whereClause the where clause with the partition parameters
+     * @param paramClass the type of the partition parameter
+     * @param executor the executor limiting the concurrency to the size of the connection pool
+     * @param <P> the type of the partition parameter
+     * @return the partitioned query
+     * @see org.simpleflatmapper.jdbc.async.ConcurrencyLimitedExecutor
+     */
+    //IFJAVA8_START
+    public <P> PartitionedSelectQuery<T, P> partitionedWhere(final String whereClause, final Type paramClass, final Executor executor) {
+        SelectQuery<T, P> selectQuery = delegate.where(whereClause, paramClass);
+        return new PartitionedSelectQuery<T, P>(selectQuery, transactionTemplate, executor);
+    }
+    //IFJAVA8_END
 }
@@ -4,6 +4,10 @@ import org.simpleflatmapper.util.CheckedConsumer;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+//IFJAVA8_START
+import java.util.function.Function;
+import java.util.stream.Stream;
+//IFJAVA8_END
 
 public class ConnectedSelectQuery<T, P> {
 
@@ -37,4 +41,54 @@ public class ConnectedSelectQuery<T, P> {
         return consumer;
     }
 
+    /**
+     * read the rows with a forward only cursor, the rows are mapped as the driver fetches them so that the heap
+     * stays bounded whatever the size of the result.
+     *
+     * @param p the parameter
+     * @param fetchSize the number of rows fetched per round trip, ignored on MySQL that streams row by row
+     * @param consumer the handler that is callback for each row
+     * @param <C> the type of consumer
+     * @return the consumer
+     * @throws SQLException if an error occurs
+     * @see SelectQuery#read(Connection, Object, int, CheckedConsumer)
+     */
+    public <C extends CheckedConsumer<? super T>> C read(final P p, final int fetchSize, final C consumer) throws SQLException {
+        txFactory.doInTransaction(new SQLFunction<Connection, Object>() {
+            @Override
+            public Object apply(Connection connection) throws SQLException {
+                delegate.read(connection, p, fetchSize, consumer);
+                return null;
+            }
+        });
+        return consumer;
+    }
+
+    /**
+     * stream the rows with a forward only cursor to the function.
+     * The stream is only valid during the call of the function and is closed with the statement when it returns.
+     *
+     * @param p the parameter
+     * @param fetchSize the number of rows fetched per round trip, ignored on MySQL that streams row by row
+     * @param function the function consuming the stream
+     * @param <R> the type of result
+     * @return the result of the function
+     * @throws SQLException if an error occurs
+     * @see SelectQuery#stream(Connection, Object, int)
+     */
+    //IFJAVA8_START
+    public <R> R stream(final P p, final int fetchSize, final Function<? super Stream<T>, ? extends R> function) throws SQLException {
+        return txFactory.doInTransaction(new SQLFunction<Connection, R>() {
+            @Override
+            public R apply(Connection connection) throws SQLException {
+                Stream<T> stream = delegate.stream(connection, p, fetchSize);
+                try {
+                    return function.apply(stream);
+                } finally {
+                    stream.close();
+                }
+            }
+        });
+    }
+    //IFJAVA8_END
 }
@@ -6,6 +6,10 @@ import java.lang.reflect.Type;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.Iterator;
+//IFJAVA8_START
+import java.util.stream.Stream;
+//IFJAVA8_END
 
 /**
  *
@@ -57,6 +61,36 @@ public interface Crud<T, K> {
      */
     <RH extends CheckedConsumer<? super K>> RH create(Connection connection, Collection<T> values, RH keyConsumer) throws SQLException;
 
+    /**
+     * insert the values pulled from the iterator into the db through the specified connection, chunkSize rows at a time
+     * so that only one chunk is held in memory.
+     * If commitEvery is positive and the connection is not in auto commit the connection is committed every
+     * commitEvery chunks, the last chunks are left to the caller transaction. The generated keys are not retrieved.
+     * The multi rows inserts send a chunk with the statements of its power of 2 decomposition, a chunk size that is a
+     * power of 2 needs one statement per chunk. The postgresql COPY sends one COPY per commitEvery chunks.
+     * An Enumarable can be passed through an EnumarableIterator.
+     *
+     * @param connection  the connection
+     * @param values      the values
+     * @param chunkSize   the number of rows sent to the db at once
+     * @param commitEvery the number of chunks between commits, 0 to never commit
+     * @throws SQLException if an error occurs
+     */
+    void create(Connection connection, Iterator<T> values, int chunkSize, int commitEvery) throws SQLException;
+
+    /**
+     * insert the values of the stream, see {@link #create(Connection, Iterator, int, int)}.
+     *
+     * @param connection  the connection
+     * @param values      the values
+     * @param chunkSize   the number of rows sent to the db at once
+     * @param commitEvery the number of chunks between commits, 0 to never commit
+     * @throws SQLException if an error occurs
+     */
+    //IFJAVA8_START
+    void create(Connection connection, Stream<T> values, int chunkSize, int commitEvery) throws SQLException;
+    //IFJAVA8_END
+
     /**
      * retrieve the object with the specified key.
      *
@@ -156,6 +190,30 @@ public interface Crud<T, K> {
      */
     <RH extends CheckedConsumer<? super K>> RH createOrUpdate(Connection connection, Collection<T> values, RH keyConsumer) throws SQLException;
 
+    /**
+     * UPSERT only supported on Mysql and Postgres 9.5.
+     * The values are pulled from the iterator by chunks, see {@link #create(Connection, Iterator, int, int)}.
+     * @param connection  the connection
+     * @param values      the values
+     * @param chunkSize   the number of rows sent to the db at once
+     * @param commitEvery the number of chunks between commits, 0 to never commit
+     * @throws SQLException
+     */
+    void createOrUpdate(Connection connection, Iterator<T> values, int chunkSize, int commitEvery) throws SQLException;
+
+    /**
+     * UPSERT only supported on Mysql and Postgres 9.5.
+     * The values are pulled from the stream by chunks, see {@link #create(Connection, Iterator, int, int)}.
+     * @param connection  the connection
+     * @param values      the values
+     * @param chunkSize   the number of rows sent to the db at once
+     * @param commitEvery the number of chunks between commits, 0 to never commit
+     * @throws SQLException
+     */
+    //IFJAVA8_START
+    void createOrUpdate(Connection connection, Stream<T> values, int chunkSize, int commitEvery) throws SQLException;
+    //IFJAVA8_END
+
 
     <P> SelectQuery<T, P> where(String whereClause, Type paramClass);
 }
@@ -1,5 +1,9 @@
 package org.simpleflatmapper.jdbc;
 
+//IFJAVA8_START
+import org.simpleflatmapper.jdbc.async.AsyncConnectedCrud;
+import org.simpleflatmapper.jdbc.async.ConcurrencyLimitedExecutor;
+//IFJAVA8_END
 import org.simpleflatmapper.jdbc.impl.CrudFactory;
 import org.simpleflatmapper.jdbc.impl.CrudMeta;
 import org.simpleflatmapper.jdbc.impl.LazyCrud;
@@ -15,16 +19,47 @@ import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+//IFJAVA8_START
+import java.util.concurrent.Executor;
+//IFJAVA8_END
 
 public class CrudDSL<T, K> {
     private final ClassMeta<T> target;
     private final ClassMeta<K> keyTarget;
     private final JdbcMapperFactory jdbcMapperFactory;
+    private final boolean postgresqlCopy;
+    private final PreparedStatementCache statementCache;
 
     public CrudDSL(ClassMeta<T> target, ClassMeta<K> keyTarget, JdbcMapperFactory jdbcMapperFactory) {
+        this(target, keyTarget, jdbcMapperFactory, false, null);
+    }
+
+    private CrudDSL(ClassMeta<T> target, ClassMeta<K> keyTarget, JdbcMapperFactory jdbcMapperFactory, boolean postgresqlCopy, PreparedStatementCache statementCache) {
         this.target = target;
         this.keyTarget = keyTarget;
         this.jdbcMapperFactory = jdbcMapperFactory;
+        this.postgresqlCopy = postgresqlCopy;
+        this.statementCache = statementCache;
+    }
+
+    /**
+     * Insert the collections with COPY FROM STDIN on postgresql when the generated keys are not requested.
+     * Fallback to multi rows insert if the postgresql driver is not available. Ignored on other databases.
+     * @param postgresqlCopy true to use COPY
+     * @return a new dsl
+     */
+    public CrudDSL<T, K> postgresqlCopy(boolean postgresqlCopy) {
+        return new CrudDSL<T, K>(target, keyTarget, jdbcMapperFactory, postgresqlCopy, statementCache);
+    }
+
+    /**
+     * Reuse the statements of the single row create, read, update, delete and createOrUpdate
+     * instead of preparing one per call. The cache can be shared between cruds.
+     * @param statementCache the cache, null to prepare a statement per call
+     * @return a new dsl
+     */
+    public CrudDSL<T, K> statementCache(PreparedStatementCache statementCache) {
+        return new CrudDSL<T, K>(target, keyTarget, jdbcMapperFactory, postgresqlCopy, statementCache);
     }
 
     /**
@@ -54,7 +89,7 @@ public class CrudDSL<T, K> {
      */
     public Crud<T, K> table(Connection connection, String table) throws SQLException {
         CrudMeta crudMeta = CrudMeta.of(connection, table, jdbcMapperFactory.columnDefinitions());
-        return CrudFactory.<T, K>newInstance(target, keyTarget, crudMeta, jdbcMapperFactory);
+        return CrudFactory.<T, K>newInstance(target, keyTarget, crudMeta, jdbcMapperFactory, postgresqlCopy, statementCache);
     }
 
     /**
@@ -73,6 +108,39 @@ public class CrudDSL<T, K> {
         }
     }
 
+    /**
+     * Create an asynchronous crud against the specified table validating it against the specified datasource.
+     * The operations run on the default executor, virtual threads on java 21 and later, with at most as many
+     * operations in flight as the maximum size of the pool of the datasource.
+     * @param dataSource the datasource
+     * @param table the table
+     * @return a new crud instance
+     * @throws SQLException if an error occurred
+     * @see AsyncConnectedCrud#defaultExecutor()
+     * @see ConcurrencyLimitedExecutor#maxPoolSize(DataSource)
+     */
+    //IFJAVA8_START
+    public AsyncConnectedCrud<T, K> asyncTable(DataSource dataSource, String table) throws SQLException {
+        return asyncTable(dataSource, table, AsyncConnectedCrud.defaultExecutor());
+    }
+    //IFJAVA8_END
+
+    /**
+     * Create an asynchronous crud against the specified table validating it against the specified datasource.
+     * The operations run on the executor with at most as many operations in flight as the maximum size of the pool of
+     * the datasource.
+     * @param dataSource the datasource
+     * @param table the table
+     * @param executor the executor the operations run on
+     * @return a new crud instance
+     * @throws SQLException if an error occurred
+     */
+    //IFJAVA8_START
+    public AsyncConnectedCrud<T, K> asyncTable(DataSource dataSource, String table, Executor executor) throws SQLException {
+        return new AsyncConnectedCrud<T, K>(table(dataSource, table), ConcurrencyLimitedExecutor.of(executor, dataSource));
+    }
+    //IFJAVA8_END
+
     /**
      * Create a connected crud validating it against the specified datasource.
      * The table name is derived from the jpa annotation or from the class name.
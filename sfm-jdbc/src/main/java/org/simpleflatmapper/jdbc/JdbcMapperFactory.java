@@ -1,10 +1,19 @@
 package org.simpleflatmapper.jdbc;
 
+//IFJAVA8_START
+import org.simpleflatmapper.jdbc.async.AsyncConnectedCrud;
+import org.simpleflatmapper.jdbc.async.ConcurrencyLimitedExecutor;
+import org.simpleflatmapper.jdbc.impl.DataSourceTransactionTemplate;
+import org.simpleflatmapper.jdbc.impl.SelectQueryImpl;
+import org.simpleflatmapper.jdbc.named.NamedSqlQuery;
+import org.simpleflatmapper.jdbc.partition.PartitionedSelectQuery;
+//IFJAVA8_END
 import org.simpleflatmapper.jdbc.impl.PreparedStatementIndexedSetterFactory;
 import org.simpleflatmapper.map.MappingContext;
 import org.simpleflatmapper.reflect.getter.GetterFactory;
 import org.simpleflatmapper.jdbc.impl.JdbcColumnKeyMapperKeyComparator;
 import org.simpleflatmapper.jdbc.impl.PreparedStatementSetterFactory;
+import org.simpleflatmapper.jdbc.impl.StatementMapperCache;
 import org.simpleflatmapper.map.FieldMapper;
 import org.simpleflatmapper.map.SetRowMapper;
 import org.simpleflatmapper.map.property.FieldMapperColumnDefinition;
@@ -13,6 +22,7 @@ import org.simpleflatmapper.map.mapper.AbstractMapperFactory;
 import org.simpleflatmapper.map.mapper.ConstantTargetFieldMapperFactoryImpl;
 import org.simpleflatmapper.map.mapper.DynamicSetRowMapper;
 import org.simpleflatmapper.map.mapper.FieldMapperColumnDefinitionProviderImpl;
+import org.simpleflatmapper.map.mapper.MapperCacheFactory;
 import org.simpleflatmapper.map.mapper.MapperKey;
 import org.simpleflatmapper.util.TypeHelper;
 import org.simpleflatmapper.util.TypeReference;
@@ -25,6 +35,12 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+//IFJAVA8_START
+import javax.sql.DataSource;
+import java.util.concurrent.Executor;
+//IFJAVA8_END
 
 /**
  * JdbcMapperFactory allows you to customise the mappers and create an newInstance of it using a fluent syntax.
@@ -73,6 +89,8 @@ public final class JdbcMapperFactory
 
 	private GetterFactory<ResultSet, JdbcColumnKey> getterFactory = ResultSetGetterFactory.INSTANCE;
 
+	private boolean cacheMapperPerStatement = true;
+
 	private JdbcMapperFactory(AbstractMapperFactory<JdbcColumnKey, FieldMapperColumnDefinition<JdbcColumnKey>, ?> config) {
 		super(config);
 	}
@@ -92,6 +110,17 @@ public final class JdbcMapperFactory
 	}
 
 
+	/**
+	 * The dynamic mappers remember the mapper resolved for a PreparedStatement and reuse it on the next executions
+	 * without building a MapperKey, the label and type of the columns are checked against the ResultSetMetaData.
+	 * @param cacheMapperPerStatement false to look up the mapper by MapperKey on each execution
+	 * @return the current factory
+	 */
+	public JdbcMapperFactory cacheMapperPerStatement(final boolean cacheMapperPerStatement) {
+		this.cacheMapperPerStatement = cacheMapperPerStatement;
+		return this;
+	}
+
 	/**
 	 * Associate the specified FieldMapper for the specified property.
 	 * @param key the property
@@ -237,6 +266,46 @@ public final class JdbcMapperFactory
 		return crud((Type)target, (Type)keyTarget);
 	}
 
+	/**
+	 * Will create a query run once per partition, concurrently on connections of the dataSource, the rows of all the
+	 * partitions are mapped by the same DynamicMapper.
+	 * The partitions run on the default executor with at most as many partitions in flight as the maximum size of the
+	 * pool of the dataSource.
+	 * @param dataSource the dataSource
+	 * @param query the query with the partition parameters, ie "SELECT * FROM quote WHERE id &gt;= :from AND id &lt; :to"
+	 * @param paramClass the type of the partition parameter, ie KeyRange
+	 * @param target the class
+	 * @param <T> the jdbcMapper target type
+	 * @param <P> the type of the partition parameter
+	 * @return the partitioned query
+	 * @see org.simpleflatmapper.jdbc.partition.PartitionPlanners
+	 */
+	//IFJAVA8_START
+	public <T, P> PartitionedSelectQuery<T, P> partitionedQuery(final DataSource dataSource, final NamedSqlQuery query, final Class<P> paramClass, final Class<T> target) {
+		return partitionedQuery(dataSource, query, paramClass, target, ConcurrencyLimitedExecutor.of(AsyncConnectedCrud.defaultExecutor(), dataSource));
+	}
+	//IFJAVA8_END
+
+	/**
+	 * Will create a query run once per partition, concurrently on the executor with connections of the dataSource,
+	 * the rows of all the partitions are mapped by the same DynamicMapper.
+	 * @param dataSource the dataSource
+	 * @param query the query with the partition parameters
+	 * @param paramClass the type of the partition parameter
+	 * @param target the class
+	 * @param executor the executor limiting the concurrency to the size of the connection pool
+	 * @param <T> the jdbcMapper target type
+	 * @param <P> the type of the partition parameter
+	 * @return the partitioned query
+	 */
+	//IFJAVA8_START
+	public <T, P> PartitionedSelectQuery<T, P> partitionedQuery(final DataSource dataSource, final NamedSqlQuery query, final Class<P> paramClass, final Class<T> target, final Executor executor) {
+		QueryPreparer<P> queryPreparer = from(paramClass).to(query);
+		JdbcMapper<T> mapper = newMapper(target);
+		return new PartitionedSelectQuery<T, P>(new SelectQueryImpl<T, P>(queryPreparer, mapper), new DataSourceTransactionTemplate(dataSource), executor);
+	}
+	//IFJAVA8_END
+
 	/**
      * Will create a DynamicMapper on the specified type.
      * @param target the type
@@ -245,26 +314,101 @@ public final class JdbcMapperFactory
      */
 	public <T> DynamicJdbcMapper<T> newMapper(final Type target) {
 		final ClassMeta<T> classMeta = getClassMeta(target);
-		return new DynamicJdbcSetRowMapper<T>(new SetRowMapperFactory<T>(classMeta),  new MapperKeyFactory(),  new MapperKeyFactory());
+		return new DynamicJdbcSetRowMapper<T>(new SetRowMapperFactory<T>(classMeta),  new MapperKeyFactory(),  new MapperKeyFactory(), mapperCacheFactory(), cacheMapperPerStatement);
 	}
 
 	public static class DynamicJdbcSetRowMapper<T>
 			extends DynamicSetRowMapper<ResultSet, ResultSet, T, SQLException, JdbcColumnKey>
 			implements DynamicJdbcMapper<T> {
 
+		private final StatementMapperCache<SetRowMapper<ResultSet, ResultSet, T, SQLException>> statementMapperCache;
+
+		private final AtomicLong metaDataReadCount = new AtomicLong();
+		private final AtomicLong statementCacheHitCount = new AtomicLong();
+
 		public DynamicJdbcSetRowMapper(
 				UnaryFactory<MapperKey<JdbcColumnKey>, SetRowMapper<ResultSet, ResultSet, T, SQLException>> mapperFactory,
 				UnaryFactoryWithException<ResultSet, MapperKey<JdbcColumnKey>, SQLException> mapperKeyFromRow,
 				UnaryFactoryWithException<ResultSet, MapperKey<JdbcColumnKey>, SQLException> mapperKeyFromSet) {
-			super(mapperFactory, mapperKeyFromRow, mapperKeyFromSet, JdbcColumnKeyMapperKeyComparator.INSTANCE);
+			this(mapperFactory, mapperKeyFromRow, mapperKeyFromSet, MapperCacheFactory.SORTED, true);
+		}
+
+		public DynamicJdbcSetRowMapper(
+				UnaryFactory<MapperKey<JdbcColumnKey>, SetRowMapper<ResultSet, ResultSet, T, SQLException>> mapperFactory,
+				UnaryFactoryWithException<ResultSet, MapperKey<JdbcColumnKey>, SQLException> mapperKeyFromRow,
+				UnaryFactoryWithException<ResultSet, MapperKey<JdbcColumnKey>, SQLException> mapperKeyFromSet,
+				MapperCacheFactory mapperCacheFactory,
+				boolean cacheMapperPerStatement) {
+			super(mapperFactory, mapperKeyFromRow, mapperKeyFromSet, JdbcColumnKeyMapperKeyComparator.INSTANCE, mapperCacheFactory);
+			this.statementMapperCache = cacheMapperPerStatement ? new StatementMapperCache<SetRowMapper<ResultSet, ResultSet, T, SQLException>>() : null;
 		}
 
 
 		@Override
 		public JdbcMapper<T> getMapper(ResultSetMetaData metaData) throws SQLException {
+			metaDataReadCount.incrementAndGet();
 			return (JdbcMapper<T>) getMapper(JdbcColumnKey.mapperKey(metaData));
 		}
 
+		@Override
+		protected SetRowMapper<ResultSet, ResultSet, T, SQLException> getMapperFromSet(ResultSet resultSet) throws SQLException {
+			SetRowMapper<ResultSet, ResultSet, T, SQLException> mapper = getMapperFromStatement(resultSet);
+			if (mapper == null) {
+				metaDataReadCount.incrementAndGet();
+				mapper = super.getMapperFromSet(resultSet);
+				cacheForStatement(resultSet, mapper);
+			}
+			return mapper;
+		}
+
+		@Override
+		protected SetRowMapper<ResultSet, ResultSet, T, SQLException> getMapperFromRow(ResultSet resultSet) throws SQLException {
+			SetRowMapper<ResultSet, ResultSet, T, SQLException> mapper = getMapperFromStatement(resultSet);
+			if (mapper == null) {
+				metaDataReadCount.incrementAndGet();
+				mapper = super.getMapperFromRow(resultSet);
+				cacheForStatement(resultSet, mapper);
+			}
+			return mapper;
+		}
+
+		private SetRowMapper<ResultSet, ResultSet, T, SQLException> getMapperFromStatement(ResultSet resultSet) throws SQLException {
+			if (statementMapperCache != null) {
+				Statement statement = resultSet.getStatement();
+				if (StatementMapperCache.isCacheable(statement)) {
+					SetRowMapper<ResultSet, ResultSet, T, SQLException> mapper = statementMapperCache.get(statement, resultSet.getMetaData());
+					if (mapper != null) {
+						statementCacheHitCount.incrementAndGet();
+					}
+					return mapper;
+				}
+			}
+			return null;
+		}
+
+		private void cacheForStatement(ResultSet resultSet, SetRowMapper<ResultSet, ResultSet, T, SQLException> mapper) throws SQLException {
+			if (statementMapperCache != null) {
+				Statement statement = resultSet.getStatement();
+				if (StatementMapperCache.isCacheable(statement)) {
+					statementMapperCache.put(statement, resultSet.getMetaData(), mapper);
+				}
+			}
+		}
+
+		/**
+		 * @return the number of times the columns were read from the ResultSetMetaData to find the mapper
+		 */
+		public long getMetaDataReadCount() {
+			return metaDataReadCount.get();
+		}
+
+		/**
+		 * @return the number of times the mapper was found from the PreparedStatement of the ResultSet
+		 */
+		public long getStatementCacheHitCount() {
+			return statementCacheHitCount.get();
+		}
+
 		@Override
 		public String toString() {
 			return "DynamicJdbcSetRowMapper{}";
@@ -0,0 +1,252 @@
+package org.simpleflatmapper.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the PreparedStatement of the single row Crud operations, per connection and per query.
+ * <p>
+ * The pools hand out a new proxy on each borrow and close the statements of the proxy when it is returned, the
+ * statements are then prepared on, and cached for, the physical connection unwrapped from the proxy so that they are
+ * reused by the next borrower of the same connection. A pool that does not unwrap to its physical connection gets a
+ * statement per borrow. The pool does not track these statements, they are closed by the cache on eviction or
+ * {@link #clear()}, and the connections must be committed or rolled back before being returned as the pool may not
+ * see the statements executed.
+ * A statement is checked out while it is executed, a reentrant call on the same connection prepares its own statement.
+ * <p>
+ * A statement references its connection so the connections can't be weakly referenced, the cache keeps the most
+ * recently used connections and closes the statements of the evicted ones. The closed connections are purged when a
+ * new connection is added to a full cache.
+ *
+ * @see CrudDSL#statementCache(PreparedStatementCache)
+ */
+public final class PreparedStatementCache {
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 64;
+    public static final int DEFAULT_MAX_STATEMENTS_PER_CONNECTION = 32;
+
+    private final int maxConnections;
+    private final int maxStatementsPerConnection;
+
+    // guarded by this
+    private final Map<Connection, ConnectionStatements> connections;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public PreparedStatementCache() {
+        this(DEFAULT_MAX_CONNECTIONS, DEFAULT_MAX_STATEMENTS_PER_CONNECTION);
+    }
+
+    /**
+     * @param maxConnections the maximum number of connections to cache statements for, the pool size
+     * @param maxStatementsPerConnection the maximum number of statements per connection
+     */
+    public PreparedStatementCache(int maxConnections, int maxStatementsPerConnection) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("Invalid maxConnections " + maxConnections);
+        }
+        if (maxStatementsPerConnection < 1) {
+            throw new IllegalArgumentException("Invalid maxStatementsPerConnection " + maxStatementsPerConnection);
+        }
+        this.maxConnections = maxConnections;
+        this.maxStatementsPerConnection = maxStatementsPerConnection;
+        this.connections = new LinkedHashMap<Connection, ConnectionStatements>(16, 0.75f, true);
+    }
+
+    /**
+     * check out the statement of the query for the connection, prepare it if it is not cached.
+     * The statement must be released, or closed if it is not reusable.
+     *
+     * @param connection the connection
+     * @param queryPreparer the query
+     * @return the statement
+     * @throws SQLException if an error occurs
+     */
+    public PreparedStatement prepareStatement(Connection connection, QueryPreparer<?> queryPreparer) throws SQLException {
+        Connection physicalConnection = unwrap(connection);
+        PreparedStatement preparedStatement;
+        synchronized (this) {
+            ConnectionStatements statements = connections.get(physicalConnection);
+            preparedStatement = statements != null ? statements.remove(queryPreparer) : null;
+        }
+        if (preparedStatement != null && !isClosed(preparedStatement)) {
+            hits.incrementAndGet();
+            return preparedStatement;
+        }
+        misses.incrementAndGet();
+        return queryPreparer.prepareStatement(physicalConnection);
+    }
+
+    /**
+     * return the statement to the cache.
+     *
+     * @param connection the connection the statement was checked out for
+     * @param queryPreparer the query
+     * @param preparedStatement the statement
+     */
+    public void release(Connection connection, QueryPreparer<?> queryPreparer, PreparedStatement preparedStatement) {
+        Connection physicalConnection = unwrap(connection);
+        PreparedStatement toClose;
+        synchronized (this) {
+            ConnectionStatements statements = connections.get(physicalConnection);
+            if (statements == null) {
+                if (connections.size() >= maxConnections) {
+                    purgeClosedConnections();
+                }
+                statements = new ConnectionStatements();
+                connections.put(physicalConnection, statements);
+                evictConnections();
+            }
+            toClose = statements.put(queryPreparer, preparedStatement);
+        }
+        if (toClose != null) {
+            safeClose(toClose);
+        }
+    }
+
+    // guarded by this
+    private void purgeClosedConnections() {
+        Iterator<Map.Entry<Connection, ConnectionStatements>> iterator = connections.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Connection, ConnectionStatements> entry = iterator.next();
+            if (isClosed(entry.getKey())) {
+                iterator.remove();
+            }
+        }
+    }
+
+    // guarded by this
+    private void evictConnections() {
+        Iterator<ConnectionStatements> iterator = connections.values().iterator();
+        while (connections.size() > maxConnections) {
+            ConnectionStatements statements = iterator.next();
+            iterator.remove();
+            statements.closeAll();
+        }
+    }
+
+    /**
+     * close all the cached statements.
+     */
+    public void clear() {
+        synchronized (this) {
+            for (ConnectionStatements statements : connections.values()) {
+                statements.closeAll();
+            }
+            connections.clear();
+        }
+    }
+
+    /**
+     * @return the number of statements reused
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of statements prepared
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of cached statements
+     */
+    public synchronized int size() {
+        int size = 0;
+        for (ConnectionStatements statements : connections.values()) {
+            size += statements.size();
+        }
+        return size;
+    }
+
+    // the innermost connection, the proxy if the pool does not unwrap
+    private static Connection unwrap(Connection connection) {
+        Connection current = connection;
+        try {
+            while (current.isWrapperFor(Connection.class)) {
+                Connection unwrapped = current.unwrap(Connection.class);
+                if (unwrapped == null || unwrapped == current) {
+                    break;
+                }
+                current = unwrapped;
+            }
+        } catch (SQLException e) {
+            // not a wrapper
+        } catch (AbstractMethodError e) {
+            // pre jdbc 4 driver
+        }
+        return current;
+    }
+
+    private static boolean isClosed(Connection connection) {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private static boolean isClosed(PreparedStatement preparedStatement) {
+        try {
+            return preparedStatement.isClosed();
+        } catch (SQLException e) {
+            return true;
+        } catch (AbstractMethodError e) {
+            // pre jdbc 4 driver
+            return false;
+        }
+    }
+
+    private static void safeClose(PreparedStatement preparedStatement) {
+        try {
+            preparedStatement.close();
+        } catch (SQLException e) {
+            // IGNORE
+        }
+    }
+
+    private final class ConnectionStatements {
+        // the query preparers do not override equals, in release order
+        private final LinkedHashMap<QueryPreparer<?>, PreparedStatement> statements = new LinkedHashMap<QueryPreparer<?>, PreparedStatement>();
+
+        private PreparedStatement remove(QueryPreparer<?> queryPreparer) {
+            return statements.remove(queryPreparer);
+        }
+
+        // return the statement to close
+        private PreparedStatement put(QueryPreparer<?> queryPreparer, PreparedStatement preparedStatement) {
+            if (statements.containsKey(queryPreparer)) {
+                // released by a reentrant call, keep the one already cached
+                return preparedStatement;
+            }
+            statements.put(queryPreparer, preparedStatement);
+            if (statements.size() > maxStatementsPerConnection) {
+                Iterator<PreparedStatement> iterator = statements.values().iterator();
+                PreparedStatement eldest = iterator.next();
+                iterator.remove();
+                return eldest;
+            }
+            return null;
+        }
+
+        private int size() {
+            return statements.size();
+        }
+
+        private void closeAll() {
+            for (PreparedStatement preparedStatement : statements.values()) {
+                safeClose(preparedStatement);
+            }
+            statements.clear();
+        }
+    }
+}
@@ -4,6 +4,9 @@ import org.simpleflatmapper.util.CheckedConsumer;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+//IFJAVA8_START
+import java.util.stream.Stream;
+//IFJAVA8_END
 
 /**
  * Created by aroger on 08/11/2016.
@@ -12,4 +15,32 @@ public interface SelectQuery<T, P> {
     T readFirst(Connection connection, P p) throws SQLException;
 
     <C extends CheckedConsumer<? super T>> C read(Connection connection, P p, C consumer) throws SQLException;
+
+    /**
+     * read the rows with a forward only cursor, the rows are mapped as the driver fetches them.
+     * On PostgreSQL the auto commit is disabled during the read.
+     *
+     * @param connection the connection
+     * @param p the parameter
+     * @param fetchSize the number of rows fetched per round trip, ignored on MySQL that streams row by row
+     * @param consumer the handler that is callback for each row
+     * @param <C> the type of consumer
+     * @return the consumer
+     * @throws SQLException if an error occurs
+     */
+    <C extends CheckedConsumer<? super T>> C read(Connection connection, P p, int fetchSize, C consumer) throws SQLException;
+
+    /**
+     * stream the rows with a forward only cursor, the rows are mapped as the driver fetches them.
+     * The statement is closed, and the auto commit restored on PostgreSQL, when the stream is closed.
+     *
+     * @param connection the connection
+     * @param p the parameter
+     * @param fetchSize the number of rows fetched per round trip, ignored on MySQL that streams row by row
+     * @return the stream of the mapped rows, to close after use
+     * @throws SQLException if an error occurs
+     */
+    //IFJAVA8_START
+    Stream<T> stream(Connection connection, P p, int fetchSize) throws SQLException;
+    //IFJAVA8_END
 }
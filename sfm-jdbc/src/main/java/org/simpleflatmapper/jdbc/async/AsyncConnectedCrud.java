@@ -0,0 +1,311 @@
+package org.simpleflatmapper.jdbc.async;
+
+import org.simpleflatmapper.jdbc.ConnectedCrud;
+import org.simpleflatmapper.util.CheckedConsumer;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous counterpart of ConnectedCrud.
+ * Each operation runs in its own transaction on the executor and returns a CompletableFuture that completes with the
+ * result, or exceptionally with the SQLException that occurred.
+ * <p>
+ * The executor is expected to limit the concurrency to the size of the connection pool, see
+ * {@link ConcurrencyLimitedExecutor}.
+ *
+ * @param <T> the target type
+ * @param <K> the key type
+ * @see org.simpleflatmapper.jdbc.CrudDSL#asyncTable(javax.sql.DataSource, String)
+ */
+public class AsyncConnectedCrud<T, K> {
+
+    private final ConnectedCrud<T, K> delegate;
+    private final Executor executor;
+
+    public AsyncConnectedCrud(ConnectedCrud<T, K> delegate, Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    /**
+     * the executor the operations run on when none is specified.
+     * It starts a virtual thread per operation when the jvm supports it, java 21 and later, otherwise it uses a cached
+     * pool of daemon threads.
+     *
+     * @return the default executor
+     */
+    public static Executor defaultExecutor() {
+        return DefaultExecutorHolder.EXECUTOR;
+    }
+
+    /**
+     * insert value into the db.
+     *
+     * @param value      the value
+     * @return the future completed once the value is inserted
+     */
+    public CompletableFuture<Void> create(final T value) {
+        return run(new SQLRunnable() {
+            @Override
+            public void run() throws Exception {
+                delegate.create(value);
+            }
+        });
+    }
+
+    /**
+     * insert values into the db.
+     *
+     * @param values      the values
+     * @return the future completed once the values are inserted
+     */
+    public CompletableFuture<Void> create(final Collection<T> values) {
+        return run(new SQLRunnable() {
+            @Override
+            public void run() throws Exception {
+                delegate.create(values);
+            }
+        });
+    }
+
+    /**
+     * insert value into the db.
+     * Callback keyConsumer with the generated key if one was.
+     *
+     * @param value      the value
+     * @param keyConsumer the key consumer
+     * @param <RH>        the type of keyConsumer
+     * @return the future completed with the keyConsumer
+     */
+    public <RH extends CheckedConsumer<? super K>> CompletableFuture<RH> create(final T value, final RH keyConsumer) {
+        return supplyAsync(new Callable<RH>() {
+            @Override
+            public RH call() throws Exception {
+                return delegate.create(value, keyConsumer);
+            }
+        }, executor);
+    }
+
+    /**
+     * insert values into the db.
+     * Callback keyConsumer with the generated keys if any were.
+     *
+     * @param values      the values
+     * @param keyConsumer the key consumer
+     * @param <RH>        the type of keyConsumer
+     * @return the future completed with the keyConsumer
+     */
+    public <RH extends CheckedConsumer<? super K>> CompletableFuture<RH> create(final Collection<T> values, final RH keyConsumer) {
+        return supplyAsync(new Callable<RH>() {
+            @Override
+            public RH call() throws Exception {
+                return delegate.create(values, keyConsumer);
+            }
+        }, executor);
+    }
+
+    /**
+     * retrieve the object with the specified key.
+     *
+     * @param key        the key
+     * @return the future completed with the object or null if not found
+     */
+    public CompletableFuture<T> read(final K key) {
+        return supplyAsync(new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                return delegate.read(key);
+            }
+        }, executor);
+    }
+
+    /**
+     * retrieve the objects with the specified keys and pass them to the consumer.
+     * The consumer is called on the thread of the executor.
+     *
+     * @param keys       the keys
+     * @param consumer the handler that is callback for each row
+     * @param <RH>        the type of consumer
+     * @return the future completed with the consumer once all the rows are read
+     */
+    public <RH extends CheckedConsumer<? super T>> CompletableFuture<RH> read(final Collection<K> keys, final RH consumer) {
+        return supplyAsync(new Callable<RH>() {
+            @Override
+            public RH call() throws Exception {
+                return delegate.read(keys, consumer);
+            }
+        }, executor);
+    }
+
+    /**
+     * update the object.
+     *
+     * @param value      the object
+     * @return the future completed once the object is updated
+     */
+    public CompletableFuture<Void> update(final T value) {
+        return run(new SQLRunnable() {
+            @Override
+            public void run() throws Exception {
+                delegate.update(value);
+            }
+        });
+    }
+
+    /**
+     * update the objects.
+     *
+     * @param values      the objects
+     * @return the future completed once the objects are updated
+     */
+    public CompletableFuture<Void> update(final Collection<T> values) {
+        return run(new SQLRunnable() {
+            @Override
+            public void run() throws Exception {
+                delegate.update(values);
+            }
+        });
+    }
+
+    /**
+     * delete the object with the specified key.
+     *
+     * @param key        the key
+     * @return the future completed once the object is deleted
+     */
+    public CompletableFuture<Void> delete(final K key) {
+        return run(new SQLRunnable() {
+            @Override
+            public void run() throws Exception {
+                delegate.delete(key);
+            }
+        });
+    }
+
+    /**
+     * delete the objects with the specified keys.
+     *
+     * @param keys       the keys
+     * @return the future completed once the objects are deleted
+     */
+    public CompletableFuture<Void> delete(final Collection<K> keys) {
+        return run(new SQLRunnable() {
+            @Override
+            public void run() throws Exception {
+                delegate.delete(keys);
+            }
+        });
+    }
+
+    /**
+     * UPSERT only supported on Mysql
+     *
+     * @param value the value
+     * @return the future completed once the value is upserted
+     */
+    public CompletableFuture<Void> createOrUpdate(final T value) {
+        return run(new SQLRunnable() {
+            @Override
+            public void run() throws Exception {
+                delegate.createOrUpdate(value);
+            }
+        });
+    }
+
+    /**
+     * UPSERT only supported on Mysql
+     *
+     * @param values the values
+     * @return the future completed once the values are upserted
+     */
+    public CompletableFuture<Void> createOrUpdate(final Collection<T> values) {
+        return run(new SQLRunnable() {
+            @Override
+            public void run() throws Exception {
+                delegate.createOrUpdate(values);
+            }
+        });
+    }
+
+    public <P> AsyncConnectedSelectQuery<T, P> where(final String whereClause, final Type paramClass) {
+        return new AsyncConnectedSelectQuery<T, P>(delegate.<P>where(whereClause, paramClass), executor);
+    }
+
+    public ConnectedCrud<T, K> connectedCrud() {
+        return delegate;
+    }
+
+    public Executor executor() {
+        return executor;
+    }
+
+    private CompletableFuture<Void> run(final SQLRunnable runnable) {
+        return supplyAsync(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                runnable.run();
+                return null;
+            }
+        }, executor);
+    }
+
+    // unlike CompletableFuture.supplyAsync the future completes with the checked exception itself
+    static <R> CompletableFuture<R> supplyAsync(final Callable<R> callable, Executor executor) {
+        final CompletableFuture<R> future = new CompletableFuture<R>();
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    if (future.isDone()) {
+                        // cancelled while queued
+                        return;
+                    }
+                    try {
+                        future.complete(callable.call());
+                    } catch (Throwable e) {
+                        future.completeExceptionally(e);
+                    }
+                }
+            });
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private interface SQLRunnable {
+        void run() throws Exception;
+    }
+
+    private static final class DefaultExecutorHolder {
+        private static final Executor EXECUTOR = newDefaultExecutor();
+
+        private static Executor newDefaultExecutor() {
+            try {
+                Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (Executor) method.invoke(null);
+            } catch (NoSuchMethodException e) {
+                // before java 21
+            } catch (Exception e) {
+                // virtual threads not available
+            }
+            final AtomicInteger threadNumber = new AtomicInteger();
+            return Executors.newCachedThreadPool(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "sfm-async-crud-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+    }
+}
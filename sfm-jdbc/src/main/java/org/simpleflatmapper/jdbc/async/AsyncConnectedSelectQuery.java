@@ -0,0 +1,103 @@
+package org.simpleflatmapper.jdbc.async;
+
+import org.reactivestreams.Publisher;
+import org.simpleflatmapper.jdbc.ConnectedSelectQuery;
+import org.simpleflatmapper.util.CheckedConsumer;
+import org.simpleflatmapper.util.ListCollector;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Asynchronous counterpart of ConnectedSelectQuery, each query runs in its own transaction on the executor.
+ *
+ * @param <T> the target type
+ * @param <P> the parameter type
+ */
+public class AsyncConnectedSelectQuery<T, P> {
+
+    private final ConnectedSelectQuery<T, P> delegate;
+    private final Executor executor;
+
+    public AsyncConnectedSelectQuery(ConnectedSelectQuery<T, P> delegate, Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<T> readFirst(final P p) {
+        return AsyncConnectedCrud.supplyAsync(new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                return delegate.readFirst(p);
+            }
+        }, executor);
+    }
+
+    /**
+     * read all the rows in a list.
+     *
+     * @param p the parameter
+     * @return the future completed with the list of rows
+     */
+    public CompletableFuture<List<T>> readAll(final P p) {
+        return AsyncConnectedCrud.supplyAsync(new Callable<List<T>>() {
+            @Override
+            public List<T> call() throws Exception {
+                return delegate.read(p, new ListCollector<T>()).getList();
+            }
+        }, executor);
+    }
+
+    /**
+     * read the rows and pass them to the consumer on the thread of the executor.
+     *
+     * @param p the parameter
+     * @param consumer the handler that is callback for each row
+     * @param <C> the type of consumer
+     * @return the future completed with the consumer once all the rows are read
+     */
+    public <C extends CheckedConsumer<? super T>> CompletableFuture<C> read(final P p, final C consumer) {
+        return AsyncConnectedCrud.supplyAsync(new Callable<C>() {
+            @Override
+            public C call() throws Exception {
+                return delegate.read(p, consumer);
+            }
+        }, executor);
+    }
+
+    /**
+     * push the rows to the consumer as the driver fetches them with a forward only cursor.
+     * The cursor only moves forward once the consumer returns, a slow consumer slows down the fetch instead of the
+     * rows being buffered.
+     *
+     * @param p the parameter
+     * @param fetchSize the number of rows fetched per round trip, ignored on MySQL that streams row by row
+     * @param consumer the handler that is callback for each row
+     * @param <C> the type of consumer
+     * @return the future completed with the consumer once all the rows are read
+     * @see ConnectedSelectQuery#read(Object, int, CheckedConsumer)
+     */
+    public <C extends CheckedConsumer<? super T>> CompletableFuture<C> read(final P p, final int fetchSize, final C consumer) {
+        return AsyncConnectedCrud.supplyAsync(new Callable<C>() {
+            @Override
+            public C call() throws Exception {
+                return delegate.read(p, fetchSize, consumer);
+            }
+        }, executor);
+    }
+
+    /**
+     * publish the rows as the subscriber requests them.
+     * The query runs on the executor for each subscription and the forward only cursor only moves when the subscriber
+     * has outstanding demand. Requires reactive-streams on the classpath.
+     *
+     * @param p the parameter
+     * @param fetchSize the number of rows fetched per round trip, ignored on MySQL that streams row by row
+     * @return the publisher of the rows
+     */
+    public Publisher<T> publish(final P p, final int fetchSize) {
+        return new SelectQueryPublisher<T, P>(delegate, p, fetchSize, executor);
+    }
+}
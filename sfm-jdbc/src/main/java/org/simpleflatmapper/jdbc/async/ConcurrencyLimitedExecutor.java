@@ -0,0 +1,146 @@
+package org.simpleflatmapper.jdbc.async;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor that runs at most maxConcurrency tasks at the same time on the delegate executor.
+ * The other tasks are queued without blocking the caller and are submitted as the running tasks complete, so that a
+ * high fan-out does not exhaust the connections of the pool or wait on the pool timeout.
+ * <p>
+ * A queued task rejected by the delegate is put back at the head of the queue and submitted again when a running task
+ * completes or on the next execute. If the task of the caller is still queued when the delegate rejects a task, it is
+ * removed and execute throws the RejectedExecutionException.
+ */
+public final class ConcurrencyLimitedExecutor implements Executor {
+
+    /**
+     * the limit used when the pool size of the DataSource can't be found, the default pool size of HikariCP.
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY = 10;
+
+    // the maximum pool size getters of HikariCP, DBCP2, Tomcat jdbc-pool/DBCP and c3p0
+    private static final String[] POOL_SIZE_GETTERS = {"getMaximumPoolSize", "getMaxTotal", "getMaxActive", "getMaxPoolSize"};
+
+    private final Executor delegate;
+    private final int maxConcurrency;
+    private final Deque<Runnable> pending = new ConcurrentLinkedDeque<Runnable>();
+    private final AtomicInteger running = new AtomicInteger();
+
+    public ConcurrencyLimitedExecutor(Executor delegate, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Invalid maxConcurrency " + maxConcurrency);
+        }
+        this.delegate = delegate;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * limit the concurrency to the maximum pool size of the DataSource.
+     *
+     * @param delegate the executor running the tasks
+     * @param dataSource the pooled DataSource
+     * @return the limited executor
+     * @see #maxPoolSize(DataSource)
+     */
+    public static ConcurrencyLimitedExecutor of(Executor delegate, DataSource dataSource) {
+        return new ConcurrencyLimitedExecutor(delegate, maxPoolSize(dataSource));
+    }
+
+    /**
+     * find the maximum pool size of HikariCP, DBCP, Tomcat jdbc-pool and c3p0 DataSources.
+     *
+     * @param dataSource the DataSource
+     * @return the maximum pool size or DEFAULT_MAX_CONCURRENCY if it can't be found
+     */
+    public static int maxPoolSize(DataSource dataSource) {
+        for (String getter : POOL_SIZE_GETTERS) {
+            try {
+                Method method = dataSource.getClass().getMethod(getter);
+                Object value = method.invoke(dataSource);
+                if (value instanceof Integer && ((Integer) value) > 0) {
+                    return (Integer) value;
+                }
+            } catch (NoSuchMethodException e) {
+                // not that pool
+            } catch (Exception e) {
+                // not accessible
+            }
+        }
+        return DEFAULT_MAX_CONCURRENCY;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+        pending.add(command);
+        RejectedExecutionException rejected = drain();
+        if (rejected != null && pending.removeLastOccurrence(command)) {
+            throw rejected;
+        }
+    }
+
+    // return the exception of the delegate if it rejected a task, the task is back at the head of the queue
+    private RejectedExecutionException drain() {
+        while (!pending.isEmpty()) {
+            int n = running.get();
+            if (n >= maxConcurrency) {
+                // a running task will drain the queue when it completes
+                return null;
+            }
+            if (running.compareAndSet(n, n + 1)) {
+                Runnable command = pending.poll();
+                if (command == null) {
+                    running.decrementAndGet();
+                } else {
+                    try {
+                        submit(command);
+                    } catch (RejectedExecutionException e) {
+                        running.decrementAndGet();
+                        pending.addFirst(command);
+                        return e;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private void submit(final Runnable command) {
+        delegate.execute(new Runnable() {
+            @Override
+            public void run() {
+                // keep the slot and the thread while tasks are pending
+                Runnable next = command;
+                try {
+                    while (next != null) {
+                        next.run();
+                        next = pending.poll();
+                    }
+                } finally {
+                    running.decrementAndGet();
+                    // a rejected task stays queued until the next execute
+                    drain();
+                }
+            }
+        });
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return the number of tasks waiting for a slot
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+}
@@ -0,0 +1,159 @@
+package org.simpleflatmapper.jdbc.async;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.simpleflatmapper.jdbc.ConnectedSelectQuery;
+import org.simpleflatmapper.util.CheckedConsumer;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Publisher of the rows of a select query.
+ * The query runs on the executor once the subscriber requests the first rows, the forward only cursor only moves
+ * when there is outstanding demand, so the thread reading the rows waits for the subscriber instead of buffering
+ * them. Cancelling the subscription closes the cursor and releases the connection.
+ * <p>
+ * Each subscription runs the query in its own transaction.
+ *
+ * @param <T> the target type
+ * @param <P> the parameter type
+ */
+final class SelectQueryPublisher<T, P> implements Publisher<T> {
+
+    private final ConnectedSelectQuery<T, P> query;
+    private final P parameter;
+    private final int fetchSize;
+    private final Executor executor;
+
+    SelectQueryPublisher(ConnectedSelectQuery<T, P> query, P parameter, int fetchSize, Executor executor) {
+        this.query = query;
+        this.parameter = parameter;
+        this.fetchSize = fetchSize;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException();
+        }
+        QuerySubscription subscription = new QuerySubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private final class QuerySubscription implements Subscription, CheckedConsumer<T>, Runnable {
+        private final Subscriber<? super T> subscriber;
+
+        // guarded by this
+        private long demand;
+        private boolean started;
+        private boolean cancelled;
+        private Throwable invalidRequest;
+
+        private QuerySubscription(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            boolean start;
+            Throwable invalidRequest;
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                if (n <= 0) {
+                    this.invalidRequest = new IllegalArgumentException("Invalid request " + n + ", rule 3.9 of reactive-streams");
+                    cancelled = true;
+                } else {
+                    demand += n;
+                    if (demand < 0) {
+                        // effectively unbounded, rule 3.17
+                        demand = Long.MAX_VALUE;
+                    }
+                }
+                invalidRequest = this.invalidRequest;
+                start = !started;
+                started = true;
+                notifyAll();
+            }
+            if (start) {
+                if (invalidRequest != null) {
+                    // nothing running yet, signal from the caller
+                    subscriber.onError(invalidRequest);
+                    return;
+                }
+                try {
+                    executor.execute(this);
+                } catch (Throwable e) {
+                    cancelSilently();
+                    subscriber.onError(e);
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                cancelled = true;
+                notifyAll();
+            }
+        }
+
+        private synchronized void cancelSilently() {
+            cancelled = true;
+        }
+
+        @Override
+        public void run() {
+            Throwable error = null;
+            try {
+                query.read(parameter, fetchSize, this);
+            } catch (Throwable e) {
+                error = e;
+            }
+            Throwable invalidRequest;
+            boolean cancelled;
+            synchronized (this) {
+                invalidRequest = this.invalidRequest;
+                cancelled = this.cancelled;
+            }
+            if (invalidRequest != null) {
+                subscriber.onError(invalidRequest);
+            } else if (!cancelled) {
+                if (error != null) {
+                    subscriber.onError(error);
+                } else {
+                    subscriber.onComplete();
+                }
+            }
+        }
+
+        @Override
+        public void accept(T t) throws InterruptedException {
+            synchronized (this) {
+                while (demand == 0 && !cancelled) {
+                    wait();
+                }
+                if (cancelled) {
+                    // unwind the read to close the cursor
+                    throw CancelledException.INSTANCE;
+                }
+                if (demand != Long.MAX_VALUE) {
+                    demand--;
+                }
+            }
+            subscriber.onNext(t);
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class CancelledException extends RuntimeException {
+        private static final CancelledException INSTANCE = new CancelledException();
+
+        private CancelledException() {
+            super("cancelled", null, false, false);
+        }
+    }
+}
@@ -7,9 +7,30 @@ import org.simpleflatmapper.util.CheckedConsumer;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
-
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Insert the values with multi rows INSERT statements.
+ * <p>
+ * The rows are inserted in buckets of power of 2 sizes so that only a handful of distinct sql strings are sent to the
+ * database and its statement cache. A collection is split in chunks of the biggest bucket, executed on the same
+ * prepared statement, then the remainder is split following its binary decomposition, 13 rows are inserted as 8 + 4 + 1.
+ * The sql of each bucket is built once, its statement is prepared once per call.
+ * <p>
+ * When the values come from an iterator, they are buffered in chunks of exactly chunkSize rows, each chunk is inserted
+ * following the same decomposition, a chunk of 100 rows is sent as 64 + 32 + 4. The prepared statement of each bucket
+ * size is kept for the whole iteration, a chunk size that is a power of 2 up to the max bucket size is sent with one
+ * statement per chunk.
+ */
 public abstract class AbstractBatchInsertQueryExecutor<T> implements BatchQueryExecutor<T> {
+    public static final int DEFAULT_MAX_BUCKET_SIZE = 1024;
+    // the bind parameters count is a signed short in the postgres protocol
+    public static final int MAX_PARAMETERS = Short.MAX_VALUE;
+
     protected final String table;
     protected final String[] insertColumns;
     protected final String[] insertColumnExpressions;
@@ -18,6 +39,10 @@ public abstract class AbstractBatchInsertQueryExecutor<T> implements BatchQueryE
     
     protected final MultiIndexFieldMapper<T>[] multiIndexFieldMappers;
 
+    private final int maxBucketSize;
+    // sql by log2 of the bucket size
+    private final AtomicReferenceArray<String> sqlByBucket;
+
     public AbstractBatchInsertQueryExecutor(String table, String[] insertColumns, String[] insertColumnExpressions, String[] updateColumns, String[] generatedKeys, MultiIndexFieldMapper<T>[] multiIndexFieldMappers) {
         this.table = table;
         this.insertColumns = insertColumns;
@@ -25,33 +50,137 @@ public abstract class AbstractBatchInsertQueryExecutor<T> implements BatchQueryE
         this.updateColumns = updateColumns;
         this.generatedKeys = generatedKeys;
         this.multiIndexFieldMappers = multiIndexFieldMappers;
+        this.maxBucketSize = maxBucketSize(multiIndexFieldMappers.length);
+        this.sqlByBucket = new AtomicReferenceArray<String>(Integer.numberOfTrailingZeros(maxBucketSize) + 1);
+    }
+
+    private static int maxBucketSize(int nbParametersPerRow) {
+        int maxRows = Math.min(DEFAULT_MAX_BUCKET_SIZE, MAX_PARAMETERS / Math.max(1, nbParametersPerRow));
+        return Integer.highestOneBit(Math.max(1, maxRows));
     }
 
     @Override
     public void insert(Connection connection, Collection<T> values, CheckedConsumer<PreparedStatement> postExecute) throws SQLException {
-        PreparedStatement preparedStatement = prepareStatement(connection, values.size());
+        BucketStatements statements = bucketStatements(connection);
+        try {
+            insertInBuckets(statements, values.iterator(), values.size(), postExecute);
+        } finally {
+            statements.close();
+        }
+    }
+
+    @Override
+    public void insert(Connection connection, Iterator<T> values, int chunkSize, ChunkCommitter chunkCommitter) throws SQLException {
+        List<T> chunk = new ArrayList<T>(Math.min(chunkSize, DEFAULT_MAX_BUCKET_SIZE));
+        BucketStatements statements = bucketStatements(connection);
         try {
-            bindTo(preparedStatement, values);
-            preparedStatement.executeUpdate();
-            postExecute.accept(preparedStatement);
-        } catch (Exception e) {
-            ErrorHelper.rethrow(e);
+            while (values.hasNext()) {
+                chunk.clear();
+                while (chunk.size() < chunkSize && values.hasNext()) {
+                    chunk.add(values.next());
+                }
+                insertInBuckets(statements, chunk.iterator(), chunk.size(), null);
+                chunkCommitter.chunkExecuted();
+            }
         } finally {
+            statements.close();
+        }
+    }
+
+    // chunks of the biggest bucket, then the binary decomposition of the remainder
+    private void insertInBuckets(BucketStatements statements, Iterator<T> values, int nbRows, CheckedConsumer<PreparedStatement> postExecute) throws SQLException {
+        while(nbRows > 0) {
+            int bucketSize = Math.min(maxBucketSize, Integer.highestOneBit(nbRows));
+            statements.execute(values, bucketSize, postExecute);
+            nbRows -= bucketSize;
+        }
+    }
+
+    /**
+     * @param connection the connection
+     * @return the statements of the buckets, to close after use
+     */
+    BucketStatements bucketStatements(Connection connection) {
+        return new BucketStatements(connection);
+    }
+
+    /**
+     * The prepared statements of each bucket size, prepared on first use and kept until closed.
+     */
+    final class BucketStatements {
+        private final Connection connection;
+        private final PreparedStatement[] statements = new PreparedStatement[sqlByBucket.length()];
+
+        private BucketStatements(Connection connection) {
+            this.connection = connection;
+        }
+
+        /**
+         * execute one statement inserting the next bucketSize values.
+         * @param values the values
+         * @param bucketSize a power of 2 not bigger than the max bucket size
+         * @param postExecute called after the execution, can be null
+         * @throws SQLException if the execution fails
+         */
+        void execute(Iterator<T> values, int bucketSize, CheckedConsumer<PreparedStatement> postExecute) throws SQLException {
+            int index = Integer.numberOfTrailingZeros(bucketSize);
+            PreparedStatement preparedStatement = statements[index];
             try {
-                preparedStatement.close();
-            } catch(SQLException e) {
-                // IGNORE
+                if (preparedStatement == null) {
+                    preparedStatement = prepareStatement(connection, bucketSize);
+                    statements[index] = preparedStatement;
+                }
+                bindTo(preparedStatement, values, bucketSize);
+                preparedStatement.executeUpdate();
+                if (postExecute != null) {
+                    postExecute.accept(preparedStatement);
+                }
+            } catch (Exception e) {
+                ErrorHelper.rethrow(e);
+            }
+        }
+
+        void close() {
+            for (PreparedStatement preparedStatement : statements) {
+                if (preparedStatement != null) {
+                    safeClose(preparedStatement);
+                }
             }
         }
     }
 
-    private PreparedStatement prepareStatement(Connection connection, int batchSize) throws SQLException {
-        StringBuilder sb = createQuery(batchSize);
+    private void safeClose(PreparedStatement preparedStatement) {
+        try {
+            preparedStatement.close();
+        } catch(SQLException e) {
+            // IGNORE
+        }
+    }
+
+    private PreparedStatement prepareStatement(Connection connection, int bucketSize) throws SQLException {
+        String sql = sql(bucketSize);
         if (generatedKeys.length == 0) {
-            return connection.prepareStatement(sb.toString());
+            return connection.prepareStatement(sql);
         } else {
-            return connection.prepareStatement(sb.toString(), generatedKeys);
+            return connection.prepareStatement(sql, generatedKeys);
+        }
+    }
+
+    private String sql(int bucketSize) {
+        int index = Integer.numberOfTrailingZeros(bucketSize);
+        String sql = sqlByBucket.get(index);
+        if (sql == null) {
+            sql = createQuery(bucketSize).toString();
+            sqlByBucket.set(index, sql);
         }
+        return sql;
+    }
+
+    /**
+     * @return the maximum number of rows inserted by one statement
+     */
+    public int getMaxBucketSize() {
+        return maxBucketSize;
     }
 
     private StringBuilder createQuery(int size) {
@@ -110,9 +239,10 @@ public abstract class AbstractBatchInsertQueryExecutor<T> implements BatchQueryE
         sb.append(")");
     }
 
-    private void bindTo(PreparedStatement preparedStatement, Collection<T> values) throws Exception {
+    private void bindTo(PreparedStatement preparedStatement, Iterator<T> values, int nbRows) throws Exception {
         int i = 0;
-        for(T value : values) {
+        for(int row = 0; row < nbRows; row++) {
+            T value = values.next();
             for (MultiIndexFieldMapper<T> multiIndexFieldMapper : multiIndexFieldMappers) {
                 multiIndexFieldMapper.map(preparedStatement, value, i);
                 i++;
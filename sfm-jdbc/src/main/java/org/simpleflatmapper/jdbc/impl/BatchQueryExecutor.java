@@ -6,7 +6,14 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.Iterator;
 
 public interface BatchQueryExecutor<T> {
     void insert(Connection connection, Collection<T> values, CheckedConsumer<PreparedStatement> postExecute) throws SQLException;
+
+    /**
+     * insert the values pulled from the iterator in chunks of chunkSize rows, with at most one chunk in memory.
+     * chunkCommitter is notified after each chunk, not after each statement.
+     */
+    void insert(Connection connection, Iterator<T> values, int chunkSize, ChunkCommitter chunkCommitter) throws SQLException;
 }
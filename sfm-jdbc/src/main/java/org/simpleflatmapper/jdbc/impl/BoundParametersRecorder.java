@@ -0,0 +1,81 @@
+package org.simpleflatmapper.jdbc.impl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.Calendar;
+
+/**
+ * Record the parameters set on a PreparedStatement by the field mappers, setNull records null.
+ * The Calendar passed to setTimestamp, setDate and setTime is recorded with the value.
+ */
+final class BoundParametersRecorder implements InvocationHandler {
+    private Object[] values;
+    private Calendar[] calendars;
+    private int size;
+
+    BoundParametersRecorder(int capacity) {
+        this.values = new Object[Math.max(1, capacity)];
+        this.calendars = new Calendar[values.length];
+    }
+
+    PreparedStatement preparedStatement() {
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[] {PreparedStatement.class}, this);
+    }
+
+    void clear() {
+        Arrays.fill(values, 0, size, null);
+        Arrays.fill(calendars, 0, size, null);
+        size = 0;
+    }
+
+    Object get(int index) {
+        return values[index];
+    }
+
+    /**
+     * @return the calendar the value was bound with, null if none
+     */
+    Calendar getCalendar(int index) {
+        return calendars[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (name.startsWith("set")
+                && args != null && args.length >= 2
+                && method.getParameterTypes()[0] == int.class) {
+            set((Integer) args[0] - 1,
+                    "setNull".equals(name) ? null : args[1],
+                    args.length == 3 && args[2] instanceof Calendar ? (Calendar) args[2] : null);
+            return null;
+        }
+        if ("equals".equals(name)) {
+            return proxy == args[0];
+        }
+        if ("hashCode".equals(name)) {
+            return System.identityHashCode(proxy);
+        }
+        if ("toString".equals(name)) {
+            return "BoundParametersRecorder";
+        }
+        throw new UnsupportedOperationException(name + " is not supported on a recording PreparedStatement");
+    }
+
+    private void set(int index, Object value, Calendar calendar) {
+        if (index >= values.length) {
+            values = Arrays.copyOf(values, Math.max(index + 1, values.length * 2));
+            calendars = Arrays.copyOf(calendars, values.length);
+        }
+        values[index] = value;
+        calendars[index] = calendar;
+        size = Math.max(size, index + 1);
+    }
+}
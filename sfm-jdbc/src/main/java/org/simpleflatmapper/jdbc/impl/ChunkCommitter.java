@@ -0,0 +1,55 @@
+package org.simpleflatmapper.jdbc.impl;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Commit the connection every commitEvery chunks if it is not in auto commit.
+ * <p>
+ * The executor calls {@link #chunkExecuted()} once per chunk of chunkSize rows, whatever the number of statements
+ * used to send the chunk.
+ */
+public final class ChunkCommitter {
+    private final Connection connection;
+    private final int commitEvery;
+    private long nbChunks;
+
+    public ChunkCommitter(Connection connection, int commitEvery) {
+        this.connection = connection;
+        this.commitEvery = commitEvery;
+    }
+
+    public void chunkExecuted() throws SQLException {
+        chunksExecuted(1);
+    }
+
+    /**
+     * @param nbExecutedChunks the number of chunks sent since the last call
+     * @throws SQLException if the commit fails
+     */
+    public void chunksExecuted(int nbExecutedChunks) throws SQLException {
+        long previous = nbChunks;
+        nbChunks += nbExecutedChunks;
+        if (commitEvery > 0 && nbChunks / commitEvery != previous / commitEvery && !connection.getAutoCommit()) {
+            connection.commit();
+        }
+    }
+
+    /**
+     * @return true if the connection will be committed
+     * @throws SQLException if the auto commit status cannot be read
+     */
+    public boolean isCommitting() throws SQLException {
+        return commitEvery > 0 && !connection.getAutoCommit();
+    }
+
+    public int getCommitEvery() {
+        return commitEvery;
+    }
+
+    public static void checkChunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Invalid chunkSize " + chunkSize);
+        }
+    }
+}
@@ -8,10 +8,16 @@ public class ColumnMeta {
     private final int sqlType;
     private final boolean key;
     private final AutoGeneratedProperty generated;
+    private final String sqlTypeName;
 
     public ColumnMeta(String column, int sqlType, boolean key, AutoGeneratedProperty generated) {
+        this(column, sqlType, null, key, generated);
+    }
+
+    public ColumnMeta(String column, int sqlType, String sqlTypeName, boolean key, AutoGeneratedProperty generated) {
         this.column = column;
         this.sqlType = sqlType;
+        this.sqlTypeName = sqlTypeName;
         this.key = key;
         this.generated = generated;
     }
@@ -24,6 +30,13 @@ public class ColumnMeta {
         return sqlType;
     }
 
+    /**
+     * @return the database specific type name, null if unknown
+     */
+    public String getSqlTypeName() {
+        return sqlTypeName;
+    }
+
     public boolean isKey() {
         return key;
     }
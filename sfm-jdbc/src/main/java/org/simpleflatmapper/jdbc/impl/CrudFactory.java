@@ -4,6 +4,7 @@ import org.simpleflatmapper.jdbc.Crud;
 import org.simpleflatmapper.jdbc.JdbcMapper;
 import org.simpleflatmapper.jdbc.JdbcMapperBuilder;
 import org.simpleflatmapper.jdbc.JdbcMapperFactory;
+import org.simpleflatmapper.jdbc.PreparedStatementCache;
 import org.simpleflatmapper.jdbc.PreparedStatementMapperBuilder;
 import org.simpleflatmapper.jdbc.QueryPreparer;
 import org.simpleflatmapper.jdbc.named.NamedSqlQuery;
@@ -19,12 +20,31 @@ public class CrudFactory {
             ClassMeta<K>  keyTarget,
             CrudMeta crudMeta,
             JdbcMapperFactory jdbcMapperFactory) throws SQLException {
+        return newInstance(target, keyTarget, crudMeta, jdbcMapperFactory, false);
+    }
+
+    public static <T, K> Crud<T, K> newInstance(
+            ClassMeta<T> target,
+            ClassMeta<K>  keyTarget,
+            CrudMeta crudMeta,
+            JdbcMapperFactory jdbcMapperFactory,
+            boolean postgresqlCopy) throws SQLException {
+        return newInstance(target, keyTarget, crudMeta, jdbcMapperFactory, postgresqlCopy, null);
+    }
+
+    public static <T, K> Crud<T, K> newInstance(
+            ClassMeta<T> target,
+            ClassMeta<K>  keyTarget,
+            CrudMeta crudMeta,
+            JdbcMapperFactory jdbcMapperFactory,
+            boolean postgresqlCopy,
+            PreparedStatementCache statementCache) throws SQLException {
         JdbcMapperFactory mapperFactory = JdbcMapperFactory.newInstance(jdbcMapperFactory);
-        return createCrud(target, keyTarget, crudMeta, mapperFactory);
+        return createCrud(target, keyTarget, crudMeta, mapperFactory, postgresqlCopy, statementCache);
 
     }
 
-    private static <T, K> Crud<T, K> createCrud(ClassMeta<T> target, ClassMeta<K> keyTarget, CrudMeta crudMeta, JdbcMapperFactory mapperFactory) throws SQLException {
+    private static <T, K> Crud<T, K> createCrud(ClassMeta<T> target, ClassMeta<K> keyTarget, CrudMeta crudMeta, JdbcMapperFactory mapperFactory, boolean postgresqlCopy, PreparedStatementCache statementCache) throws SQLException {
         crudMeta.addColumnProperties(mapperFactory);
 
         QueryPreparer<T> insert = buildInsert(target, crudMeta, mapperFactory);
@@ -51,12 +71,13 @@ public class CrudFactory {
                 keyMapper,
                 crudMeta.getTable(),
                 hasGeneratedKeys,
-                new SelectQueryWhereFactory<T>(crudMeta.getTable(), selectMapper, mapperFactory));
+                new SelectQueryWhereFactory<T>(crudMeta.getTable(), selectMapper, mapperFactory),
+                statementCache);
 
         if (crudMeta.getDatabaseMeta().isMysql()) {
             return MysqlCrudFactory.newInstance(target, keyTarget, crudMeta, mapperFactory, defaultCrud);
         } else if (crudMeta.getDatabaseMeta().isPostgresSql()) {
-            return PostgresqlCrudFactory.newInstance(target, keyTarget, crudMeta, mapperFactory, defaultCrud);
+            return PostgresqlCrudFactory.newInstance(target, keyTarget, crudMeta, mapperFactory, defaultCrud, postgresqlCopy);
         }
 
         return defaultCrud;
@@ -84,7 +105,36 @@ public class CrudFactory {
                 i++;
             }
         }
-        return new KeyTupleQueryPreparer<K>(builder.buildIndexFieldMappers(), primaryKeys.toArray(new String[0]));
+        return new KeyTupleQueryPreparer<K>(builder.buildIndexFieldMappers(), primaryKeys.toArray(new String[0]), arrayTypeName(crudMeta));
+    }
+
+    // postgres binds a single column key as one array with = ANY(?), one statement serves any number of keys
+    private static String arrayTypeName(CrudMeta crudMeta) {
+        if (!crudMeta.getDatabaseMeta().isPostgresSql()) {
+            return null;
+        }
+        String typeName = null;
+        for(ColumnMeta cm : crudMeta.getColumnMetas()) {
+            if (cm.isKey()) {
+                if (typeName != null) {
+                    return null;
+                }
+                typeName = arrayElementTypeName(cm.getSqlTypeName());
+            }
+        }
+        return typeName;
+    }
+
+    // the serial pseudo types are reported for auto increment columns
+    private static String arrayElementTypeName(String typeName) {
+        if ("serial".equals(typeName)) {
+            return "int4";
+        } else if ("bigserial".equals(typeName)) {
+            return "int8";
+        } else if ("smallserial".equals(typeName)) {
+            return "int2";
+        }
+        return typeName;
     }
 
     private static <T, K>JdbcMapper<K> buildKeyMapper(ClassMeta<K>  keyTarget, CrudMeta crudMeta, JdbcMapperFactory jdbcMapperFactory) {
@@ -81,6 +81,7 @@ public class CrudMeta {
                     columnMetas[i] = new ColumnMeta(
                             columnName,
                             resultSetMetaData.getColumnType(i + 1),
+                            resultSetMetaData.getColumnTypeName(i + 1),
                             primaryKeys.contains(columnName),
                             autoGeneratedProperty);
                 }
@@ -2,6 +2,7 @@ package org.simpleflatmapper.jdbc.impl;
 
 import org.simpleflatmapper.jdbc.Crud;
 import org.simpleflatmapper.jdbc.JdbcMapper;
+import org.simpleflatmapper.jdbc.PreparedStatementCache;
 import org.simpleflatmapper.jdbc.QueryPreparer;
 import org.simpleflatmapper.jdbc.SelectQuery;
 import org.simpleflatmapper.map.Mapper;
@@ -14,9 +15,20 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.Iterator;
+//IFJAVA8_START
+import java.util.stream.Stream;
+//IFJAVA8_END
 
 public final class DefaultCrud<T, K> implements Crud<T,K> {
 
+    private static final CheckedConsumer<PreparedStatement> EXECUTE_UPDATE = new CheckedConsumer<PreparedStatement>() {
+        @Override
+        public void accept(PreparedStatement preparedStatement) throws Exception {
+            preparedStatement.executeUpdate();
+        }
+    };
+
     protected final QueryPreparer<T> insertQueryPreparer;
     protected final QueryPreparer<T> updateQueryPreparer;
     protected final QueryPreparer<K> selectQueryPreparer;
@@ -28,6 +40,9 @@ public final class DefaultCrud<T, K> implements Crud<T,K> {
     protected final String table;
     protected final boolean hasGeneratedKeys;
     protected final SelectQueryWhereFactory<T> selectQueryWhereFactory;
+    protected final KeyTupleQueryExecutor<K> selectByKeysExecutor;
+    protected final KeyTupleQueryExecutor<K> deleteByKeysExecutor;
+    protected final PreparedStatementCache statementCache;
 
     public DefaultCrud(QueryPreparer<T> insertQueryPreparer,
                        QueryPreparer<T> updateQueryPreparer,
@@ -39,6 +54,24 @@ public final class DefaultCrud<T, K> implements Crud<T,K> {
                        JdbcMapper<K> keyMapper, String table,
                        boolean hasGeneratedKeys,
                        SelectQueryWhereFactory<T> selectQueryWhereFactory) {
+        this(insertQueryPreparer, updateQueryPreparer, selectQueryPreparer, upsertQueryPreparer, keyTupleQueryPreparer,
+                selectQueryMapper, deleteQueryPreparer, keyMapper, table, hasGeneratedKeys, selectQueryWhereFactory, null);
+    }
+
+    /**
+     * @param statementCache the cache of the statements of the single row operations, null to prepare a statement per call
+     */
+    public DefaultCrud(QueryPreparer<T> insertQueryPreparer,
+                       QueryPreparer<T> updateQueryPreparer,
+                       QueryPreparer<K> selectQueryPreparer,
+                       QueryPreparer<T> upsertQueryPreparer,
+                       KeyTupleQueryPreparer<K> keyTupleQueryPreparer,
+                       JdbcMapper<T> selectQueryMapper,
+                       QueryPreparer<K> deleteQueryPreparer,
+                       JdbcMapper<K> keyMapper, String table,
+                       boolean hasGeneratedKeys,
+                       SelectQueryWhereFactory<T> selectQueryWhereFactory,
+                       PreparedStatementCache statementCache) {
         this.insertQueryPreparer = insertQueryPreparer;
         this.updateQueryPreparer = updateQueryPreparer;
         this.selectQueryPreparer = selectQueryPreparer;
@@ -50,6 +83,9 @@ public final class DefaultCrud<T, K> implements Crud<T,K> {
         this.table = table;
         this.hasGeneratedKeys = hasGeneratedKeys;
         this.selectQueryWhereFactory = selectQueryWhereFactory;
+        this.selectByKeysExecutor = new KeyTupleQueryExecutor<K>("SELECT * FROM " + table + " WHERE ", keyTupleQueryPreparer);
+        this.deleteByKeysExecutor = new KeyTupleQueryExecutor<K>("DELETE FROM " + table + " WHERE ", keyTupleQueryPreparer);
+        this.statementCache = statementCache;
     }
 
     @Override
@@ -72,18 +108,66 @@ public final class DefaultCrud<T, K> implements Crud<T,K> {
         return executeQueryPreparerInBatchMode(connection, values, keyConsumer, insertQueryPreparer);
     }
 
+    @Override
+    public void create(Connection connection, Iterator<T> values, int chunkSize, int commitEvery) throws SQLException {
+        executeQueryPreparerInChunks(connection, values, chunkSize, commitEvery, insertQueryPreparer);
+    }
+
+    //IFJAVA8_START
+    @Override
+    public void create(Connection connection, Stream<T> values, int chunkSize, int commitEvery) throws SQLException {
+        create(connection, values.iterator(), chunkSize, commitEvery);
+    }
+    //IFJAVA8_END
+
     @Override
     public T read(Connection connection, K key) throws SQLException {
-        PreparedStatement preparedStatement = selectQueryPreparer.prepare(connection).bind(key);
+        PreparedStatement preparedStatement = bind(connection, selectQueryPreparer, key);
+        boolean reusable = false;
         try {
+            T value = null;
             ResultSet resultSet = preparedStatement.executeQuery();
-            if (resultSet.next()) {
-                return selectQueryMapper.map(resultSet);
+            try {
+                if (resultSet.next()) {
+                    value = selectQueryMapper.map(resultSet);
+                }
+            } finally {
+                resultSet.close();
             }
+            reusable = true;
+            return value;
         } finally {
+            release(connection, selectQueryPreparer, preparedStatement, reusable);
+        }
+    }
+
+    // the cached statement is bound with the mapper of the query, the other preparers bind their own statement
+    private <QPT> PreparedStatement bind(Connection connection, QueryPreparer<QPT> queryPreparer, QPT value) throws SQLException {
+        if (!isCacheable(queryPreparer)) {
+            return queryPreparer.prepare(connection).bind(value);
+        }
+        PreparedStatement preparedStatement = statementCache.prepareStatement(connection, queryPreparer);
+        try {
+            preparedStatement.clearParameters();
+            queryPreparer.mapper().mapTo(value, preparedStatement, null);
+            return preparedStatement;
+        } catch (Exception e) {
+            safeClose(preparedStatement);
+            return ErrorHelper.rethrow(e);
+        }
+    }
+
+    // a statement that failed is not reused
+    private void release(Connection connection, QueryPreparer<?> queryPreparer, PreparedStatement preparedStatement, boolean reusable) {
+        if (reusable && isCacheable(queryPreparer)) {
+            statementCache.release(connection, queryPreparer, preparedStatement);
+        } else {
             safeClose(preparedStatement);
         }
-        return null;
+    }
+
+    private boolean isCacheable(QueryPreparer<?> queryPreparer) {
+        return statementCache != null && queryPreparer instanceof MapperQueryPreparer;
     }
 
     private void safeClose(PreparedStatement preparedStatement) {
@@ -93,20 +177,21 @@ public final class DefaultCrud<T, K> implements Crud<T,K> {
     }
 
     @Override
-    public <RH extends CheckedConsumer<? super T>> RH read(Connection connection, Collection<K> keys, RH consumer) throws SQLException {
-        PreparedStatement preparedStatement = keyTupleQueryPreparer.prepareStatement("SELECT * FROM " + table + " WHERE ", connection, keys.size());
-        try {
-            keyTupleQueryPreparer.bindTo(keys, preparedStatement, 0);
-            ResultSet resultSet = preparedStatement.executeQuery();
-            while (resultSet.next()) {
-                consumer.accept(selectQueryMapper.map(resultSet));
+    public <RH extends CheckedConsumer<? super T>> RH read(Connection connection, Collection<K> keys, final RH consumer) throws SQLException {
+        selectByKeysExecutor.execute(connection, keys, new CheckedConsumer<PreparedStatement>() {
+            @Override
+            public void accept(PreparedStatement preparedStatement) throws Exception {
+                ResultSet resultSet = preparedStatement.executeQuery();
+                try {
+                    while (resultSet.next()) {
+                        consumer.accept(selectQueryMapper.map(resultSet));
+                    }
+                } finally {
+                    resultSet.close();
+                }
             }
-            return consumer;
-        } catch(Exception e) {
-            return ErrorHelper.rethrow(e);
-        } finally {
-            safeClose(preparedStatement);
-        }
+        });
+        return consumer;
     }
 
 
@@ -127,15 +212,7 @@ public final class DefaultCrud<T, K> implements Crud<T,K> {
 
     @Override
     public void delete(Connection connection, Collection<K> keys) throws SQLException {
-        PreparedStatement preparedStatement = keyTupleQueryPreparer.prepareStatement("DELETE FROM " + table + " WHERE ", connection, keys.size());
-        try {
-            keyTupleQueryPreparer.bindTo(keys, preparedStatement, 0);
-            preparedStatement.executeUpdate();
-        } catch (Exception e) {
-            ErrorHelper.rethrow(e);
-        } finally {
-            safeClose(preparedStatement);
-        }
+        deleteByKeysExecutor.execute(connection, keys, EXECUTE_UPDATE);
     }
 
 
@@ -159,6 +236,18 @@ public final class DefaultCrud<T, K> implements Crud<T,K> {
         return executeQueryPreparerInBatchMode(connection, values, keyConsumer, upsertQueryPreparer);
     }
 
+    @Override
+    public void createOrUpdate(Connection connection, Iterator<T> values, int chunkSize, int commitEvery) throws SQLException {
+        executeQueryPreparerInChunks(connection, values, chunkSize, commitEvery, upsertQueryPreparer);
+    }
+
+    //IFJAVA8_START
+    @Override
+    public void createOrUpdate(Connection connection, Stream<T> values, int chunkSize, int commitEvery) throws SQLException {
+        createOrUpdate(connection, values.iterator(), chunkSize, commitEvery);
+    }
+    //IFJAVA8_END
+
     @Override
     public <P> SelectQuery<T, P> where(String whereClause, Type paramClass) {
         return selectQueryWhereFactory.where(whereClause, paramClass);
@@ -187,16 +276,47 @@ public final class DefaultCrud<T, K> implements Crud<T,K> {
         return keyConsumer;
     }
 
+    protected void executeQueryPreparerInChunks(Connection connection, Iterator<T> values, int chunkSize, int commitEvery, QueryPreparer<T> queryPreparer) throws SQLException {
+        ChunkCommitter.checkChunkSize(chunkSize);
+        ChunkCommitter chunkCommitter = new ChunkCommitter(connection, commitEvery);
+        PreparedStatement preparedStatement = queryPreparer.prepareStatement(connection);
+        try {
+            Mapper<T, PreparedStatement> mapper = queryPreparer.mapper();
+
+            int nbRows = 0;
+            while (values.hasNext()) {
+                mapper.mapTo(values.next(), preparedStatement, null);
+                preparedStatement.addBatch();
+                nbRows++;
+                if (nbRows == chunkSize) {
+                    preparedStatement.executeBatch();
+                    chunkCommitter.chunkExecuted();
+                    nbRows = 0;
+                }
+            }
+            if (nbRows > 0) {
+                preparedStatement.executeBatch();
+                chunkCommitter.chunkExecuted();
+            }
+        } catch(Exception e) {
+            ErrorHelper.rethrow(e);
+        } finally {
+            safeClose(preparedStatement);
+        }
+    }
+
     protected <RH extends CheckedConsumer<? super K>, QPT> RH executeQueryPreparer(Connection connection, QPT value, RH keyConsumer, QueryPreparer<QPT> queryPreparer) throws SQLException {
-        PreparedStatement preparedStatement = queryPreparer.prepare(connection).bind(value);
+        PreparedStatement preparedStatement = bind(connection, queryPreparer, value);
+        boolean reusable = false;
         try {
             preparedStatement.executeUpdate();
             if (hasGeneratedKeys && keyConsumer != null) {
                 handleGeneratedKeys(keyConsumer, preparedStatement);
             }
+            reusable = true;
             return keyConsumer;
         } finally {
-            safeClose(preparedStatement);
+            release(connection, queryPreparer, preparedStatement, reusable);
         }
     }
 
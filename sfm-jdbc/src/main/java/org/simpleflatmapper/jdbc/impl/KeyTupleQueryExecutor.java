@@ -0,0 +1,120 @@
+package org.simpleflatmapper.jdbc.impl;
+
+import org.simpleflatmapper.util.CheckedConsumer;
+import org.simpleflatmapper.util.ErrorHelper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Execute a query restricted on a collection of keys.
+ * <p>
+ * The keys are bound in buckets of power of 2 sizes, the same way as the multi rows inserts, so that the number of
+ * parameters stays under the database limit and only a handful of distinct sql strings are sent to the database.
+ * The collection is split in chunks of the biggest bucket, executed on the same prepared statement, then the remainder
+ * is split following its binary decomposition. The sql of each bucket is built once.
+ * <p>
+ * When the keys are bound as one array all of them are sent with one statement.
+ */
+public final class KeyTupleQueryExecutor<K> {
+
+    private final String sqlBase;
+    private final KeyTupleQueryPreparer<K> keyTupleQueryPreparer;
+    private final int maxBucketSize;
+    // sql by log2 of the bucket size
+    private final AtomicReferenceArray<String> sqlByBucket;
+
+    public KeyTupleQueryExecutor(String sqlBase, KeyTupleQueryPreparer<K> keyTupleQueryPreparer) {
+        this(sqlBase, keyTupleQueryPreparer, AbstractBatchInsertQueryExecutor.DEFAULT_MAX_BUCKET_SIZE);
+    }
+
+    /**
+     * @param sqlBase the sql the keys condition is appended to
+     * @param keyTupleQueryPreparer the key preparer
+     * @param maxBucketSize the maximum number of keys per statement, rounded down to a power of 2
+     */
+    public KeyTupleQueryExecutor(String sqlBase, KeyTupleQueryPreparer<K> keyTupleQueryPreparer, int maxBucketSize) {
+        if (maxBucketSize < 1) {
+            throw new IllegalArgumentException("Invalid maxBucketSize " + maxBucketSize);
+        }
+        this.sqlBase = sqlBase;
+        this.keyTupleQueryPreparer = keyTupleQueryPreparer;
+        int maxKeys = Math.min(maxBucketSize, AbstractBatchInsertQueryExecutor.MAX_PARAMETERS / keyTupleQueryPreparer.getNbParametersPerKey());
+        this.maxBucketSize = Integer.highestOneBit(Math.max(1, maxKeys));
+        this.sqlByBucket = new AtomicReferenceArray<String>(Integer.numberOfTrailingZeros(this.maxBucketSize) + 1);
+    }
+
+    /**
+     * bind the keys and pass each statement to the executor.
+     *
+     * @param connection the connection
+     * @param keys the keys
+     * @param executor the callback executing the statement
+     * @throws SQLException if an error occurs
+     */
+    public void execute(Connection connection, Collection<K> keys, CheckedConsumer<PreparedStatement> executor) throws SQLException {
+        int remaining = keys.size();
+        if (remaining == 0) {
+            return;
+        }
+        Iterator<K> iterator = keys.iterator();
+        if (keyTupleQueryPreparer.isArrayBound()) {
+            // the sql does not depend on the number of keys
+            execute(connection, sql(1), remaining, 1, iterator, executor);
+            return;
+        }
+        if (remaining >= maxBucketSize) {
+            int nbChunks = remaining / maxBucketSize;
+            execute(connection, sql(maxBucketSize), maxBucketSize, nbChunks, iterator, executor);
+            remaining -= nbChunks * maxBucketSize;
+        }
+        while(remaining > 0) {
+            int bucketSize = Integer.highestOneBit(remaining);
+            execute(connection, sql(bucketSize), bucketSize, 1, iterator, executor);
+            remaining -= bucketSize;
+        }
+    }
+
+    private void execute(Connection connection, String sql, int bucketSize, int nbChunks, Iterator<K> keys, CheckedConsumer<PreparedStatement> executor) throws SQLException {
+        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+        try {
+            for(int i = 0; i < nbChunks; i++) {
+                keyTupleQueryPreparer.bindTo(keys, bucketSize, preparedStatement, 0);
+                executor.accept(preparedStatement);
+            }
+        } catch (Exception e) {
+            ErrorHelper.rethrow(e);
+        } finally {
+            safeClose(preparedStatement);
+        }
+    }
+
+    private void safeClose(PreparedStatement preparedStatement) {
+        try {
+            preparedStatement.close();
+        } catch(SQLException e) {
+            // IGNORE
+        }
+    }
+
+    private String sql(int bucketSize) {
+        int index = Integer.numberOfTrailingZeros(bucketSize);
+        String sql = sqlByBucket.get(index);
+        if (sql == null) {
+            sql = keyTupleQueryPreparer.sql(sqlBase, bucketSize);
+            sqlByBucket.set(index, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * @return the maximum number of keys bound to one statement, unless the keys are bound as one array
+     */
+    public int getMaxBucketSize() {
+        return maxBucketSize;
+    }
+}
@@ -3,51 +3,108 @@ package org.simpleflatmapper.jdbc.impl;
 import org.simpleflatmapper.jdbc.MultiIndexFieldMapper;
 import org.simpleflatmapper.util.ErrorHelper;
 
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.Iterator;
 
 public class KeyTupleQueryPreparer<T>  {
 
     private final MultiIndexFieldMapper<T>[] multiIndexFieldMappers;
     private final String[] keys;
+    private final String arrayTypeName;
 
     public KeyTupleQueryPreparer( MultiIndexFieldMapper<T>[] multiIndexFieldMappers, String[] keys) {
+        this(multiIndexFieldMappers, keys, null);
+    }
+
+    /**
+     * @param multiIndexFieldMappers the key mappers
+     * @param keys the key columns
+     * @param arrayTypeName the sql type name of the key used to bind all the keys as one array with <code>= ANY(?)</code>,
+     *                      null to bind each key, ignored for composite keys
+     */
+    public KeyTupleQueryPreparer( MultiIndexFieldMapper<T>[] multiIndexFieldMappers, String[] keys, String arrayTypeName) {
         if (keys.length != multiIndexFieldMappers.length) {
             throw new IllegalArgumentException("mappers and keys don't match");
         }
 
         this.multiIndexFieldMappers = multiIndexFieldMappers;
         this.keys = keys;
+        this.arrayTypeName = keys.length == 1 ? arrayTypeName : null;
     }
 
     public PreparedStatement prepareStatement(CharSequence sqlBase, Connection connection, int size) throws SQLException {
+        return connection.prepareStatement(sql(sqlBase, size));
+    }
+
+    public String sql(CharSequence sqlBase, int size) {
         StringBuilder sb = new StringBuilder(sqlBase);
 
-        if (keys.length == 1) {
+        if (isArrayBound()) {
+            sb.append(" ").append(keys[0]).append(" = ANY(?)");
+        } else if (keys.length == 1) {
             appendSingleSelectIn(keys[0], sb, size);
         } else {
             appendSelectIn(keys, sb, size);
         }
 
-        return connection.prepareStatement(sb.toString());
+        return sb.toString();
+    }
+
+    /**
+     * @return true if all the keys are bound to one array parameter, the sql does not depend on the number of keys
+     */
+    public boolean isArrayBound() {
+        return arrayTypeName != null;
+    }
+
+    /**
+     * @return the number of parameters bound per key
+     */
+    public int getNbParametersPerKey() {
+        return keys.length;
     }
 
     public void bindTo(Collection<T> values, PreparedStatement ps, int offset) {
+        bindTo(values.iterator(), values.size(), ps, offset);
+    }
 
-        int index = offset;
-        for(T value : values) {
-            for(MultiIndexFieldMapper<T> mapper : multiIndexFieldMappers) {
-                try {
+    /**
+     * bind the next size values of the iterator.
+     */
+    public void bindTo(Iterator<T> values, int size, PreparedStatement ps, int offset) {
+        try {
+            if (isArrayBound()) {
+                ps.setArray(offset + 1, toArray(values, size, ps.getConnection()));
+                return;
+            }
+            int index = offset;
+            for(int i = 0; i < size; i++) {
+                T value = values.next();
+                for(MultiIndexFieldMapper<T> mapper : multiIndexFieldMappers) {
                     mapper.map(ps, value, index);
-                } catch (Exception e) {
-                    ErrorHelper.rethrow(e);
+                    index++;
                 }
-                index++;
             }
+        } catch (Exception e) {
+            ErrorHelper.rethrow(e);
+        }
+    }
 
+    // record the value each key binds to build the array
+    private Array toArray(Iterator<T> values, int size, Connection connection) throws Exception {
+        BoundParametersRecorder recorder = new BoundParametersRecorder(1);
+        PreparedStatement recordingPs = recorder.preparedStatement();
+        Object[] elements = new Object[size];
+        for(int i = 0; i < size; i++) {
+            recorder.clear();
+            multiIndexFieldMappers[0].map(recordingPs, values.next(), 0);
+            elements[i] = recorder.get(0);
         }
+        return connection.createArrayOf(arrayTypeName, elements);
     }
 
     private void appendSingleSelectIn(String key, StringBuilder sb, int size) {
@@ -9,6 +9,10 @@ import java.lang.reflect.Type;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.Iterator;
+//IFJAVA8_START
+import java.util.stream.Stream;
+//IFJAVA8_END
 import java.util.concurrent.atomic.AtomicReference;
 
 public class LazyCrud<T, K> implements Crud<T, K> {
@@ -67,6 +71,18 @@ public class LazyCrud<T, K> implements Crud<T, K> {
         return getDelegate(connection).create(connection, values, keyConsumer);
     }
 
+    @Override
+    public void create(Connection connection, Iterator<T> values, int chunkSize, int commitEvery) throws SQLException {
+        getDelegate(connection).create(connection, values, chunkSize, commitEvery);
+    }
+
+    //IFJAVA8_START
+    @Override
+    public void create(Connection connection, Stream<T> values, int chunkSize, int commitEvery) throws SQLException {
+        getDelegate(connection).create(connection, values, chunkSize, commitEvery);
+    }
+    //IFJAVA8_END
+
     @Override
     public T read(Connection connection, K key) throws SQLException {
         return getDelegate(connection).read(connection, key);
@@ -117,6 +133,18 @@ public class LazyCrud<T, K> implements Crud<T, K> {
         return getDelegate(connection).createOrUpdate(connection, values, keyConsumer);
     }
 
+    @Override
+    public void createOrUpdate(Connection connection, Iterator<T> values, int chunkSize, int commitEvery) throws SQLException {
+        getDelegate(connection).createOrUpdate(connection, values, chunkSize, commitEvery);
+    }
+
+    //IFJAVA8_START
+    @Override
+    public void createOrUpdate(Connection connection, Stream<T> values, int chunkSize, int commitEvery) throws SQLException {
+        getDelegate(connection).createOrUpdate(connection, values, chunkSize, commitEvery);
+    }
+    //IFJAVA8_END
+
     @Override
     public <P> SelectQuery<T, P> where(String whereClause, Type paramClass) {
         Crud<T, K> crud = delegate.get();
@@ -150,6 +178,18 @@ public class LazyCrud<T, K> implements Crud<T, K> {
             return getDelegateQuery(connection).read(connection, p, consumer);
         }
 
+        @Override
+        public <C extends CheckedConsumer<? super T>> C read(Connection connection, P p, int fetchSize, C consumer) throws SQLException {
+            return getDelegateQuery(connection).read(connection, p, fetchSize, consumer);
+        }
+
+        //IFJAVA8_START
+        @Override
+        public Stream<T> stream(Connection connection, P p, int fetchSize) throws SQLException {
+            return getDelegateQuery(connection).stream(connection, p, fetchSize);
+        }
+        //IFJAVA8_END
+
         private SelectQuery<T, P> getDelegateQuery(Connection connection) throws SQLException {
             SelectQuery<T, P> query;
 
@@ -9,19 +9,33 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.Iterator;
+//IFJAVA8_START
+import java.util.stream.Stream;
+//IFJAVA8_END
 
 public final class MultiRowsBatchInsertCrud<T, K> implements Crud<T, K> {
     private final BatchQueryExecutor<T> batchInsertQueryExecutor;
     private final BatchQueryExecutor<T> batchUpsertQueryExecutor;
+    // used when the generated keys are not needed
+    private final BatchQueryExecutor<T> batchInsertNoKeysQueryExecutor;
 
     private final DefaultCrud<T, K> delegate;
 
     public MultiRowsBatchInsertCrud(DefaultCrud<T, K> delegate,
                                     BatchQueryExecutor<T> batchInsertQueryPreparer,
                                     BatchQueryExecutor<T> batchUpsertQueryExecutor) {
+        this(delegate, batchInsertQueryPreparer, batchUpsertQueryExecutor, batchInsertQueryPreparer);
+    }
+
+    public MultiRowsBatchInsertCrud(DefaultCrud<T, K> delegate,
+                                    BatchQueryExecutor<T> batchInsertQueryPreparer,
+                                    BatchQueryExecutor<T> batchUpsertQueryExecutor,
+                                    BatchQueryExecutor<T> batchInsertNoKeysQueryExecutor) {
         this.delegate = delegate;
         this.batchInsertQueryExecutor = batchInsertQueryPreparer;
         this.batchUpsertQueryExecutor = batchUpsertQueryExecutor;
+        this.batchInsertNoKeysQueryExecutor = batchInsertNoKeysQueryExecutor;
     }
 
     @Override
@@ -41,7 +55,9 @@ public final class MultiRowsBatchInsertCrud<T, K> implements Crud<T, K> {
 
     @Override
     public <RH extends CheckedConsumer<? super K>> RH create(Connection connection, Collection<T> values, final RH keyConsumer) throws SQLException {
-        batchInsertQueryExecutor.insert(connection, values, new CheckedConsumer<PreparedStatement>() {
+        BatchQueryExecutor<T> executor =
+                delegate.hasGeneratedKeys && keyConsumer != null ? batchInsertQueryExecutor : batchInsertNoKeysQueryExecutor;
+        executor.insert(connection, values, new CheckedConsumer<PreparedStatement>() {
             @Override
             public void accept(PreparedStatement preparedStatement) throws Exception {
                 if (delegate.hasGeneratedKeys && keyConsumer != null) {
@@ -52,6 +68,19 @@ public final class MultiRowsBatchInsertCrud<T, K> implements Crud<T, K> {
         return keyConsumer;
     }
 
+    @Override
+    public void create(Connection connection, Iterator<T> values, int chunkSize, int commitEvery) throws SQLException {
+        ChunkCommitter.checkChunkSize(chunkSize);
+        batchInsertNoKeysQueryExecutor.insert(connection, values, chunkSize, new ChunkCommitter(connection, commitEvery));
+    }
+
+    //IFJAVA8_START
+    @Override
+    public void create(Connection connection, Stream<T> values, int chunkSize, int commitEvery) throws SQLException {
+        create(connection, values.iterator(), chunkSize, commitEvery);
+    }
+    //IFJAVA8_END
+
     @Override
     public T read(Connection connection, K key) throws SQLException {
         return delegate.read(connection, key);
@@ -110,6 +139,19 @@ public final class MultiRowsBatchInsertCrud<T, K> implements Crud<T, K> {
         return keyConsumer;
     }
 
+    @Override
+    public void createOrUpdate(Connection connection, Iterator<T> values, int chunkSize, int commitEvery) throws SQLException {
+        ChunkCommitter.checkChunkSize(chunkSize);
+        batchUpsertQueryExecutor.insert(connection, values, chunkSize, new ChunkCommitter(connection, commitEvery));
+    }
+
+    //IFJAVA8_START
+    @Override
+    public void createOrUpdate(Connection connection, Stream<T> values, int chunkSize, int commitEvery) throws SQLException {
+        createOrUpdate(connection, values.iterator(), chunkSize, commitEvery);
+    }
+    //IFJAVA8_END
+
     @Override
     public <P> SelectQuery<T, P> where(String whereClause, Type paramClass) {
         return delegate.where(whereClause, paramClass);
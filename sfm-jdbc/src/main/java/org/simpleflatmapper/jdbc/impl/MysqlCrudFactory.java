@@ -59,7 +59,7 @@ public class MysqlCrudFactory {
                 statementMapperBuilder.buildIndexFieldMappers());
 
         return
-                new SizeAdjusterBatchQueryExecutor<T>(queryExecutor);
+                new SizeAdjusterBatchQueryExecutor<T>(queryExecutor, "SELECT @@max_allowed_packet");
     }
 
     public static <T, K> QueryPreparer<T> buildUpsert(ClassMeta<T> target, CrudMeta crudMeta, JdbcMapperFactory jdbcMapperFactory) {
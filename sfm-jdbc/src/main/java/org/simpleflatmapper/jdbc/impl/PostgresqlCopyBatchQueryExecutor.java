@@ -0,0 +1,543 @@
+package org.simpleflatmapper.jdbc.impl;
+
+import org.simpleflatmapper.jdbc.MultiIndexFieldMapper;
+import org.simpleflatmapper.util.CheckedConsumer;
+import org.simpleflatmapper.util.ErrorHelper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.GregorianCalendar;
+import java.util.Iterator;
+import java.util.UUID;
+
+/**
+ * Insert the values with a postgresql <code>COPY table (columns) FROM STDIN</code> in text format.
+ * <p>
+ * The rows are bound by the field mappers of the insert to a recording PreparedStatement, formatted in the COPY text
+ * format and streamed to the CopyManager of the driver as they are read, the collection is not copied.
+ * The driver is accessed by reflection, if it is not present, if the connection does not unwrap to a PGConnection
+ * or if a column is inserted through an expression or bound to more than one parameter, the values are inserted by
+ * the delegate executor.
+ * <p>
+ * Strings, numbers, booleans, binaries, uuids and the java.sql temporal types have a COPY text encoding. The timestamps
+ * and times are written with their offset in the zone of the Calendar they were bound with, the default zone if none.
+ * The first row decides, if one of its values has no encoding, for example an array, all the values are inserted
+ * by the delegate executor; such a value in a later row fails the COPY.
+ * <p>
+ * COPY does not return the generated keys, postExecute is never called.
+ */
+public final class PostgresqlCopyBatchQueryExecutor<T> implements BatchQueryExecutor<T> {
+
+    private static final String PG_CONNECTION = "org.postgresql.PGConnection";
+    private static final int ROWS_PER_READ = 64;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final String copySql;
+    private final int nbColumns;
+    private final boolean copyable;
+    private final MultiIndexFieldMapper<T>[] multiIndexFieldMappers;
+    private final BatchQueryExecutor<T> delegate;
+
+    private volatile CopyApi copyApi;
+
+    public PostgresqlCopyBatchQueryExecutor(AbstractBatchInsertQueryExecutor<T> delegate) {
+        this(delegate, delegate);
+    }
+
+    /**
+     * @param batchInsert the batch insert the columns and field mappers are taken from
+     * @param delegate the executor used when COPY is not available
+     */
+    public PostgresqlCopyBatchQueryExecutor(AbstractBatchInsertQueryExecutor<T> batchInsert, BatchQueryExecutor<T> delegate) {
+        this(batchInsert.table, batchInsert.insertColumns, batchInsert.insertColumnExpressions, batchInsert.multiIndexFieldMappers, delegate);
+    }
+
+    public PostgresqlCopyBatchQueryExecutor(
+            String table,
+            String[] insertColumns,
+            String[] insertColumnExpressions,
+            MultiIndexFieldMapper<T>[] multiIndexFieldMappers,
+            BatchQueryExecutor<T> delegate) {
+        this.copySql = copySql(table, insertColumns);
+        this.nbColumns = insertColumns.length;
+        this.copyable = isCopyable(insertColumnExpressions) && isCopyable(multiIndexFieldMappers, insertColumns.length);
+        this.multiIndexFieldMappers = multiIndexFieldMappers;
+        this.delegate = delegate;
+    }
+
+    private static String copySql(String table, String[] insertColumns) {
+        StringBuilder sb = new StringBuilder("COPY ");
+        sb.append(table).append(" (");
+        for(int i = 0; i < insertColumns.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(insertColumns[i]);
+        }
+        sb.append(") FROM STDIN");
+        return sb.toString();
+    }
+
+    private static boolean isCopyable(String[] insertColumnExpressions) {
+        if (insertColumnExpressions != null) {
+            for (String expression : insertColumnExpressions) {
+                if (expression != null && !"?".equals(expression)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // each column needs to be bound to one parameter, collections are bound to a parameter per element
+    private static boolean isCopyable(MultiIndexFieldMapper<?>[] multiIndexFieldMappers, int nbColumns) {
+        if (multiIndexFieldMappers.length != nbColumns) {
+            return false;
+        }
+        for (MultiIndexFieldMapper<?> multiIndexFieldMapper : multiIndexFieldMappers) {
+            if (!(multiIndexFieldMapper instanceof SingleIndexFieldMapper)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void insert(Connection connection, Collection<T> values, CheckedConsumer<PreparedStatement> postExecute) throws SQLException {
+        Object copyManager = copyable && hasCopyEncoding(values.iterator()) ? copyManager(connection) : null;
+        if (copyManager == null) {
+            delegate.insert(connection, values, postExecute);
+        } else {
+            copy(copyManager, values.iterator(), Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * The values are streamed in one COPY. If the chunk committer commits, one COPY is sent per commitEvery chunks
+     * and the connection is committed after each of them. The chunk size only applies to the delegate otherwise.
+     */
+    @Override
+    public void insert(Connection connection, Iterator<T> values, int chunkSize, ChunkCommitter chunkCommitter) throws SQLException {
+        Object copyManager = null;
+        if (copyable && values.hasNext()) {
+            T first = values.next();
+            values = new FirstThenIterator<T>(first, values);
+            if (hasCopyEncoding(first)) {
+                copyManager = copyManager(connection);
+            }
+        }
+        if (copyManager == null) {
+            delegate.insert(connection, values, chunkSize, chunkCommitter);
+        } else if (chunkCommitter.isCommitting()) {
+            long rowsPerCopy = (long) chunkSize * chunkCommitter.getCommitEvery();
+            while (values.hasNext()) {
+                long nbRows = copy(copyManager, values, rowsPerCopy);
+                chunkCommitter.chunksExecuted((int) ((nbRows + chunkSize - 1) / chunkSize));
+            }
+        } else {
+            copy(copyManager, values, Long.MAX_VALUE);
+        }
+    }
+
+    private boolean hasCopyEncoding(Iterator<T> values) throws SQLException {
+        return !values.hasNext() || hasCopyEncoding(values.next());
+    }
+
+    // map the row to check that all its values have a COPY text encoding
+    private boolean hasCopyEncoding(T value) throws SQLException {
+        BoundParametersRecorder recorder = new BoundParametersRecorder(nbColumns);
+        PreparedStatement ps = recorder.preparedStatement();
+        try {
+            int i = 0;
+            for (MultiIndexFieldMapper<T> multiIndexFieldMapper : multiIndexFieldMappers) {
+                i += multiIndexFieldMapper.map(ps, value, i);
+            }
+        } catch (Exception e) {
+            ErrorHelper.rethrow(e);
+        }
+        for(int c = 0; c < nbColumns; c++) {
+            if (!hasTextEncoding(recorder.get(c))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean hasTextEncoding(Object value) {
+        return value == null
+                || value instanceof Boolean
+                || value instanceof Number
+                || value instanceof CharSequence
+                || value instanceof Character
+                || value instanceof UUID
+                || value instanceof byte[]
+                || value instanceof InputStream
+                || value instanceof Reader
+                || value instanceof Timestamp
+                || value instanceof java.sql.Date
+                || value instanceof Time;
+    }
+
+    private long copy(Object copyManager, Iterator<T> values, long maxRows) throws SQLException {
+        CopyReader reader = new CopyReader(values, maxRows);
+        try {
+            copyApi.copyIn(copyManager, copySql, reader);
+        } catch (Exception e) {
+            // report the mapping error rather than the driver wrapping of the IOException
+            ErrorHelper.rethrow(reader.exception != null ? reader.exception : e);
+        }
+        return reader.nbRows;
+    }
+
+    /**
+     * @return the COPY statement sent to the database
+     */
+    public String getCopySql() {
+        return copySql;
+    }
+
+    /**
+     * Write the values in the COPY text format.
+     * @param values the values
+     * @param appendable the target
+     * @throws Exception if a field mapper or the appendable fails
+     */
+    public void writeTo(Iterable<T> values, Appendable appendable) throws Exception {
+        BoundParametersRecorder recorder = new BoundParametersRecorder(nbColumns);
+        PreparedStatement ps = recorder.preparedStatement();
+        for(T value : values) {
+            appendRow(value, recorder, ps, appendable);
+        }
+    }
+
+    private void appendRow(T value, BoundParametersRecorder recorder, PreparedStatement ps, Appendable appendable) throws Exception {
+        recorder.clear();
+        int i = 0;
+        for (MultiIndexFieldMapper<T> multiIndexFieldMapper : multiIndexFieldMappers) {
+            i += multiIndexFieldMapper.map(ps, value, i);
+        }
+        for(int c = 0; c < nbColumns; c++) {
+            if (c > 0) {
+                appendable.append('\t');
+            }
+            appendValue(recorder.get(c), recorder.getCalendar(c), appendable);
+        }
+        appendable.append('\n');
+    }
+
+    private Object copyManager(Connection connection) throws SQLException {
+        CopyApi lCopyApi = copyApi;
+        if (lCopyApi == null) {
+            lCopyApi = CopyApi.lookup(connection);
+            copyApi = lCopyApi;
+        }
+        return lCopyApi.copyManager(connection);
+    }
+
+    static void appendValue(Object value, Calendar calendar, Appendable appendable) throws IOException {
+        if (value == null) {
+            appendable.append("\\N");
+        } else if (value instanceof Boolean) {
+            appendable.append(((Boolean) value) ? 't' : 'f');
+        } else if (value instanceof Number) {
+            appendable.append(value.toString());
+        } else if (value instanceof byte[]) {
+            appendBytes((byte[]) value, appendable);
+        } else if (value instanceof InputStream) {
+            appendBytes(readFully((InputStream) value), appendable);
+        } else if (value instanceof Reader) {
+            appendEscaped(readFully((Reader) value), appendable);
+        } else if (value instanceof CharSequence || value instanceof Character || value instanceof UUID) {
+            appendEscaped(value.toString(), appendable);
+        } else if (value instanceof Timestamp) {
+            Timestamp timestamp = (Timestamp) value;
+            Calendar cal = calendar(timestamp, calendar);
+            appendDate(cal, appendable);
+            appendable.append(' ');
+            appendTime(cal, timestamp.getNanos(), appendable);
+            appendOffset(cal, appendable);
+            appendEra(cal, appendable);
+        } else if (value instanceof java.sql.Date) {
+            Calendar cal = calendar((java.util.Date) value, calendar);
+            appendDate(cal, appendable);
+            appendEra(cal, appendable);
+        } else if (value instanceof Time) {
+            Calendar cal = calendar((java.util.Date) value, calendar);
+            appendTime(cal, cal.get(Calendar.MILLISECOND) * 1000000, appendable);
+            appendOffset(cal, appendable);
+        } else {
+            throw new IllegalArgumentException("No COPY text encoding for " + value.getClass().getName());
+        }
+    }
+
+    private static Calendar calendar(java.util.Date date, Calendar calendar) {
+        Calendar cal = calendar != null ? (Calendar) calendar.clone() : new GregorianCalendar();
+        cal.setTime(date);
+        return cal;
+    }
+
+    private static void appendDate(Calendar cal, Appendable appendable) throws IOException {
+        appendPadded(cal.get(Calendar.YEAR), 4, appendable);
+        appendable.append('-');
+        appendPadded(cal.get(Calendar.MONTH) + 1, 2, appendable);
+        appendable.append('-');
+        appendPadded(cal.get(Calendar.DAY_OF_MONTH), 2, appendable);
+    }
+
+    // the fraction is written without its trailing zeros
+    private static void appendTime(Calendar cal, int nanos, Appendable appendable) throws IOException {
+        appendPadded(cal.get(Calendar.HOUR_OF_DAY), 2, appendable);
+        appendable.append(':');
+        appendPadded(cal.get(Calendar.MINUTE), 2, appendable);
+        appendable.append(':');
+        appendPadded(cal.get(Calendar.SECOND), 2, appendable);
+        if (nanos > 0) {
+            int digits = 9;
+            while (nanos % 10 == 0) {
+                nanos /= 10;
+                digits--;
+            }
+            appendable.append('.');
+            appendPadded(nanos, digits, appendable);
+        }
+    }
+
+    private static void appendOffset(Calendar cal, Appendable appendable) throws IOException {
+        int offsetSeconds = (cal.get(Calendar.ZONE_OFFSET) + cal.get(Calendar.DST_OFFSET)) / 1000;
+        appendable.append(offsetSeconds < 0 ? '-' : '+');
+        offsetSeconds = Math.abs(offsetSeconds);
+        appendPadded(offsetSeconds / 3600, 2, appendable);
+        appendable.append(':');
+        appendPadded((offsetSeconds / 60) % 60, 2, appendable);
+        if (offsetSeconds % 60 != 0) {
+            appendable.append(':');
+            appendPadded(offsetSeconds % 60, 2, appendable);
+        }
+    }
+
+    private static void appendEra(Calendar cal, Appendable appendable) throws IOException {
+        if (cal.get(Calendar.ERA) == GregorianCalendar.BC) {
+            appendable.append(" BC");
+        }
+    }
+
+    private static void appendPadded(int value, int length, Appendable appendable) throws IOException {
+        String str = Integer.toString(value);
+        for(int i = str.length(); i < length; i++) {
+            appendable.append('0');
+        }
+        appendable.append(str);
+    }
+
+    private static void appendEscaped(CharSequence value, Appendable appendable) throws IOException {
+        for(int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    appendable.append("\\\\");
+                    break;
+                case '\n':
+                    appendable.append("\\n");
+                    break;
+                case '\r':
+                    appendable.append("\\r");
+                    break;
+                case '\t':
+                    appendable.append("\\t");
+                    break;
+                default:
+                    appendable.append(c);
+            }
+        }
+    }
+
+    // bytea hex format, the backslash is escaped for the COPY text format
+    private static void appendBytes(byte[] bytes, Appendable appendable) throws IOException {
+        appendable.append("\\\\x");
+        for (byte b : bytes) {
+            appendable.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+        }
+    }
+
+    private static byte[] readFully(InputStream is) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int l;
+        while((l = is.read(buffer)) != -1) {
+            bos.write(buffer, 0, l);
+        }
+        return bos.toByteArray();
+    }
+
+    private static CharSequence readFully(Reader reader) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        char[] buffer = new char[4096];
+        int l;
+        while((l = reader.read(buffer)) != -1) {
+            sb.append(buffer, 0, l);
+        }
+        return sb;
+    }
+
+    private static final class FirstThenIterator<T> implements Iterator<T> {
+        private final Iterator<T> values;
+        private T first;
+        private boolean firstConsumed;
+
+        private FirstThenIterator(T first, Iterator<T> values) {
+            this.first = first;
+            this.values = values;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !firstConsumed || values.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (!firstConsumed) {
+                T value = first;
+                first = null;
+                firstConsumed = true;
+                return value;
+            }
+            return values.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Reader formatting the rows as they are read by the driver.
+     */
+    private final class CopyReader extends Reader {
+        private final Iterator<T> values;
+        private final long maxRows;
+        private final BoundParametersRecorder recorder = new BoundParametersRecorder(nbColumns);
+        private final PreparedStatement ps = recorder.preparedStatement();
+        private final StringBuilder buffer = new StringBuilder();
+        private int position;
+        private long nbRows;
+        private Exception exception;
+
+        private CopyReader(Iterator<T> values, long maxRows) {
+            this.values = values;
+            this.maxRows = maxRows;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            if (position >= buffer.length() && !fill()) {
+                return -1;
+            }
+            int l = Math.min(len, buffer.length() - position);
+            buffer.getChars(position, position + l, cbuf, off);
+            position += l;
+            return l;
+        }
+
+        private boolean fill() throws IOException {
+            buffer.setLength(0);
+            position = 0;
+            try {
+                for(int i = 0; i < ROWS_PER_READ && nbRows < maxRows && values.hasNext(); i++) {
+                    appendRow(values.next(), recorder, ps, buffer);
+                    nbRows++;
+                }
+            } catch (Exception e) {
+                exception = e;
+                throw new IOException("Failed to format row for COPY: " + e.getMessage(), e);
+            }
+            return buffer.length() > 0;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Reflective access to the CopyManager of the postgresql driver.
+     */
+    private static final class CopyApi {
+        private static final CopyApi UNAVAILABLE = new CopyApi(null, null, null);
+
+        private final Class<?> pgConnectionClass;
+        private final Method getCopyAPI;
+        private final Method copyIn;
+
+        private CopyApi(Class<?> pgConnectionClass, Method getCopyAPI, Method copyIn) {
+            this.pgConnectionClass = pgConnectionClass;
+            this.getCopyAPI = getCopyAPI;
+            this.copyIn = copyIn;
+        }
+
+        private static CopyApi lookup(Connection connection) {
+            Class<?> pgConnectionClass = loadClass(connection.getClass().getClassLoader());
+            if (pgConnectionClass == null) {
+                pgConnectionClass = loadClass(CopyApi.class.getClassLoader());
+            }
+            if (pgConnectionClass == null) {
+                return UNAVAILABLE;
+            }
+            try {
+                Method getCopyAPI = pgConnectionClass.getMethod("getCopyAPI");
+                Method copyIn = getCopyAPI.getReturnType().getMethod("copyIn", String.class, Reader.class);
+                return new CopyApi(pgConnectionClass, getCopyAPI, copyIn);
+            } catch (NoSuchMethodException e) {
+                return UNAVAILABLE;
+            }
+        }
+
+        private static Class<?> loadClass(ClassLoader classLoader) {
+            try {
+                return Class.forName(PG_CONNECTION, false, classLoader);
+            } catch (ClassNotFoundException e) {
+                return null;
+            } catch (LinkageError e) {
+                return null;
+            }
+        }
+
+        private Object copyManager(Connection connection) throws SQLException {
+            if (pgConnectionClass == null || !connection.isWrapperFor(pgConnectionClass)) {
+                return null;
+            }
+            try {
+                return getCopyAPI.invoke(connection.unwrap(pgConnectionClass));
+            } catch (Exception e) {
+                return ErrorHelper.rethrow(unwrap(e));
+            }
+        }
+
+        private void copyIn(Object copyManager, String sql, Reader reader) throws SQLException {
+            try {
+                copyIn.invoke(copyManager, sql, reader);
+            } catch (Exception e) {
+                ErrorHelper.rethrow(unwrap(e));
+            }
+        }
+
+        private static Throwable unwrap(Exception e) {
+            if (e instanceof InvocationTargetException && e.getCause() != null) {
+                return e.getCause();
+            }
+            return e;
+        }
+    }
+}
@@ -14,14 +14,21 @@ import java.util.List;
 public class PostgresqlCrudFactory {
 
     public static <T, K> Crud<T, K> newInstance(ClassMeta<T>  target, ClassMeta<K>  keyTarget, CrudMeta crudMeta, JdbcMapperFactory jdbcMapperFactory, DefaultCrud<T, K> defaultCrud) throws SQLException {
+        return newInstance(target, keyTarget, crudMeta, jdbcMapperFactory, defaultCrud, false);
+    }
+
+    public static <T, K> Crud<T, K> newInstance(ClassMeta<T>  target, ClassMeta<K>  keyTarget, CrudMeta crudMeta, JdbcMapperFactory jdbcMapperFactory, DefaultCrud<T, K> defaultCrud, boolean copy) throws SQLException {
+        PostgresqlBatchInsertQueryExecutor<T> batchInsert = buildBatchInsert(target, crudMeta, jdbcMapperFactory, false);
+        BatchQueryExecutor<T> adjustedBatchInsert = new SizeAdjusterBatchQueryExecutor<T>(batchInsert);
         return new MultiRowsBatchInsertCrud<T, K>(
                 defaultCrud,
-                buildBatchInsert(target, crudMeta, jdbcMapperFactory, false),
-                buildBatchInsert(target, crudMeta, jdbcMapperFactory, true));
+                adjustedBatchInsert,
+                new SizeAdjusterBatchQueryExecutor<T>(buildBatchInsert(target, crudMeta, jdbcMapperFactory, true)),
+                copy ? new PostgresqlCopyBatchQueryExecutor<T>(batchInsert, adjustedBatchInsert) : adjustedBatchInsert);
 
     }
 
-    private static <T, K> BatchQueryExecutor<T> buildBatchInsert(
+    private static <T, K> PostgresqlBatchInsertQueryExecutor<T> buildBatchInsert(
             ClassMeta<T> target,
             CrudMeta crudMeta,
             JdbcMapperFactory jdbcMapperFactory,
@@ -4,11 +4,15 @@ import org.simpleflatmapper.jdbc.JdbcMapper;
 import org.simpleflatmapper.jdbc.QueryPreparer;
 import org.simpleflatmapper.jdbc.SelectQuery;
 import org.simpleflatmapper.util.CheckedConsumer;
+import org.simpleflatmapper.util.ErrorHelper;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+//IFJAVA8_START
+import java.util.stream.Stream;
+//IFJAVA8_END
 
 public class SelectQueryImpl<T, P> implements SelectQuery<T, P> {
     private final QueryPreparer<P> queryPreparer;
@@ -54,6 +58,39 @@ public class SelectQueryImpl<T, P> implements SelectQuery<T, P> {
         return consumer;
     }
 
+    @Override
+    public <C extends CheckedConsumer<? super T>> C read(Connection connection, P p, int fetchSize, C consumer) throws SQLException {
+        StreamingResultSet.checkFetchSize(fetchSize);
+        PreparedStatement preparedStatement = queryPreparer.prepare(connection).bind(p);
+        StreamingResultSet streamingResultSet = StreamingResultSet.executeQuery(connection, preparedStatement, fetchSize);
+        try {
+            mapper.forEach(streamingResultSet.getResultSet(), consumer);
+        } finally {
+            streamingResultSet.close();
+        }
+        return consumer;
+    }
+
+    //IFJAVA8_START
+    @Override
+    public Stream<T> stream(Connection connection, P p, int fetchSize) throws SQLException {
+        StreamingResultSet.checkFetchSize(fetchSize);
+        PreparedStatement preparedStatement = queryPreparer.prepare(connection).bind(p);
+        final StreamingResultSet streamingResultSet = StreamingResultSet.executeQuery(connection, preparedStatement, fetchSize);
+        try {
+            return mapper.stream(streamingResultSet.getResultSet()).onClose(new Runnable() {
+                @Override
+                public void run() {
+                    streamingResultSet.close();
+                }
+            });
+        } catch (Exception e) {
+            streamingResultSet.close();
+            return ErrorHelper.rethrow(e);
+        }
+    }
+    //IFJAVA8_END
+
     private void safeClose(PreparedStatement preparedStatement) {
         try {
             preparedStatement.close();
@@ -1,68 +1,382 @@
 package org.simpleflatmapper.jdbc.impl;
 
+import org.simpleflatmapper.jdbc.MultiIndexFieldMapper;
 import org.simpleflatmapper.util.CheckedConsumer;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Split the values in batches which size adapts to the measured throughput.
+ * <p>
+ * The batch sizes are powers of 2 up to the max bucket size of the delegate, which respects the bind parameters limit.
+ * After each full batch the rows per second of its size are updated and the size moves to the best measured
+ * neighbour, when the current size is the best a neighbour size that has not been measured recently is probed,
+ * bigger first, so that the size grows again when the conditions improve.
+ * <p>
+ * If the max packet size is known the size of a row is estimated from its bound parameters and the batch is capped
+ * so that one statement fits in a packet. A mysql PacketTooBigException lowers the maximum size and retries.
+ * <p>
+ * Each batch is a power of 2 rows, the values are sent in batches of the current size then the remainder in its
+ * binary decomposition, so that the delegate inserts a batch with exactly one statement. A failing batch has not
+ * inserted any row and only that batch is retried.
+ */
 public class SizeAdjusterBatchQueryExecutor<T> implements BatchQueryExecutor<T> {
+    public static final int MAX_LEVEL = 30;
+
+    // number of batches after which the throughput of a size is measured again
+    private static final int STALE_AFTER = 64;
+    private static final double EWMA_WEIGHT = 0.25;
+    private static final int NB_SAMPLED_ROWS = 8;
+    // room left in the packet for the statement outside of the values
+    private static final int PACKET_MARGIN = 1024;
+
     private final BatchQueryExecutor<T> delegate;
-    private final AtomicInteger batchSize = new AtomicInteger(Integer.MAX_VALUE);
+    private final MultiIndexFieldMapper<T>[] multiIndexFieldMappers;
+    private final String maxPacketSizeQuery;
+
+    // throughput in rows per second of the batch size 1 << level
+    private final double[] throughputs;
+    private final long[] measuredAt;
+    private long nbBatches;
+
+    private volatile int level;
+    private volatile int maxLevel;
+    private volatile int estimatedRowSize;
+    private volatile long maxPacketSize = -1;
 
     public SizeAdjusterBatchQueryExecutor(BatchQueryExecutor<T> delegate) {
+        this(delegate, null);
+    }
+
+    /**
+     * @param delegate the executor
+     * @param maxPacketSizeQuery the query returning the max packet size in bytes, null if not limited
+     */
+    public SizeAdjusterBatchQueryExecutor(BatchQueryExecutor<T> delegate, String maxPacketSizeQuery) {
+        this(delegate,
+                delegate instanceof AbstractBatchInsertQueryExecutor
+                        ? ((AbstractBatchInsertQueryExecutor<T>) delegate).getMaxBucketSize()
+                        : 1 << MAX_LEVEL,
+                maxPacketSizeQuery);
+    }
+
+    /**
+     * @param delegate the executor
+     * @param maxBatchSize the maximum batch size, rounded down to a power of 2
+     * @param maxPacketSizeQuery the query returning the max packet size in bytes, null if not limited
+     */
+    public SizeAdjusterBatchQueryExecutor(BatchQueryExecutor<T> delegate, int maxBatchSize, String maxPacketSizeQuery) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Invalid maxBatchSize " + maxBatchSize);
+        }
         this.delegate = delegate;
+        this.maxPacketSizeQuery = maxPacketSizeQuery;
+        this.multiIndexFieldMappers = delegate instanceof AbstractBatchInsertQueryExecutor
+                ? ((AbstractBatchInsertQueryExecutor<T>) delegate).multiIndexFieldMappers
+                : null;
+        if (delegate instanceof AbstractBatchInsertQueryExecutor) {
+            // a batch bigger than the biggest bucket would be split in several statements
+            maxBatchSize = Math.min(maxBatchSize, ((AbstractBatchInsertQueryExecutor<T>) delegate).getMaxBucketSize());
+        }
+        int initialLevel = Math.min(MAX_LEVEL, 31 - Integer.numberOfLeadingZeros(maxBatchSize));
+        this.maxLevel = initialLevel;
+        this.level = initialLevel;
+        this.throughputs = new double[MAX_LEVEL + 1];
+        this.measuredAt = new long[MAX_LEVEL + 1];
     }
 
     @Override
     public void insert(Connection connection, Collection<T> values, CheckedConsumer<PreparedStatement> postExecute) throws SQLException {
-        int lBatchSize = Math.min(batchSize.get(), values.size());
+        if (multiIndexFieldMappers != null && maxPacketSizeQuery != null) {
+            estimateRowSize(values);
+        }
+        AbstractBatchInsertQueryExecutor<T>.BucketStatements statements = bucketStatements(connection);
         try {
-            if (values.size() <= lBatchSize) {
-                delegate.insert(connection, values, postExecute);
+            insertInBatches(connection, statements, values.iterator(), values.size(), postExecute);
+        } finally {
+            close(statements);
+        }
+    }
+
+    /**
+     * The chunks are exactly chunkSize rows, each one is sent in batches as a collection would be. When the delegate
+     * is a multi rows insert the statements are prepared once for the whole iteration.
+     */
+    @Override
+    public void insert(Connection connection, Iterator<T> values, int chunkSize, ChunkCommitter chunkCommitter) throws SQLException {
+        List<T> chunk = new ArrayList<T>();
+        AbstractBatchInsertQueryExecutor<T>.BucketStatements statements = bucketStatements(connection);
+        try {
+            while (values.hasNext()) {
+                fillList(chunkSize, values, chunk);
+                if (multiIndexFieldMappers != null && maxPacketSizeQuery != null) {
+                    estimateRowSize(chunk);
+                }
+                insertInBatches(connection, statements, chunk.iterator(), chunk.size(), null);
+                chunkCommitter.chunkExecuted();
+            }
+        } finally {
+            close(statements);
+        }
+    }
+
+    private AbstractBatchInsertQueryExecutor<T>.BucketStatements bucketStatements(Connection connection) {
+        if (delegate instanceof AbstractBatchInsertQueryExecutor) {
+            return ((AbstractBatchInsertQueryExecutor<T>) delegate).bucketStatements(connection);
+        }
+        return null;
+    }
+
+    private static void close(AbstractBatchInsertQueryExecutor<?>.BucketStatements statements) {
+        if (statements != null) {
+            statements.close();
+        }
+    }
+
+    // batches of the current size, then the binary decomposition of the remainder
+    private void insertInBatches(Connection connection, AbstractBatchInsertQueryExecutor<T>.BucketStatements statements, Iterator<T> values, int nbRows, CheckedConsumer<PreparedStatement> postExecute) throws SQLException {
+        List<T> batch = new ArrayList<T>();
+        while (nbRows > 0) {
+            int lBatchSize = Math.min(getBatchSize(connection), Integer.highestOneBit(nbRows));
+            fillList(lBatchSize, values, batch);
+            execute(connection, statements, batch, postExecute);
+            nbRows -= lBatchSize;
+        }
+    }
+
+    // the batch is inserted by one statement, if it fails none of its rows are inserted and only it is retried
+    private void execute(Connection connection, AbstractBatchInsertQueryExecutor<T>.BucketStatements statements, List<T> batch, CheckedConsumer<PreparedStatement> postExecute) throws SQLException {
+        long start = nanoTime();
+        try {
+            if (statements != null) {
+                statements.execute(batch.iterator(), batch.size(), postExecute);
             } else {
-                splitBatches(connection, values, lBatchSize, postExecute);
+                delegate.insert(connection, batch, postExecute);
             }
         } catch (SQLException e) {
-            String name = e.getClass().getName();
-            if (name.equals("com.mysql.jdbc.PacketTooBigException") // 5.x name
-                || name.equals("com.mysql.cj.jdbc.exceptions.PacketTooBigException") // 6.x
-                    ) {
-                if (lBatchSize <= 2) {
-                    throw e;
+            if (isPacketTooBig(e) && batch.size() > 1) {
+                packetTooBig(batch.size());
+                insertInBatches(connection, statements, new ArrayList<T>(batch).iterator(), batch.size(), postExecute);
+                return;
+            }
+            throw e;
+        }
+        batchExecuted(batch.size(), nanoTime() - start);
+    }
+
+    /**
+     * @return the time used to measure the batches
+     */
+    protected long nanoTime() {
+        return System.nanoTime();
+    }
+
+    private static boolean isPacketTooBig(SQLException e) {
+        String name = e.getClass().getName();
+        return name.equals("com.mysql.jdbc.PacketTooBigException") // 5.x name
+                || name.equals("com.mysql.cj.jdbc.exceptions.PacketTooBigException"); // 6.x
+    }
+
+    private synchronized void batchExecuted(int batchSize, long elapsedNanos) {
+        int batchLevel = 31 - Integer.numberOfLeadingZeros(batchSize);
+        if (batchLevel > maxLevel) {
+            // bigger than the delegate statements, throughput is the one of the max level
+            batchLevel = maxLevel;
+        }
+        double throughput = batchSize * 1e9 / Math.max(1, elapsedNanos);
+        // a stale measure does not reflect the current conditions, it is replaced
+        throughputs[batchLevel] = isFresh(batchLevel)
+                ? throughputs[batchLevel] + EWMA_WEIGHT * (throughput - throughputs[batchLevel])
+                : throughput;
+        nbBatches++;
+        measuredAt[batchLevel] = nbBatches;
+
+        int currentLevel = level;
+        if (batchLevel != currentLevel) {
+            // smaller remainder batch, does not say anything about the current size
+            return;
+        }
+
+        int best = currentLevel;
+        if (isFresh(currentLevel - 1) && throughputs[currentLevel - 1] > throughputs[best]) {
+            best = currentLevel - 1;
+        }
+        if (currentLevel < maxLevel && isFresh(currentLevel + 1) && throughputs[currentLevel + 1] > throughputs[best]) {
+            best = currentLevel + 1;
+        }
+
+        if (best == currentLevel) {
+            if (currentLevel < maxLevel && !isFresh(currentLevel + 1)) {
+                best = currentLevel + 1;
+            } else if (currentLevel > 0 && !isFresh(currentLevel - 1)) {
+                best = currentLevel - 1;
+            }
+        }
+        level = best;
+    }
+
+    private boolean isFresh(int level) {
+        return level >= 0 && measuredAt[level] != 0 && nbBatches - measuredAt[level] <= STALE_AFTER;
+    }
+
+    private synchronized void packetTooBig(int lBatchSize) {
+        // biggest power of 2 strictly smaller than the batch
+        int newMaxLevel = Math.min(maxLevel, 31 - Integer.numberOfLeadingZeros(lBatchSize - 1));
+        maxLevel = newMaxLevel;
+        if (level > newMaxLevel) {
+            level = newMaxLevel;
+        }
+    }
+
+    private int getBatchSize(Connection connection) throws SQLException {
+        int batchSize = 1 << level;
+        long lMaxPacketSize = getMaxPacketSize(connection);
+        int lEstimatedRowSize = estimatedRowSize;
+        if (lMaxPacketSize > 0 && lEstimatedRowSize > 0) {
+            long rowsPerPacket = Math.max(1, (lMaxPacketSize - PACKET_MARGIN) / lEstimatedRowSize);
+            if (rowsPerPacket < batchSize) {
+                batchSize = Integer.highestOneBit((int) rowsPerPacket);
+            }
+        }
+        return batchSize;
+    }
+
+    private long getMaxPacketSize(Connection connection) throws SQLException {
+        long lMaxPacketSize = maxPacketSize;
+        if (lMaxPacketSize == -1) {
+            lMaxPacketSize = queryMaxPacketSize(connection);
+            maxPacketSize = lMaxPacketSize;
+        }
+        return lMaxPacketSize;
+    }
+
+    private long queryMaxPacketSize(Connection connection) {
+        if (maxPacketSizeQuery == null) {
+            return 0;
+        }
+        try {
+            Statement statement = connection.createStatement();
+            try {
+                ResultSet resultSet = statement.executeQuery(maxPacketSizeQuery);
+                if (resultSet.next()) {
+                    return resultSet.getLong(1);
                 }
-                resize(lBatchSize / 2);
-                insert(connection, values, postExecute);
-            } else {
-                throw e;
+            } finally {
+                statement.close();
             }
+        } catch (Exception e) {
+            // unknown, rely on the PacketTooBigException
         }
+        return 0;
     }
 
-    private void resize(int lBatchSize) {
-        int currentSize;
-        do {
-            currentSize = batchSize.get();
-            if (lBatchSize >= currentSize) {
-                break;
+    private void estimateRowSize(Collection<T> values) throws SQLException {
+        BoundParametersRecorder recorder = new BoundParametersRecorder(multiIndexFieldMappers.length);
+        PreparedStatement ps = recorder.preparedStatement();
+        int maxRowSize = 0;
+        int nbRows = 0;
+        try {
+            for (T value : values) {
+                if (nbRows++ >= NB_SAMPLED_ROWS) {
+                    break;
+                }
+                recorder.clear();
+                int i = 0;
+                for (MultiIndexFieldMapper<T> multiIndexFieldMapper : multiIndexFieldMappers) {
+                    i += multiIndexFieldMapper.map(ps, value, i);
+                }
+                maxRowSize = Math.max(maxRowSize, rowSize(recorder));
             }
-        } while(batchSize.compareAndSet(currentSize, lBatchSize));
-    }
-
-    private void splitBatches(Connection connection, Collection<T> values, int lBatchSize, CheckedConsumer<PreparedStatement> postExecute) throws SQLException {
-        int batchNumber = 0;
-        Iterator<T> it = values.iterator();
-        List<T> list = new ArrayList<T>(lBatchSize);
-        do {
-            fillList(lBatchSize, it, list);
-            delegate.insert(connection, list, postExecute);
-            batchNumber ++;
-        } while(batchNumber * lBatchSize < values.size());
+        } catch (Exception e) {
+            // the estimate is only a hint, the insert will report the error
+            return;
+        }
+        int lEstimatedRowSize = estimatedRowSize;
+        // react immediately to bigger rows, slowly to smaller ones
+        estimatedRowSize = maxRowSize >= lEstimatedRowSize ? maxRowSize : lEstimatedRowSize - (lEstimatedRowSize - maxRowSize) / 8;
+    }
+
+    // size of the values inlined in the sql, in bytes
+    private static int rowSize(BoundParametersRecorder recorder) {
+        int size = 4; // "(", ")", ", "
+        for(int i = 0; i < recorder.size(); i++) {
+            size += parameterSize(recorder.get(i)) + 2;
+        }
+        return size;
+    }
+
+    private static int parameterSize(Object value) {
+        if (value == null) {
+            return 4;
+        } else if (value instanceof Number || value instanceof Boolean) {
+            return 24;
+        } else if (value instanceof byte[]) {
+            return ((byte[]) value).length * 2 + 3;
+        } else if (value instanceof CharSequence) {
+            return utf8Length((CharSequence) value) + 2;
+        } else {
+            return utf8Length(value.toString()) + 2;
+        }
+    }
+
+    private static int utf8Length(CharSequence value) {
+        int length = 0;
+        for(int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else {
+                // surrogate pairs count 3 + 3, more than enough for 4 bytes
+                length += 3;
+            }
+        }
+        // escaped quotes and backslashes
+        return length + length / 16;
+    }
+
+    /**
+     * @return the current batch size, not capped by the max packet size
+     */
+    public int getBatchSize() {
+        return 1 << level;
+    }
+
+    /**
+     * @return the maximum batch size
+     */
+    public int getMaxBatchSize() {
+        return 1 << maxLevel;
+    }
+
+    /**
+     * @return the last measured throughput at the current batch size in rows per second, 0 if not measured
+     */
+    public synchronized double getThroughput() {
+        return throughputs[level];
+    }
+
+    /**
+     * @return the estimated size of a row in bytes, 0 if not estimated
+     */
+    public int getEstimatedRowSize() {
+        return estimatedRowSize;
+    }
+
+    /**
+     * @return the max packet size, 0 if unknown, -1 if not queried yet
+     */
+    public long getMaxPacketSize() {
+        return maxPacketSize;
     }
 
     private void fillList(int lBatchSize, Iterator<T> it, List<T> list) {
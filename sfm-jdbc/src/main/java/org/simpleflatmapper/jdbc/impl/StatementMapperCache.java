@@ -0,0 +1,87 @@
+package org.simpleflatmapper.jdbc.impl;
+
+import java.lang.ref.WeakReference;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Remember the mapper resolved for a PreparedStatement so the next executions of the same statement
+ * do not need to build a MapperKey from the ResultSetMetaData and look it up.
+ * <p>
+ * The statements are compared by identity and weakly referenced. A statement overwrites the slot of another statement
+ * with the same identity hash so the cache is bounded and does not lock. The label and type of each column are
+ * checked against the metadata on each hit in case the statement returns different columns.
+ */
+public final class StatementMapperCache<M> {
+
+	private static final int NB_SLOTS = 64;
+
+	private final AtomicReferenceArray<Slot<M>> slots = new AtomicReferenceArray<Slot<M>>(NB_SLOTS);
+
+	/**
+	 * Only a PreparedStatement is guaranteed to return the same columns on each execution,
+	 * a CallableStatement can return different result sets.
+	 * @param statement the statement of the result set, can be null
+	 * @return true if the mapper can be cached for the statement
+	 */
+	public static boolean isCacheable(Statement statement) {
+		return statement instanceof PreparedStatement && !(statement instanceof CallableStatement);
+	}
+
+	public M get(Statement statement, ResultSetMetaData metaData) throws SQLException {
+		Slot<M> slot = slots.get(index(statement));
+		if (slot != null && slot.get() == statement && slot.matches(metaData)) {
+			return slot.mapper;
+		}
+		return null;
+	}
+
+	public void put(Statement statement, ResultSetMetaData metaData, M mapper) throws SQLException {
+		int columnCount = metaData.getColumnCount();
+		String[] labels = new String[columnCount];
+		int[] types = new int[columnCount];
+		for(int i = 0; i < columnCount; i++) {
+			labels[i] = metaData.getColumnLabel(i + 1);
+			types[i] = metaData.getColumnType(i + 1);
+		}
+		slots.set(index(statement), new Slot<M>(statement, labels, types, mapper));
+	}
+
+	private static int index(Statement statement) {
+		return System.identityHashCode(statement) & (NB_SLOTS - 1);
+	}
+
+	private static final class Slot<M> extends WeakReference<Statement> {
+		private final String[] labels;
+		private final int[] types;
+		private final M mapper;
+
+		private Slot(Statement statement, String[] labels, int[] types, M mapper) {
+			super(statement);
+			this.labels = labels;
+			this.types = types;
+			this.mapper = mapper;
+		}
+
+		private boolean matches(ResultSetMetaData metaData) throws SQLException {
+			if (metaData.getColumnCount() != labels.length) {
+				return false;
+			}
+			for(int i = 0; i < labels.length; i++) {
+				if (types[i] != metaData.getColumnType(i + 1)
+						|| !equals(labels[i], metaData.getColumnLabel(i + 1))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static boolean equals(String label1, String label2) {
+			return label1 == null ? label2 == null : label1.equals(label2);
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package org.simpleflatmapper.jdbc.impl;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * ResultSet of a statement configured so that the driver fetches the rows as they are read instead of buffering the
+ * whole result.
+ * <ul>
+ * <li>MySQL streams the rows one by one with a fetch size of Integer.MIN_VALUE.</li>
+ * <li>PostgreSQL only uses a cursor outside of auto commit, auto commit is disabled until the result set is closed.</li>
+ * <li>the other drivers get the fetch size.</li>
+ * </ul>
+ * The statement must be forward only and read only, the default for a prepared statement.
+ */
+public final class StreamingResultSet {
+
+    private final Connection connection;
+    private final PreparedStatement preparedStatement;
+    private final boolean restoreAutoCommit;
+    private ResultSet resultSet;
+
+    private StreamingResultSet(Connection connection, PreparedStatement preparedStatement, boolean restoreAutoCommit) {
+        this.connection = connection;
+        this.preparedStatement = preparedStatement;
+        this.restoreAutoCommit = restoreAutoCommit;
+    }
+
+    /**
+     * configure the statement and execute it, the statement is closed if it fails.
+     *
+     * @param connection the connection the statement was prepared on
+     * @param preparedStatement the bound statement
+     * @param fetchSize the number of rows fetched per round trip
+     * @return the streaming result set
+     * @throws SQLException if an error occurs
+     */
+    public static StreamingResultSet executeQuery(Connection connection, PreparedStatement preparedStatement, int fetchSize) throws SQLException {
+        checkFetchSize(fetchSize);
+        StreamingResultSet streamingResultSet = null;
+        try {
+            streamingResultSet = new StreamingResultSet(connection, preparedStatement, configure(connection, preparedStatement, fetchSize));
+            streamingResultSet.resultSet = preparedStatement.executeQuery();
+            return streamingResultSet;
+        } catch (SQLException e) {
+            if (streamingResultSet != null) {
+                streamingResultSet.close();
+            } else {
+                safeClose(preparedStatement);
+            }
+            throw e;
+        }
+    }
+
+    public static void checkFetchSize(int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("Invalid fetchSize " + fetchSize);
+        }
+    }
+
+    // return true if the auto commit needs to be restored
+    private static boolean configure(Connection connection, PreparedStatement preparedStatement, int fetchSize) throws SQLException {
+        DatabaseMeta databaseMeta = databaseMeta(connection);
+        if (databaseMeta.isMysql()) {
+            preparedStatement.setFetchSize(Integer.MIN_VALUE);
+            return false;
+        }
+        preparedStatement.setFetchSize(fetchSize);
+        if (databaseMeta.isPostgresSql() && connection.getAutoCommit()) {
+            connection.setAutoCommit(false);
+            return true;
+        }
+        return false;
+    }
+
+    private static DatabaseMeta databaseMeta(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        return new DatabaseMeta(metaData.getDatabaseProductName(), 0, 0);
+    }
+
+    public ResultSet getResultSet() {
+        return resultSet;
+    }
+
+    /**
+     * close the result set and the statement and restore the auto commit, the errors are ignored.
+     */
+    public void close() {
+        if (resultSet != null) {
+            try {
+                resultSet.close();
+            } catch (SQLException e) {
+                // IGNORE
+            }
+        }
+        safeClose(preparedStatement);
+        if (restoreAutoCommit) {
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                // IGNORE
+            }
+        }
+    }
+
+    private static void safeClose(PreparedStatement preparedStatement) {
+        try {
+            preparedStatement.close();
+        } catch (SQLException e) {
+            // IGNORE
+        }
+    }
+}
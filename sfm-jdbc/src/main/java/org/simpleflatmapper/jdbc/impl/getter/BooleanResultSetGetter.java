@@ -1,12 +1,13 @@
 package org.simpleflatmapper.jdbc.impl.getter;
 
 import org.simpleflatmapper.reflect.Getter;
+import org.simpleflatmapper.reflect.getter.IndexedSourceGetter;
 import org.simpleflatmapper.reflect.primitive.BooleanGetter;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
-public final class BooleanResultSetGetter implements BooleanGetter<ResultSet>, Getter<ResultSet, Boolean> {
+public final class BooleanResultSetGetter implements BooleanGetter<ResultSet>, IndexedSourceGetter, Getter<ResultSet, Boolean> {
 
 	private final int column;
 	
@@ -29,6 +30,11 @@ public final class BooleanResultSetGetter implements BooleanGetter<ResultSet>, G
 		}
 	}
 
+    @Override
+    public int getSourceIndex() {
+        return column;
+    }
+
     @Override
     public String toString() {
         return "BooleanResultSetGetter{" +
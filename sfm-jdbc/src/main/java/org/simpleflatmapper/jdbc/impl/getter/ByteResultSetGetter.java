@@ -1,12 +1,13 @@
 package org.simpleflatmapper.jdbc.impl.getter;
 
 import org.simpleflatmapper.reflect.Getter;
+import org.simpleflatmapper.reflect.getter.IndexedSourceGetter;
 import org.simpleflatmapper.reflect.primitive.ByteGetter;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
-public final class ByteResultSetGetter implements ByteGetter<ResultSet>, Getter<ResultSet, Byte> {
+public final class ByteResultSetGetter implements ByteGetter<ResultSet>, IndexedSourceGetter, Getter<ResultSet, Byte> {
 
 	private final int column;
 	
@@ -29,6 +30,11 @@ public final class ByteResultSetGetter implements ByteGetter<ResultSet>, Getter<
 		}
 	}
 
+    @Override
+    public int getSourceIndex() {
+        return column;
+    }
+
     @Override
     public String toString() {
         return "ByteResultSetGetter{" +
@@ -1,12 +1,13 @@
 package org.simpleflatmapper.jdbc.impl.getter;
 
 import org.simpleflatmapper.reflect.Getter;
+import org.simpleflatmapper.reflect.getter.IndexedSourceGetter;
 import org.simpleflatmapper.reflect.primitive.DoubleGetter;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
-public final class DoubleResultSetGetter implements DoubleGetter<ResultSet>, Getter<ResultSet, Double> {
+public final class DoubleResultSetGetter implements DoubleGetter<ResultSet>, IndexedSourceGetter, Getter<ResultSet, Double> {
 
 	private final int column;
 	
@@ -29,6 +30,11 @@ public final class DoubleResultSetGetter implements DoubleGetter<ResultSet>, Get
 		}
 	}
 
+    @Override
+    public int getSourceIndex() {
+        return column;
+    }
+
     @Override
     public String toString() {
         return "DoubleResultSetGetter{" +
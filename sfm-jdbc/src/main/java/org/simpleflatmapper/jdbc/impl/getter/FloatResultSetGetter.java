@@ -1,12 +1,13 @@
 package org.simpleflatmapper.jdbc.impl.getter;
 
 import org.simpleflatmapper.reflect.Getter;
+import org.simpleflatmapper.reflect.getter.IndexedSourceGetter;
 import org.simpleflatmapper.reflect.primitive.FloatGetter;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
-public final class FloatResultSetGetter implements FloatGetter<ResultSet>, Getter<ResultSet, Float> {
+public final class FloatResultSetGetter implements FloatGetter<ResultSet>, IndexedSourceGetter, Getter<ResultSet, Float> {
 
 	private final int column;
 	
@@ -29,6 +30,11 @@ public final class FloatResultSetGetter implements FloatGetter<ResultSet>, Gette
 		}
 	}
 
+    @Override
+    public int getSourceIndex() {
+        return column;
+    }
+
     @Override
     public String toString() {
         return "FloatResultSetGetter{" +
@@ -1,12 +1,13 @@
 package org.simpleflatmapper.jdbc.impl.getter;
 
 import org.simpleflatmapper.reflect.Getter;
+import org.simpleflatmapper.reflect.getter.IndexedSourceGetter;
 import org.simpleflatmapper.reflect.primitive.IntGetter;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
-public final class IntResultSetGetter implements IntGetter<ResultSet>, Getter<ResultSet, Integer> {
+public final class IntResultSetGetter implements IntGetter<ResultSet>, IndexedSourceGetter, Getter<ResultSet, Integer> {
 
 	private final int column;
 	
@@ -29,6 +30,11 @@ public final class IntResultSetGetter implements IntGetter<ResultSet>, Getter<Re
 		}
 	}
 
+    @Override
+    public int getSourceIndex() {
+        return column;
+    }
+
     @Override
     public String toString() {
         return "IntResultSetGetter{" +
@@ -1,12 +1,13 @@
 package org.simpleflatmapper.jdbc.impl.getter;
 
 import org.simpleflatmapper.reflect.Getter;
+import org.simpleflatmapper.reflect.getter.IndexedSourceGetter;
 import org.simpleflatmapper.reflect.primitive.LongGetter;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
-public final class LongResultSetGetter implements LongGetter<ResultSet>,
+public final class LongResultSetGetter implements LongGetter<ResultSet>, IndexedSourceGetter,
 		Getter<ResultSet, Long> {
 
 	private final int column;
@@ -30,6 +31,11 @@ public final class LongResultSetGetter implements LongGetter<ResultSet>,
 		}
 	}
 
+    @Override
+    public int getSourceIndex() {
+        return column;
+    }
+
     @Override
     public String toString() {
         return "LongResultSetGetter{" +
@@ -1,12 +1,13 @@
 package org.simpleflatmapper.jdbc.impl.getter;
 
 import org.simpleflatmapper.reflect.Getter;
+import org.simpleflatmapper.reflect.getter.IndexedSourceGetter;
 import org.simpleflatmapper.reflect.primitive.ShortGetter;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
-public final class ShortResultSetGetter implements ShortGetter<ResultSet>, Getter<ResultSet, Short> {
+public final class ShortResultSetGetter implements ShortGetter<ResultSet>, IndexedSourceGetter, Getter<ResultSet, Short> {
 
 	private final int column;
 	
@@ -29,6 +30,11 @@ public final class ShortResultSetGetter implements ShortGetter<ResultSet>, Gette
 		}
 	}
 
+    @Override
+    public int getSourceIndex() {
+        return column;
+    }
+
     @Override
     public String toString() {
         return "ShortResultSetGetter{" +
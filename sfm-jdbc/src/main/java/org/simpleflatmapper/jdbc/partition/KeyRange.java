@@ -0,0 +1,50 @@
+package org.simpleflatmapper.jdbc.partition;
+
+/**
+ * Range of keys from inclusive to exclusive, bound to the query as :from and :to.
+ * <pre>
+ *     SELECT * FROM quote WHERE id &gt;= :from AND id &lt; :to
+ * </pre>
+ */
+public final class KeyRange {
+    private final long from;
+    private final long to;
+
+    public KeyRange(long from, long to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        KeyRange keyRange = (KeyRange) o;
+
+        return from == keyRange.from && to == keyRange.to;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (from ^ (from >>> 32));
+        result = 31 * result + (int) (to ^ (to >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "KeyRange{" +
+                "from=" + from +
+                ", to=" + to +
+                '}';
+    }
+}
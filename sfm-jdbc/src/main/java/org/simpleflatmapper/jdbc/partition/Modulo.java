@@ -0,0 +1,48 @@
+package org.simpleflatmapper.jdbc.partition;
+
+/**
+ * Partition of the keys with the same remainder, bound to the query as :modulus and :remainder.
+ * <pre>
+ *     SELECT * FROM quote WHERE MOD(id, :modulus) = :remainder
+ * </pre>
+ */
+public final class Modulo {
+    private final int modulus;
+    private final int remainder;
+
+    public Modulo(int modulus, int remainder) {
+        this.modulus = modulus;
+        this.remainder = remainder;
+    }
+
+    public int getModulus() {
+        return modulus;
+    }
+
+    public int getRemainder() {
+        return remainder;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Modulo modulo = (Modulo) o;
+
+        return modulus == modulo.modulus && remainder == modulo.remainder;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * modulus + remainder;
+    }
+
+    @Override
+    public String toString() {
+        return "Modulo{" +
+                "modulus=" + modulus +
+                ", remainder=" + remainder +
+                '}';
+    }
+}
@@ -0,0 +1,13 @@
+package org.simpleflatmapper.jdbc.partition;
+
+import java.util.List;
+
+/**
+ * Plan the partitions of a query, each partition is the parameter the query is run with.
+ *
+ * @param <P> the parameter type
+ * @see PartitionPlanners
+ */
+public interface PartitionPlanner<P> {
+    List<P> partitions();
+}
@@ -0,0 +1,101 @@
+package org.simpleflatmapper.jdbc.partition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The planners of key ranges, modulo and explicit partitions.
+ */
+public final class PartitionPlanners {
+
+    private PartitionPlanners() {
+    }
+
+    /**
+     * split the keys from minKey inclusive to maxKey exclusive in nbPartitions ranges of the same size.
+     *
+     * @param minKey the lowest key
+     * @param maxKey the key after the highest key
+     * @param nbPartitions the number of partitions
+     * @return the planner
+     */
+    public static PartitionPlanner<KeyRange> keyRanges(final long minKey, final long maxKey, final int nbPartitions) {
+        if (nbPartitions < 1) {
+            throw new IllegalArgumentException("Invalid nbPartitions " + nbPartitions);
+        }
+        if (maxKey < minKey) {
+            throw new IllegalArgumentException("maxKey " + maxKey + " lower than minKey " + minKey);
+        }
+        return new PartitionPlanner<KeyRange>() {
+            @Override
+            public List<KeyRange> partitions() {
+                long size = maxKey - minKey;
+                long step = size / nbPartitions + (size % nbPartitions != 0 ? 1 : 0);
+                List<KeyRange> ranges = new ArrayList<KeyRange>(nbPartitions);
+                long from = minKey;
+                while (from < maxKey) {
+                    long to = maxKey - from > step ? from + step : maxKey;
+                    ranges.add(new KeyRange(from, to));
+                    from = to;
+                }
+                if (ranges.isEmpty()) {
+                    ranges.add(new KeyRange(minKey, maxKey));
+                }
+                return ranges;
+            }
+        };
+    }
+
+    /**
+     * one partition per remainder of the division of the key by nbPartitions.
+     *
+     * @param nbPartitions the number of partitions
+     * @return the planner
+     */
+    public static PartitionPlanner<Modulo> modulo(final int nbPartitions) {
+        if (nbPartitions < 1) {
+            throw new IllegalArgumentException("Invalid nbPartitions " + nbPartitions);
+        }
+        return new PartitionPlanner<Modulo>() {
+            @Override
+            public List<Modulo> partitions() {
+                List<Modulo> partitions = new ArrayList<Modulo>(nbPartitions);
+                for (int i = 0; i < nbPartitions; i++) {
+                    partitions.add(new Modulo(nbPartitions, i));
+                }
+                return partitions;
+            }
+        };
+    }
+
+    /**
+     * the specified partitions.
+     *
+     * @param partitions the parameters of each partition
+     * @param <P> the parameter type
+     * @return the planner
+     */
+    public static <P> PartitionPlanner<P> list(final List<? extends P> partitions) {
+        if (partitions.isEmpty()) {
+            throw new IllegalArgumentException("No partitions");
+        }
+        final List<P> copy = Collections.unmodifiableList(new ArrayList<P>(partitions));
+        return new PartitionPlanner<P>() {
+            @Override
+            public List<P> partitions() {
+                return copy;
+            }
+        };
+    }
+
+    @SafeVarargs
+    public static <P> PartitionPlanner<P> list(P... partitions) {
+        // copied element by element, the varargs array is not passed on
+        List<P> list = new ArrayList<P>(partitions.length);
+        for (P partition : partitions) {
+            list.add(partition);
+        }
+        return list(list);
+    }
+}
@@ -0,0 +1,317 @@
+package org.simpleflatmapper.jdbc.partition;
+
+import org.simpleflatmapper.jdbc.SQLFunction;
+import org.simpleflatmapper.jdbc.SelectQuery;
+import org.simpleflatmapper.jdbc.TransactionTemplate;
+import org.simpleflatmapper.util.CheckedConsumer;
+import org.simpleflatmapper.util.ErrorHelper;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Read the partitions on the executor into bounded queues, the spliterator takes the rows from the queues.
+ * The end of a partition is marked by END, a failure by a Failure holding the error.
+ */
+abstract class PartitionedRead<T, P> implements Spliterator<T> {
+
+    private static final Object END = new Object();
+    private static final long OFFER_TIMEOUT_MS = 100;
+
+    private final SelectQuery<T, P> query;
+    private final TransactionTemplate transactionTemplate;
+    private final List<? extends P> partitions;
+    private final int fetchSize;
+
+    private volatile boolean cancelled;
+
+    protected PartitionedRead(SelectQuery<T, P> query, TransactionTemplate transactionTemplate, List<? extends P> partitions, int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("Invalid fetchSize " + fetchSize);
+        }
+        this.query = query;
+        this.transactionTemplate = transactionTemplate;
+        this.partitions = partitions;
+        this.fetchSize = fetchSize;
+    }
+
+    protected abstract BlockingQueue<Object> queue(int partition);
+
+    protected final int nbPartitions() {
+        return partitions.size();
+    }
+
+    // rows buffered per partition
+    protected final int bufferSize() {
+        return 2 * fetchSize;
+    }
+
+    protected static BlockingQueue<Object> newQueue(long capacity) {
+        return new LinkedBlockingQueue<Object>((int) Math.min(capacity, Integer.MAX_VALUE));
+    }
+
+    void start(Executor executor) {
+        try {
+            for (int i = 0; i < partitions.size(); i++) {
+                executor.execute(new PartitionTask(i));
+            }
+        } catch (RuntimeException e) {
+            cancel();
+            throw e;
+        }
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    protected final boolean isEnd(Object o) {
+        return o == END;
+    }
+
+    protected final Object take(BlockingQueue<Object> queue) {
+        try {
+            Object o = queue.take();
+            if (o instanceof Failure) {
+                cancel();
+                return ErrorHelper.rethrow(((Failure) o).error);
+            }
+            return o;
+        } catch (InterruptedException e) {
+            cancel();
+            Thread.currentThread().interrupt();
+            return ErrorHelper.rethrow(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static <T> T row(Object o) {
+        return (T) o;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.NONNULL;
+    }
+
+    private void put(BlockingQueue<Object> queue, Object o) throws InterruptedException {
+        while (!queue.offer(o, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            if (cancelled) {
+                // unwind the read to close the cursor
+                throw CancelledException.INSTANCE;
+            }
+        }
+    }
+
+    private final class PartitionTask implements Runnable, CheckedConsumer<T>, SQLFunction<Connection, Object> {
+        private final int partition;
+        private final BlockingQueue<Object> queue;
+
+        private PartitionTask(int partition) {
+            this.partition = partition;
+            this.queue = queue(partition);
+        }
+
+        @Override
+        public void run() {
+            Object last = END;
+            try {
+                if (cancelled) {
+                    return;
+                }
+                transactionTemplate.doInTransaction(this);
+            } catch (CancelledException e) {
+                return;
+            } catch (Throwable e) {
+                last = new Failure(e);
+            }
+            try {
+                put(queue, last);
+            } catch (CancelledException e) {
+                // nobody is reading
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public Object apply(Connection connection) throws SQLException {
+            query.read(connection, partitions.get(partition), fetchSize, this);
+            return null;
+        }
+
+        @Override
+        public void accept(T t) throws InterruptedException {
+            put(queue, t);
+        }
+    }
+
+    private static final class Failure {
+        private final Throwable error;
+
+        private Failure(Throwable error) {
+            this.error = error;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class CancelledException extends RuntimeException {
+        private static final CancelledException INSTANCE = new CancelledException();
+
+        private CancelledException() {
+            super("cancelled", null, false, false);
+        }
+    }
+
+    /**
+     * the rows of all the partitions through one queue, as they are read.
+     */
+    static final class Unordered<T, P> extends PartitionedRead<T, P> {
+        private final BlockingQueue<Object> queue;
+        private int running;
+
+        Unordered(SelectQuery<T, P> query, TransactionTemplate transactionTemplate, List<? extends P> partitions, int fetchSize) {
+            super(query, transactionTemplate, partitions, fetchSize);
+            this.queue = newQueue((long) bufferSize() * partitions.size());
+            this.running = partitions.size();
+        }
+
+        @Override
+        protected BlockingQueue<Object> queue(int partition) {
+            return queue;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (running > 0) {
+                Object o = take(queue);
+                if (isEnd(o)) {
+                    running--;
+                } else {
+                    action.accept(PartitionedRead.<T>row(o));
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * the rows of the first partition, then of the second...
+     */
+    static final class InPartitionOrder<T, P> extends PartitionedRead<T, P> {
+        private final BlockingQueue<Object>[] queues;
+        private int current;
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        InPartitionOrder(SelectQuery<T, P> query, TransactionTemplate transactionTemplate, List<? extends P> partitions, int fetchSize) {
+            super(query, transactionTemplate, partitions, fetchSize);
+            queues = new BlockingQueue[partitions.size()];
+            for (int i = 0; i < queues.length; i++) {
+                queues[i] = newQueue(bufferSize());
+            }
+        }
+
+        @Override
+        protected BlockingQueue<Object> queue(int partition) {
+            return queues[partition];
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (current < queues.length) {
+                Object o = take(queues[current]);
+                if (isEnd(o)) {
+                    current++;
+                } else {
+                    action.accept(PartitionedRead.<T>row(o));
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.NONNULL | Spliterator.ORDERED;
+        }
+    }
+
+    /**
+     * merge of the partitions sorted with the comparator, the lowest head is returned first.
+     */
+    static final class Merge<T, P> extends PartitionedRead<T, P> {
+        private final BlockingQueue<Object>[] queues;
+        private final Object[] heads;
+        private final Comparator<? super T> comparator;
+        private boolean started;
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        Merge(SelectQuery<T, P> query, TransactionTemplate transactionTemplate, List<? extends P> partitions, int fetchSize, Comparator<? super T> comparator) {
+            super(query, transactionTemplate, partitions, fetchSize);
+            this.comparator = comparator;
+            queues = new BlockingQueue[partitions.size()];
+            heads = new Object[partitions.size()];
+            for (int i = 0; i < queues.length; i++) {
+                queues[i] = newQueue(bufferSize());
+            }
+        }
+
+        @Override
+        protected BlockingQueue<Object> queue(int partition) {
+            return queues[partition];
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (!started) {
+                for (int i = 0; i < queues.length; i++) {
+                    heads[i] = take(queues[i]);
+                }
+                started = true;
+            }
+            int lowest = -1;
+            for (int i = 0; i < heads.length; i++) {
+                if (!isEnd(heads[i])
+                        && (lowest == -1 || comparator.compare(PartitionedRead.<T>row(heads[i]), PartitionedRead.<T>row(heads[lowest])) < 0)) {
+                    lowest = i;
+                }
+            }
+            if (lowest == -1) {
+                return false;
+            }
+            T row = row(heads[lowest]);
+            heads[lowest] = take(queues[lowest]);
+            action.accept(row);
+            return true;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.NONNULL | Spliterator.ORDERED | Spliterator.SORTED;
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return comparator;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.simpleflatmapper.jdbc.partition;
+
+import org.simpleflatmapper.jdbc.SelectQuery;
+import org.simpleflatmapper.jdbc.TransactionTemplate;
+import org.simpleflatmapper.jdbc.async.ConcurrencyLimitedExecutor;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Run a select query once per partition, concurrently on the executor, and merge the mapped rows in one stream.
+ * Each partition runs in its own transaction with a forward only cursor, the rows are buffered per partition up to
+ * twice the fetch size, a partition that is not consumed waits instead of buffering more rows.
+ * <p>
+ * The executor should limit the number of partitions running at the same time to the size of the connection pool,
+ * see {@link ConcurrencyLimitedExecutor}. The partitions are submitted in the order of the planner.
+ * <p>
+ * The stream must be closed after use, closing it cancels the partitions still running.
+ *
+ * @param <T> the target type
+ * @param <P> the parameter type
+ * @see org.simpleflatmapper.jdbc.JdbcMapperFactory#partitionedQuery(javax.sql.DataSource, org.simpleflatmapper.jdbc.named.NamedSqlQuery, Class, Class)
+ * @see org.simpleflatmapper.jdbc.ConnectedCrud#partitionedWhere(String, java.lang.reflect.Type, Executor)
+ */
+public class PartitionedSelectQuery<T, P> {
+
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private final SelectQuery<T, P> query;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+
+    public PartitionedSelectQuery(SelectQuery<T, P> query, TransactionTemplate transactionTemplate, Executor executor) {
+        this.query = query;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+    }
+
+    /**
+     * stream the rows of all the partitions as they are read.
+     *
+     * @param planner the partition planner
+     * @return the stream of the rows, to close after use
+     */
+    public Stream<T> stream(PartitionPlanner<? extends P> planner) {
+        return stream(planner, DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * stream the rows of all the partitions as they are read.
+     *
+     * @param planner the partition planner
+     * @param fetchSize the number of rows fetched per round trip
+     * @return the stream of the rows, to close after use
+     */
+    public Stream<T> stream(PartitionPlanner<? extends P> planner, int fetchSize) {
+        return toStream(new PartitionedRead.Unordered<T, P>(query, transactionTemplate, planner.partitions(), fetchSize));
+    }
+
+    /**
+     * stream the rows of the first partition, then the rows of the second... while all the partitions are read
+     * concurrently. On key ranges ordered by key it returns the rows ordered by key.
+     *
+     * @param planner the partition planner
+     * @param fetchSize the number of rows fetched per round trip
+     * @return the stream of the rows, to close after use
+     */
+    public Stream<T> streamInPartitionOrder(PartitionPlanner<? extends P> planner, int fetchSize) {
+        return toStream(new PartitionedRead.InPartitionOrder<T, P>(query, transactionTemplate, planner.partitions(), fetchSize));
+    }
+
+    /**
+     * merge the rows of the partitions, each partition already sorted with the comparator - ie the query has the
+     * matching ORDER BY - in one sorted stream.
+     * All the partitions have to run at the same time, the executor must allow as many concurrent tasks as there are
+     * partitions.
+     *
+     * @param planner the partition planner
+     * @param fetchSize the number of rows fetched per round trip
+     * @param comparator the order of the rows in each partition
+     * @return the sorted stream of the rows, to close after use
+     * @throws IllegalArgumentException if the executor limits the concurrency below the number of partitions
+     */
+    public Stream<T> streamOrdered(PartitionPlanner<? extends P> planner, int fetchSize, Comparator<? super T> comparator) {
+        List<? extends P> partitions = planner.partitions();
+        if (executor instanceof ConcurrencyLimitedExecutor
+                && ((ConcurrencyLimitedExecutor) executor).getMaxConcurrency() < partitions.size()) {
+            throw new IllegalArgumentException("Ordered merge of " + partitions.size()
+                    + " partitions needs as many connections, max concurrency is "
+                    + ((ConcurrencyLimitedExecutor) executor).getMaxConcurrency());
+        }
+        return toStream(new PartitionedRead.Merge<T, P>(query, transactionTemplate, partitions, fetchSize, comparator));
+    }
+
+    private Stream<T> toStream(final PartitionedRead<T, P> read) {
+        read.start(executor);
+        return StreamSupport.stream((Spliterator<T>) read, false).onClose(new Runnable() {
+            @Override
+            public void run() {
+                read.cancel();
+            }
+        });
+    }
+}
@@ -14,6 +14,8 @@ import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.doThrow;
@@ -43,6 +45,39 @@ public class ConnectedCrudTest {
         }
     }
 
+    @Test
+    public void testReadAndDeleteInParallelChunks() throws Exception {
+        DataSource dataSource = DbHelper.getHsqlDataSource();
+
+        ConnectedCrud<DbObject, Long> objectCrud =
+                JdbcMapperFactory.newInstance().<DbObject, Long>crud(DbObject.class, Long.class).table(dataSource, "TEST_DB_OBJECT");
+
+        List<DbObject> values = new ArrayList<DbObject>();
+        List<Long> keys = new ArrayList<Long>();
+        for(int i = 0; i < 100; i++) {
+            DbObject dbObject = DbObject.newInstance();
+            values.add(dbObject);
+            keys.add(dbObject.getId());
+        }
+        objectCrud.create(values);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<DbObject> list = objectCrud.read(keys, new ListCollector<DbObject>(), 7, executor).getList();
+            assertEquals(values.size(), list.size());
+            Set<Long> readKeys = new HashSet<Long>();
+            for (DbObject dbObject : list) {
+                readKeys.add(dbObject.getId());
+            }
+            assertEquals(new HashSet<Long>(keys), readKeys);
+
+            objectCrud.delete(keys, 7, executor);
+            assertTrue(objectCrud.read(keys, new ListCollector<DbObject>()).getList().isEmpty());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void testDelegateSuccess() throws SQLException {
         Crud<Object, Object> crud = mock(Crud.class);
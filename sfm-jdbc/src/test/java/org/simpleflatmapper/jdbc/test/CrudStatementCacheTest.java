@@ -0,0 +1,211 @@
+package org.simpleflatmapper.jdbc.test;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.simpleflatmapper.jdbc.ConnectedCrud;
+import org.simpleflatmapper.jdbc.Crud;
+import org.simpleflatmapper.jdbc.JdbcMapperFactory;
+import org.simpleflatmapper.jdbc.PreparedStatementCache;
+import org.simpleflatmapper.test.beans.DbObject;
+import org.simpleflatmapper.test.jdbc.DbHelper;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class CrudStatementCacheTest {
+
+    private Connection connection;
+    private PreparedStatementCache statementCache;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = DbHelper.getDbConnection(DbHelper.TargetDB.HSQLDB);
+        statementCache = new PreparedStatementCache();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        statementCache.clear();
+        connection.close();
+    }
+
+    @Test
+    public void testSingleRowOperationsReuseTheirStatement() throws SQLException {
+        Crud<DbObject, Long> objectCrud = crud("TEST_DB_OBJECT");
+
+        DbObject object1 = DbObject.newInstance();
+        DbObject object2 = DbObject.newInstance();
+
+        objectCrud.create(connection, object1);
+        objectCrud.create(connection, object2);
+        assertEquals(object1, objectCrud.read(connection, object1.getId()));
+        assertEquals(object2, objectCrud.read(connection, object2.getId()));
+
+        object1.setName("Updated 1");
+        object2.setName("Updated 2");
+        objectCrud.update(connection, object1);
+        objectCrud.update(connection, object2);
+        assertEquals(object1, objectCrud.read(connection, object1.getId()));
+        assertEquals(object2, objectCrud.read(connection, object2.getId()));
+
+        objectCrud.delete(connection, object1.getId());
+        objectCrud.delete(connection, object2.getId());
+        assertNull(objectCrud.read(connection, object1.getId()));
+        assertNull(objectCrud.read(connection, object2.getId()));
+
+        // insert, select, update and delete are each prepared once
+        assertEquals(4, statementCache.getMissCount());
+        assertEquals(8, statementCache.getHitCount());
+        assertEquals(4, statementCache.size());
+    }
+
+    @Test
+    public void testReusedStatementDoesNotKeepThePreviousParameters() throws SQLException {
+        Crud<DbObject, Long> objectCrud = crud("TEST_DB_OBJECT");
+
+        DbObject full = DbObject.newInstance();
+        objectCrud.create(connection, full);
+
+        DbObject empty = DbObject.newInstance();
+        empty.setName(null);
+        empty.setEmail(null);
+        empty.setCreationTime(null);
+        empty.setTypeName(null);
+        empty.setTypeOrdinal(null);
+        objectCrud.create(connection, empty);
+
+        assertEquals(empty, objectCrud.read(connection, empty.getId()));
+        assertEquals(full, objectCrud.read(connection, full.getId()));
+        assertEquals(2, statementCache.getHitCount());
+
+        objectCrud.delete(connection, full.getId());
+        objectCrud.delete(connection, empty.getId());
+    }
+
+    @Test
+    public void testGeneratedKeysOnAReusedStatement() throws SQLException {
+        Crud<DbObject, Long> objectCrud = crud("TEST_DB_OBJECT_AUTOINC");
+
+        DbObject object1 = DbObject.newInstance();
+        DbObject object2 = DbObject.newInstance();
+
+        Long key1 = objectCrud.create(connection, object1, new KeyCapture<Long>()).getKey();
+        Long key2 = objectCrud.create(connection, object2, new KeyCapture<Long>()).getKey();
+
+        assertNotNull(key1);
+        assertNotNull(key2);
+        assertFalse(key1.equals(key2));
+        assertEquals(1, statementCache.getHitCount());
+
+        object1.setId(key1);
+        object2.setId(key2);
+        assertEquals(object1, objectCrud.read(connection, key1));
+        assertEquals(object2, objectCrud.read(connection, key2));
+
+        objectCrud.delete(connection, key1);
+        objectCrud.delete(connection, key2);
+    }
+
+    @Test
+    public void testFailedStatementIsNotReused() throws SQLException {
+        Crud<DbObject, Long> objectCrud = crud("TEST_DB_OBJECT");
+
+        DbObject object = DbObject.newInstance();
+        objectCrud.create(connection, object);
+        try {
+            objectCrud.create(connection, object);
+            fail();
+        } catch (SQLException e) {
+            // duplicate key
+        }
+        assertEquals(0, statementCache.size());
+
+        DbObject other = DbObject.newInstance();
+        objectCrud.create(connection, other);
+        assertEquals(other, objectCrud.read(connection, other.getId()));
+
+        objectCrud.delete(connection, object.getId());
+        objectCrud.delete(connection, other.getId());
+    }
+
+    @Test
+    public void testConnectedCrudReusesTheStatementsAcrossBorrows() throws SQLException {
+        int[] nbBorrows = new int[1];
+        ConnectedCrud<DbObject, Long> objectCrud = JdbcMapperFactory.newInstance()
+                .<DbObject, Long>crud(DbObject.class, Long.class)
+                .statementCache(statementCache)
+                .table(pool(connection, nbBorrows), "TEST_DB_OBJECT");
+
+        DbObject object = DbObject.newInstance();
+        objectCrud.create(object);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(object, objectCrud.read(object.getId()));
+        }
+        objectCrud.delete(object.getId());
+
+        assertEquals(13, nbBorrows[0]);
+        // insert, select and delete are each prepared once on the physical connection
+        assertEquals(3, statementCache.getMissCount());
+        assertEquals(9, statementCache.getHitCount());
+        assertEquals(3, statementCache.size());
+    }
+
+    // a pool of one connection handing out a new proxy on each borrow
+    private static DataSource pool(final Connection connection, final int[] nbBorrows) {
+        return (DataSource) Proxy.newProxyInstance(CrudStatementCacheTest.class.getClassLoader(), new Class[] {DataSource.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getName().equals("getConnection")) {
+                    nbBorrows[0]++;
+                    return borrowedConnection(connection);
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private static Connection borrowedConnection(final Connection connection) {
+        return (Connection) Proxy.newProxyInstance(CrudStatementCacheTest.class.getClassLoader(), new Class[] {Connection.class}, new InvocationHandler() {
+            private boolean closed;
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                if (name.equals("close")) {
+                    // returned to the pool
+                    closed = true;
+                    return null;
+                } else if (name.equals("isClosed")) {
+                    return closed;
+                } else if (name.equals("isWrapperFor")) {
+                    return true;
+                } else if (name.equals("unwrap")) {
+                    return connection;
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        });
+    }
+
+    private Crud<DbObject, Long> crud(String table) throws SQLException {
+        return JdbcMapperFactory.newInstance()
+                .<DbObject, Long>crud(DbObject.class, Long.class)
+                .statementCache(statementCache)
+                .table(connection, table);
+    }
+}
@@ -120,6 +120,32 @@ public class CrudTest {
         }
     }
 
+    @Test
+    public void testDbObjectCrudFromIteratorInChunks() throws SQLException {
+        Connection connection = DbHelper.getDbConnection(targetDB);
+        if (connection == null) { System.err.println("Db " + targetDB + " not available"); return; }
+        try {
+            Crud<DbObject, Long> objectCrud =
+                    JdbcMapperFactory.newInstance().<DbObject, Long>crud(DbObject.class, Long.class).table(connection, "TEST_DB_OBJECT");
+
+            List<DbObject> values = new ArrayList<DbObject>();
+            List<Long> keys = new ArrayList<Long>();
+            for(int i = 0; i < 11; i++) {
+                DbObject dbObject = DbObject.newInstance();
+                values.add(dbObject);
+                keys.add(dbObject.getId());
+            }
+
+            objectCrud.create(connection, values.iterator(), 4, 2);
+
+            assertCollectionEquals(values, objectCrud.read(connection, keys, new ListCollector<DbObject>()).getList());
+
+            objectCrud.delete(connection, keys);
+        } finally {
+            connection.close();
+        }
+    }
+
     @Test
     public void testDbObjectCrud() throws SQLException {
         Connection connection = DbHelper.getDbConnection(targetDB);
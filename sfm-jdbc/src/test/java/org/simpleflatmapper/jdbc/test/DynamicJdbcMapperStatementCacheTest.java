@@ -0,0 +1,131 @@
+package org.simpleflatmapper.jdbc.test;
+
+import org.junit.Test;
+import org.simpleflatmapper.jdbc.JdbcMapperFactory;
+import org.simpleflatmapper.test.beans.DbObject;
+import org.simpleflatmapper.util.ListCollector;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DynamicJdbcMapperStatementCacheTest {
+
+    @Test
+    public void testMapperIsReusedForTheSamePreparedStatement() throws SQLException {
+        JdbcMapperFactory.DynamicJdbcSetRowMapper<DbObject> mapper = newMapper(JdbcMapperFactoryHelper.noAsm());
+
+        PreparedStatement ps = mock(PreparedStatement.class);
+
+        assertEquals(1, mapAll(mapper, resultSet(ps, 1l, "n1")).size());
+        assertEquals(1, mapper.getMetaDataReadCount());
+        assertEquals(0, mapper.getStatementCacheHitCount());
+
+        List<DbObject> objects = mapAll(mapper, resultSet(ps, 2l, "n2"));
+        assertEquals(2l, objects.get(0).getId());
+        assertEquals("n2", objects.get(0).getName());
+        assertEquals(1, mapper.getMetaDataReadCount());
+        assertEquals(1, mapper.getStatementCacheHitCount());
+
+        mapAll(mapper, resultSet(mock(PreparedStatement.class), 3l, "n3"));
+        assertEquals(2, mapper.getMetaDataReadCount());
+    }
+
+    @Test
+    public void testMapperIsNotReusedWhenTheColumnsChange() throws SQLException {
+        JdbcMapperFactory.DynamicJdbcSetRowMapper<DbObject> mapper = newMapper(JdbcMapperFactoryHelper.noAsm());
+
+        PreparedStatement ps = mock(PreparedStatement.class);
+        mapAll(mapper, resultSet(ps, 1l, "n1"));
+
+        DbObject object = mapAll(mapper, resultSet(ps, 2l, "email", Types.VARCHAR, "e2")).get(0);
+        assertEquals("e2", object.getEmail());
+        assertNull(object.getName());
+        assertEquals(2, mapper.getMetaDataReadCount());
+        assertEquals(0, mapper.getStatementCacheHitCount());
+
+        mapAll(mapper, resultSet(ps, 3l, "email", Types.LONGVARCHAR, "e3"));
+        assertEquals(3, mapper.getMetaDataReadCount());
+        assertEquals(0, mapper.getStatementCacheHitCount());
+
+        mapAll(mapper, resultSet(ps, 4l, "email", Types.LONGVARCHAR, "e4"));
+        assertEquals(3, mapper.getMetaDataReadCount());
+        assertEquals(1, mapper.getStatementCacheHitCount());
+    }
+
+    @Test
+    public void testMapRowUsesTheStatement() throws SQLException {
+        JdbcMapperFactory.DynamicJdbcSetRowMapper<DbObject> mapper = newMapper(JdbcMapperFactoryHelper.noAsm());
+
+        ResultSet rs = resultSet(mock(PreparedStatement.class), 1l, "n1");
+        rs.next();
+        for(int i = 0; i < 5; i++) {
+            assertEquals("n1", mapper.map(rs).getName());
+        }
+        assertEquals(1, mapper.getMetaDataReadCount());
+        assertEquals(4, mapper.getStatementCacheHitCount());
+    }
+
+    @Test
+    public void testCallableStatementIsNotCached() throws SQLException {
+        JdbcMapperFactory.DynamicJdbcSetRowMapper<DbObject> mapper = newMapper(JdbcMapperFactoryHelper.noAsm());
+
+        CallableStatement cs = mock(CallableStatement.class);
+        mapAll(mapper, resultSet(cs, 1l, "n1"));
+        mapAll(mapper, resultSet(cs, 2l, "n2"));
+
+        assertEquals(2, mapper.getMetaDataReadCount());
+        assertEquals(0, mapper.getStatementCacheHitCount());
+    }
+
+    @Test
+    public void testDisableCacheMapperPerStatement() throws SQLException {
+        JdbcMapperFactory.DynamicJdbcSetRowMapper<DbObject> mapper = newMapper(JdbcMapperFactoryHelper.noAsm().cacheMapperPerStatement(false));
+
+        PreparedStatement ps = mock(PreparedStatement.class);
+        mapAll(mapper, resultSet(ps, 1l, "n1"));
+        mapAll(mapper, resultSet(ps, 2l, "n2"));
+
+        assertEquals(2, mapper.getMetaDataReadCount());
+        assertEquals(0, mapper.getStatementCacheHitCount());
+    }
+
+    @SuppressWarnings("unchecked")
+    private JdbcMapperFactory.DynamicJdbcSetRowMapper<DbObject> newMapper(JdbcMapperFactory factory) {
+        return (JdbcMapperFactory.DynamicJdbcSetRowMapper<DbObject>) factory.newMapper(DbObject.class);
+    }
+
+    private List<DbObject> mapAll(JdbcMapperFactory.DynamicJdbcSetRowMapper<DbObject> mapper, ResultSet rs) throws SQLException {
+        return mapper.forEach(rs, new ListCollector<DbObject>()).getList();
+    }
+
+    private ResultSet resultSet(Statement statement, long id, String name) throws SQLException {
+        return resultSet(statement, id, "name", Types.VARCHAR, name);
+    }
+
+    private ResultSet resultSet(Statement statement, long id, String label2, int type2, String value2) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(rs.getStatement()).thenReturn(statement);
+        when(rs.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(2);
+        when(metaData.getColumnLabel(1)).thenReturn("id");
+        when(metaData.getColumnType(1)).thenReturn(Types.BIGINT);
+        when(metaData.getColumnLabel(2)).thenReturn(label2);
+        when(metaData.getColumnType(2)).thenReturn(type2);
+        when(rs.next()).thenReturn(true, false);
+        when(rs.getLong(1)).thenReturn(id);
+        when(rs.getString(2)).thenReturn(value2);
+        return rs;
+    }
+}
@@ -35,7 +35,9 @@ public class MysqlCrudTest {
     public void testBatch() throws SQLException {
         Connection connection = mock(Connection.class);
         PreparedStatement ps = mock(PreparedStatement.class);
-        when(connection.prepareStatement("INSERT INTO TEST(id) VALUES(?), (?), (?), (?), (?), (?), (?), (?), (?), (?)")).thenReturn(ps);
+        PreparedStatement ps2 = mock(PreparedStatement.class);
+        when(connection.prepareStatement("INSERT INTO TEST(id) VALUES(?), (?), (?), (?), (?), (?), (?), (?)")).thenReturn(ps);
+        when(connection.prepareStatement("INSERT INTO TEST(id) VALUES(?), (?)")).thenReturn(ps2);
 
         Crud<DbObject, Long> objectCrud =
             CrudFactory.<DbObject, Long>newInstance(
@@ -52,10 +54,14 @@ public class MysqlCrudTest {
 
         objectCrud.create(connection, values);
 
-        for(int i = 0; i < 10; i++) {
+        // inserted as 8 + 2
+        for(int i = 0; i < 8; i++) {
             verify(ps).setLong(i + 1, values.get(i).getId());
         }
         verify(ps).executeUpdate();
+        verify(ps2).setLong(1, values.get(8).getId());
+        verify(ps2).setLong(2, values.get(9).getId());
+        verify(ps2).executeUpdate();
 
     }
 
@@ -63,9 +69,11 @@ public class MysqlCrudTest {
     public void testSplitBatch() throws SQLException {
         Connection connection = mock(Connection.class);
         PreparedStatement ps = mock(PreparedStatement.class);
+        PreparedStatement ps4 = mock(PreparedStatement.class);
         PreparedStatement ps2 = mock(PreparedStatement.class);
-        when(connection.prepareStatement("INSERT INTO TEST(id) VALUES(?), (?), (?), (?), (?), (?), (?), (?), (?), (?)")).thenReturn(ps);
-        when(connection.prepareStatement("INSERT INTO TEST(id) VALUES(?), (?), (?), (?), (?)")).thenReturn(ps2);
+        when(connection.prepareStatement("INSERT INTO TEST(id) VALUES(?), (?), (?), (?), (?), (?), (?), (?)")).thenReturn(ps);
+        when(connection.prepareStatement("INSERT INTO TEST(id) VALUES(?), (?), (?), (?)")).thenReturn(ps4);
+        when(connection.prepareStatement("INSERT INTO TEST(id) VALUES(?), (?)")).thenReturn(ps2);
         when(ps.executeUpdate()).thenThrow(getPacketTooBigException());
 
 
@@ -85,22 +93,22 @@ public class MysqlCrudTest {
 
         objectCrud.create(connection, values);
 
-        for(int i = 0; i < batchsize; i++) {
+        // 10 rows as 8 + 2, the 8 rows fail and only them are retried as 4 + 4
+        for(int i = 0; i < 8; i++) {
             verify(ps).setLong(i + 1, values.get(i).getId());
         }
         verify(ps).executeUpdate();
-
-
-        for(int i = 0; i < batchsize / 2; i++) {
+        for(int i = 0; i < 4; i++) {
             ArgumentCaptor<Long> captor = ArgumentCaptor.forClass(Long.class);
-            verify(ps2, times(2)).setLong(eq(i + 1), captor.capture());
+            verify(ps4, times(2)).setLong(eq(i + 1), captor.capture());
             final List<Long> allValues = captor.getAllValues();
             assertEquals(values.get(i).getId(), allValues.get(0).longValue());
-            assertEquals(values.get(i+ batchsize /2).getId(), allValues.get(1).longValue());
+            assertEquals(values.get(i + 4).getId(), allValues.get(1).longValue());
         }
-        verify(ps).executeUpdate();
-
-
+        verify(ps4, times(2)).executeUpdate();
+        verify(ps2).setLong(1, values.get(8).getId());
+        verify(ps2).setLong(2, values.get(9).getId());
+        verify(ps2).executeUpdate();
     }
 
     public static SQLException getPacketTooBigException() {
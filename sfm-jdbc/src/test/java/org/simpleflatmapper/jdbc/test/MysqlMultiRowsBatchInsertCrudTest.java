@@ -207,7 +207,9 @@ public class MysqlMultiRowsBatchInsertCrudTest {
             objectCrud.create(mockConnection, values);
 
             verify(preparedStatementFail, times(2)).executeUpdate();
-            verify(preparedStatementSucceed, times(5)).executeUpdate();
+            // the batch of 64 rows fails, then its first 32 rows, the 64 rows are inserted as 4 x 16
+            // and the remaining 37 rows as 16 + 16 + 4 + 1
+            verify(preparedStatementSucceed, times(8)).executeUpdate();
 
         } finally {
             connection.close();
@@ -55,6 +55,28 @@ public class PostgresqlCrudTest {
         }
     }
 
+    @Test
+    public void testBatchCreateWithCopyOnDb() throws SQLException {
+        Connection connection = DbHelper.getDbConnection(DbHelper.TargetDB.POSTGRESQL);
+        if (connection == null) { System.err.println("Db Postgresql not available"); return; }
+        try {
+            Crud<DbObject, Long> objectCrud =
+                    JdbcMapperFactory.newInstance().<DbObject, Long>crud(DbObject.class, Long.class).postgresqlCopy(true).table(connection, "TEST_DB_OBJECT");
+
+            DbObject object1 = DbObject.newInstance();
+            DbObject object2 = DbObject.newInstance();
+            object2.setName("tab\tand\nnew line");
+            object2.setEmail(null);
+
+            objectCrud.create(connection, Arrays.<DbObject>asList(object1, object2));
+
+            assertEquals(object1, objectCrud.read(connection, object1.getId()));
+            assertEquals(object2, objectCrud.read(connection, object2.getId()));
+        } finally {
+            connection.close();
+        }
+    }
+
     @Test
     public void testUpsert() throws SQLException {
         Connection connection = DbHelper.getDbConnection(DbHelper.TargetDB.POSTGRESQL);
@@ -0,0 +1,176 @@
+package org.simpleflatmapper.jdbc.test;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.simpleflatmapper.jdbc.PreparedStatementCache;
+import org.simpleflatmapper.jdbc.QueryBinder;
+import org.simpleflatmapper.jdbc.QueryPreparer;
+import org.simpleflatmapper.map.Mapper;
+import org.simpleflatmapper.test.jdbc.DbHelper;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PreparedStatementCacheTest {
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = DbHelper.getDbConnection(DbHelper.TargetDB.HSQLDB);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    public void testStatementIsReusedOnTheSameConnection() throws SQLException {
+        PreparedStatementCache cache = new PreparedStatementCache();
+        QueryPreparer<Object> query = new SqlQueryPreparer("SELECT 1 FROM TEST_DB_OBJECT");
+
+        PreparedStatement ps1 = cache.prepareStatement(connection, query);
+        cache.release(connection, query, ps1);
+        PreparedStatement ps2 = cache.prepareStatement(connection, query);
+        cache.release(connection, query, ps2);
+
+        assertSame(ps1, ps2);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size());
+
+        cache.clear();
+        assertTrue(ps1.isClosed());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testStatementIsReusedThroughPoolProxies() throws SQLException {
+        PreparedStatementCache cache = new PreparedStatementCache();
+        QueryPreparer<Object> query = new SqlQueryPreparer("SELECT 1 FROM TEST_DB_OBJECT");
+
+        int[] nbPreparedOnProxy = new int[1];
+        Connection proxy1 = poolProxy(connection, nbPreparedOnProxy);
+        PreparedStatement ps1 = cache.prepareStatement(proxy1, query);
+        cache.release(proxy1, query, ps1);
+
+        // a new proxy of the same physical connection, as a pool hands out on each borrow
+        Connection proxy2 = poolProxy(connection, nbPreparedOnProxy);
+        PreparedStatement ps2 = cache.prepareStatement(proxy2, query);
+        cache.release(proxy2, query, ps2);
+
+        assertSame(ps1, ps2);
+        assertEquals(0, nbPreparedOnProxy[0]);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testReentrantCallGetsItsOwnStatement() throws SQLException {
+        PreparedStatementCache cache = new PreparedStatementCache();
+        QueryPreparer<Object> query = new SqlQueryPreparer("SELECT 1 FROM TEST_DB_OBJECT");
+
+        PreparedStatement ps1 = cache.prepareStatement(connection, query);
+        PreparedStatement ps2 = cache.prepareStatement(connection, query);
+        assertNotSame(ps1, ps2);
+
+        cache.release(connection, query, ps2);
+        cache.release(connection, query, ps1);
+
+        assertFalse(ps2.isClosed());
+        assertTrue(ps1.isClosed());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testEldestStatementIsClosedOverTheLimit() throws SQLException {
+        PreparedStatementCache cache = new PreparedStatementCache(4, 1);
+        QueryPreparer<Object> query1 = new SqlQueryPreparer("SELECT 1 FROM TEST_DB_OBJECT");
+        QueryPreparer<Object> query2 = new SqlQueryPreparer("SELECT 2 FROM TEST_DB_OBJECT");
+
+        PreparedStatement ps1 = cache.prepareStatement(connection, query1);
+        cache.release(connection, query1, ps1);
+        PreparedStatement ps2 = cache.prepareStatement(connection, query2);
+        cache.release(connection, query2, ps2);
+
+        assertTrue(ps1.isClosed());
+        assertFalse(ps2.isClosed());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testClosedStatementIsNotReused() throws SQLException {
+        PreparedStatementCache cache = new PreparedStatementCache();
+        QueryPreparer<Object> query = new SqlQueryPreparer("SELECT 1 FROM TEST_DB_OBJECT");
+
+        PreparedStatement ps1 = cache.prepareStatement(connection, query);
+        cache.release(connection, query, ps1);
+        ps1.close();
+
+        PreparedStatement ps2 = cache.prepareStatement(connection, query);
+        assertNotSame(ps1, ps2);
+        assertEquals(0, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    private static Connection poolProxy(final Connection connection, final int[] nbPrepared) {
+        return (Connection) Proxy.newProxyInstance(PreparedStatementCacheTest.class.getClassLoader(), new Class[] {Connection.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getName().equals("isWrapperFor")) {
+                    return true;
+                } else if (method.getName().equals("unwrap")) {
+                    return connection;
+                } else if (method.getName().equals("prepareStatement")) {
+                    nbPrepared[0]++;
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        });
+    }
+
+    private static class SqlQueryPreparer implements QueryPreparer<Object> {
+        private final String sql;
+
+        private SqlQueryPreparer(String sql) {
+            this.sql = sql;
+        }
+
+        @Override
+        public QueryBinder<Object> prepare(Connection connection) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(Connection connection) throws SQLException {
+            return connection.prepareStatement(sql);
+        }
+
+        @Override
+        public Mapper<Object, PreparedStatement> mapper() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String toRewrittenSqlQuery(Object value) {
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.simpleflatmapper.jdbc.test.async;
+
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.simpleflatmapper.jdbc.JdbcMapperFactory;
+import org.simpleflatmapper.jdbc.async.AsyncConnectedCrud;
+import org.simpleflatmapper.test.beans.DbObject;
+import org.simpleflatmapper.test.jdbc.DbHelper;
+import org.simpleflatmapper.util.ListCollector;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AsyncConnectedCrudTest {
+
+    @Test
+    public void testDbObjectCrud() throws Exception {
+        DataSource dataSource = DbHelper.getHsqlDataSource();
+
+        AsyncConnectedCrud<DbObject, Long> objectCrud =
+                JdbcMapperFactory.newInstance().<DbObject, Long>crud(DbObject.class, Long.class).asyncTable(dataSource, "TEST_DB_OBJECT");
+
+        List<CompletableFuture<Void>> creates = new ArrayList<CompletableFuture<Void>>();
+        List<DbObject> values = new ArrayList<DbObject>();
+        for (int i = 0; i < 50; i++) {
+            DbObject dbObject = DbObject.newInstance();
+            values.add(dbObject);
+            creates.add(objectCrud.create(dbObject));
+        }
+        CompletableFuture.allOf(creates.toArray(new CompletableFuture[0])).get();
+
+        DbObject first = values.get(0);
+        assertEquals(first, objectCrud.read(first.getId()).get());
+
+        first.setName("async");
+        objectCrud.update(first).get();
+        assertEquals("async", objectCrud.read(first.getId()).get().getName());
+
+        List<DbObject> list = objectCrud.<Long>where("id = :id", Long.class).read(first.getId(), 10, new ListCollector<DbObject>()).get().getList();
+        assertEquals(1, list.size());
+        assertEquals(first, list.get(0));
+
+        objectCrud.delete(first.getId()).get();
+        assertNull(objectCrud.read(first.getId()).get());
+    }
+
+    @Test
+    public void testFutureCompletesWithTheSQLException() throws Exception {
+        DataSource dataSource = DbHelper.getHsqlDataSource();
+
+        AsyncConnectedCrud<DbObject, Long> objectCrud =
+                JdbcMapperFactory.newInstance().<DbObject, Long>crud(DbObject.class, Long.class).asyncTable(dataSource, "TEST_DB_OBJECT");
+
+        DbObject dbObject = DbObject.newInstance();
+        objectCrud.create(dbObject).get();
+        try {
+            objectCrud.create(dbObject).get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof SQLException);
+        }
+    }
+
+    @Test
+    public void testPublishHonoursTheDemand() throws Exception {
+        DataSource dataSource = DbHelper.getHsqlDataSource();
+
+        AsyncConnectedCrud<DbObject, Long> objectCrud =
+                JdbcMapperFactory.newInstance().<DbObject, Long>crud(DbObject.class, Long.class).asyncTable(dataSource, "TEST_DB_OBJECT");
+
+        List<CompletableFuture<Void>> creates = new ArrayList<CompletableFuture<Void>>();
+        for (int i = 0; i < 10; i++) {
+            creates.add(objectCrud.create(DbObject.newInstance()));
+        }
+        CompletableFuture.allOf(creates.toArray(new CompletableFuture[0])).get();
+
+        final List<DbObject> received = new ArrayList<DbObject>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        objectCrud.<Long>where("id > :id", Long.class).publish(-1l, 2).subscribe(new Subscriber<DbObject>() {
+            Subscription subscription;
+            @Override
+            public void onSubscribe(Subscription s) {
+                subscription = s;
+                s.request(3);
+            }
+
+            @Override
+            public void onNext(DbObject dbObject) {
+                received.add(dbObject);
+                if (received.size() == 3) {
+                    subscription.cancel();
+                    latch.countDown();
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                fail(t.toString());
+            }
+
+            @Override
+            public void onComplete() {
+                fail("cancelled");
+            }
+        });
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertEquals(3, received.size());
+    }
+}
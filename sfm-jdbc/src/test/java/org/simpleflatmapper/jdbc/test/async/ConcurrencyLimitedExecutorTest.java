@@ -0,0 +1,236 @@
+package org.simpleflatmapper.jdbc.test.async;
+
+import org.junit.Test;
+import org.simpleflatmapper.jdbc.async.ConcurrencyLimitedExecutor;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ConcurrencyLimitedExecutorTest {
+
+    @Test
+    public void testAtMostMaxConcurrencyTasksRun() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+        try {
+            ConcurrencyLimitedExecutor executor = new ConcurrencyLimitedExecutor(executorService, 3);
+
+            final AtomicInteger running = new AtomicInteger();
+            final AtomicInteger maxRunning = new AtomicInteger();
+            final CountDownLatch done = new CountDownLatch(100);
+            for (int i = 0; i < 100; i++) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        int n = running.incrementAndGet();
+                        int max;
+                        while ((max = maxRunning.get()) < n && !maxRunning.compareAndSet(max, n)) {
+                        }
+                        try {
+                            Thread.sleep(1);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        running.decrementAndGet();
+                        done.countDown();
+                    }
+                });
+            }
+
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertTrue(maxRunning.get() <= 3);
+            assertEquals(0, executor.getPendingCount());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailingTaskReleasesItsSlot() throws Exception {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            ConcurrencyLimitedExecutor executor = new ConcurrencyLimitedExecutor(executorService, 1);
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    throw new IllegalStateException();
+                }
+            });
+            final CountDownLatch done = new CountDownLatch(1);
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    done.countDown();
+                }
+            });
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testTaskRejectedOnTheDrainOfAFailingTaskIsRequeued() throws Exception {
+        ManualExecutor delegate = new ManualExecutor();
+        ConcurrencyLimitedExecutor executor = new ConcurrencyLimitedExecutor(delegate, 1);
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalStateException();
+            }
+        });
+        final AtomicInteger nbRuns = new AtomicInteger();
+        Runnable counter = new Runnable() {
+            @Override
+            public void run() {
+                nbRuns.incrementAndGet();
+            }
+        };
+        executor.execute(counter);
+        assertEquals(1, executor.getPendingCount());
+
+        delegate.reject = true;
+        try {
+            delegate.runNext();
+            fail();
+        } catch (IllegalStateException e) {
+            // the failure of the task, not the rejection of the next one
+        }
+        assertEquals(1, executor.getPendingCount());
+
+        delegate.reject = false;
+        executor.execute(counter);
+        delegate.runNext();
+        assertEquals(2, nbRuns.get());
+        assertEquals(0, executor.getPendingCount());
+    }
+
+    @Test
+    public void testRejectedTaskOfTheCallerIsRemoved() throws Exception {
+        ManualExecutor delegate = new ManualExecutor();
+        ConcurrencyLimitedExecutor executor = new ConcurrencyLimitedExecutor(delegate, 1);
+        delegate.reject = true;
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                }
+            });
+            fail();
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+        assertEquals(0, executor.getPendingCount());
+
+        final AtomicInteger nbRuns = new AtomicInteger();
+        delegate.reject = false;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                nbRuns.incrementAndGet();
+            }
+        });
+        delegate.runNext();
+        assertEquals(1, nbRuns.get());
+    }
+
+    @Test
+    public void testMaxPoolSize() {
+        assertEquals(7, ConcurrencyLimitedExecutor.maxPoolSize(new HikariLikeDataSource(7)));
+        assertEquals(ConcurrencyLimitedExecutor.DEFAULT_MAX_CONCURRENCY, ConcurrencyLimitedExecutor.maxPoolSize(new HikariLikeDataSource(0)));
+        assertEquals(5, ConcurrencyLimitedExecutor.of(Executors.newCachedThreadPool(), new HikariLikeDataSource(5)).getMaxConcurrency());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxConcurrency() {
+        new ConcurrencyLimitedExecutor(Executors.newCachedThreadPool(), 0);
+    }
+
+    private static class ManualExecutor implements Executor {
+        private final Queue<Runnable> tasks = new LinkedList<Runnable>();
+        private boolean reject;
+
+        @Override
+        public void execute(Runnable command) {
+            if (reject) {
+                throw new RejectedExecutionException();
+            }
+            tasks.add(command);
+        }
+
+        private void runNext() {
+            tasks.remove().run();
+        }
+    }
+
+    public static class HikariLikeDataSource implements DataSource {
+        private final int maximumPoolSize;
+
+        public HikariLikeDataSource(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        @Override
+        public Connection getConnection() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) {
+            return false;
+        }
+
+        @Override
+        public PrintWriter getLogWriter() {
+            return null;
+        }
+
+        @Override
+        public void setLogWriter(PrintWriter out) {
+        }
+
+        @Override
+        public void setLoginTimeout(int seconds) {
+        }
+
+        @Override
+        public int getLoginTimeout() {
+            return 0;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+}
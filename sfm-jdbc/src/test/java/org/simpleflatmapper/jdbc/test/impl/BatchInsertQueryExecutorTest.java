@@ -0,0 +1,142 @@
+package org.simpleflatmapper.jdbc.test.impl;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.simpleflatmapper.jdbc.MultiIndexFieldMapper;
+import org.simpleflatmapper.jdbc.impl.ChunkCommitter;
+import org.simpleflatmapper.jdbc.impl.MysqlBatchInsertQueryExecutor;
+import org.simpleflatmapper.jdbc.impl.PostgresqlBatchInsertQueryExecutor;
+import org.simpleflatmapper.util.CheckedConsumer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BatchInsertQueryExecutorTest {
+
+    private static final CheckedConsumer<PreparedStatement> NOOP = new CheckedConsumer<PreparedStatement>() {
+        @Override
+        public void accept(PreparedStatement preparedStatement) {
+        }
+    };
+
+    @Test
+    public void testSplitInPowerOf2Buckets() throws Exception {
+        MysqlBatchInsertQueryExecutor<Integer> executor = new MysqlBatchInsertQueryExecutor<Integer>(
+                "test", new String[] {"id", "name"}, null, null, new String[0], mappers(2));
+
+        Connection connection = mock(Connection.class);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        ArgumentCaptor<String> queryCapture = ArgumentCaptor.forClass(String.class);
+        when(connection.prepareStatement(queryCapture.capture())).thenReturn(preparedStatement);
+
+        executor.insert(connection, values(13), NOOP);
+
+        List<String> queries = queryCapture.getAllValues();
+        assertEquals(3, queries.size());
+        assertEquals(8, nbRows(queries.get(0)));
+        assertEquals(4, nbRows(queries.get(1)));
+        assertEquals("INSERT INTO test(id, name) VALUES(?, ?)", queries.get(2));
+        verify(preparedStatement, times(3)).executeUpdate();
+        // values are bound in order across the buckets
+        verify(preparedStatement).setObject(1, 0);
+        verify(preparedStatement).setObject(7, 11);
+        verify(preparedStatement).setObject(1, 12);
+    }
+
+    @Test
+    public void testReuseStatementForFullBuckets() throws Exception {
+        PostgresqlBatchInsertQueryExecutor<Integer> executor = new PostgresqlBatchInsertQueryExecutor<Integer>(
+                "test", new String[] {"id"}, null, null, new String[0], new String[0], mappers(1));
+
+        Connection connection = mock(Connection.class);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        ArgumentCaptor<String> queryCapture = ArgumentCaptor.forClass(String.class);
+        when(connection.prepareStatement(queryCapture.capture())).thenReturn(preparedStatement);
+
+        int maxBucketSize = executor.getMaxBucketSize();
+        assertEquals(1024, maxBucketSize);
+
+        executor.insert(connection, values(maxBucketSize * 3 + 1), NOOP);
+
+        List<String> queries = queryCapture.getAllValues();
+        assertEquals(2, queries.size());
+        assertEquals(maxBucketSize, nbRows(queries.get(0)));
+        assertEquals(1, nbRows(queries.get(1)));
+        verify(preparedStatement, times(4)).executeUpdate();
+        verify(preparedStatement, times(2)).close();
+    }
+
+    @Test
+    public void testIteratorReusesTheStatementsOfEachBucketSize() throws Exception {
+        PostgresqlBatchInsertQueryExecutor<Integer> executor = new PostgresqlBatchInsertQueryExecutor<Integer>(
+                "test", new String[] {"id"}, null, null, new String[0], new String[0], mappers(1));
+
+        Connection connection = mock(Connection.class);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        ArgumentCaptor<String> queryCapture = ArgumentCaptor.forClass(String.class);
+        when(connection.prepareStatement(queryCapture.capture())).thenReturn(preparedStatement);
+        when(connection.getAutoCommit()).thenReturn(false);
+
+        // 2 chunks of 100 rows, each inserted as 64 + 32 + 4
+        executor.insert(connection, values(200).iterator(), 100, new ChunkCommitter(connection, 1));
+
+        List<String> queries = queryCapture.getAllValues();
+        assertEquals(3, queries.size());
+        assertEquals(64, nbRows(queries.get(0)));
+        assertEquals(32, nbRows(queries.get(1)));
+        assertEquals(4, nbRows(queries.get(2)));
+        verify(preparedStatement, times(6)).executeUpdate();
+        verify(preparedStatement, times(3)).close();
+        // one commit per chunk, not per statement
+        verify(connection, times(2)).commit();
+        verify(preparedStatement).setObject(1, 100);
+        verify(preparedStatement).setObject(4, 199);
+    }
+
+    @Test
+    public void testMaxBucketSizeLimitedByNumberOfParameters() {
+        MysqlBatchInsertQueryExecutor<Integer> executor = new MysqlBatchInsertQueryExecutor<Integer>(
+                "test", new String[100], null, null, new String[0], mappers(100));
+        assertEquals(256, executor.getMaxBucketSize());
+    }
+
+    private static int nbRows(String query) {
+        return query.split("\\(\\?").length - 1;
+    }
+
+    private static List<Integer> values(int n) {
+        List<Integer> values = new ArrayList<Integer>();
+        for(int i = 0; i < n; i++) {
+            values.add(i);
+        }
+        return values;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static MultiIndexFieldMapper<Integer>[] mappers(int n) {
+        MultiIndexFieldMapper<Integer>[] mappers = new MultiIndexFieldMapper[n];
+        for(int i = 0; i < n; i++) {
+            mappers[i] = new MultiIndexFieldMapper<Integer>() {
+                @Override
+                public int map(PreparedStatement ps, Integer value, int columnIndex) throws Exception {
+                    ps.setObject(columnIndex + 1, value);
+                    return 1;
+                }
+
+                @Override
+                public int getSize(Integer value) {
+                    return 1;
+                }
+            };
+        }
+        return mappers;
+    }
+}
@@ -0,0 +1,234 @@
+package org.simpleflatmapper.jdbc.test.impl;
+
+import org.junit.Test;
+import org.simpleflatmapper.jdbc.MultiIndexFieldMapper;
+import org.simpleflatmapper.jdbc.impl.KeyTupleQueryExecutor;
+import org.simpleflatmapper.jdbc.impl.KeyTupleQueryPreparer;
+import org.simpleflatmapper.test.jdbc.DbHelper;
+import org.simpleflatmapper.util.CheckedConsumer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class KeyTupleQueryExecutorTest {
+
+    @Test
+    public void testKeysAreSplitInPowerOf2Buckets() throws Exception {
+        Connection connection = DbHelper.getDbConnection(DbHelper.TargetDB.HSQLDB);
+        try {
+            createTable(connection, "TEST_KEY_TUPLE_SELECT", 40);
+
+            KeyTupleQueryExecutor<Long> executor = new KeyTupleQueryExecutor<Long>(
+                    "SELECT id FROM TEST_KEY_TUPLE_SELECT WHERE ",
+                    new KeyTupleQueryPreparer<Long>(keyMappers(), new String[] {"id"}),
+                    8);
+
+            List<Long> keys = new ArrayList<Long>();
+            for(long i = 0; i < 29; i++) {
+                keys.add(i);
+            }
+
+            List<String> statements = new ArrayList<String>();
+            final List<Long> ids = new ArrayList<Long>();
+            executor.execute(recordingConnection(connection, statements), keys, new CheckedConsumer<PreparedStatement>() {
+                @Override
+                public void accept(PreparedStatement preparedStatement) throws Exception {
+                    ResultSet resultSet = preparedStatement.executeQuery();
+                    while (resultSet.next()) {
+                        ids.add(resultSet.getLong(1));
+                    }
+                    resultSet.close();
+                }
+            });
+
+            // 3 chunks of 8 on one statement, then 4 + 1
+            assertEquals(3, statements.size());
+            assertTrue(statements.get(0).endsWith("id in (?, ?, ?, ?, ?, ?, ?, ?)"));
+            assertTrue(statements.get(1).endsWith("id in (?, ?, ?, ?)"));
+            assertTrue(statements.get(2).endsWith("id in (?)"));
+            assertEquals(keys, ids);
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testDeleteCompositeKeys() throws Exception {
+        Connection connection = DbHelper.getDbConnection(DbHelper.TargetDB.HSQLDB);
+        try {
+            createTable(connection, "TEST_KEY_TUPLE_DELETE", 10);
+
+            final MultiIndexFieldMapper<Long> idMapper = keyMappers()[0];
+            MultiIndexFieldMapper<Long> nameMapper = new MultiIndexFieldMapper<Long>() {
+                @Override
+                public int map(PreparedStatement ps, Long value, int columnIndex) throws Exception {
+                    ps.setString(columnIndex + 1, "name" + value);
+                    return 1;
+                }
+
+                @Override
+                public int getSize(Long value) {
+                    return 1;
+                }
+            };
+            @SuppressWarnings("unchecked")
+            KeyTupleQueryExecutor<Long> executor = new KeyTupleQueryExecutor<Long>(
+                    "DELETE FROM TEST_KEY_TUPLE_DELETE WHERE ",
+                    new KeyTupleQueryPreparer<Long>(new MultiIndexFieldMapper[] {idMapper, nameMapper}, new String[] {"id", "name"}),
+                    4);
+
+            executor.execute(connection, Arrays.asList(1l, 2l, 3l, 4l, 5l, 6l), new CheckedConsumer<PreparedStatement>() {
+                @Override
+                public void accept(PreparedStatement preparedStatement) throws Exception {
+                    preparedStatement.executeUpdate();
+                }
+            });
+
+            Statement statement = connection.createStatement();
+            ResultSet resultSet = statement.executeQuery("SELECT count(*) FROM TEST_KEY_TUPLE_DELETE");
+            resultSet.next();
+            assertEquals(4, resultSet.getInt(1));
+            statement.close();
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testNoStatementForEmptyKeys() throws Exception {
+        KeyTupleQueryExecutor<Long> executor = new KeyTupleQueryExecutor<Long>(
+                "SELECT * FROM TEST WHERE ",
+                new KeyTupleQueryPreparer<Long>(keyMappers(), new String[] {"id"}));
+
+        List<String> statements = new ArrayList<String>();
+        executor.execute(recordingConnection(null, statements), new ArrayList<Long>(), null);
+
+        assertTrue(statements.isEmpty());
+    }
+
+    @Test
+    public void testSingleKeyBoundAsOneArray() throws Exception {
+        KeyTupleQueryPreparer<Long> preparer = new KeyTupleQueryPreparer<Long>(keyMappers(), new String[]{"id"}, "int8");
+        KeyTupleQueryExecutor<Long> executor = new KeyTupleQueryExecutor<Long>("SELECT * FROM TEST WHERE ", preparer, 2);
+
+        final List<String> statements = new ArrayList<String>();
+        final List<Object[]> arrays = new ArrayList<Object[]>();
+        final Object[] boundArray = new Object[1];
+        final Array array = (Array) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Array.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                return null;
+            }
+        });
+        final Connection[] connection = new Connection[1];
+        final PreparedStatement ps = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{PreparedStatement.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getName().equals("setArray")) {
+                    assertEquals(1, args[0]);
+                    boundArray[0] = args[1];
+                } else if (method.getName().equals("getConnection")) {
+                    return connection[0];
+                }
+                return null;
+            }
+        });
+        connection[0] = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Connection.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getName().equals("prepareStatement")) {
+                    statements.add((String) args[0]);
+                    return ps;
+                } else if (method.getName().equals("createArrayOf")) {
+                    assertEquals("int8", args[0]);
+                    arrays.add((Object[]) args[1]);
+                    return array;
+                }
+                return null;
+            }
+        });
+
+        final List<PreparedStatement> executed = new ArrayList<PreparedStatement>();
+        executor.execute(connection[0], Arrays.asList(3l, 5l, 7l, 11l, 13l), new CheckedConsumer<PreparedStatement>() {
+            @Override
+            public void accept(PreparedStatement preparedStatement) throws Exception {
+                executed.add(preparedStatement);
+            }
+        });
+
+        assertEquals(Arrays.asList("SELECT * FROM TEST WHERE  id = ANY(?)"), statements);
+        assertEquals(1, executed.size());
+        assertEquals(1, arrays.size());
+        assertArrayEquals(new Object[] {3l, 5l, 7l, 11l, 13l}, arrays.get(0));
+        assertSame(array, boundArray[0]);
+    }
+
+    @Test
+    public void testCompositeKeyIsNotBoundAsArray() {
+        @SuppressWarnings("unchecked")
+        KeyTupleQueryPreparer<Long> preparer = new KeyTupleQueryPreparer<Long>(
+                new MultiIndexFieldMapper[] {keyMappers()[0], keyMappers()[0]}, new String[]{"id", "id2"}, "int8");
+        assertEquals("WHERE  ((id = ? and id2 = ?))", preparer.sql("WHERE ", 1));
+    }
+
+    private void createTable(Connection connection, String table, int nbRows) throws Exception {
+        Statement statement = connection.createStatement();
+        try {
+            statement.execute("CREATE TABLE " + table + "(id bigint, name varchar(32))");
+            for(int i = 0; i < nbRows; i++) {
+                statement.execute("INSERT INTO " + table + " VALUES(" + i + ", 'name" + i + "')");
+            }
+        } finally {
+            statement.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private MultiIndexFieldMapper<Long>[] keyMappers() {
+        return new MultiIndexFieldMapper[] {
+            new MultiIndexFieldMapper<Long>() {
+                @Override
+                public int map(PreparedStatement ps, Long value, int columnIndex) throws Exception {
+                    ps.setLong(columnIndex + 1, value);
+                    return 1;
+                }
+
+                @Override
+                public int getSize(Long value) {
+                    return 1;
+                }
+            }
+        };
+    }
+
+    private Connection recordingConnection(final Connection connection, final List<String> statements) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Connection.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getName().equals("prepareStatement")) {
+                    statements.add((String) args[0]);
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        });
+    }
+}
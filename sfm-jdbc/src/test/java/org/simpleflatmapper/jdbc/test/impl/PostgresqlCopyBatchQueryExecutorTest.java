@@ -0,0 +1,240 @@
+package org.simpleflatmapper.jdbc.test.impl;
+
+import org.junit.Test;
+import org.simpleflatmapper.jdbc.JdbcMapperFactory;
+import org.simpleflatmapper.jdbc.MultiIndexFieldMapper;
+import org.simpleflatmapper.jdbc.SqlTypeColumnProperty;
+import org.simpleflatmapper.jdbc.impl.BatchQueryExecutor;
+import org.simpleflatmapper.jdbc.impl.ChunkCommitter;
+import org.simpleflatmapper.jdbc.impl.PostgresqlCopyBatchQueryExecutor;
+import org.simpleflatmapper.jdbc.impl.SingleIndexFieldMapper;
+import org.simpleflatmapper.reflect.Getter;
+import org.simpleflatmapper.reflect.IndexedSetter;
+import org.simpleflatmapper.test.beans.DbObject;
+import org.simpleflatmapper.test.jdbc.DbHelper;
+import org.simpleflatmapper.util.CheckedConsumer;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class PostgresqlCopyBatchQueryExecutorTest {
+
+    private static final String[] COLUMNS = {"id", "name", "email", "creation_time", "type_ordinal", "type_name"};
+
+    @Test
+    public void testCopyTextFormatMatchesGoldenFile() throws Exception {
+        PostgresqlCopyBatchQueryExecutor<DbObject> executor =
+                new PostgresqlCopyBatchQueryExecutor<DbObject>("TEST_DB_OBJECT", COLUMNS, null, mappers(), new RecordingExecutor<DbObject>());
+
+        StringBuilder sb = new StringBuilder();
+        TimeZone defaultTimeZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+        try {
+            DbObject plain = dbObject(1, "plain", "plain@example.com", DbObject.Type.type2, DbObject.Type.type3);
+            DbObject escaped = dbObject(2, "tab\there\\back\nslash\r", null, DbObject.Type.type1, DbObject.Type.type1);
+
+            executor.writeTo(Arrays.asList(plain, escaped), sb);
+        } finally {
+            TimeZone.setDefault(defaultTimeZone);
+        }
+
+        assertEquals("COPY TEST_DB_OBJECT (id, name, email, creation_time, type_ordinal, type_name) FROM STDIN", executor.getCopySql());
+        assertEquals(readGolden("postgresql-copy.txt"), sb.toString());
+    }
+
+    @Test
+    public void testTemporalValuesAreWrittenInTheZoneTheyWereBoundWith() throws Exception {
+        final Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        @SuppressWarnings("unchecked")
+        MultiIndexFieldMapper<Object[]>[] mappers = new MultiIndexFieldMapper[] {
+            column(0, new IndexedSetter<PreparedStatement, Object>() {
+                @Override
+                public void set(PreparedStatement target, Object value, int index) throws Exception {
+                    target.setTimestamp(index, (Timestamp) value);
+                }
+            }),
+            column(1, new IndexedSetter<PreparedStatement, Object>() {
+                @Override
+                public void set(PreparedStatement target, Object value, int index) throws Exception {
+                    target.setTimestamp(index, (Timestamp) value, utc);
+                }
+            }),
+            column(2, new IndexedSetter<PreparedStatement, Object>() {
+                @Override
+                public void set(PreparedStatement target, Object value, int index) throws Exception {
+                    target.setDate(index, (java.sql.Date) value);
+                }
+            }),
+            column(3, new IndexedSetter<PreparedStatement, Object>() {
+                @Override
+                public void set(PreparedStatement target, Object value, int index) throws Exception {
+                    target.setTime(index, (Time) value);
+                }
+            }),
+        };
+        PostgresqlCopyBatchQueryExecutor<Object[]> executor =
+                new PostgresqlCopyBatchQueryExecutor<Object[]>("TEST_TEMPORAL", new String[] {"ts", "ts_utc", "d", "t"}, null, mappers, new RecordingExecutor<Object[]>());
+
+        // 2019-01-02T03:04:05.600000789Z
+        Timestamp timestamp = new Timestamp(1546398245600L);
+        timestamp.setNanos(600000789);
+
+        StringBuilder sb = new StringBuilder();
+        TimeZone defaultTimeZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Kolkata"));
+        try {
+            Object[] row = {timestamp, timestamp, java.sql.Date.valueOf("2019-01-02"), Time.valueOf("03:04:05")};
+            executor.writeTo(Arrays.<Object[]>asList(row), sb);
+        } finally {
+            TimeZone.setDefault(defaultTimeZone);
+        }
+
+        assertEquals("2019-01-02 08:34:05.600000789+05:30\t2019-01-02 03:04:05.600000789+00:00\t2019-01-02\t03:04:05+05:30\n", sb.toString());
+    }
+
+    @Test
+    public void testFallbackToDelegateOnValueWithoutCopyEncoding() throws Exception {
+        @SuppressWarnings("unchecked")
+        MultiIndexFieldMapper<Object[]>[] mappers = new MultiIndexFieldMapper[] {
+            column(0, new IndexedSetter<PreparedStatement, Object>() {
+                @Override
+                public void set(PreparedStatement target, Object value, int index) throws Exception {
+                    target.setObject(index, value);
+                }
+            })
+        };
+        RecordingExecutor<Object[]> delegate = new RecordingExecutor<Object[]>();
+        PostgresqlCopyBatchQueryExecutor<Object[]> executor =
+                new PostgresqlCopyBatchQueryExecutor<Object[]>("TEST_ARRAY", new String[] {"ids"}, null, mappers, delegate);
+
+        List<Object[]> values = Arrays.asList(new Object[] {new Long[] {1L, 2L}}, new Object[] {new Long[] {3L}});
+
+        executor.insert(null, values, null);
+        assertSame(values, delegate.values);
+
+        executor.insert(null, values.iterator(), 10, null);
+        assertEquals(values, delegate.iteratedValues);
+
+        try {
+            executor.writeTo(values, new StringBuilder());
+            fail();
+        } catch (IllegalArgumentException e) {
+            // no COPY text encoding for Long[]
+        }
+    }
+
+    @Test
+    public void testFallbackToDelegateOnNonPostgresqlConnection() throws Exception {
+        RecordingExecutor<DbObject> delegate = new RecordingExecutor<DbObject>();
+        PostgresqlCopyBatchQueryExecutor<DbObject> executor =
+                new PostgresqlCopyBatchQueryExecutor<DbObject>("TEST_DB_OBJECT", COLUMNS, null, mappers(), delegate);
+
+        List<DbObject> values = Arrays.asList(DbObject.newInstance(), DbObject.newInstance());
+        Connection connection = DbHelper.getDbConnection(DbHelper.TargetDB.HSQLDB);
+        try {
+            executor.insert(connection, values, null);
+        } finally {
+            connection.close();
+        }
+
+        assertSame(values, delegate.values);
+    }
+
+    @Test
+    public void testFallbackToDelegateOnInsertExpression() throws Exception {
+        RecordingExecutor<DbObject> delegate = new RecordingExecutor<DbObject>();
+        String[] expressions = {"nextval('seq')", "?", "?", "?", "?", "?"};
+        PostgresqlCopyBatchQueryExecutor<DbObject> executor =
+                new PostgresqlCopyBatchQueryExecutor<DbObject>("TEST_DB_OBJECT", COLUMNS, expressions, mappers(), delegate);
+
+        List<DbObject> values = Arrays.asList(DbObject.newInstance());
+        executor.insert(null, values, null);
+
+        assertSame(values, delegate.values);
+    }
+
+    private MultiIndexFieldMapper<DbObject>[] mappers() {
+        return JdbcMapperFactory.newInstance()
+                .addColumnProperty("type_ordinal", SqlTypeColumnProperty.of(Types.NUMERIC))
+                .from(DbObject.class)
+                .addColumn("id")
+                .addColumn("name")
+                .addColumn("email")
+                .addColumn("creation_time")
+                .addColumn("type_ordinal")
+                .addColumn("type_name")
+                .buildIndexFieldMappers();
+    }
+
+    private static MultiIndexFieldMapper<Object[]> column(final int index, IndexedSetter<PreparedStatement, Object> setter) {
+        return new SingleIndexFieldMapper<Object[], Object>(setter, new Getter<Object[], Object>() {
+            @Override
+            public Object get(Object[] target) throws Exception {
+                return target[index];
+            }
+        });
+    }
+
+    private DbObject dbObject(long id, String name, String email, DbObject.Type typeOrdinal, DbObject.Type typeName) {
+        DbObject dbObject = new DbObject();
+        dbObject.setId(id);
+        dbObject.setName(name);
+        dbObject.setEmail(email);
+        dbObject.setCreationTime(Timestamp.valueOf("2019-01-02 03:04:05.6"));
+        dbObject.setTypeOrdinal(typeOrdinal);
+        dbObject.setTypeName(typeName);
+        return dbObject;
+    }
+
+    private String readGolden(String name) throws Exception {
+        InputStream is = getClass().getResourceAsStream(name);
+        Reader reader = new InputStreamReader(is, "UTF-8");
+        try {
+            StringBuilder sb = new StringBuilder();
+            char[] buffer = new char[1024];
+            int l;
+            while ((l = reader.read(buffer)) != -1) {
+                sb.append(buffer, 0, l);
+            }
+            return sb.toString();
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static class RecordingExecutor<T> implements BatchQueryExecutor<T> {
+        private Collection<T> values;
+        private List<T> iteratedValues;
+
+        @Override
+        public void insert(Connection connection, Collection<T> values, CheckedConsumer<PreparedStatement> postExecute) throws SQLException {
+            this.values = values;
+        }
+
+        @Override
+        public void insert(Connection connection, Iterator<T> values, int chunkSize, ChunkCommitter chunkCommitter) throws SQLException {
+            iteratedValues = new ArrayList<T>();
+            while (values.hasNext()) {
+                iteratedValues.add(values.next());
+            }
+        }
+    }
+}
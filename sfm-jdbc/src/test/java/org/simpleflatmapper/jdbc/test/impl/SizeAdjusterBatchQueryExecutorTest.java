@@ -0,0 +1,272 @@
+package org.simpleflatmapper.jdbc.test.impl;
+
+import org.junit.Test;
+import org.simpleflatmapper.jdbc.MultiIndexFieldMapper;
+import org.simpleflatmapper.jdbc.impl.BatchQueryExecutor;
+import org.simpleflatmapper.jdbc.impl.ChunkCommitter;
+import org.simpleflatmapper.jdbc.impl.MysqlBatchInsertQueryExecutor;
+import org.simpleflatmapper.jdbc.impl.SizeAdjusterBatchQueryExecutor;
+import org.simpleflatmapper.jdbc.test.MysqlCrudTest;
+import org.simpleflatmapper.util.CheckedConsumer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SizeAdjusterBatchQueryExecutorTest {
+
+    @Test
+    public void testConvergeToTheBatchSizeWithTheBestThroughput() throws SQLException {
+        // the cost per row jumps after 64 rows
+        LatencyExecutor delegate = new LatencyExecutor(64);
+        VirtualClockExecutor executor = new VirtualClockExecutor(delegate);
+        assertEquals(1024, executor.getBatchSize());
+
+        for(int i = 0; i < 100; i++) {
+            executor.insert(null, values(i * 1024, (i + 1) * 1024), null);
+        }
+
+        int batchSize = executor.getBatchSize();
+        assertTrue("batch size " + batchSize, batchSize >= 32 && batchSize <= 128);
+        assertTrue(executor.getThroughput() > 0);
+        assertEquals(102400, delegate.inserted.size());
+    }
+
+    @Test
+    public void testGrowAgainAfterLatencyImproves() throws SQLException {
+        LatencyExecutor delegate = new LatencyExecutor(64);
+        VirtualClockExecutor executor = new VirtualClockExecutor(delegate);
+
+        for(int i = 0; i < 100; i++) {
+            executor.insert(null, values(i * 1024, (i + 1) * 1024), null);
+        }
+        assertTrue("batch size " + executor.getBatchSize(), executor.getBatchSize() <= 128);
+
+        delegate.jumpAfter = Integer.MAX_VALUE;
+        for(int i = 100; i < 300; i++) {
+            executor.insert(null, values(i * 1024, (i + 1) * 1024), null);
+        }
+        assertTrue("batch size " + executor.getBatchSize(), executor.getBatchSize() >= 256);
+    }
+
+    @Test
+    public void testPacketTooBigOnlyRetriesTheFailingBatch() throws SQLException {
+        LatencyExecutor delegate = new LatencyExecutor(Integer.MAX_VALUE);
+        delegate.maxRows = 100;
+        VirtualClockExecutor executor = new VirtualClockExecutor(delegate);
+
+        executor.insert(null, values(0, 300), null);
+
+        assertEquals(values(0, 300), delegate.inserted);
+        assertTrue(executor.getMaxBatchSize() <= 64);
+    }
+
+    @Test
+    public void testPacketTooBigOnALaterBucketDoesNotInsertTheFirstBucketsAgain() throws SQLException {
+        LatencyExecutor delegate = new LatencyExecutor(Integer.MAX_VALUE);
+        // a statement with the last row does not fit in a packet unless alone
+        delegate.wideValue = 9;
+        VirtualClockExecutor executor = new VirtualClockExecutor(delegate);
+
+        executor.insert(null, values(0, 10), null);
+
+        // 8 + 2, the 2 rows fail and are retried one by one
+        assertEquals(values(0, 10), delegate.inserted);
+        assertEquals(1, executor.getMaxBatchSize());
+    }
+
+    @Test
+    public void testBatchesArePowersOf2() throws SQLException {
+        LatencyExecutor delegate = new LatencyExecutor(Integer.MAX_VALUE);
+        VirtualClockExecutor executor = new VirtualClockExecutor(delegate);
+
+        executor.insert(null, values(0, 1000), null);
+
+        // 512 + 256 + 128 + 64 + 32 + 8, one statement per batch
+        assertEquals(values(0, 1000), delegate.inserted);
+        assertEquals(6, delegate.nbStatements);
+        assertEquals(6, delegate.nbCalls);
+    }
+
+    @Test
+    public void testInsertFromIterator() throws SQLException {
+        LatencyExecutor delegate = new LatencyExecutor(Integer.MAX_VALUE);
+        VirtualClockExecutor executor = new VirtualClockExecutor(delegate);
+
+        executor.insert(null, values(0, 1000).iterator(), 100, new ChunkCommitter(null, 0));
+
+        // chunks of 100 rows inserted as 64 + 32 + 4
+        assertEquals(values(0, 1000), delegate.inserted);
+        assertEquals(30, delegate.nbStatements);
+    }
+
+    @Test
+    public void testInsertFromIteratorPreparesOneStatementPerBatchSizeAndCommitsPerChunk() throws SQLException {
+        MysqlBatchInsertQueryExecutor<Integer> delegate = new MysqlBatchInsertQueryExecutor<Integer>(
+                "test", new String[] {"id"}, null, null, new String[0], mappers(1));
+        SizeAdjusterBatchQueryExecutor<Integer> executor = new SizeAdjusterBatchQueryExecutor<Integer>(delegate);
+        StatementCounter counter = new StatementCounter();
+        Connection connection = counter.connection();
+
+        executor.insert(connection, values(0, 1000).iterator(), 100, new ChunkCommitter(connection, 2));
+
+        // 10 chunks of 64 + 32 + 4 rows on 3 statements, a commit every 2 chunks
+        assertEquals(3, counter.nbPrepared);
+        assertEquals(30, counter.nbExecuted);
+        assertEquals(3, counter.nbClosed);
+        assertEquals(5, counter.nbCommits);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static MultiIndexFieldMapper<Integer>[] mappers(int n) {
+        MultiIndexFieldMapper<Integer>[] mappers = new MultiIndexFieldMapper[n];
+        for(int i = 0; i < n; i++) {
+            mappers[i] = new MultiIndexFieldMapper<Integer>() {
+                @Override
+                public int map(PreparedStatement ps, Integer value, int columnIndex) throws Exception {
+                    ps.setObject(columnIndex + 1, value);
+                    return 1;
+                }
+
+                @Override
+                public int getSize(Integer value) {
+                    return 1;
+                }
+            };
+        }
+        return mappers;
+    }
+
+    private static List<Integer> values(int start, int end) {
+        List<Integer> values = new ArrayList<Integer>();
+        for(int i = start; i < end; i++) {
+            values.add(i);
+        }
+        return values;
+    }
+
+    // the elapsed time is the simulated cost of the batches
+    private static class VirtualClockExecutor extends SizeAdjusterBatchQueryExecutor<Integer> {
+        private final LatencyExecutor delegate;
+
+        private VirtualClockExecutor(LatencyExecutor delegate) {
+            super(delegate, 1024, null);
+            this.delegate = delegate;
+        }
+
+        @Override
+        protected long nanoTime() {
+            return delegate.nanoTime;
+        }
+    }
+
+    // executes the values in power of 2 buckets, one statement per bucket, as the multi rows insert does
+    private static class LatencyExecutor implements BatchQueryExecutor<Integer> {
+        private static final long OVERHEAD_NANOS = 50000;
+        private static final long ROW_NANOS = 1000;
+        private static final long SLOW_ROW_NANOS = 20000;
+
+        private int jumpAfter;
+        private int maxRows = Integer.MAX_VALUE;
+        private int wideValue = -1;
+        private final List<Integer> inserted = new ArrayList<Integer>();
+        private final Set<Integer> insertedSet = new HashSet<Integer>();
+        private int nbStatements;
+        private int nbCalls;
+        private long nanoTime;
+
+        private LatencyExecutor(int jumpAfter) {
+            this.jumpAfter = jumpAfter;
+        }
+
+        @Override
+        public void insert(Connection connection, Collection<Integer> values, CheckedConsumer<PreparedStatement> postExecute) throws SQLException {
+            nbCalls++;
+            List<Integer> list = new ArrayList<Integer>(values);
+            int start = 0;
+            while (start < list.size()) {
+                int n = Math.min(1024, Integer.highestOneBit(list.size() - start));
+                executeStatement(list.subList(start, start + n));
+                start += n;
+            }
+        }
+
+        private void executeStatement(List<Integer> bucket) throws SQLException {
+            int n = bucket.size();
+            if (n > maxRows || (n > 1 && bucket.contains(wideValue))) {
+                throw MysqlCrudTest.getPacketTooBigException();
+            }
+            nanoTime += OVERHEAD_NANOS + n * ROW_NANOS + Math.max(0, n - jumpAfter) * SLOW_ROW_NANOS;
+            for (Integer value : bucket) {
+                if (!insertedSet.add(value)) {
+                    throw new AssertionError("duplicate row " + value);
+                }
+            }
+            inserted.addAll(bucket);
+            nbStatements++;
+        }
+
+        @Override
+        public void insert(Connection connection, Iterator<Integer> values, int chunkSize, ChunkCommitter chunkCommitter) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    // counts the statements of a connection that is not in auto commit
+    private static class StatementCounter {
+        private int nbPrepared;
+        private int nbExecuted;
+        private int nbClosed;
+        private int nbCommits;
+
+        private Connection connection() {
+            return proxy(Connection.class, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    String name = method.getName();
+                    if (name.equals("prepareStatement")) {
+                        nbPrepared++;
+                        return preparedStatement();
+                    } else if (name.equals("commit")) {
+                        nbCommits++;
+                    } else if (name.equals("getAutoCommit")) {
+                        return false;
+                    }
+                    return null;
+                }
+            });
+        }
+
+        private PreparedStatement preparedStatement() {
+            return proxy(PreparedStatement.class, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    String name = method.getName();
+                    if (name.equals("executeUpdate")) {
+                        nbExecuted++;
+                        return 1;
+                    } else if (name.equals("close")) {
+                        nbClosed++;
+                    }
+                    return null;
+                }
+            });
+        }
+
+        private static <P> P proxy(Class<P> target, InvocationHandler handler) {
+            return target.cast(Proxy.newProxyInstance(StatementCounter.class.getClassLoader(), new Class<?>[] {target}, handler));
+        }
+    }
+}
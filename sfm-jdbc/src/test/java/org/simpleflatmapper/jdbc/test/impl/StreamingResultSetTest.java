@@ -0,0 +1,156 @@
+package org.simpleflatmapper.jdbc.test.impl;
+
+import org.junit.Test;
+import org.simpleflatmapper.jdbc.impl.StreamingResultSet;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class StreamingResultSetTest {
+
+    @Test
+    public void testMysqlStreamsRowByRow() throws SQLException {
+        Driver driver = new Driver("MySQL", true);
+
+        StreamingResultSet streamingResultSet = StreamingResultSet.executeQuery(driver.connection, driver.preparedStatement, 100);
+        assertSame(driver.resultSet, streamingResultSet.getResultSet());
+        streamingResultSet.close();
+
+        assertEquals(Arrays.asList("setFetchSize(" + Integer.MIN_VALUE + ")", "executeQuery", "ResultSet.close", "close"), driver.calls);
+    }
+
+    @Test
+    public void testPostgresqlDisablesAutoCommitUntilClose() throws SQLException {
+        Driver driver = new Driver("PostgreSQL", true);
+
+        StreamingResultSet streamingResultSet = StreamingResultSet.executeQuery(driver.connection, driver.preparedStatement, 100);
+        assertEquals(false, driver.autoCommit);
+        streamingResultSet.close();
+
+        assertEquals(true, driver.autoCommit);
+        assertEquals(Arrays.asList("setFetchSize(100)", "setAutoCommit(false)", "executeQuery", "ResultSet.close", "close", "setAutoCommit(true)"), driver.calls);
+    }
+
+    @Test
+    public void testPostgresqlInTransactionKeepsAutoCommit() throws SQLException {
+        Driver driver = new Driver("PostgreSQL", false);
+
+        StreamingResultSet.executeQuery(driver.connection, driver.preparedStatement, 100).close();
+
+        assertEquals(Arrays.asList("setFetchSize(100)", "executeQuery", "ResultSet.close", "close"), driver.calls);
+    }
+
+    @Test
+    public void testOtherDatabasesUseTheFetchSize() throws SQLException {
+        Driver driver = new Driver("HSQL Database Engine", true);
+
+        StreamingResultSet.executeQuery(driver.connection, driver.preparedStatement, 10).close();
+
+        assertEquals(Arrays.asList("setFetchSize(10)", "executeQuery", "ResultSet.close", "close"), driver.calls);
+    }
+
+    @Test
+    public void testFailingQueryRestoresAutoCommitAndClosesStatement() {
+        Driver driver = new Driver("PostgreSQL", true);
+        driver.failQuery = true;
+
+        try {
+            StreamingResultSet.executeQuery(driver.connection, driver.preparedStatement, 100);
+            fail();
+        } catch (SQLException e) {
+            assertEquals("query failed", e.getMessage());
+        }
+
+        assertEquals(Arrays.asList("setFetchSize(100)", "setAutoCommit(false)", "executeQuery", "close", "setAutoCommit(true)"), driver.calls);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidFetchSize() throws SQLException {
+        Driver driver = new Driver("PostgreSQL", true);
+        StreamingResultSet.executeQuery(driver.connection, driver.preparedStatement, 0);
+    }
+
+    private static class Driver {
+        private final List<String> calls = new ArrayList<String>();
+        private final Connection connection;
+        private final PreparedStatement preparedStatement;
+        private final ResultSet resultSet;
+        private boolean autoCommit;
+        private boolean failQuery;
+
+        private Driver(final String product, boolean autoCommit) {
+            this.autoCommit = autoCommit;
+            final DatabaseMetaData metaData = proxy(DatabaseMetaData.class, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    if (method.getName().equals("getDatabaseProductName")) {
+                        return product;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                }
+            });
+            connection = proxy(Connection.class, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    if (method.getName().equals("getMetaData")) {
+                        return metaData;
+                    } else if (method.getName().equals("getAutoCommit")) {
+                        return Driver.this.autoCommit;
+                    } else if (method.getName().equals("setAutoCommit")) {
+                        Driver.this.autoCommit = (Boolean) args[0];
+                        calls.add("setAutoCommit(" + args[0] + ")");
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                }
+            });
+            resultSet = proxy(ResultSet.class, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    if (method.getName().equals("close")) {
+                        calls.add("ResultSet.close");
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                }
+            });
+            preparedStatement = proxy(PreparedStatement.class, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    if (method.getName().equals("setFetchSize")) {
+                        calls.add("setFetchSize(" + args[0] + ")");
+                        return null;
+                    } else if (method.getName().equals("executeQuery")) {
+                        calls.add("executeQuery");
+                        if (failQuery) {
+                            throw new SQLException("query failed");
+                        }
+                        return resultSet;
+                    } else if (method.getName().equals("close")) {
+                        calls.add("close");
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                }
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> clazz, InvocationHandler handler) {
+            return (T) Proxy.newProxyInstance(StreamingResultSetTest.class.getClassLoader(), new Class[] {clazz}, handler);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.simpleflatmapper.jdbc.test.partition;
+
+import org.junit.Test;
+import org.simpleflatmapper.jdbc.partition.KeyRange;
+import org.simpleflatmapper.jdbc.partition.Modulo;
+import org.simpleflatmapper.jdbc.partition.PartitionPlanners;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class PartitionPlannersTest {
+
+    @Test
+    public void testKeyRanges() {
+        assertEquals(Arrays.asList(new KeyRange(0, 4), new KeyRange(4, 8), new KeyRange(8, 10)),
+                PartitionPlanners.keyRanges(0, 10, 3).partitions());
+        assertEquals(Arrays.asList(new KeyRange(-5, 0), new KeyRange(0, 5)),
+                PartitionPlanners.keyRanges(-5, 5, 2).partitions());
+    }
+
+    @Test
+    public void testKeyRangesFewerKeysThanPartitions() {
+        assertEquals(Arrays.asList(new KeyRange(0, 1), new KeyRange(1, 2)),
+                PartitionPlanners.keyRanges(0, 2, 4).partitions());
+        assertEquals(Arrays.asList(new KeyRange(3, 3)),
+                PartitionPlanners.keyRanges(3, 3, 4).partitions());
+    }
+
+    @Test
+    public void testModulo() {
+        List<Modulo> partitions = PartitionPlanners.modulo(3).partitions();
+        assertEquals(Arrays.asList(new Modulo(3, 0), new Modulo(3, 1), new Modulo(3, 2)), partitions);
+    }
+
+    @Test
+    public void testList() {
+        assertEquals(Arrays.asList("a", "b"), PartitionPlanners.list("a", "b").partitions());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidNbPartitions() {
+        PartitionPlanners.modulo(0);
+    }
+}
@@ -0,0 +1,196 @@
+package org.simpleflatmapper.jdbc.test.partition;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.simpleflatmapper.jdbc.ConnectedCrud;
+import org.simpleflatmapper.jdbc.JdbcMapperFactory;
+import org.simpleflatmapper.jdbc.async.ConcurrencyLimitedExecutor;
+import org.simpleflatmapper.jdbc.named.NamedSqlQuery;
+import org.simpleflatmapper.jdbc.partition.KeyRange;
+import org.simpleflatmapper.jdbc.partition.Modulo;
+import org.simpleflatmapper.jdbc.partition.PartitionPlanners;
+import org.simpleflatmapper.jdbc.partition.PartitionedSelectQuery;
+import org.simpleflatmapper.test.jdbc.DbHelper;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PartitionedSelectQueryTest {
+
+    private static final int NB_ROWS = 1000;
+
+    public static class PartitionRow {
+        private long id;
+        private int value;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public int getValue() {
+            return value;
+        }
+
+        public void setValue(int value) {
+            this.value = value;
+        }
+    }
+
+    private static final Comparator<PartitionRow> BY_ID = new Comparator<PartitionRow>() {
+        @Override
+        public int compare(PartitionRow o1, PartitionRow o2) {
+            return Long.compare(o1.getId(), o2.getId());
+        }
+    };
+
+    private static DataSource dataSource;
+
+    @BeforeClass
+    public static void createTable() throws Exception {
+        dataSource = DbHelper.getHsqlDataSource();
+        Connection connection = dataSource.getConnection();
+        try {
+            Statement statement = connection.createStatement();
+            try {
+                statement.execute("CREATE TABLE IF NOT EXISTS TEST_PARTITION(id bigint primary key, value int)");
+                statement.execute("DELETE FROM TEST_PARTITION");
+            } finally {
+                statement.close();
+            }
+            PreparedStatement ps = connection.prepareStatement("INSERT INTO TEST_PARTITION VALUES(?, ?)");
+            try {
+                for (int i = 0; i < NB_ROWS; i++) {
+                    ps.setLong(1, i);
+                    ps.setInt(2, i * 2);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            } finally {
+                ps.close();
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    private PartitionedSelectQuery<PartitionRow, KeyRange> keyRangeQuery() {
+        return JdbcMapperFactory.newInstance().partitionedQuery(dataSource,
+                NamedSqlQuery.parse("SELECT id, value FROM TEST_PARTITION WHERE id >= :from AND id < :to ORDER BY id"),
+                KeyRange.class, PartitionRow.class,
+                new ConcurrencyLimitedExecutor(Executors.newCachedThreadPool(), 3));
+    }
+
+    @Test
+    public void testStreamAllPartitions() {
+        Stream<PartitionRow> stream = keyRangeQuery().stream(PartitionPlanners.keyRanges(0, NB_ROWS, 8), 10);
+        try {
+            List<PartitionRow> rows = stream.sorted(BY_ID).collect(Collectors.toList());
+            assertEquals(NB_ROWS, rows.size());
+            for (int i = 0; i < NB_ROWS; i++) {
+                assertEquals(i, rows.get(i).getId());
+                assertEquals(i * 2, rows.get(i).getValue());
+            }
+        } finally {
+            stream.close();
+        }
+    }
+
+    @Test
+    public void testStreamInPartitionOrder() {
+        Stream<PartitionRow> stream = keyRangeQuery().streamInPartitionOrder(PartitionPlanners.keyRanges(0, NB_ROWS, 8), 10);
+        try {
+            List<PartitionRow> rows = stream.collect(Collectors.toList());
+            assertEquals(NB_ROWS, rows.size());
+            for (int i = 0; i < NB_ROWS; i++) {
+                assertEquals(i, rows.get(i).getId());
+            }
+        } finally {
+            stream.close();
+        }
+    }
+
+    @Test
+    public void testStreamOrderedMergeOfModuloPartitions() {
+        PartitionedSelectQuery<PartitionRow, Modulo> query = JdbcMapperFactory.newInstance().partitionedQuery(dataSource,
+                NamedSqlQuery.parse("SELECT id, value FROM TEST_PARTITION WHERE MOD(id, :modulus) = :remainder ORDER BY id"),
+                Modulo.class, PartitionRow.class,
+                new ConcurrencyLimitedExecutor(Executors.newCachedThreadPool(), 4));
+        Stream<PartitionRow> stream = query.streamOrdered(PartitionPlanners.modulo(4), 10, BY_ID);
+        try {
+            List<PartitionRow> rows = stream.collect(Collectors.toList());
+            assertEquals(NB_ROWS, rows.size());
+            for (int i = 0; i < NB_ROWS; i++) {
+                assertEquals(i, rows.get(i).getId());
+            }
+        } finally {
+            stream.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStreamOrderedFailsWhenPartitionsCannotRunTogether() {
+        keyRangeQuery().streamOrdered(PartitionPlanners.keyRanges(0, NB_ROWS, 8), 10, BY_ID);
+    }
+
+    @Test
+    public void testCloseCancelsThePartitions() {
+        Stream<PartitionRow> stream = keyRangeQuery().streamInPartitionOrder(PartitionPlanners.keyRanges(0, NB_ROWS, 8), 10);
+        try {
+            assertEquals(5, stream.limit(5).count());
+        } finally {
+            stream.close();
+        }
+        // the connections are released
+        testStreamInPartitionOrder();
+    }
+
+    @Test
+    public void testErrorOfAPartitionFailsTheStream() {
+        PartitionedSelectQuery<PartitionRow, KeyRange> query = JdbcMapperFactory.newInstance().partitionedQuery(dataSource,
+                NamedSqlQuery.parse("SELECT id, value FROM TEST_PARTITION_MISSING WHERE id >= :from AND id < :to"),
+                KeyRange.class, PartitionRow.class,
+                new ConcurrencyLimitedExecutor(Executors.newCachedThreadPool(), 3));
+        Stream<PartitionRow> stream = query.stream(PartitionPlanners.keyRanges(0, NB_ROWS, 4), 10);
+        try {
+            stream.count();
+            fail();
+        } catch (Exception e) {
+            assertTrue(e instanceof SQLException);
+        } finally {
+            stream.close();
+        }
+    }
+
+    @Test
+    public void testCrudPartitionedWhere() throws Exception {
+        ConnectedCrud<PartitionRow, Long> crud =
+                JdbcMapperFactory.newInstance().<PartitionRow, Long>crud(PartitionRow.class, Long.class).table(dataSource, "TEST_PARTITION");
+
+        Stream<PartitionRow> stream = crud.<KeyRange>partitionedWhere("id >= :from AND id < :to", KeyRange.class, Executors.newCachedThreadPool())
+                .streamInPartitionOrder(PartitionPlanners.keyRanges(100, 200, 3), 10);
+        try {
+            List<PartitionRow> rows = stream.collect(Collectors.toList());
+            assertEquals(100, rows.size());
+            assertEquals(100, rows.get(0).getId());
+            assertEquals(199, rows.get(99).getId());
+        } finally {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.simpleflatmapper.csv;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.simpleflatmapper.csv.parser.ByteBufferCharConsumer;
+import org.simpleflatmapper.csv.parser.ByteBufferWindow;
+import org.simpleflatmapper.csv.parser.CellConsumer;
+import org.simpleflatmapper.csv.parser.TextFormat;
+import org.simpleflatmapper.csv.parser.UnescapeCellPreProcessor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Compare the char state machine of CharConsumer against the byte tokenizer that scans 8 bytes at a time,
+ * on the same rows as the CsvParserBenchmark repeated to fill a buffer.
+ */
+@State(Scope.Benchmark)
+public class ByteBufferCsvParserBenchmark {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final TextFormat TEXT_FORMAT = new TextFormat(',', '"', '"', false);
+
+    @Param({"plain", "quote", "quote2"})
+    public String content;
+
+    @Param({"1000"})
+    public int nbRows;
+
+    private String csv;
+    private ByteBuffer heapBuffer;
+    private ByteBuffer directBuffer;
+
+    @Setup
+    public void setUp() {
+        CsvParserBenchmark rows = new CsvParserBenchmark();
+        String row;
+        if ("quote".equals(content)) {
+            row = rows.csvQuote;
+        } else if ("quote2".equals(content)) {
+            row = rows.csvQuote2;
+        } else {
+            row = rows.csv;
+        }
+        StringBuilder sb = new StringBuilder();
+        for(int i = 0; i < nbRows; i++) {
+            sb.append(row).append('\n');
+        }
+        csv = sb.toString();
+        byte[] bytes = csv.getBytes(UTF8);
+        heapBuffer = ByteBuffer.wrap(bytes);
+        directBuffer = ByteBuffer.allocateDirect(bytes.length);
+        directBuffer.put(bytes);
+        directBuffer.flip();
+    }
+
+    @Benchmark
+    public void parseChars(Blackhole blackhole) throws IOException {
+        CsvParserBenchmark.dsl.parse(csv, new MyCellConsumer(blackhole));
+    }
+
+    @Benchmark
+    public void parseBytesHeap(Blackhole blackhole) throws IOException {
+        parseBytes(heapBuffer, blackhole);
+    }
+
+    @Benchmark
+    public void parseBytesDirect(Blackhole blackhole) throws IOException {
+        parseBytes(directBuffer, blackhole);
+    }
+
+    private void parseBytes(ByteBuffer buffer, Blackhole blackhole) throws IOException {
+        ByteBufferCharConsumer consumer = new ByteBufferCharConsumer(new FullByteBufferWindow(buffer), TEXT_FORMAT, new UnescapeCellPreProcessor('"', '"'), UTF8);
+        new CsvReader(consumer).parseAll(new MyCellConsumer(blackhole));
+    }
+
+    private static class FullByteBufferWindow extends ByteBufferWindow {
+        public FullByteBufferWindow(ByteBuffer buffer) {
+            super(buffer, buffer.limit());
+        }
+
+        @Override
+        public boolean next() {
+            return false;
+        }
+    }
+
+    private static class MyCellConsumer implements CellConsumer {
+        private final Blackhole blackhole;
+
+        public MyCellConsumer(Blackhole blackhole) {
+            this.blackhole= blackhole;
+        }
+
+        @Override
+        public void newCell(char[] chars, int offset, int length) {
+            blackhole.consume(length);
+        }
+
+        @Override
+        public boolean endOfRow() {
+            return true;
+        }
+
+        @Override
+        public void end() {
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.simpleflatmapper.csv;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.util.Random;
+
+/**
+ * write 1000 rows of 2 ints, a long, 2 doubles and a String to a discarding OutputStream.
+ */
+@State(Scope.Benchmark)
+public class CsvWriterBenchmark {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final int NB_ROWS = 1000;
+
+    @Param(value = { "appendable", "buffered", "utf8" })
+    public String mode;
+
+    private CsvWriter.CsvWriterDSL<Row> dsl;
+    private Row[] rows;
+
+    @Setup
+    public void setUp() {
+        dsl = CsvWriter.from(Row.class).skipHeaders();
+        Random random = new Random(42);
+        rows = new Row[NB_ROWS];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Row(i, random.nextInt(), random.nextLong(), random.nextInt(100000) / 100.0, random.nextDouble(), "name " + i);
+        }
+    }
+
+    @Benchmark
+    public void write(Blackhole blackhole) throws IOException {
+        CountingOutputStream os = new CountingOutputStream();
+        CsvWriter<Row> writer;
+        if ("buffered".equals(mode)) {
+            writer = dsl.toBuffered(os, UTF8);
+        } else if ("utf8".equals(mode)) {
+            writer = dsl.toUtf8(os);
+        } else {
+            writer = dsl.to(new BufferedWriter(new OutputStreamWriter(os, UTF8)));
+        }
+        for (Row row : rows) {
+            writer.append(row);
+        }
+        writer.close();
+        blackhole.consume(os.count);
+    }
+
+    public static class Row {
+        public final int id;
+        public final int quantity;
+        public final long timestamp;
+        public final double price;
+        public final double ratio;
+        public final String name;
+
+        public Row(int id, int quantity, long timestamp, double price, double ratio, String name) {
+            this.id = id;
+            this.quantity = quantity;
+            this.timestamp = timestamp;
+            this.price = price;
+            this.ratio = ratio;
+            this.name = name;
+        }
+    }
+
+    static class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
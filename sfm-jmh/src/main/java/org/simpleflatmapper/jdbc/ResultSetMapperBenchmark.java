@@ -0,0 +1,166 @@
+package org.simpleflatmapper.jdbc;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Map the rows of an in-memory HSQLDB table of primitive columns.
+ * <ul>
+ *     <li>asm: the asm mapper calls ResultSet.getInt/getLong/getDouble by column index straight into the setters</li>
+ *     <li>fieldMapper: asm getters and setters called through the FieldMapper of each property</li>
+ *     <li>reflection: asm disabled</li>
+ *     <li>handWritten: the baseline</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+public class ResultSetMapperBenchmark {
+
+    public static class Quote {
+        private int id;
+        private long time;
+        private int size;
+        private double bid;
+        private double ask;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public long getTime() {
+            return time;
+        }
+
+        public void setTime(long time) {
+            this.time = time;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public double getBid() {
+            return bid;
+        }
+
+        public void setBid(double bid) {
+            this.bid = bid;
+        }
+
+        public double getAsk() {
+            return ask;
+        }
+
+        public void setAsk(double ask) {
+            this.ask = ask;
+        }
+    }
+
+    private static final String QUERY = "SELECT id, time, size, bid, ask FROM quote";
+
+    @Param({"asm", "fieldMapper", "reflection", "handWritten"})
+    public String mapperType;
+
+    @Param({"1000"})
+    public int nbRows;
+
+    private Connection connection;
+    private PreparedStatement preparedStatement;
+    private JdbcMapper<Quote> mapper;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:hsqldb:mem:resultsetmapperbenchmark", "SA", "");
+        Statement statement = connection.createStatement();
+        try {
+            statement.execute("CREATE TABLE quote (id INTEGER PRIMARY KEY, time BIGINT, size INTEGER, bid DOUBLE, ask DOUBLE)");
+        } finally {
+            statement.close();
+        }
+        PreparedStatement insert = connection.prepareStatement("INSERT INTO quote VALUES(?, ?, ?, ?, ?)");
+        try {
+            for (int i = 0; i < nbRows; i++) {
+                insert.setInt(1, i);
+                insert.setLong(2, 1500000000000l + i);
+                insert.setInt(3, i % 100);
+                insert.setDouble(4, 100 + i * 0.01);
+                insert.setDouble(5, 100.5 + i * 0.01);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        } finally {
+            insert.close();
+        }
+
+        JdbcMapperFactory factory = JdbcMapperFactory.newInstance();
+        if ("fieldMapper".equals(mapperType)) {
+            factory.asmMapperNbFieldsLimit(0);
+        } else if ("reflection".equals(mapperType)) {
+            factory.useAsm(false);
+        }
+        mapper = factory.newBuilder(Quote.class)
+                .addMapping("id")
+                .addMapping("time")
+                .addMapping("size")
+                .addMapping("bid")
+                .addMapping("ask")
+                .mapper();
+
+        preparedStatement = connection.prepareStatement(QUERY);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        preparedStatement.close();
+        Statement statement = connection.createStatement();
+        try {
+            statement.execute("DROP TABLE quote");
+        } finally {
+            statement.close();
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void mapRows(Blackhole blackhole) throws Exception {
+        ResultSet rs = preparedStatement.executeQuery();
+        try {
+            if ("handWritten".equals(mapperType)) {
+                while (rs.next()) {
+                    Quote quote = new Quote();
+                    quote.setId(rs.getInt(1));
+                    quote.setTime(rs.getLong(2));
+                    quote.setSize(rs.getInt(3));
+                    quote.setBid(rs.getDouble(4));
+                    quote.setAsk(rs.getDouble(5));
+                    blackhole.consume(quote);
+                }
+            } else {
+                while (rs.next()) {
+                    blackhole.consume(mapper.map(rs));
+                }
+            }
+        } finally {
+            rs.close();
+        }
+    }
+}
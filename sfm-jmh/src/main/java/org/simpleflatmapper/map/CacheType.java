@@ -1,6 +1,8 @@
 package org.simpleflatmapper.map;
 
 import org.simpleflatmapper.jdbc.JdbcColumnKey;
+import org.simpleflatmapper.map.mapper.HashMapperCache;
+import org.simpleflatmapper.map.mapper.MapperCacheFactory;
 import org.simpleflatmapper.map.mapper.MapperKeyComparator;
 import org.simpleflatmapper.jdbc.impl.JdbcColumnKeyMapperKeyComparator;
 
@@ -43,6 +45,30 @@ public enum CacheType {
             return new CHMMapperCache<>();
         }
     },
+    SORTED {
+        @Override
+        IMapperCache<JdbcColumnKey, Object> newCache() {
+            return new MapperCacheAdapter<>(MapperCacheFactory.SORTED.<JdbcColumnKey, Object>newCache(COMPARATOR));
+        }
+    },
+    HASH {
+        @Override
+        IMapperCache<JdbcColumnKey, Object> newCache() {
+            return new MapperCacheAdapter<>(MapperCacheFactory.hash().<JdbcColumnKey, Object>newCache(COMPARATOR));
+        }
+    },
+    HASH_LRU {
+        @Override
+        IMapperCache<JdbcColumnKey, Object> newCache() {
+            return new MapperCacheAdapter<>(MapperCacheFactory.hash(BOUNDED_SIZE, HashMapperCache.Eviction.LRU).<JdbcColumnKey, Object>newCache(COMPARATOR));
+        }
+    },
+    HASH_LFU {
+        @Override
+        IMapperCache<JdbcColumnKey, Object> newCache() {
+            return new MapperCacheAdapter<>(MapperCacheFactory.hash(BOUNDED_SIZE, HashMapperCache.Eviction.LFU).<JdbcColumnKey, Object>newCache(COMPARATOR));
+        }
+    },
 
     ;
 
@@ -52,4 +78,7 @@ public enum CacheType {
 
     private static final MapperKeyComparator<JdbcColumnKey> COMPARATOR = JdbcColumnKeyMapperKeyComparator.INSTANCE;
 
+    // bigger than the largest size of ParamCache so the get benchmark does not evict
+    private static final int BOUNDED_SIZE = 10000;
+
 }
@@ -0,0 +1,35 @@
+package org.simpleflatmapper.map;
+
+import org.simpleflatmapper.map.mapper.MapperKey;
+
+/**
+ * Expose a cache of sfm-map as an IMapperCache to benchmark it against the alternatives of this package.
+ */
+public final class MapperCacheAdapter<K extends FieldKey<K>, M> implements IMapperCache<K, M> {
+
+    private final org.simpleflatmapper.map.mapper.IMapperCache<K, M> cache;
+
+    public MapperCacheAdapter(org.simpleflatmapper.map.mapper.IMapperCache<K, M> cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void add(MapperKey<K> key, M mapper) {
+        cache.add(key, mapper);
+    }
+
+    @Override
+    public M get(MapperKey<K> key) {
+        return cache.get(key);
+    }
+
+    @Override
+    public int size() {
+        return cache.size();
+    }
+
+    @Override
+    public String toString() {
+        return cache.toString();
+    }
+}
@@ -0,0 +1,65 @@
+package org.simpleflatmapper.map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.simpleflatmapper.jdbc.JdbcColumnKey;
+import org.simpleflatmapper.map.mapper.MapperKey;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fill an empty cache with size distinct keys, the cost of a startup storm of new column sets.
+ * The concurrent variant shares the cache between 4 threads to measure the CAS retries of the copy on write caches.
+ */
+@State(Scope.Benchmark)
+public class MapperCachePutBenchmark {
+
+    @Param(value = {"SARRAY", "S2ARRAY", "CHM", "SORTED", "HASH", "HASH_LRU"})
+    public CacheType cacheType;
+
+    @Param("10")
+    public int maxColumns;
+
+    @Param({"100", "1000", "5000"})
+    public int size;
+
+    private List<MapperKey<JdbcColumnKey>> keys;
+
+    private final AtomicReference<IMapperCache<JdbcColumnKey, Object>> sharedCache = new AtomicReference<>();
+
+    @Setup
+    public void setUp() {
+        keys = Utils.generateKeys(size, maxColumns);
+    }
+
+    @Benchmark
+    public Object testFill() {
+        IMapperCache<JdbcColumnKey, Object> mapperCache = cacheType.newCache();
+        for (MapperKey<JdbcColumnKey> key : keys) {
+            mapperCache.add(key, key);
+        }
+        return mapperCache;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object testConcurrentFill() {
+        IMapperCache<JdbcColumnKey, Object> mapperCache = sharedCache.get();
+        if (mapperCache == null || mapperCache.size() >= size) {
+            IMapperCache<JdbcColumnKey, Object> newCache = cacheType.newCache();
+            sharedCache.compareAndSet(mapperCache, newCache);
+            mapperCache = sharedCache.get();
+        }
+        for (MapperKey<JdbcColumnKey> key : keys) {
+            if (mapperCache.get(key) == null) {
+                mapperCache.add(key, key);
+            }
+        }
+        return mapperCache;
+    }
+}
@@ -14,7 +14,7 @@ import java.util.List;
 @State(Scope.Benchmark)
 public class ParamCache {
 
-    @Param(value = {"ARRAY", "SARRAY", "T2ARRAY",  "S2ARRAY", "TS2ARRAY", "CHM"})
+    @Param(value = {"ARRAY", "SARRAY", "T2ARRAY",  "S2ARRAY", "TS2ARRAY", "CHM", "SORTED", "HASH", "HASH_LRU", "HASH_LFU"})
     public CacheType cacheType;
 
     IMapperCache<JdbcColumnKey, Object> mapperCache;
@@ -23,7 +23,7 @@ public class ParamCache {
 
     @Param("10")
     public int maxColumns;
-    @Param({"1", "10", "50","100", "500", "2000"})
+    @Param({"1", "10", "50","100", "500", "2000", "5000"})
     public int size;
 
     @Setup
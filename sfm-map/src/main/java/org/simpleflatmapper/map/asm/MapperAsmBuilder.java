@@ -5,15 +5,35 @@ import org.simpleflatmapper.ow2asm.FieldVisitor;
 import org.simpleflatmapper.ow2asm.MethodVisitor;
 import org.simpleflatmapper.map.FieldMapper;
 import org.simpleflatmapper.map.MappingContext;
+import org.simpleflatmapper.map.fieldmapper.PrimitiveFieldMapper;
 import org.simpleflatmapper.map.mapper.AbstractMapper;
 import org.simpleflatmapper.reflect.BiInstantiator;
 import org.simpleflatmapper.reflect.Instantiator;
 import org.simpleflatmapper.reflect.asm.AsmUtils;
+import org.simpleflatmapper.reflect.getter.IndexedSourceGetter;
+import org.simpleflatmapper.reflect.primitive.BooleanGetter;
+import org.simpleflatmapper.reflect.primitive.BooleanSetter;
+import org.simpleflatmapper.reflect.primitive.ByteGetter;
+import org.simpleflatmapper.reflect.primitive.ByteSetter;
+import org.simpleflatmapper.reflect.primitive.CharacterGetter;
+import org.simpleflatmapper.reflect.primitive.CharacterSetter;
+import org.simpleflatmapper.reflect.primitive.DoubleGetter;
+import org.simpleflatmapper.reflect.primitive.DoubleSetter;
+import org.simpleflatmapper.reflect.primitive.FloatGetter;
+import org.simpleflatmapper.reflect.primitive.FloatSetter;
+import org.simpleflatmapper.reflect.primitive.IntGetter;
+import org.simpleflatmapper.reflect.primitive.IntSetter;
+import org.simpleflatmapper.reflect.primitive.LongGetter;
+import org.simpleflatmapper.reflect.primitive.LongSetter;
+import org.simpleflatmapper.reflect.primitive.ShortGetter;
+import org.simpleflatmapper.reflect.primitive.ShortSetter;
 import org.simpleflatmapper.util.TypeHelper;
 
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.simpleflatmapper.ow2asm.Opcodes.AALOAD;
 import static org.simpleflatmapper.ow2asm.Opcodes.ACC_BRIDGE;
@@ -29,6 +49,7 @@ import static org.simpleflatmapper.ow2asm.Opcodes.ASTORE;
 import static org.simpleflatmapper.ow2asm.Opcodes.CHECKCAST;
 import static org.simpleflatmapper.ow2asm.Opcodes.DUP;
 import static org.simpleflatmapper.ow2asm.Opcodes.GETFIELD;
+import static org.simpleflatmapper.ow2asm.Opcodes.INVOKEINTERFACE;
 import static org.simpleflatmapper.ow2asm.Opcodes.INVOKESPECIAL;
 import static org.simpleflatmapper.ow2asm.Opcodes.INVOKEVIRTUAL;
 import static org.simpleflatmapper.ow2asm.Opcodes.NEW;
@@ -46,6 +67,31 @@ public class MapperAsmBuilder {
 
     private static final String mappingContextType = AsmUtils.toAsmType(MappingContext.class);
 
+	private static final String PRIMITIVE_FIELD_MAPPER_TYPE = AsmUtils.toAsmType(PrimitiveFieldMapper.class);
+	private static final String INDEXED_SOURCE_GETTER_TYPE = AsmUtils.toAsmType(IndexedSourceGetter.class);
+
+	private static final Map<Class<?>, Class<?>[]> primitiveAccessors = new HashMap<Class<?>, Class<?>[]>();
+	private static final Map<Class<?>, String> primitiveAccessorNames = new HashMap<Class<?>, String>();
+	static {
+		primitiveAccessors.put(boolean.class, new Class<?>[] { BooleanGetter.class, BooleanSetter.class });
+		primitiveAccessors.put(byte.class, new Class<?>[] { ByteGetter.class, ByteSetter.class });
+		primitiveAccessors.put(char.class, new Class<?>[] { CharacterGetter.class, CharacterSetter.class });
+		primitiveAccessors.put(short.class, new Class<?>[] { ShortGetter.class, ShortSetter.class });
+		primitiveAccessors.put(int.class, new Class<?>[] { IntGetter.class, IntSetter.class });
+		primitiveAccessors.put(long.class, new Class<?>[] { LongGetter.class, LongSetter.class });
+		primitiveAccessors.put(float.class, new Class<?>[] { FloatGetter.class, FloatSetter.class });
+		primitiveAccessors.put(double.class, new Class<?>[] { DoubleGetter.class, DoubleSetter.class });
+
+		primitiveAccessorNames.put(boolean.class, "Boolean");
+		primitiveAccessorNames.put(byte.class, "Byte");
+		primitiveAccessorNames.put(char.class, "Character");
+		primitiveAccessorNames.put(short.class, "Short");
+		primitiveAccessorNames.put(int.class, "Int");
+		primitiveAccessorNames.put(long.class, "Long");
+		primitiveAccessorNames.put(float.class, "Float");
+		primitiveAccessorNames.put(double.class, "Double");
+	}
+
     public static <S,T> byte[] dump (
             final String className,
             final FieldMapper<S, T>[] mappers,
@@ -58,14 +104,17 @@ public class MapperAsmBuilder {
 
         final String targetType = AsmUtils.toAsmType(target);
         final String classType = AsmUtils.toAsmType(className);
+
+        final PrimitiveAccessors[] mappersAccessors = primitiveAccessors(mappers, sourceClass, target);
+        final PrimitiveAccessors[] constructorMappersAccessors = primitiveAccessors(constructorMappers, sourceClass, target);
 		cw.visit(V1_6, ACC_PUBLIC + ACC_FINAL + ACC_SUPER, classType, "L" + ABSTRACT_MAPPER_TYPE + "<" + toTargetTypeDeclaration(targetType) + ">;", ABSTRACT_MAPPER_TYPE, null);
 
 		for(int i = 0; i < mappers.length; i++) {
-			declareMapperFields(cw, mappers[i], i);
+			declareMapperFields(cw, mappers[i], mappersAccessors[i], i);
 		}
 
         for(int i = 0; i < constructorMappers.length; i++) {
-            declareConstructorMapperFields(cw, constructorMappers[i], i);
+            declareConstructorMapperFields(cw, constructorMappers[i], constructorMappersAccessors[i], i);
         }
 
 		{
@@ -86,12 +135,12 @@ public class MapperAsmBuilder {
 			
 			
 			for(int i = 0; i < mappers.length; i++) {
-				addFieldMapperInit(mv,  mappers[i], i, classType);
+				addFieldMapperInit(mv,  mappers[i], mappersAccessors[i], i, classType);
 			}
 
 
             for(int i = 0; i < constructorMappers.length; i++) {
-                addGConstructorFieldMapperInit(mv, constructorMappers[i], i, classType);
+                addGConstructorFieldMapperInit(mv, constructorMappers[i], constructorMappersAccessors[i], i, classType);
             }
 			
 			mv.visitInsn(RETURN);
@@ -104,7 +153,7 @@ public class MapperAsmBuilder {
 			mv.visitCode();
 
 			for(int i = 0; i < mappers.length; i++) {
-				generateMappingCall(mv, mappers[i], i, classType, AsmUtils.toAsmType(sourceClass), targetType);
+				generateMappingCall(mv, mappers[i], mappersAccessors[i], i, classType, AsmUtils.toAsmType(sourceClass), targetType);
 			}
 			
 			mv.visitInsn(RETURN);
@@ -130,7 +179,7 @@ public class MapperAsmBuilder {
             mv.visitCode();
 
             for(int i = 0; i < constructorMappers.length; i++) {
-                generateConstructorMappingCall(mv, constructorMappers[i], i, classType, AsmUtils.toAsmType(sourceClass), targetType);
+                generateConstructorMappingCall(mv, constructorMappers[i], constructorMappersAccessors[i], i, classType, AsmUtils.toAsmType(sourceClass), targetType);
             }
 
             mv.visitVarInsn(ALOAD, 0);
@@ -220,16 +269,20 @@ public class MapperAsmBuilder {
 	}
 
     private static <S, T> void generateMappingCall(MethodVisitor mv,
-			FieldMapper<S, T> mapper, int index, String classType, String sourceType, String targetType) {
-        generateMappingCall(mv, mapper, index, classType, sourceType, targetType, "fieldMapper");
+			FieldMapper<S, T> mapper, PrimitiveAccessors accessors, int index, String classType, String sourceType, String targetType) {
+        generateMappingCall(mv, mapper, accessors, index, classType, sourceType, targetType, "fieldMapper");
 	}
     private static <S, T> void generateConstructorMappingCall(MethodVisitor mv,
-                                                              FieldMapper<S, T> mapper, int index, String classType, String sourceType, String targetType) {
-        generateMappingCall(mv, mapper, index, classType, sourceType, targetType, "constructorMapper");
+                                                              FieldMapper<S, T> mapper, PrimitiveAccessors accessors, int index, String classType, String sourceType, String targetType) {
+        generateMappingCall(mv, mapper, accessors, index, classType, sourceType, targetType, "constructorMapper");
     }
 
-    private static <S, T> void generateMappingCall(MethodVisitor mv, FieldMapper<S, T> mapper, int index, String classType, String sourceType, String targetType, String variablePrefix) {
+    private static <S, T> void generateMappingCall(MethodVisitor mv, FieldMapper<S, T> mapper, PrimitiveAccessors accessors, int index, String classType, String sourceType, String targetType, String variablePrefix) {
         if (mapper ==null) return;
+        if (accessors != null) {
+            generatePrimitiveMappingCall(mv, accessors, index, classType, variablePrefix);
+            return;
+        }
         Type mapperClass = AsmUtils.findClosestPublicTypeExposing(mapper.getClass(), FieldMapper.class);
         mv.visitVarInsn(ALOAD, 0);
         mv.visitFieldInsn(GETFIELD, classType, variablePrefix + index, "L" + AsmUtils.toAsmType(mapperClass) + ";");
@@ -241,6 +294,27 @@ public class MapperAsmBuilder {
         AsmUtils.invoke(mv, mapperClass, m);
     }
 
+    // setter.setInt(target, source.getInt(index)) or setter.setInt(target, getter.getInt(source))
+    private static void generatePrimitiveMappingCall(MethodVisitor mv, PrimitiveAccessors accessors, int index, String classType, String variablePrefix) {
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, classType, variablePrefix + "Setter" + index, toTargetTypeDeclaration(AsmUtils.toAsmType(accessors.setterType)));
+        mv.visitVarInsn(ALOAD, 2);
+
+        if (accessors.sourceMethod != null) {
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, classType, variablePrefix + "Index" + index, "I");
+            AsmUtils.invoke(mv, accessors.sourceMethod.getDeclaringClass(), accessors.sourceMethod);
+        } else {
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, classType, variablePrefix + "Getter" + index, toTargetTypeDeclaration(AsmUtils.toAsmType(accessors.getterType)));
+            mv.visitVarInsn(ALOAD, 1);
+            AsmUtils.invoke(mv, accessors.getterType, accessors.getterMethod);
+        }
+
+        AsmUtils.invoke(mv, accessors.setterType, accessors.setterMethod);
+    }
+
     private static Method getMapToMethod(Class<?> aClass) {
         Method m = null;
         for(Method p : aClass.getDeclaredMethods()) {
@@ -258,59 +332,178 @@ public class MapperAsmBuilder {
 
 
     private static <S, T> void addFieldMapperInit(MethodVisitor mv,
-                                                  FieldMapper<S, T> mapper, int index, String classType) {
-		if (mapper == null) return;
-		Type mapperClass = AsmUtils.findClosestPublicTypeExposing(mapper.getClass(), FieldMapper.class);
-		
-		mv.visitVarInsn(ALOAD, 0);
-		mv.visitVarInsn(ALOAD, 1);
-		AsmUtils.addIndex(mv, index);
-		mv.visitInsn(AALOAD);
-		mv.visitTypeInsn(CHECKCAST, AsmUtils.toAsmType(mapperClass));
-		mv.visitFieldInsn(PUTFIELD, classType, "fieldMapper" + index, toTargetTypeDeclaration(AsmUtils.toAsmType(mapperClass)));
-
+                                                  FieldMapper<S, T> mapper, PrimitiveAccessors accessors, int index, String classType) {
+        addFieldMapperInit(mv, mapper, accessors, index, classType, 1, "fieldMapper");
 	}
 
     private static <S, T> void addGConstructorFieldMapperInit(MethodVisitor mv,
-                                                              FieldMapper<S, T> mapper, int index, String classType) {
+                                                              FieldMapper<S, T> mapper, PrimitiveAccessors accessors, int index, String classType) {
+        addFieldMapperInit(mv, mapper, accessors, index, classType, 2, "constructorMapper");
+    }
+
+    private static <S, T> void addFieldMapperInit(MethodVisitor mv,
+                                                  FieldMapper<S, T> mapper, PrimitiveAccessors accessors, int index, String classType, int arrayVar, String variablePrefix) {
         if (mapper == null) return;
+
+        if (accessors != null) {
+            if (accessors.sourceMethod != null) {
+                loadPrimitiveFieldMapper(mv, index, arrayVar);
+                mv.visitMethodInsn(INVOKEINTERFACE, PRIMITIVE_FIELD_MAPPER_TYPE, "getGetter", "()Ljava/lang/Object;", true);
+                mv.visitTypeInsn(CHECKCAST, INDEXED_SOURCE_GETTER_TYPE);
+                mv.visitMethodInsn(INVOKEINTERFACE, INDEXED_SOURCE_GETTER_TYPE, "getSourceIndex", "()I", true);
+                mv.visitFieldInsn(PUTFIELD, classType, variablePrefix + "Index" + index, "I");
+            } else {
+                loadPrimitiveFieldMapper(mv, index, arrayVar);
+                mv.visitMethodInsn(INVOKEINTERFACE, PRIMITIVE_FIELD_MAPPER_TYPE, "getGetter", "()Ljava/lang/Object;", true);
+                mv.visitTypeInsn(CHECKCAST, AsmUtils.toAsmType(accessors.getterType));
+                mv.visitFieldInsn(PUTFIELD, classType, variablePrefix + "Getter" + index, toTargetTypeDeclaration(AsmUtils.toAsmType(accessors.getterType)));
+            }
+            loadPrimitiveFieldMapper(mv, index, arrayVar);
+            mv.visitMethodInsn(INVOKEINTERFACE, PRIMITIVE_FIELD_MAPPER_TYPE, "getSetter", "()Ljava/lang/Object;", true);
+            mv.visitTypeInsn(CHECKCAST, AsmUtils.toAsmType(accessors.setterType));
+            mv.visitFieldInsn(PUTFIELD, classType, variablePrefix + "Setter" + index, toTargetTypeDeclaration(AsmUtils.toAsmType(accessors.setterType)));
+            return;
+        }
+
         Type mapperClass = AsmUtils.findClosestPublicTypeExposing(mapper.getClass(), FieldMapper.class);
 
         mv.visitVarInsn(ALOAD, 0);
-        mv.visitVarInsn(ALOAD, 2);
+        mv.visitVarInsn(ALOAD, arrayVar);
         AsmUtils.addIndex(mv, index);
         mv.visitInsn(AALOAD);
         mv.visitTypeInsn(CHECKCAST, AsmUtils.toAsmType(mapperClass));
-        mv.visitFieldInsn(PUTFIELD, classType, "constructorMapper" + index, toTargetTypeDeclaration(AsmUtils.toAsmType(mapperClass)));
+        mv.visitFieldInsn(PUTFIELD, classType, variablePrefix + index, toTargetTypeDeclaration(AsmUtils.toAsmType(mapperClass)));
+    }
 
+    private static void loadPrimitiveFieldMapper(MethodVisitor mv, int index, int arrayVar) {
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, arrayVar);
+        AsmUtils.addIndex(mv, index);
+        mv.visitInsn(AALOAD);
+        mv.visitTypeInsn(CHECKCAST, PRIMITIVE_FIELD_MAPPER_TYPE);
     }
 
 	private static <S, T> void declareMapperFields(ClassWriter cw,
-			FieldMapper<S, T> mapper, int index) {
-		if (mapper == null) 
-			return;
-		
-		FieldVisitor fv;
-
-        Type mapperClass = AsmUtils.findClosestPublicTypeExposing(mapper.getClass(), FieldMapper.class);
-        fv = cw.visitField(ACC_PRIVATE + ACC_FINAL, "fieldMapper" + index, toTargetTypeDeclaration(AsmUtils.toAsmType(mapperClass)), toTargetTypeDeclaration(AsmUtils.toGenericAsmType(mapperClass)), null);
-		fv.visitEnd();
-
+			FieldMapper<S, T> mapper, PrimitiveAccessors accessors, int index) {
+		declareMapperFields(cw, mapper, accessors, index, "fieldMapper");
 	}
 
     private static <S, T> void declareConstructorMapperFields(ClassWriter cw,
-                                                   FieldMapper<S, T> mapper, int index) {
+                                                   FieldMapper<S, T> mapper, PrimitiveAccessors accessors, int index) {
+        declareMapperFields(cw, mapper, accessors, index, "constructorMapper");
+    }
+
+    private static <S, T> void declareMapperFields(ClassWriter cw,
+                                                   FieldMapper<S, T> mapper, PrimitiveAccessors accessors, int index, String variablePrefix) {
         if (mapper == null)
             return;
 
         FieldVisitor fv;
+
+        if (accessors != null) {
+            if (accessors.sourceMethod != null) {
+                fv = cw.visitField(ACC_PRIVATE + ACC_FINAL, variablePrefix + "Index" + index, "I", null, null);
+            } else {
+                fv = cw.visitField(ACC_PRIVATE + ACC_FINAL, variablePrefix + "Getter" + index, toTargetTypeDeclaration(AsmUtils.toAsmType(accessors.getterType)), null, null);
+            }
+            fv.visitEnd();
+            fv = cw.visitField(ACC_PRIVATE + ACC_FINAL, variablePrefix + "Setter" + index, toTargetTypeDeclaration(AsmUtils.toAsmType(accessors.setterType)), null, null);
+            fv.visitEnd();
+            return;
+        }
+
         Type mapperClass = AsmUtils.findClosestPublicTypeExposing(mapper.getClass(), FieldMapper.class);
 
-        fv = cw.visitField(ACC_PRIVATE + ACC_FINAL, "constructorMapper" + index, toTargetTypeDeclaration(AsmUtils.toAsmType(mapperClass)), toTargetTypeDeclaration(AsmUtils.toGenericAsmType(mapperClass)), null);
+        fv = cw.visitField(ACC_PRIVATE + ACC_FINAL, variablePrefix + index, toTargetTypeDeclaration(AsmUtils.toAsmType(mapperClass)), toTargetTypeDeclaration(AsmUtils.toGenericAsmType(mapperClass)), null);
         fv.visitEnd();
+    }
+
+    private static PrimitiveAccessors[] primitiveAccessors(FieldMapper<?, ?>[] mappers, Class<?> sourceClass, Class<?> targetClass) {
+        PrimitiveAccessors[] accessors = new PrimitiveAccessors[mappers.length];
+        for(int i = 0; i < mappers.length; i++) {
+            if (mappers[i] instanceof PrimitiveFieldMapper) {
+                accessors[i] = primitiveAccessors((PrimitiveFieldMapper<?, ?>) mappers[i], sourceClass, targetClass);
+            }
+        }
+        return accessors;
+    }
+
+    // null if the getter or the setter is not accessible from the generated mapper
+    private static PrimitiveAccessors primitiveAccessors(PrimitiveFieldMapper<?, ?> mapper, Class<?> sourceClass, Class<?> targetClass) {
+        Class<?> primitiveType = mapper.getPrimitiveType();
+        Class<?>[] accessorInterfaces = primitiveAccessors.get(primitiveType);
+        String name = primitiveAccessorNames.get(primitiveType);
+        Object getter = mapper.getGetter();
+        Object setter = mapper.getSetter();
+        if (accessorInterfaces == null || getter == null || setter == null) {
+            return null;
+        }
+
+        Type getterType = AsmUtils.findClosestPublicTypeExposing(getter.getClass(), accessorInterfaces[0]);
+        Type setterType = AsmUtils.findClosestPublicTypeExposing(setter.getClass(), accessorInterfaces[1]);
+        if (getterType == null || setterType == null) {
+            return null;
+        }
 
+        Method getterMethod = getAccessorMethod(TypeHelper.toClass(getterType), "get" + name, primitiveType, sourceClass);
+        Method setterMethod = getAccessorMethod(TypeHelper.toClass(setterType), "set" + name, void.class, targetClass, primitiveType);
+        if (getterMethod == null || setterMethod == null) {
+            return null;
+        }
+
+        Method sourceMethod = null;
+        if (getter instanceof IndexedSourceGetter) {
+            sourceMethod = getSourceMethod(sourceClass, "get" + name, primitiveType);
+        }
+
+        return new PrimitiveAccessors(getterType, getterMethod, setterType, setterMethod, sourceMethod);
     }
 
+    private static Method getAccessorMethod(Class<?> aClass, String name, Class<?> returnType, Class<?> parameterType, Class<?>... valueTypes) {
+        Method m = null;
+        for(Method p : aClass.getMethods()) {
+            Class<?>[] parameterTypes = p.getParameterTypes();
+            if (!Modifier.isStatic(p.getModifiers())
+                    && p.getName().equals(name)
+                    && p.getReturnType().equals(returnType)
+                    && parameterTypes.length == 1 + valueTypes.length
+                    && parameterTypes[0].isAssignableFrom(parameterType)
+                    && (valueTypes.length == 0 || parameterTypes[1].equals(valueTypes[0]))) {
+                // prefer the non bridge method
+                if (m == null || m.isBridge()) {
+                    m = p;
+                }
+            }
+        }
+        return m;
+    }
 
+    private static Method getSourceMethod(Class<?> sourceClass, String name, Class<?> primitiveType) {
+        try {
+            Method method = sourceClass.getMethod(name, int.class);
+            if (method.getReturnType().equals(primitiveType)
+                    && Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                return method;
+            }
+        } catch (NoSuchMethodException e) {
+            // no direct access
+        }
+        return null;
+    }
 
+    private static final class PrimitiveAccessors {
+        private final Type getterType;
+        private final Method getterMethod;
+        private final Type setterType;
+        private final Method setterMethod;
+        private final Method sourceMethod;
+
+        private PrimitiveAccessors(Type getterType, Method getterMethod, Type setterType, Method setterMethod, Method sourceMethod) {
+            this.getterType = getterType;
+            this.getterMethod = getterMethod;
+            this.setterType = setterType;
+            this.setterMethod = setterMethod;
+            this.sourceMethod = sourceMethod;
+        }
+    }
 }
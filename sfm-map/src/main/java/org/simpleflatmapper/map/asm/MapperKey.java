@@ -3,6 +3,7 @@ package org.simpleflatmapper.map.asm;
 import org.simpleflatmapper.map.FieldKey;
 import org.simpleflatmapper.map.FieldMapper;
 import org.simpleflatmapper.map.MappingContext;
+import org.simpleflatmapper.map.fieldmapper.PrimitiveFieldMapper;
 import org.simpleflatmapper.reflect.BiInstantiator;
 import org.simpleflatmapper.reflect.Instantiator;
 
@@ -13,6 +14,9 @@ public class MapperKey<K extends  FieldKey<K>> {
     private final K[] keys;
     private final Class<?>[] fieldMappers;
     private final Class<?>[] constructorFieldMappers;
+    // the asm mapper calls the getter and setter of the primitive field mappers directly
+    private final Class<?>[] fieldMapperAccessors;
+    private final Class<?>[] constructorFieldMapperAccessors;
     private final Class<?> instantiator;
     private final Class<?> target;
     private final Class<?> source;
@@ -27,6 +31,8 @@ public class MapperKey<K extends  FieldKey<K>> {
         this.source = source;
         this.fieldMappers = getClassArray(fieldMappers);
         this.constructorFieldMappers = getClassArray(constructorFieldMappers);
+        this.fieldMapperAccessors = getAccessorClassArray(fieldMappers);
+        this.constructorFieldMapperAccessors = getAccessorClassArray(constructorFieldMappers);
         this.instantiator = getClass(instantiator);
         this.target = target;
     }
@@ -45,6 +51,23 @@ public class MapperKey<K extends  FieldKey<K>> {
         return classes;
     }
 
+    private Class<?>[] getAccessorClassArray(FieldMapper<?, ?>[] fieldMappers) {
+        Class<?>[] classes = new Class[fieldMappers != null ? 2 * fieldMappers.length : 0];
+
+        if(fieldMappers != null) {
+            int i = 0;
+            for(FieldMapper<?, ?> fieldMapper : fieldMappers) {
+                if (fieldMapper instanceof PrimitiveFieldMapper) {
+                    classes[i] = getClass(((PrimitiveFieldMapper<?, ?>) fieldMapper).getGetter());
+                    classes[i + 1] = getClass(((PrimitiveFieldMapper<?, ?>) fieldMapper).getSetter());
+                }
+                i += 2;
+            }
+        }
+
+        return classes;
+    }
+
     private Class<?> getClass(Object o) {
         if (o != null) return o.getClass();
         return null;
@@ -64,6 +87,8 @@ public class MapperKey<K extends  FieldKey<K>> {
         if (!Arrays.equals(fieldMappers, mapperKey.fieldMappers)) return false;
         // Probably incorrect - comparing Object[] arrays with Arrays.equals
         if (!Arrays.equals(constructorFieldMappers, mapperKey.constructorFieldMappers)) return false;
+        if (!Arrays.equals(fieldMapperAccessors, mapperKey.fieldMapperAccessors)) return false;
+        if (!Arrays.equals(constructorFieldMapperAccessors, mapperKey.constructorFieldMapperAccessors)) return false;
         if (!instantiator.equals(mapperKey.instantiator)) return false;
         if (!target.equals(mapperKey.target)) return false;
         return source.equals(mapperKey.source);
@@ -75,6 +100,8 @@ public class MapperKey<K extends  FieldKey<K>> {
         int result = Arrays.hashCode(keys);
         result = 31 * result + Arrays.hashCode(fieldMappers);
         result = 31 * result + Arrays.hashCode(constructorFieldMappers);
+        result = 31 * result + Arrays.hashCode(fieldMapperAccessors);
+        result = 31 * result + Arrays.hashCode(constructorFieldMapperAccessors);
         result = 31 * result + instantiator.hashCode();
         result = 31 * result + target.hashCode();
         result = 31 * result + source.hashCode();
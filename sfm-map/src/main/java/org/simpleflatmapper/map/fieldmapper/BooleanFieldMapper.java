@@ -1,11 +1,10 @@
 package org.simpleflatmapper.map.fieldmapper;
 
-import org.simpleflatmapper.map.FieldMapper;
 import org.simpleflatmapper.map.MappingContext;
 import org.simpleflatmapper.reflect.primitive.BooleanGetter;
 import org.simpleflatmapper.reflect.primitive.BooleanSetter;
 
-public final class BooleanFieldMapper<S, T> implements FieldMapper<S, T> {
+public final class BooleanFieldMapper<S, T> implements PrimitiveFieldMapper<S, T> {
 
 	private final BooleanGetter<? super S> getter;
 	private final BooleanSetter<? super T> setter;
@@ -21,6 +20,21 @@ public final class BooleanFieldMapper<S, T> implements FieldMapper<S, T> {
 		setter.setBoolean(target, getter.getBoolean(source));
 	}
 
+	@Override
+	public BooleanGetter<? super S> getGetter() {
+		return getter;
+	}
+
+	@Override
+	public BooleanSetter<? super T> getSetter() {
+		return setter;
+	}
+
+	@Override
+	public Class<?> getPrimitiveType() {
+		return boolean.class;
+	}
+
     @Override
     public String toString() {
         return "BooleanFieldMapper{" +
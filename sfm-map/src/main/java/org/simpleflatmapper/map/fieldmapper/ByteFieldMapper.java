@@ -1,11 +1,10 @@
 package org.simpleflatmapper.map.fieldmapper;
 
-import org.simpleflatmapper.map.FieldMapper;
 import org.simpleflatmapper.map.MappingContext;
 import org.simpleflatmapper.reflect.primitive.ByteGetter;
 import org.simpleflatmapper.reflect.primitive.ByteSetter;
 
-public final class ByteFieldMapper<S, T> implements FieldMapper<S, T> {
+public final class ByteFieldMapper<S, T> implements PrimitiveFieldMapper<S, T> {
 
 	private final ByteGetter<? super S> getter;
 	private final ByteSetter<? super T> setter;
@@ -21,6 +20,21 @@ public final class ByteFieldMapper<S, T> implements FieldMapper<S, T> {
         setter.setByte(target, getter.getByte(source));
 	}
 
+	@Override
+	public ByteGetter<? super S> getGetter() {
+		return getter;
+	}
+
+	@Override
+	public ByteSetter<? super T> getSetter() {
+		return setter;
+	}
+
+	@Override
+	public Class<?> getPrimitiveType() {
+		return byte.class;
+	}
+
     @Override
     public String toString() {
         return "ByteFieldMapper{" +
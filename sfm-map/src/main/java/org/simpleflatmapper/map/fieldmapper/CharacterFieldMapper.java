@@ -1,11 +1,10 @@
 package org.simpleflatmapper.map.fieldmapper;
 
-import org.simpleflatmapper.map.FieldMapper;
 import org.simpleflatmapper.map.MappingContext;
 import org.simpleflatmapper.reflect.primitive.CharacterGetter;
 import org.simpleflatmapper.reflect.primitive.CharacterSetter;
 
-public final class CharacterFieldMapper<S, T> implements FieldMapper<S, T> {
+public final class CharacterFieldMapper<S, T> implements PrimitiveFieldMapper<S, T> {
 
 	private final CharacterGetter<? super S> getter;
 	private final CharacterSetter<? super T> setter;
@@ -20,6 +19,21 @@ public final class CharacterFieldMapper<S, T> implements FieldMapper<S, T> {
 		setter.setCharacter(target, getter.getCharacter(source));
 	}
 
+	@Override
+	public CharacterGetter<? super S> getGetter() {
+		return getter;
+	}
+
+	@Override
+	public CharacterSetter<? super T> getSetter() {
+		return setter;
+	}
+
+	@Override
+	public Class<?> getPrimitiveType() {
+		return char.class;
+	}
+
     @Override
     public String toString() {
         return "CharacterFieldMapper{" +
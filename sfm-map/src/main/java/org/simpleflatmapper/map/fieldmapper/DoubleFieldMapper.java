@@ -1,11 +1,10 @@
 package org.simpleflatmapper.map.fieldmapper;
 
-import org.simpleflatmapper.map.FieldMapper;
 import org.simpleflatmapper.map.MappingContext;
 import org.simpleflatmapper.reflect.primitive.DoubleGetter;
 import org.simpleflatmapper.reflect.primitive.DoubleSetter;
 
-public final class DoubleFieldMapper<S, T> implements FieldMapper<S, T> {
+public final class DoubleFieldMapper<S, T> implements PrimitiveFieldMapper<S, T> {
 
 	private final DoubleGetter<? super S> getter;
 	private final DoubleSetter<? super T> setter;
@@ -20,6 +19,21 @@ public final class DoubleFieldMapper<S, T> implements FieldMapper<S, T> {
 		setter.setDouble(target, getter.getDouble(source));
 	}
 
+	@Override
+	public DoubleGetter<? super S> getGetter() {
+		return getter;
+	}
+
+	@Override
+	public DoubleSetter<? super T> getSetter() {
+		return setter;
+	}
+
+	@Override
+	public Class<?> getPrimitiveType() {
+		return double.class;
+	}
+
     @Override
     public String toString() {
         return "DoubleFieldMapper{" +
@@ -1,11 +1,10 @@
 package org.simpleflatmapper.map.fieldmapper;
 
-import org.simpleflatmapper.map.FieldMapper;
 import org.simpleflatmapper.map.MappingContext;
 import org.simpleflatmapper.reflect.primitive.FloatGetter;
 import org.simpleflatmapper.reflect.primitive.FloatSetter;
 
-public final class FloatFieldMapper<S, T> implements FieldMapper<S, T> {
+public final class FloatFieldMapper<S, T> implements PrimitiveFieldMapper<S, T> {
 
 	private final FloatGetter<? super S> getter;
 	private final FloatSetter<? super T> setter;
@@ -20,6 +19,21 @@ public final class FloatFieldMapper<S, T> implements FieldMapper<S, T> {
         setter.setFloat(target, getter.getFloat(source));
 	}
 
+	@Override
+	public FloatGetter<? super S> getGetter() {
+		return getter;
+	}
+
+	@Override
+	public FloatSetter<? super T> getSetter() {
+		return setter;
+	}
+
+	@Override
+	public Class<?> getPrimitiveType() {
+		return float.class;
+	}
+
     @Override
     public String toString() {
         return "FloatFieldMapper{" +
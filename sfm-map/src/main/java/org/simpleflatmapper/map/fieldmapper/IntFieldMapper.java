@@ -1,11 +1,10 @@
 package org.simpleflatmapper.map.fieldmapper;
 
-import org.simpleflatmapper.map.FieldMapper;
 import org.simpleflatmapper.map.MappingContext;
 import org.simpleflatmapper.reflect.primitive.IntGetter;
 import org.simpleflatmapper.reflect.primitive.IntSetter;
 
-public final class IntFieldMapper<S, T> implements FieldMapper<S, T> {
+public final class IntFieldMapper<S, T> implements PrimitiveFieldMapper<S, T> {
 
 	private final IntGetter<? super S> getter;
 	private final IntSetter<? super T> setter;
@@ -20,6 +19,21 @@ public final class IntFieldMapper<S, T> implements FieldMapper<S, T> {
         setter.setInt(target, getter.getInt(source));
 	}
 
+	@Override
+	public IntGetter<? super S> getGetter() {
+		return getter;
+	}
+
+	@Override
+	public IntSetter<? super T> getSetter() {
+		return setter;
+	}
+
+	@Override
+	public Class<?> getPrimitiveType() {
+		return int.class;
+	}
+
     @Override
     public String toString() {
         return "IntFieldMapper{" +
@@ -1,11 +1,10 @@
 package org.simpleflatmapper.map.fieldmapper;
 
-import org.simpleflatmapper.map.FieldMapper;
 import org.simpleflatmapper.map.MappingContext;
 import org.simpleflatmapper.reflect.primitive.LongGetter;
 import org.simpleflatmapper.reflect.primitive.LongSetter;
 
-public final class LongFieldMapper<S, T> implements FieldMapper<S, T> {
+public final class LongFieldMapper<S, T> implements PrimitiveFieldMapper<S, T> {
 
 	private final LongGetter<? super S> getter;
 	private final LongSetter<? super T> setter;
@@ -20,6 +19,21 @@ public final class LongFieldMapper<S, T> implements FieldMapper<S, T> {
 		setter.setLong(target, getter.getLong(source));
 	}
 
+	@Override
+	public LongGetter<? super S> getGetter() {
+		return getter;
+	}
+
+	@Override
+	public LongSetter<? super T> getSetter() {
+		return setter;
+	}
+
+	@Override
+	public Class<?> getPrimitiveType() {
+		return long.class;
+	}
+
     @Override
     public String toString() {
         return "LongFieldMapper{" +
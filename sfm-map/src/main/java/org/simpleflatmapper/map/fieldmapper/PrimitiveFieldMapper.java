@@ -0,0 +1,27 @@
+package org.simpleflatmapper.map.fieldmapper;
+
+import org.simpleflatmapper.map.FieldMapper;
+
+/**
+ * FieldMapper copying a primitive value from a primitive getter to a primitive setter.
+ * Exposes its getter and setter so that the asm mapper can call them directly without going through mapTo.
+ *
+ * @param <S> the source type
+ * @param <T> the target type
+ */
+public interface PrimitiveFieldMapper<S, T> extends FieldMapper<S, T> {
+    /**
+     * @return the getter, ie IntGetter for an int
+     */
+    Object getGetter();
+
+    /**
+     * @return the setter, ie IntSetter for an int
+     */
+    Object getSetter();
+
+    /**
+     * @return the primitive type of the value
+     */
+    Class<?> getPrimitiveType();
+}
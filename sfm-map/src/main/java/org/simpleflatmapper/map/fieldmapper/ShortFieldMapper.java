@@ -1,11 +1,10 @@
 package org.simpleflatmapper.map.fieldmapper;
 
-import org.simpleflatmapper.map.FieldMapper;
 import org.simpleflatmapper.map.MappingContext;
 import org.simpleflatmapper.reflect.primitive.ShortGetter;
 import org.simpleflatmapper.reflect.primitive.ShortSetter;
 
-public final class ShortFieldMapper<S, T> implements FieldMapper<S, T> {
+public final class ShortFieldMapper<S, T> implements PrimitiveFieldMapper<S, T> {
 
 	private final ShortGetter<? super S> getter;
 	private final ShortSetter<? super T> setter;
@@ -20,6 +19,21 @@ public final class ShortFieldMapper<S, T> implements FieldMapper<S, T> {
         setter.setShort(target, getter.getShort(source));
 	}
 
+	@Override
+	public ShortGetter<? super S> getGetter() {
+		return getter;
+	}
+
+	@Override
+	public ShortSetter<? super T> getSetter() {
+		return setter;
+	}
+
+	@Override
+	public Class<?> getPrimitiveType() {
+		return short.class;
+	}
+
     @Override
     public String toString() {
         return "ShortFieldMapper{" +
@@ -25,6 +25,8 @@ import java.lang.reflect.Member;
 import java.lang.reflect.Type;
 import java.util.Map;
 
+import static org.simpleflatmapper.util.Asserts.requireNonNull;
+
 
 // I don't really like using inheritance but did not see any other way
 // to avoid rewriting a lot of delegate method...
@@ -51,6 +53,7 @@ public abstract class AbstractMapperFactory<
     private ReflectionService reflectionService = null;
 	private int maxMethodSize = MapperConfig.MAX_METHOD_SIZE;
 
+	private MapperCacheFactory mapperCacheFactory = MapperCacheFactory.SORTED;
 
 	public AbstractMapperFactory(AbstractMapperFactory<K, CD, ?> config) {
 		this.fieldMapperErrorHandler = config.fieldMapperErrorHandler;
@@ -68,6 +71,7 @@ public abstract class AbstractMapperFactory<
 		
 		this.reflectionService = config.reflectionService;
 		this.maxMethodSize = config.maxMethodSize;
+		this.mapperCacheFactory = config.mapperCacheFactory;
 	}
 
 
@@ -276,6 +280,25 @@ public abstract class AbstractMapperFactory<
 		return (MF) this;
 	}
 
+	/**
+	 * Change the cache the dynamic mappers use to find the mapper matching the columns.
+	 * <p>
+	 * The default {@link MapperCacheFactory#SORTED} copies the array on each new set of columns, with thousands of sets of columns
+	 * use {@link MapperCacheFactory#hash()} or a bounded {@link MapperCacheFactory#hash(int, HashMapperCache.Eviction)}.
+	 * @param mapperCacheFactory the factory of the cache
+	 * @return the factory
+	 */
+	public final MF mapperCacheFactory(final MapperCacheFactory mapperCacheFactory) {
+		this.mapperCacheFactory = requireNonNull("mapperCacheFactory", mapperCacheFactory);
+		return (MF) this;
+	}
+
+	/**
+	 * @return the factory of the cache of the dynamic mappers
+	 */
+	public final MapperCacheFactory mapperCacheFactory() {
+		return mapperCacheFactory;
+	}
 
 	/**
      * Mark the specified columns as keys.
@@ -19,7 +19,7 @@ import java.util.stream.Stream;
 public class DynamicSetRowMapper<ROW, SET, T, E extends Exception, K extends FieldKey<K>> implements SetRowMapper<ROW, SET, T, E> {
 
 
-    private final MapperCache<K, SetRowMapper<ROW, SET, T, E>> mapperCache;
+    private final IMapperCache<K, SetRowMapper<ROW, SET, T, E>> mapperCache;
 
 	private final UnaryFactory<MapperKey<K>, SetRowMapper<ROW, SET, T, E>> mapperFactory;
 
@@ -32,10 +32,19 @@ public class DynamicSetRowMapper<ROW, SET, T, E extends Exception, K extends Fie
 			UnaryFactoryWithException<ROW, MapperKey<K>, E> mapperKeyFromRow,
 			UnaryFactoryWithException<SET, MapperKey<K>, E> mapperKeyFromSet,
 			MapperKeyComparator<K> keyComparator) {
+		this(mapperFactory, mapperKeyFromRow, mapperKeyFromSet, keyComparator, MapperCacheFactory.SORTED);
+	}
+
+	public DynamicSetRowMapper(
+			UnaryFactory<MapperKey<K>, SetRowMapper<ROW, SET, T, E>> mapperFactory,
+			UnaryFactoryWithException<ROW, MapperKey<K>, E> mapperKeyFromRow,
+			UnaryFactoryWithException<SET, MapperKey<K>, E> mapperKeyFromSet,
+			MapperKeyComparator<K> keyComparator,
+			MapperCacheFactory mapperCacheFactory) {
 		this.mapperFactory = mapperFactory;
 		this.mapperKeyFromRow = mapperKeyFromRow;
 		this.mapperKeyFromSet = mapperKeyFromSet;
-		this.mapperCache = new MapperCache<K, SetRowMapper<ROW, SET, T, E>>(keyComparator);
+		this.mapperCache = mapperCacheFactory.<K, SetRowMapper<ROW, SET, T, E>>newCache(keyComparator);
 	}
 
 	@Override
@@ -87,11 +96,11 @@ public class DynamicSetRowMapper<ROW, SET, T, E extends Exception, K extends Fie
 				'}';
 	}
 
-	private SetRowMapper<ROW, SET, T, E> getMapperFromSet(SET set) throws E {
+	protected SetRowMapper<ROW, SET, T, E> getMapperFromSet(SET set) throws E {
 		return getMapper(mapperKeyFromSet.newInstance(set));
 	}
 
-	private SetRowMapper<ROW, SET, T, E> getMapperFromRow(ROW row) throws E {
+	protected SetRowMapper<ROW, SET, T, E> getMapperFromRow(ROW row) throws E {
 		return getMapper(mapperKeyFromRow.newInstance(row));
 	}
 
@@ -103,4 +112,11 @@ public class DynamicSetRowMapper<ROW, SET, T, E extends Exception, K extends Fie
 		}
 		return mapper;
 	}
+
+	/**
+	 * @return the cache of the mappers by columns
+	 */
+	public IMapperCache<K, SetRowMapper<ROW, SET, T, E>> getMapperCache() {
+		return mapperCache;
+	}
 }
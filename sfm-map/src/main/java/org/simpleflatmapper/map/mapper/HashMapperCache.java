@@ -0,0 +1,281 @@
+package org.simpleflatmapper.map.mapper;
+
+import org.simpleflatmapper.map.FieldKey;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.simpleflatmapper.util.Asserts.requireNonNull;
+
+/**
+ * Open addressing hash table of the mappers, the lookup does not lock and does not allocate.
+ * <p>
+ * The writers are serialized and publish the entries with a volatile store in the slot, or a new table when it grows,
+ * so the readers only ever see fully built entries. The table doubles when 3/4 full so an insert is O(1) amortized
+ * compared to the copy of the whole array in MapperCache.
+ * <p>
+ * When a maxSize is specified, adding a new key to a full cache evicts the least recently used or least frequently used
+ * of a sample of entries, the victim is deleted in place by shifting back the entries of its probe sequence.
+ * The recency is the value of a clock advanced by the inserts, a get only writes it when it changed, and the
+ * frequency saturates, so the hot entries are not written by the lookups. A get running during an eviction can miss
+ * an entry being shifted, the caller then builds the mapper again and the add keeps the cached one.
+ * <p>
+ * The hits are counted on striped counters.
+ */
+public final class HashMapperCache<K extends FieldKey<K>, M> implements IMapperCache<K, M> {
+
+	public enum Eviction {
+		LRU, LFU
+	}
+
+	public static final int UNBOUNDED = -1;
+
+	private static final int INITIAL_CAPACITY = 16;
+	// number of entries compared to pick the victim
+	private static final int SAMPLE_SIZE = 8;
+	private static final int MAX_FREQUENCY = 255;
+	// one counter per cache line
+	private static final int STRIPE_WIDTH = 8;
+	private static final int NB_STRIPES = Math.min(64, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+	private final int maxSize;
+	private final Eviction eviction;
+	private final boolean trackRecency;
+	private final boolean trackFrequency;
+
+	private volatile AtomicReferenceArray<Entry<K>> table = new AtomicReferenceArray<Entry<K>>(INITIAL_CAPACITY);
+	private volatile int size;
+
+	private final AtomicLongArray hitCounts = new AtomicLongArray(NB_STRIPES * STRIPE_WIDTH);
+	private final AtomicLong missCount = new AtomicLong();
+	private volatile long evictionCount;
+
+	// advanced by the inserts only
+	private volatile long clock;
+	// start of the next eviction sample
+	private int hand;
+
+	public HashMapperCache() {
+		this(UNBOUNDED, Eviction.LRU);
+	}
+
+	public HashMapperCache(int maxSize, Eviction eviction) {
+		checkArguments(maxSize, eviction);
+		this.maxSize = maxSize;
+		this.eviction = eviction;
+		this.trackRecency = maxSize != UNBOUNDED && eviction == Eviction.LRU;
+		this.trackFrequency = maxSize != UNBOUNDED && eviction == Eviction.LFU;
+	}
+
+	static void checkArguments(int maxSize, Eviction eviction) {
+		requireNonNull("eviction", eviction);
+		if (maxSize != UNBOUNDED && maxSize <= 0) {
+			throw new IllegalArgumentException("maxSize must be positive or UNBOUNDED, was " + maxSize);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public M get(MapperKey<K> key) {
+		final int hash = spread(key.hashCode());
+		final AtomicReferenceArray<Entry<K>> table = this.table;
+		final int mask = table.length() - 1;
+		int i = hash & mask;
+		Entry<K> entry;
+		while((entry = table.get(i)) != null) {
+			if (entry.hash == hash && key.equals(entry.key)) {
+				if (trackRecency) {
+					long now = clock;
+					if (entry.lastAccess != now) {
+						entry.lastAccess = now;
+					}
+				} else if (trackFrequency && entry.frequency < MAX_FREQUENCY) {
+					entry.frequency++;
+				}
+				hitCounts.incrementAndGet(stripe());
+				return (M) entry.value;
+			}
+			i = (i + 1) & mask;
+		}
+		missCount.incrementAndGet();
+		return null;
+	}
+
+	private static int stripe() {
+		return ((int) Thread.currentThread().getId() & (NB_STRIPES - 1)) * STRIPE_WIDTH;
+	}
+
+	@Override
+	public synchronized void add(MapperKey<K> key, M mapper) {
+		final int hash = spread(key.hashCode());
+		AtomicReferenceArray<Entry<K>> table = this.table;
+		if (indexOf(table, key, hash) >= 0) {
+			return;
+		}
+
+		if (maxSize != UNBOUNDED && size >= maxSize) {
+			evict(table);
+		}
+		if ((size + 1) * 4 > table.length() * 3) {
+			table = rehash(table, table.length() << 1);
+		}
+
+		Entry<K> entry = new Entry<K>(key, hash, mapper);
+		long now = clock + 1;
+		clock = now;
+		entry.lastAccess = now;
+		insert(table, entry);
+		size++;
+		this.table = table;
+	}
+
+	private void evict(AtomicReferenceArray<Entry<K>> table) {
+		final int mask = table.length() - 1;
+		int victimIndex = -1;
+		long victimRank = Long.MAX_VALUE;
+		int i = hand & mask;
+		int nbSampled = 0;
+		for(int n = 0; n < table.length() && nbSampled < SAMPLE_SIZE; n++) {
+			Entry<K> entry = table.get(i);
+			if (entry != null) {
+				nbSampled++;
+				long rank = rank(entry);
+				if (rank < victimRank) {
+					victimRank = rank;
+					victimIndex = i;
+				}
+			}
+			i = (i + 1) & mask;
+		}
+		hand = i;
+		if (victimIndex == -1) {
+			return;
+		}
+		delete(table, victimIndex);
+		evictionCount++;
+		size--;
+	}
+
+	private long rank(Entry<K> entry) {
+		return eviction == Eviction.LRU ? entry.lastAccess : entry.frequency;
+	}
+
+	// backward shift deletion, no tombstone is left so the probe sequences stay valid
+	private static <K extends FieldKey<K>> void delete(AtomicReferenceArray<Entry<K>> table, int index) {
+		final int mask = table.length() - 1;
+		int hole = index;
+		int i = index;
+		Entry<K> entry;
+		while((entry = table.get(i = (i + 1) & mask)) != null) {
+			int home = entry.hash & mask;
+			// the entry can fill the hole if its home is not cyclically in (hole, i]
+			boolean reachable = hole <= i ? (hole < home && home <= i) : (hole < home || home <= i);
+			if (!reachable) {
+				table.set(hole, entry);
+				hole = i;
+			}
+		}
+		table.set(hole, null);
+	}
+
+	private static <K extends FieldKey<K>> AtomicReferenceArray<Entry<K>> rehash(AtomicReferenceArray<Entry<K>> table, int capacity) {
+		AtomicReferenceArray<Entry<K>> newTable = new AtomicReferenceArray<Entry<K>>(capacity);
+		for(int i = 0; i < table.length(); i++) {
+			Entry<K> entry = table.get(i);
+			if (entry != null) {
+				insert(newTable, entry);
+			}
+		}
+		return newTable;
+	}
+
+	private static <K extends FieldKey<K>> void insert(AtomicReferenceArray<Entry<K>> table, Entry<K> entry) {
+		final int mask = table.length() - 1;
+		int i = entry.hash & mask;
+		while(table.get(i) != null) {
+			i = (i + 1) & mask;
+		}
+		table.set(i, entry);
+	}
+
+	private static <K extends FieldKey<K>> int indexOf(AtomicReferenceArray<Entry<K>> table, MapperKey<K> key, int hash) {
+		final int mask = table.length() - 1;
+		int i = hash & mask;
+		Entry<K> entry;
+		while((entry = table.get(i)) != null) {
+			if (entry.hash == hash && key.equals(entry.key)) {
+				return i;
+			}
+			i = (i + 1) & mask;
+		}
+		return -1;
+	}
+
+	private static int spread(int h) {
+		return h ^ (h >>> 16);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the number of get that found a mapper
+	 */
+	public long getHitCount() {
+		long hits = 0;
+		for(int i = 0; i < hitCounts.length(); i += STRIPE_WIDTH) {
+			hits += hitCounts.get(i);
+		}
+		return hits;
+	}
+
+	/**
+	 * @return the number of get that did not find a mapper
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * @return the number of mappers evicted to make room for new ones
+	 */
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public Eviction getEviction() {
+		return eviction;
+	}
+
+	@Override
+	public String toString() {
+		return "HashMapperCache{" +
+				"size=" + size +
+				", maxSize=" + maxSize +
+				", eviction=" + eviction +
+				'}';
+	}
+
+	private static final class Entry<K extends FieldKey<K>> {
+		private final MapperKey<K> key;
+		private final int hash;
+		private final Object value;
+
+		// written without synchronization, approximate under contention
+		private long lastAccess;
+		private int frequency;
+
+		private Entry(MapperKey<K> key, int hash, Object value) {
+			this.key = key;
+			this.hash = hash;
+			this.value = value;
+		}
+	}
+}
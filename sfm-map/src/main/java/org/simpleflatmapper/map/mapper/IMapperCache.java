@@ -0,0 +1,19 @@
+package org.simpleflatmapper.map.mapper;
+
+import org.simpleflatmapper.map.FieldKey;
+
+/**
+ * Cache of the mappers by the keys of the columns they map, used by the dynamic mappers.
+ * <p>
+ * The implementations are thread safe, add does not replace the mapper if the key is already present.
+ *
+ * @see MapperCacheFactory
+ */
+public interface IMapperCache<K extends FieldKey<K>, M> {
+
+    void add(MapperKey<K> key, M mapper);
+
+    M get(MapperKey<K> key);
+
+    int size();
+}
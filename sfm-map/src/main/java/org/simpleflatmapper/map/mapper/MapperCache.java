@@ -5,7 +5,7 @@ import org.simpleflatmapper.map.FieldKey;
 import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicReference;
 
-public final class MapperCache<K extends FieldKey<K>, M> {
+public final class MapperCache<K extends FieldKey<K>, M> implements IMapperCache<K, M> {
 
 	private static final int SIZE_THRESHOLD = 60;
 	@SuppressWarnings("unchecked")
@@ -46,6 +46,11 @@ public final class MapperCache<K extends FieldKey<K>, M> {
 		return (M) sortedEntries.get().search(key);
 	}
 
+	@Override
+	public int size() {
+		return sortedEntries.get().keys.length;
+	}
+
 	private static final class SortedEntries<K extends FieldKey<K>> {
 		private final MapperKey<K>[] keys;
 		private final Object[] values;
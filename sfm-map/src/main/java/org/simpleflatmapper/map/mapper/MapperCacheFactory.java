@@ -0,0 +1,65 @@
+package org.simpleflatmapper.map.mapper;
+
+import org.simpleflatmapper.map.FieldKey;
+
+/**
+ * Create the IMapperCache of the dynamic mappers.
+ * <p>
+ * {@link #SORTED} is the default, it is the fastest on lookup for a small number of keys but copies the array on insert.
+ * {@link #hash()} scales with thousands of keys and {@link #hash(int, HashMapperCache.Eviction)} bounds the number of mappers kept.
+ */
+public abstract class MapperCacheFactory {
+
+    public static final MapperCacheFactory SORTED = new MapperCacheFactory() {
+        @Override
+        public <K extends FieldKey<K>, M> IMapperCache<K, M> newCache(MapperKeyComparator<K> comparator) {
+            return new MapperCache<K, M>(comparator);
+        }
+
+        @Override
+        public String toString() {
+            return "SORTED";
+        }
+    };
+
+    private static final MapperCacheFactory HASH = new MapperCacheFactory() {
+        @Override
+        public <K extends FieldKey<K>, M> IMapperCache<K, M> newCache(MapperKeyComparator<K> comparator) {
+            return new HashMapperCache<K, M>();
+        }
+
+        @Override
+        public String toString() {
+            return "HASH";
+        }
+    };
+
+    /**
+     * @return a factory of unbounded HashMapperCache
+     */
+    public static MapperCacheFactory hash() {
+        return HASH;
+    }
+
+    /**
+     * @param maxSize the maximum number of mappers in the cache
+     * @param eviction the entry to evict when the cache is full
+     * @return a factory of bounded HashMapperCache
+     */
+    public static MapperCacheFactory hash(final int maxSize, final HashMapperCache.Eviction eviction) {
+        HashMapperCache.checkArguments(maxSize, eviction);
+        return new MapperCacheFactory() {
+            @Override
+            public <K extends FieldKey<K>, M> IMapperCache<K, M> newCache(MapperKeyComparator<K> comparator) {
+                return new HashMapperCache<K, M>(maxSize, eviction);
+            }
+
+            @Override
+            public String toString() {
+                return "HASH{maxSize=" + maxSize + ", eviction=" + eviction + "}";
+            }
+        };
+    }
+
+    public abstract <K extends FieldKey<K>, M> IMapperCache<K, M> newCache(MapperKeyComparator<K> comparator);
+}
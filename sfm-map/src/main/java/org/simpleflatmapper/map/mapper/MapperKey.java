@@ -6,24 +6,32 @@ import java.util.Arrays;
 
 import static org.simpleflatmapper.util.Asserts.requireNonNull;
 
+/**
+ * The columns a mapper is built for, the hash is computed once in the constructor
+ * so the columns must not be modified after.
+ */
 public final class MapperKey<K extends FieldKey<K>> {
 
 	private final K[] columns;
+	private final int hashCode;
 
 	@SuppressWarnings("unchecked")
 	public MapperKey(final K... columns) {
 		requireNonNull("columns", columns);
 		this.columns = columns;
+		this.hashCode = Arrays.hashCode(columns);
 	}
 
 	@Override
 	public boolean equals(Object obj) {
+		if (obj == this)
+			return true;
 		if (obj == null)
 			return false;
 		if (getClass() != obj.getClass())
 			return false;
 		MapperKey<?> that = (MapperKey<?>) obj;
-		return equals(columns, that.columns);
+		return hashCode == that.hashCode && equals(columns, that.columns);
 	}
 
 	private boolean equals(K[] c1, FieldKey<?>[] c2) {
@@ -39,7 +47,7 @@ public final class MapperKey<K extends FieldKey<K>> {
 
 	@Override
 	public int hashCode() {
-		return Arrays.hashCode(columns);
+		return hashCode;
 	}
 
 	public K[] getColumns() {
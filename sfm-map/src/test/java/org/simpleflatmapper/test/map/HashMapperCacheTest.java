@@ -0,0 +1,184 @@
+package org.simpleflatmapper.test.map;
+
+import org.junit.Test;
+import org.simpleflatmapper.map.mapper.HashMapperCache;
+import org.simpleflatmapper.map.mapper.IMapperCache;
+import org.simpleflatmapper.map.mapper.MapperCacheFactory;
+import org.simpleflatmapper.map.mapper.MapperKey;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HashMapperCacheTest {
+
+	@Test
+	public void testUnboundedCache() {
+		HashMapperCache<SampleFieldKey, Object> cache = new HashMapperCache<SampleFieldKey, Object>();
+
+		Object[] mappers = new Object[1000];
+		for(int i = 0 ; i < mappers.length; i++) {
+			MapperKey<SampleFieldKey> key = key(i);
+			assertNull(cache.get(key));
+			Object o = new Object();
+
+			cache.add(key, o);
+			assertEquals(o, cache.get(key));
+			mappers[i] = o;
+
+			cache.add(key, new Object());
+			assertEquals(o, cache.get(key));
+		}
+		assertEquals(mappers.length, cache.size());
+
+		for(int i = 0 ; i < mappers.length; i++) {
+			assertEquals(mappers[i], cache.get(key(i)));
+		}
+
+		assertEquals(mappers.length, cache.getMissCount());
+		assertEquals(mappers.length * 3, cache.getHitCount());
+		assertEquals(0, cache.getEvictionCount());
+	}
+
+	@Test
+	public void testLruEviction() {
+		HashMapperCache<SampleFieldKey, Object> cache = new HashMapperCache<SampleFieldKey, Object>(3, HashMapperCache.Eviction.LRU);
+
+		cache.add(key(0), "0");
+		cache.add(key(1), "1");
+		cache.add(key(2), "2");
+
+		cache.get(key(0));
+		cache.get(key(2));
+
+		cache.add(key(3), "3");
+
+		assertEquals(3, cache.size());
+		assertEquals(1, cache.getEvictionCount());
+		assertNull(cache.get(key(1)));
+		assertEquals("0", cache.get(key(0)));
+		assertEquals("2", cache.get(key(2)));
+		assertEquals("3", cache.get(key(3)));
+	}
+
+	@Test
+	public void testLfuEviction() {
+		HashMapperCache<SampleFieldKey, Object> cache = new HashMapperCache<SampleFieldKey, Object>(3, HashMapperCache.Eviction.LFU);
+
+		cache.add(key(0), "0");
+		cache.add(key(1), "1");
+		cache.add(key(2), "2");
+
+		cache.get(key(0));
+		cache.get(key(0));
+		cache.get(key(1));
+		cache.get(key(2));
+		cache.get(key(2));
+
+		cache.add(key(3), "3");
+
+		assertEquals(3, cache.size());
+		assertNull(cache.get(key(1)));
+		assertEquals("0", cache.get(key(0)));
+		assertEquals("2", cache.get(key(2)));
+		assertEquals("3", cache.get(key(3)));
+		assertEquals(8, cache.getHitCount());
+	}
+
+	@Test
+	public void testBoundedCacheKeepsWorkingWhenFull() {
+		HashMapperCache<SampleFieldKey, Object> cache = new HashMapperCache<SampleFieldKey, Object>(50, HashMapperCache.Eviction.LRU);
+		for(int i = 0; i < 1000; i++) {
+			Object o = new Object();
+			cache.add(key(i), o);
+			assertEquals(o, cache.get(key(i)));
+			assertTrue(cache.size() <= 50);
+		}
+		assertEquals(950, cache.getEvictionCount());
+		assertEquals(50, cache.size());
+		// the evicted entries are deleted in place, the remaining ones are still reachable
+		int found = 0;
+		for(int i = 0; i < 1000; i++) {
+			if (cache.get(key(i)) != null) {
+				found++;
+			}
+		}
+		assertEquals(50, found);
+	}
+
+	@Test
+	public void testLruKeepsTheEntryInUse() {
+		HashMapperCache<SampleFieldKey, Object> cache = new HashMapperCache<SampleFieldKey, Object>(50, HashMapperCache.Eviction.LRU);
+		cache.add(key(0), "0");
+		for(int i = 1; i < 1000; i++) {
+			cache.add(key(i), String.valueOf(i));
+			assertEquals("0", cache.get(key(0)));
+		}
+		assertEquals(950, cache.getEvictionCount());
+		assertNotNull(cache.get(key(999)));
+	}
+
+	@Test
+	public void testInvalidMaxSize() {
+		try {
+			MapperCacheFactory.hash(0, HashMapperCache.Eviction.LRU);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testConcurrentAddAndGet() throws Exception {
+		final IMapperCache<SampleFieldKey, Object> cache = MapperCacheFactory.hash().newCache(SampleFieldKeyMapperKeyComparator.INSTANCE);
+		final int nbThreads = 4;
+		final int nbKeys = 2000;
+		ExecutorService executorService = Executors.newFixedThreadPool(nbThreads);
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+		try {
+			for(int t = 0; t < nbThreads; t++) {
+				executorService.execute(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							start.await();
+							for(int i = 0; i < nbKeys; i++) {
+								MapperKey<SampleFieldKey> key = key(i);
+								Object mapper = cache.get(key);
+								if (mapper == null) {
+									cache.add(key, "mapper" + i);
+									mapper = cache.get(key);
+								}
+								if (!("mapper" + i).equals(mapper)) {
+									throw new AssertionError("Unexpected mapper " + mapper + " for " + key);
+								}
+							}
+						} catch (Throwable e) {
+							error.compareAndSet(null, e);
+						}
+					}
+				});
+			}
+			start.countDown();
+			executorService.shutdown();
+			assertTrue(executorService.awaitTermination(30, TimeUnit.SECONDS));
+		} finally {
+			executorService.shutdownNow();
+		}
+		assertNull(error.get());
+		assertEquals(nbKeys, cache.size());
+	}
+
+	private static MapperKey<SampleFieldKey> key(int i) {
+		return new MapperKey<SampleFieldKey>(new SampleFieldKey("col" + i, 1), new SampleFieldKey("col" + i + 1, 2));
+	}
+}
@@ -5,14 +5,19 @@ import org.simpleflatmapper.map.FieldMapper;
 import org.simpleflatmapper.map.Mapper;
 import org.simpleflatmapper.map.MappingContext;
 import org.simpleflatmapper.map.MappingException;
+import org.simpleflatmapper.map.fieldmapper.LongFieldMapper;
 import org.simpleflatmapper.reflect.BiInstantiator;
 import org.simpleflatmapper.test.map.SampleFieldKey;
 import org.simpleflatmapper.map.asm.MapperAsmFactory;
 import org.simpleflatmapper.reflect.Instantiator;
 import org.simpleflatmapper.reflect.asm.AsmFactory;
+import org.simpleflatmapper.reflect.getter.IndexedSourceGetter;
+import org.simpleflatmapper.reflect.primitive.LongGetter;
+import org.simpleflatmapper.reflect.primitive.LongSetter;
 import org.simpleflatmapper.test.beans.DbObject;
 
 import java.io.IOException;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class MapperAsmFactoryTest {
@@ -71,4 +76,75 @@ public class MapperAsmFactoryTest {
 			// ok
 		} 
 	}
+
+	public static class IndexedSource {
+		public long getLong(int index) {
+			return index * 3;
+		}
+	}
+
+	public static final class IndexedSourceLongGetter implements LongGetter<IndexedSource>, IndexedSourceGetter {
+		private final int index;
+
+		public IndexedSourceLongGetter(int index) {
+			this.index = index;
+		}
+
+		@Override
+		public long getLong(IndexedSource target) {
+			throw new UnsupportedOperationException("expected direct call to the source");
+		}
+
+		@Override
+		public int getSourceIndex() {
+			return index;
+		}
+	}
+
+	private static final LongSetter<DbObject> ID_SETTER = new LongSetter<DbObject>() {
+		@Override
+		public void setLong(DbObject target, long value) {
+			target.setId(value);
+		}
+	};
+
+	private static final BiInstantiator<IndexedSource, MappingContext<? super IndexedSource>, DbObject> DB_OBJECT_INSTANTIATOR = new BiInstantiator<IndexedSource, MappingContext<? super IndexedSource>, DbObject>() {
+		@Override
+		public DbObject newInstance(IndexedSource s, MappingContext<? super IndexedSource> context) throws Exception {
+			return new DbObject();
+		}
+	};
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testAsmMapperCallsIndexedSourceDirectly() throws Exception {
+		Mapper<IndexedSource, DbObject> mapper = asmFactory.createMapper(new SampleFieldKey[0],
+				(FieldMapper<IndexedSource, DbObject>[]) new FieldMapper[]{
+						new LongFieldMapper<IndexedSource, DbObject>(new IndexedSourceLongGetter(7), ID_SETTER)
+				},
+				(FieldMapper<IndexedSource, DbObject>[]) new FieldMapper[]{},
+				DB_OBJECT_INSTANTIATOR, IndexedSource.class,
+				DbObject.class);
+
+		assertEquals(21, mapper.map(new IndexedSource()).getId());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testAsmMapperCallsPrimitiveGetter() throws Exception {
+		Mapper<IndexedSource, DbObject> mapper = asmFactory.createMapper(new SampleFieldKey[0],
+				(FieldMapper<IndexedSource, DbObject>[]) new FieldMapper[]{
+						new LongFieldMapper<IndexedSource, DbObject>(new LongGetter<IndexedSource>() {
+							@Override
+							public long getLong(IndexedSource target) {
+								return 5;
+							}
+						}, ID_SETTER)
+				},
+				(FieldMapper<IndexedSource, DbObject>[]) new FieldMapper[]{},
+				DB_OBJECT_INSTANTIATOR, IndexedSource.class,
+				DbObject.class);
+
+		assertEquals(5, mapper.map(new IndexedSource()).getId());
+	}
 }
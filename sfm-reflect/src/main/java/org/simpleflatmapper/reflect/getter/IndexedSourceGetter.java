@@ -0,0 +1,10 @@
+package org.simpleflatmapper.reflect.getter;
+
+/**
+ * Primitive getter that reads the value by calling the method of the source named as its own primitive getter method
+ * with the source index, ie IntGetter.getInt(source) returns source.getInt(sourceIndex).
+ * The asm mapper uses it to call the source directly.
+ */
+public interface IndexedSourceGetter {
+    int getSourceIndex();
+}
@@ -261,6 +261,15 @@ public class JdbcTemplateCrud<T, K> {
         });
     }
 
+    /**
+     * select query on the table, the rows can be streamed with a forward only cursor through
+     * {@link ConnectedSelectQuery#read(Object, int, CheckedConsumer)}.
+     *
+     * @param whereClause the where clause
+     * @param paramClass the type of the parameter
+     * @param <P> the type of the parameter
+     * @return the select query
+     */
     public <P> ConnectedSelectQuery<T, P> where(String whereClause, Type paramClass) {
         SelectQuery<T, P> selectQuery = crud.where(whereClause, paramClass);
         return new ConnectedSelectQuery<T, P>(selectQuery,
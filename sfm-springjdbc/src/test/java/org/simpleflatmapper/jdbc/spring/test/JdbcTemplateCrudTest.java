@@ -204,4 +204,19 @@ public class JdbcTemplateCrudTest {
 
 	}
 
+	@Test
+	public void testWhereReadWithFetchSize() throws SQLException {
+		JdbcTemplateCrud<DbObject, Long> objectCrud =
+				JdbcTemplateMapperFactory.newInstance()
+						.<DbObject, Long>crud(DbObject.class, Long.class).to(template, "TEST_DB_OBJECT");
+		DbObject object1 = DbObject.newInstance();
+		DbObject object2 = DbObject.newInstance();
+		object2.setName(object1.getName());
+		objectCrud.create(Arrays.asList(object1, object2));
+
+		ConnectedSelectQuery<DbObject, String> objectByName = objectCrud.where(" name = :name", String.class);
+
+		assertEquals(Arrays.asList(object1, object2), objectByName.read(object1.getName(), 1, new ListCollector<DbObject>()).getList());
+	}
+
 }
@@ -0,0 +1,339 @@
+package org.simpleflatmapper.util;
+
+import java.math.BigInteger;
+
+/**
+ * Parse double and float directly from a char[] or a CharSequence, without creating a String.
+ * <p>
+ * Decimal numbers of up to 19 significant digits with an optional exponent are converted exactly, first with the
+ * Clinger fast path - the mantissa and the power of ten are exact, one multiplication or division rounds correctly -
+ * then with the Eisel-Lemire algorithm on a 128-bit approximation of the power of ten.
+ * Everything else, or the rare inputs the algorithm cannot decide, falls back to
+ * {@link Double#parseDouble(String)} and {@link Float#parseFloat(String)} which also report the invalid numbers.
+ *
+ * @see <a href="https://nigeltao.github.io/blog/2020/eisel-lemire.html">The Eisel-Lemire ParseNumberF64 Algorithm</a>
+ */
+public final class FloatingPointParser {
+
+    private static final int MAX_DIGITS = 19;
+    // exponents above are let to the fallback, no need to overflow the int
+    private static final int MAX_EXPONENT_PARSED = 100000;
+
+    private static final double[] DOUBLE_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final float[] FLOAT_POWERS_OF_TEN = {
+            1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+    private static final long MAX_EXACT_DOUBLE_MANTISSA = 1L << 53;
+    private static final long MAX_EXACT_FLOAT_MANTISSA = 1L << 24;
+
+    private static final int MIN_EXP10 = -342;
+    private static final int MAX_EXP10 = 308;
+
+    private FloatingPointParser() {
+    }
+
+    public static double parseDouble(char[] chars, int offset, int length) {
+        double d = parse(chars, offset, length, false);
+        if (d != d) {
+            return Double.parseDouble(new String(chars, offset, length));
+        }
+        return d;
+    }
+
+    public static double parseDouble(CharSequence charSequence) {
+        double d = parse(charSequence, false);
+        if (d != d) {
+            return Double.parseDouble(charSequence.toString());
+        }
+        return d;
+    }
+
+    public static float parseFloat(char[] chars, int offset, int length) {
+        double d = parse(chars, offset, length, true);
+        if (d != d) {
+            return Float.parseFloat(new String(chars, offset, length));
+        }
+        return (float) d;
+    }
+
+    public static float parseFloat(CharSequence charSequence) {
+        double d = parse(charSequence, true);
+        if (d != d) {
+            return Float.parseFloat(charSequence.toString());
+        }
+        return (float) d;
+    }
+
+    // NaN if the fallback needs to parse it
+    private static double parse(char[] chars, int offset, int length, boolean toFloat) {
+        int i = offset;
+        int end = offset + length;
+        if (i >= end) {
+            return Double.NaN;
+        }
+        char c = chars[i];
+        boolean negative = c == '-';
+        if (negative || c == '+') {
+            i++;
+        }
+
+        long mantissa = 0;
+        int nbSignificantDigits = 0;
+        int exp10 = 0;
+        boolean digits = false;
+        for (; i < end; i++) {
+            c = chars[i];
+            if (c < '0' || c > '9') {
+                break;
+            }
+            digits = true;
+            if (nbSignificantDigits > 0 || c != '0') {
+                if (++nbSignificantDigits > MAX_DIGITS) {
+                    return Double.NaN;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+            }
+        }
+        if (i < end && chars[i] == '.') {
+            for (i++; i < end; i++) {
+                c = chars[i];
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                digits = true;
+                exp10--;
+                if (nbSignificantDigits > 0 || c != '0') {
+                    if (++nbSignificantDigits > MAX_DIGITS) {
+                        return Double.NaN;
+                    }
+                    mantissa = mantissa * 10 + (c - '0');
+                }
+            }
+        }
+        if (!digits) {
+            return Double.NaN;
+        }
+        if (i < end && ((c = chars[i]) == 'e' || c == 'E')) {
+            i++;
+            if (i < end && ((c = chars[i]) == '-' || c == '+')) {
+                i++;
+            }
+            boolean negativeExponent = c == '-';
+            if (i >= end) {
+                return Double.NaN;
+            }
+            int exponent = 0;
+            for (; i < end; i++) {
+                c = chars[i];
+                if (c < '0' || c > '9' || exponent > MAX_EXPONENT_PARSED) {
+                    return Double.NaN;
+                }
+                exponent = exponent * 10 + (c - '0');
+            }
+            exp10 += negativeExponent ? -exponent : exponent;
+        }
+        if (i != end) {
+            return Double.NaN;
+        }
+        return toDouble(negative, mantissa, exp10, toFloat);
+    }
+
+    // same as above on a CharSequence
+    private static double parse(CharSequence chars, boolean toFloat) {
+        int i = 0;
+        int end = chars.length();
+        if (i >= end) {
+            return Double.NaN;
+        }
+        char c = chars.charAt(i);
+        boolean negative = c == '-';
+        if (negative || c == '+') {
+            i++;
+        }
+
+        long mantissa = 0;
+        int nbSignificantDigits = 0;
+        int exp10 = 0;
+        boolean digits = false;
+        for (; i < end; i++) {
+            c = chars.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            digits = true;
+            if (nbSignificantDigits > 0 || c != '0') {
+                if (++nbSignificantDigits > MAX_DIGITS) {
+                    return Double.NaN;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+            }
+        }
+        if (i < end && chars.charAt(i) == '.') {
+            for (i++; i < end; i++) {
+                c = chars.charAt(i);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                digits = true;
+                exp10--;
+                if (nbSignificantDigits > 0 || c != '0') {
+                    if (++nbSignificantDigits > MAX_DIGITS) {
+                        return Double.NaN;
+                    }
+                    mantissa = mantissa * 10 + (c - '0');
+                }
+            }
+        }
+        if (!digits) {
+            return Double.NaN;
+        }
+        if (i < end && ((c = chars.charAt(i)) == 'e' || c == 'E')) {
+            i++;
+            if (i < end && ((c = chars.charAt(i)) == '-' || c == '+')) {
+                i++;
+            }
+            boolean negativeExponent = c == '-';
+            if (i >= end) {
+                return Double.NaN;
+            }
+            int exponent = 0;
+            for (; i < end; i++) {
+                c = chars.charAt(i);
+                if (c < '0' || c > '9' || exponent > MAX_EXPONENT_PARSED) {
+                    return Double.NaN;
+                }
+                exponent = exponent * 10 + (c - '0');
+            }
+            exp10 += negativeExponent ? -exponent : exponent;
+        }
+        if (i != end) {
+            return Double.NaN;
+        }
+        return toDouble(negative, mantissa, exp10, toFloat);
+    }
+
+    // mantissa is unsigned
+    private static double toDouble(boolean negative, long mantissa, int exp10, boolean toFloat) {
+        if (mantissa == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+        if (toFloat) {
+            if (mantissa > 0 && mantissa <= MAX_EXACT_FLOAT_MANTISSA
+                    && exp10 >= -(FLOAT_POWERS_OF_TEN.length - 1) && exp10 < FLOAT_POWERS_OF_TEN.length) {
+                float f = mantissa;
+                f = exp10 < 0 ? f / FLOAT_POWERS_OF_TEN[-exp10] : f * FLOAT_POWERS_OF_TEN[exp10];
+                return negative ? -f : f;
+            }
+        } else if (mantissa > 0 && mantissa <= MAX_EXACT_DOUBLE_MANTISSA
+                && exp10 >= -(DOUBLE_POWERS_OF_TEN.length - 1) && exp10 < DOUBLE_POWERS_OF_TEN.length) {
+            double d = mantissa;
+            d = exp10 < 0 ? d / DOUBLE_POWERS_OF_TEN[-exp10] : d * DOUBLE_POWERS_OF_TEN[exp10];
+            return negative ? -d : d;
+        }
+        return eiselLemire(negative, mantissa, exp10, toFloat);
+    }
+
+    // NaN if the 128-bit approximation cannot decide the rounding, or out of the normal range
+    private static double eiselLemire(boolean negative, long mantissa, int exp10, boolean toFloat) {
+        if (exp10 < MIN_EXP10 || exp10 > MAX_EXP10) {
+            return Double.NaN;
+        }
+        // normalization
+        int clz = Long.numberOfLeadingZeros(mantissa);
+        mantissa <<= clz;
+        long exp2 = ((217706L * exp10) >> 16) + 64 + (toFloat ? 127 : 1023) - clz;
+
+        // multiplication
+        long[] powers = PowersOfTen.POWERS;
+        int index = (exp10 - MIN_EXP10) << 1;
+        long xHi = unsignedMultiplyHigh(mantissa, powers[index]);
+        long xLo = mantissa * powers[index];
+
+        // wider approximation
+        long mask = toFloat ? 0x3FFFFFFFFFL : 0x1FFL;
+        if ((xHi & mask) == mask && unsignedLessThan(xLo + mantissa, mantissa)) {
+            long yHi = unsignedMultiplyHigh(mantissa, powers[index + 1]);
+            long yLo = mantissa * powers[index + 1];
+            long mergedHi = xHi;
+            long mergedLo = xLo + yHi;
+            if (unsignedLessThan(mergedLo, xLo)) {
+                mergedHi++;
+            }
+            if ((mergedHi & mask) == mask && mergedLo + 1 == 0 && unsignedLessThan(yLo + mantissa, mantissa)) {
+                return Double.NaN;
+            }
+            xHi = mergedHi;
+            xLo = mergedLo;
+        }
+
+        // shift to 54 bits, 25 for float
+        long msb = xHi >>> 63;
+        long retMantissa = xHi >>> (msb + (toFloat ? 38 : 9));
+        exp2 -= 1 ^ msb;
+
+        // half-way ambiguity
+        if (xLo == 0 && (xHi & mask) == 0 && (retMantissa & 3) == 1) {
+            return Double.NaN;
+        }
+
+        // round to 53 bits, 24 for float
+        retMantissa += retMantissa & 1;
+        retMantissa >>>= 1;
+        if ((retMantissa >>> (toFloat ? 24 : 53)) > 0) {
+            retMantissa >>>= 1;
+            exp2++;
+        }
+        // subnormal, infinite
+        if (exp2 <= 0 || exp2 >= (toFloat ? 0xFF : 0x7FF)) {
+            return Double.NaN;
+        }
+        if (toFloat) {
+            float f = Float.intBitsToFloat((int) (exp2 << 23 | retMantissa & 0x7FFFFFL));
+            return negative ? -f : f;
+        }
+        double d = Double.longBitsToDouble(exp2 << 52 | retMantissa & 0xFFFFFFFFFFFFFL);
+        return negative ? -d : d;
+    }
+
+    private static boolean unsignedLessThan(long a, long b) {
+        return a + Long.MIN_VALUE < b + Long.MIN_VALUE;
+    }
+
+    private static long unsignedMultiplyHigh(long x, long y) {
+        long x0 = x & 0xFFFFFFFFL;
+        long x1 = x >>> 32;
+        long y0 = y & 0xFFFFFFFFL;
+        long y1 = y >>> 32;
+        long p01 = x0 * y1;
+        long middle = x1 * y0 + ((x0 * y0) >>> 32) + (p01 & 0xFFFFFFFFL);
+        return x1 * y1 + (middle >>> 32) + (p01 >>> 32);
+    }
+
+    /**
+     * 128-bit mantissas of the powers of ten from 1e-342 to 1e308, rounded down, high 64 bits first.
+     * Computed on first use.
+     */
+    private static final class PowersOfTen {
+        private static final long[] POWERS = new long[(MAX_EXP10 - MIN_EXP10 + 1) * 2];
+        static {
+            BigInteger five = BigInteger.valueOf(5);
+            for (int exp10 = MIN_EXP10; exp10 <= MAX_EXP10; exp10++) {
+                BigInteger value;
+                if (exp10 >= 0) {
+                    value = five.pow(exp10);
+                } else {
+                    BigInteger divisor = five.pow(-exp10);
+                    value = BigInteger.ONE.shiftLeft(divisor.bitLength() + 128).divide(divisor);
+                }
+                int shift = value.bitLength() - 128;
+                value = shift > 0 ? value.shiftRight(shift) : value.shiftLeft(-shift);
+                int index = (exp10 - MIN_EXP10) << 1;
+                POWERS[index] = value.shiftRight(64).longValue();
+                POWERS[index + 1] = value.longValue();
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.simpleflatmapper.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Executor;
+
+/**
+ * InputStream that reads the underlying stream on the executor into a ring buffer,
+ * the byte equivalent of {@link ParallelReader} to read ahead before the charset decoding.
+ * <p>
+ * The waiting strategy of each side is pluggable, see {@link WaitingStrategies}, the default yields the thread.
+ * The time each side waited for the other is available through the stall metrics.
+ */
+public class ParallelInputStream extends InputStream {
+    private static final int DEFAULT_MAX_READ = 8192 * 2;
+    private static final int DEFAULT_BUFFER_SIZE = 1024 * 64;
+
+    private final InputStream inputStream;
+    private final byte[] buffer;
+    private final ParallelRingBuffer ringBuffer;
+
+
+    public ParallelInputStream(InputStream inputStream, Executor executorService) {
+        this(inputStream, executorService, DEFAULT_BUFFER_SIZE);
+    }
+
+    public ParallelInputStream(InputStream inputStream, Executor executorService, int bufferSize) {
+        this(inputStream, executorService, bufferSize, DEFAULT_MAX_READ);
+    }
+
+    public ParallelInputStream(InputStream inputStream, Executor executorService, int bufferSize, int maxRead) {
+        this(inputStream, executorService, bufferSize, maxRead, WaitingStrategies.YIELD);
+    }
+
+    /**
+     * @param inputStream the stream to read from
+     * @param executorService the executor the stream is read on
+     * @param bufferSize the size of the ring buffer, rounded up to a power of 2
+     * @param maxRead the maximum number of bytes read from the stream at once
+     * @param waitingStrategySupplier supplies the waiting strategy of each side, called once for the consumer and once for the producer
+     */
+    public ParallelInputStream(InputStream inputStream, Executor executorService, int bufferSize, int maxRead, Supplier<? extends WaitingStrategy> waitingStrategySupplier) {
+        this.inputStream = inputStream;
+        buffer = new byte[ParallelRingBuffer.ringSize(bufferSize)];
+        ringBuffer = new ParallelRingBuffer(buffer, buffer.length, maxRead, waitingStrategySupplier, new ParallelRingBuffer.Source() {
+            @Override
+            public int read(int index, int length) throws IOException {
+                return ParallelInputStream.this.inputStream.read(buffer, index, length);
+            }
+        });
+        ringBuffer.start(executorService);
+    }
+
+    @Override
+    public int read(byte[] bytes, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        return ringBuffer.read(bytes, off, len);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int index = ringBuffer.nextIndex();
+        if (index == -1) {
+            return -1;
+        }
+        int b = buffer[index] & 0xFF;
+        ringBuffer.consumeOne();
+        return b;
+    }
+
+    /**
+     * @return the total time in nanoseconds the consumer waited for data
+     */
+    public long getConsumerStallNanos() {
+        return ringBuffer.getConsumerStallNanos();
+    }
+
+    /**
+     * @return the number of times the consumer had to wait for data
+     */
+    public long getConsumerStallCount() {
+        return ringBuffer.getConsumerStallCount();
+    }
+
+    /**
+     * @return the total time in nanoseconds the producer waited for free space in the buffer
+     */
+    public long getProducerStallNanos() {
+        return ringBuffer.getProducerStallNanos();
+    }
+
+    /**
+     * @return the number of times the producer had to wait for free space in the buffer
+     */
+    public long getProducerStallCount() {
+        return ringBuffer.getProducerStallCount();
+    }
+
+    @Override
+    public void close() throws IOException {
+        ringBuffer.stop();
+        inputStream.close();
+    }
+}
@@ -3,27 +3,20 @@ package org.simpleflatmapper.util;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.concurrent.Executor;
-import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Reader that reads the underlying reader on the executor into a ring buffer.
+ * <p>
+ * The waiting strategy of each side is pluggable, see {@link WaitingStrategies}, the default yields the thread.
+ * The time each side waited for the other is available through the stall metrics.
+ */
 public class ParallelReader extends Reader {
     private static final int DEFAULT_MAX_READ = 8192;
     private static final int DEFAULT_BUFFER_SIZE = 1024 * 32;
 
     private final Reader reader;
-    private final DataProducer dataProducer;
     private final char[] buffer;
-
-    private final int bufferMask;
-    private final int maxRead;
-
-    private AtomicLong tail = new AtomicLong();
-    private AtomicLong head = new AtomicLong();
-
-    private final long capacity;
-    private long tailCache;
-    private long headCache;
-
-    private final long padding;
+    private final ParallelRingBuffer ringBuffer;
 
 
     public ParallelReader(Reader reader, Executor executorService) {
@@ -33,151 +26,77 @@ public class ParallelReader extends Reader {
     public ParallelReader(Reader reader, Executor executorService, int bufferSize) {
         this(reader, executorService, bufferSize, DEFAULT_MAX_READ);
     }
+
     public ParallelReader(Reader reader, Executor executorService, int bufferSize, int maxRead) {
-        int powerOf2 =  1 << 32 - Integer.numberOfLeadingZeros(bufferSize - 1);
-        padding = powerOf2 <= 1024 ? 0 : 64;
+        this(reader, executorService, bufferSize, maxRead, WaitingStrategies.YIELD);
+    }
+
+    /**
+     * @param reader the reader to read from
+     * @param executorService the executor the reader is read on
+     * @param bufferSize the size of the ring buffer, rounded up to a power of 2
+     * @param maxRead the maximum number of chars read from the reader at once
+     * @param waitingStrategySupplier supplies the waiting strategy of each side, called once for the consumer and once for the producer
+     */
+    public ParallelReader(Reader reader, Executor executorService, int bufferSize, int maxRead, Supplier<? extends WaitingStrategy> waitingStrategySupplier) {
         this.reader = reader;
-        buffer = new char[powerOf2];
-        bufferMask = buffer.length - 1;
-        dataProducer = new DataProducer();
-        executorService.execute(dataProducer);
-        capacity = buffer.length;
-        this.maxRead = maxRead;
+        buffer = new char[ParallelRingBuffer.ringSize(bufferSize)];
+        ringBuffer = new ParallelRingBuffer(buffer, buffer.length, maxRead, waitingStrategySupplier, new ParallelRingBuffer.Source() {
+            @Override
+            public int read(int index, int length) throws IOException {
+                return ParallelReader.this.reader.read(buffer, index, length);
+            }
+        });
+        ringBuffer.start(executorService);
     }
 
     @Override
     public int read(char[] cbuf, int off, int len) throws IOException {
-        final long currentHead = head.get();
-        do {
-            if (currentHead < tailCache) {
-                int l = read(cbuf, off, len, currentHead, tailCache);
-
-                head.lazySet(currentHead + l);
-                return l;
-            }
-
-            tailCache = tail.get();
-            if (currentHead >= tailCache) {
-                if (!dataProducer.run) {
-                    if (dataProducer.exception != null) {
-                        throw dataProducer.exception;
-                    }
-                    tailCache = tail.get();
-                    if (currentHead >= tailCache) {
-                        return -1;
-                    }
-                }
-                waitingStrategy();
-            }
-        } while(true);
+        return ringBuffer.read(cbuf, off, len);
     }
 
     @Override
     public int read() throws IOException {
-
-        final long currentHead = head.get();
-        do {
-            if (currentHead < tailCache) {
-
-                int headIndex = (int) (currentHead & bufferMask);
-
-                char c = buffer[headIndex];
-
-                head.lazySet(currentHead + 1);
-
-                return c;
-            }
-
-            tailCache = tail.get();
-            if (currentHead >= tailCache) {
-                if (!dataProducer.run) {
-                    if (dataProducer.exception != null) {
-                        throw dataProducer.exception;
-                    }
-                    tailCache = tail.get();
-                    if (currentHead >= tailCache) {
-                        return -1;
-                    }
-                }
-                waitingStrategy();
-            }
-        } while(true);
+        int index = ringBuffer.nextIndex();
+        if (index == -1) {
+            return -1;
+        }
+        char c = buffer[index];
+        ringBuffer.consumeOne();
+        return c;
     }
 
-    private void waitingStrategy() {
-        Thread.yield();
+    /**
+     * @return the total time in nanoseconds the consumer waited for data
+     */
+    public long getConsumerStallNanos() {
+        return ringBuffer.getConsumerStallNanos();
     }
 
-    private int read(char[] cbuf, int off, int len, long currentHead, long currentTail) {
-
-        int headIndex = (int) (currentHead & bufferMask);
-        int usedLength = (int) (currentTail - currentHead);
-
-        int block1Length = Math.min(len, Math.min(usedLength, (int) (capacity - headIndex)));
-        int block2Length =  Math.min(len, usedLength) - block1Length;
+    /**
+     * @return the number of times the consumer had to wait for data
+     */
+    public long getConsumerStallCount() {
+        return ringBuffer.getConsumerStallCount();
+    }
 
-        System.arraycopy(buffer, headIndex, cbuf, off, block1Length);
-        System.arraycopy(buffer, 0, cbuf, off+ block1Length, block2Length);
+    /**
+     * @return the total time in nanoseconds the producer waited for free space in the buffer
+     */
+    public long getProducerStallNanos() {
+        return ringBuffer.getProducerStallNanos();
+    }
 
-        return block1Length + block2Length;
+    /**
+     * @return the number of times the producer had to wait for free space in the buffer
+     */
+    public long getProducerStallCount() {
+        return ringBuffer.getProducerStallCount();
     }
 
     @Override
     public void close() throws IOException {
-        dataProducer.stop();
+        ringBuffer.stop();
         reader.close();
     }
-
-    private class DataProducer implements Runnable {
-        private volatile boolean run = true;
-        private volatile IOException exception;
-
-        @Override
-        public void run() {
-            long currentTail = tail.get();
-            while(run) {
-
-                final long wrapPoint = currentTail - buffer.length;
-
-                if (headCache - padding <= wrapPoint) {
-                    headCache = head.get();
-                    if (headCache <= wrapPoint) {
-                        waitingStrategy();
-                        continue;
-                    }
-                }
-
-                try {
-                    int r =  read(currentTail, headCache);
-                    if (r == -1) {
-                        run = false;
-                    } else {
-                        currentTail += r;
-                        tail.lazySet(currentTail);
-                    }
-                } catch (IOException e) {
-                    exception = e;
-                    run = false;
-                }
-            }
-        }
-
-        private int read(long currentTail, long currentHead) throws IOException {
-            long used = currentTail - currentHead;
-
-            long length = Math.min(capacity - used, maxRead);
-
-            int tailIndex = (int) (currentTail & bufferMask);
-
-            int endBlock1 = (int) Math.min(tailIndex + length,  capacity);
-
-            int block1Length = endBlock1 - tailIndex;
-
-            return reader.read(buffer, tailIndex, block1Length);
-        }
-
-        public void stop() {
-            run = false;
-        }
-    }
 }
@@ -0,0 +1,254 @@
+package org.simpleflatmapper.util;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single producer single consumer ring buffer shared by {@link ParallelReader} and {@link ParallelInputStream}.
+ * <p>
+ * The buffer is a char or a byte array owned by the caller, it is filled on the executor through the {@link Source}
+ * and copied out with {@link System#arraycopy(Object, int, Object, int, int)}.
+ */
+final class ParallelRingBuffer {
+
+    /**
+     * fill the buffer from the underlying reader or stream.
+     */
+    interface Source {
+        /**
+         * @param index the index in the buffer to read into
+         * @param length the maximum number of elements to read
+         * @return the number of elements read, -1 on end of data
+         * @throws IOException if the read fails
+         */
+        int read(int index, int length) throws IOException;
+    }
+
+    private final Object buffer;
+    private final Source source;
+    private final DataProducer dataProducer;
+
+    private final int bufferMask;
+    private final int maxRead;
+
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    private final long capacity;
+    private long tailCache;
+    private long headCache;
+
+    private final long padding;
+
+    private final WaitingStrategy consumerWaitingStrategy;
+    private final WaitingStrategy producerWaitingStrategy;
+
+    private volatile long consumerStallNanos;
+    private volatile long consumerStallCount;
+
+    /**
+     * @param buffer the char or byte array, its length must be a power of 2, see {@link #ringSize(int)}
+     * @param capacity the length of the buffer
+     * @param maxRead the maximum number of elements read from the source at once
+     * @param waitingStrategySupplier supplies the waiting strategy of each side, called once for the consumer and once for the producer
+     * @param source fills the buffer
+     */
+    ParallelRingBuffer(Object buffer, int capacity, int maxRead, Supplier<? extends WaitingStrategy> waitingStrategySupplier, Source source) {
+        this.buffer = buffer;
+        this.source = source;
+        this.capacity = capacity;
+        this.maxRead = maxRead;
+        bufferMask = capacity - 1;
+        padding = capacity <= 1024 ? 0 : 64;
+        consumerWaitingStrategy = waitingStrategySupplier.get();
+        producerWaitingStrategy = waitingStrategySupplier.get();
+        dataProducer = new DataProducer();
+    }
+
+    /**
+     * @param bufferSize the requested size
+     * @return the size rounded up to a power of 2
+     */
+    static int ringSize(int bufferSize) {
+        return 1 << 32 - Integer.numberOfLeadingZeros(bufferSize - 1);
+    }
+
+    void start(Executor executor) {
+        executor.execute(dataProducer);
+    }
+
+    /**
+     * copy up to len elements into dest, waits for data if the buffer is empty.
+     * @return the number of elements copied, -1 on end of data
+     * @throws IOException if the source failed
+     */
+    int read(Object dest, int off, int len) throws IOException {
+        final long currentHead = head.get();
+        if (!awaitData(currentHead)) {
+            return -1;
+        }
+        int headIndex = (int) (currentHead & bufferMask);
+        int usedLength = (int) (tailCache - currentHead);
+
+        int block1Length = Math.min(len, Math.min(usedLength, (int) (capacity - headIndex)));
+        int block2Length =  Math.min(len, usedLength) - block1Length;
+
+        System.arraycopy(buffer, headIndex, dest, off, block1Length);
+        System.arraycopy(buffer, 0, dest, off+ block1Length, block2Length);
+
+        consumed(currentHead, block1Length + block2Length);
+        return block1Length + block2Length;
+    }
+
+    /**
+     * waits for data if the buffer is empty, the element at the returned index must be released
+     * with {@link #consumeOne()}.
+     * @return the index of the next element in the buffer, -1 on end of data
+     * @throws IOException if the source failed
+     */
+    int nextIndex() throws IOException {
+        final long currentHead = head.get();
+        if (!awaitData(currentHead)) {
+            return -1;
+        }
+        return (int) (currentHead & bufferMask);
+    }
+
+    void consumeOne() {
+        consumed(head.get(), 1);
+    }
+
+    private void consumed(long currentHead, int length) {
+        head.lazySet(currentHead + length);
+        producerWaitingStrategy.signal();
+    }
+
+    private boolean awaitData(long currentHead) throws IOException {
+        int idleCounter = 0;
+        long stallStart = 0;
+        do {
+            if (currentHead < tailCache) {
+                if (idleCounter > 0) {
+                    consumerStalled(stallStart);
+                }
+                return true;
+            }
+
+            tailCache = tail.get();
+            if (currentHead >= tailCache) {
+                if (!dataProducer.run) {
+                    if (dataProducer.exception != null) {
+                        throw dataProducer.exception;
+                    }
+                    tailCache = tail.get();
+                    if (currentHead >= tailCache) {
+                        if (idleCounter > 0) {
+                            consumerStalled(stallStart);
+                        }
+                        return false;
+                    }
+                    continue;
+                }
+                if (idleCounter == 0) {
+                    stallStart = System.nanoTime();
+                }
+                consumerWaitingStrategy.idle(idleCounter++);
+            }
+        } while(true);
+    }
+
+    private void consumerStalled(long stallStart) {
+        consumerStallNanos += System.nanoTime() - stallStart;
+        consumerStallCount++;
+    }
+
+    long getConsumerStallNanos() {
+        return consumerStallNanos;
+    }
+
+    long getConsumerStallCount() {
+        return consumerStallCount;
+    }
+
+    long getProducerStallNanos() {
+        return dataProducer.stallNanos;
+    }
+
+    long getProducerStallCount() {
+        return dataProducer.stallCount;
+    }
+
+    void stop() {
+        dataProducer.stop();
+    }
+
+    private class DataProducer implements Runnable {
+        private volatile boolean run = true;
+        private volatile IOException exception;
+
+        private volatile long stallNanos;
+        private volatile long stallCount;
+
+        @Override
+        public void run() {
+            long currentTail = tail.get();
+            int idleCounter = 0;
+            long stallStart = 0;
+            while(run) {
+
+                final long wrapPoint = currentTail - capacity;
+
+                if (headCache - padding <= wrapPoint) {
+                    headCache = head.get();
+                    if (headCache <= wrapPoint) {
+                        if (idleCounter == 0) {
+                            stallStart = System.nanoTime();
+                        }
+                        producerWaitingStrategy.idle(idleCounter++);
+                        continue;
+                    }
+                }
+
+                if (idleCounter > 0) {
+                    stallNanos += System.nanoTime() - stallStart;
+                    stallCount++;
+                    idleCounter = 0;
+                }
+
+                try {
+                    int r =  read(currentTail, headCache);
+                    if (r == -1) {
+                        run = false;
+                    } else {
+                        currentTail += r;
+                        tail.lazySet(currentTail);
+                    }
+                } catch (IOException e) {
+                    exception = e;
+                    run = false;
+                }
+                consumerWaitingStrategy.signal();
+            }
+        }
+
+        private int read(long currentTail, long currentHead) throws IOException {
+            long used = currentTail - currentHead;
+
+            long length = Math.min(capacity - used, maxRead);
+
+            int tailIndex = (int) (currentTail & bufferMask);
+
+            int endBlock1 = (int) Math.min(tailIndex + length,  capacity);
+
+            int block1Length = endBlock1 - tailIndex;
+
+            return source.read(tailIndex, block1Length);
+        }
+
+        public void stop() {
+            run = false;
+            producerWaitingStrategy.signal();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.simpleflatmapper.util;
+
+import java.util.concurrent.locks.LockSupport;
+
+public final class WaitingStrategies {
+
+    private WaitingStrategies() {
+    }
+
+    /**
+     * spin on the condition, lowest latency but burns a core while waiting.
+     */
+    public static final Supplier<WaitingStrategy> BUSY_SPIN = new ConstantSupplier<WaitingStrategy>(new WaitingStrategy() {
+        @Override
+        public void idle(int counter) {
+        }
+
+        @Override
+        public void signal() {
+        }
+    });
+
+    /**
+     * yield the thread, the historical behavior of ParallelReader.
+     */
+    public static final Supplier<WaitingStrategy> YIELD = new ConstantSupplier<WaitingStrategy>(new WaitingStrategy() {
+        @Override
+        public void idle(int counter) {
+            Thread.yield();
+        }
+
+        @Override
+        public void signal() {
+        }
+    });
+
+    /**
+     * spin, then yield, then park for an exponentially growing time capped at maxParkNanos.
+     * The latency to see new data is bounded by maxParkNanos.
+     * @param maxParkNanos the maximum time parked in one call
+     * @return the strategy supplier
+     */
+    public static Supplier<WaitingStrategy> parkWithBackoff(final long maxParkNanos) {
+        if (maxParkNanos <= 0) throw new IllegalArgumentException("maxParkNanos must be > 0");
+        return new ConstantSupplier<WaitingStrategy>(new ParkWithBackoffWaitingStrategy(maxParkNanos));
+    }
+
+    /**
+     * park until the other side signals progress or the timeout expires.
+     * @param timeoutNanos the maximum time parked in one call
+     * @return the strategy supplier, each call returns a new instance as the strategy tracks the parked thread
+     */
+    public static Supplier<WaitingStrategy> blocking(final long timeoutNanos) {
+        if (timeoutNanos <= 0) throw new IllegalArgumentException("timeoutNanos must be > 0");
+        return new Supplier<WaitingStrategy>() {
+            @Override
+            public WaitingStrategy get() {
+                return new BlockingWaitingStrategy(timeoutNanos);
+            }
+        };
+    }
+
+    private static final class ParkWithBackoffWaitingStrategy implements WaitingStrategy {
+        private static final int SPINS = 100;
+        private static final int YIELDS = 10;
+        private static final long MIN_PARK_NANOS = 1000;
+
+        private final long maxParkNanos;
+
+        private ParkWithBackoffWaitingStrategy(long maxParkNanos) {
+            this.maxParkNanos = maxParkNanos;
+        }
+
+        @Override
+        public void idle(int counter) {
+            if (counter < SPINS) {
+                return;
+            }
+            if (counter < SPINS + YIELDS) {
+                Thread.yield();
+                return;
+            }
+            int shift = Math.min(counter - SPINS - YIELDS, 30);
+            LockSupport.parkNanos(Math.min(maxParkNanos, MIN_PARK_NANOS << shift));
+        }
+
+        @Override
+        public void signal() {
+        }
+    }
+
+    private static final class BlockingWaitingStrategy implements WaitingStrategy {
+        private final long timeoutNanos;
+
+        private volatile Thread waiter;
+        private volatile boolean signalled;
+
+        private BlockingWaitingStrategy(long timeoutNanos) {
+            this.timeoutNanos = timeoutNanos;
+        }
+
+        @Override
+        public void idle(int counter) {
+            // publish the waiter before checking the signal, signal sets the flag before reading the waiter
+            waiter = Thread.currentThread();
+            if (!signalled) {
+                LockSupport.parkNanos(this, timeoutNanos);
+            }
+            signalled = false;
+            waiter = null;
+        }
+
+        @Override
+        public void signal() {
+            signalled = true;
+            Thread t = waiter;
+            if (t != null) {
+                LockSupport.unpark(t);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.simpleflatmapper.util;
+
+/**
+ * Strategy used by a side of ParallelReader or ParallelInputStream when it cannot progress,
+ * the consumer when the buffer is empty, the producer when the buffer is full.
+ * An instance is used by only one side, see {@link WaitingStrategies} for the implementations.
+ */
+public interface WaitingStrategy {
+    /**
+     * wait a bit, the caller checks its condition again after the call.
+     * @param counter the number of consecutive calls since the side last made progress, starts at 0
+     */
+    void idle(int counter);
+
+    /**
+     * called by the other side when it made progress, wakes up a blocked side.
+     */
+    void signal();
+}
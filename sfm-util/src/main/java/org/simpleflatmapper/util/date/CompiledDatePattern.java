@@ -0,0 +1,642 @@
+package org.simpleflatmapper.util.date;
+
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * A fixed-width date pattern compiled into a parser reading the fields directly from a char[] or a CharSequence,
+ * without creating a String or a parsing context.
+ * <p>
+ * The patterns made of yyyy, MM, dd, HH, mm, ss, SSS, XXX and literals - yyyy-MM-dd, yyyyMMdd,
+ * yyyy-MM-dd'T'HH:mm:ss.SSSXXX... - mean the same for {@link java.text.SimpleDateFormat} and
+ * {@link java.time.format.DateTimeFormatter}, {@link #compile(String)} returns null for any other pattern.
+ * The {@link #EPOCH_MILLIS} pattern reads the number of milliseconds since the epoch.
+ * <p>
+ * {@link #parse(char[], int, int)} only accepts the exact width of the pattern and valid values, it returns
+ * {@link #INVALID} otherwise, the caller then falls back to the formatter of the pattern which either parses the
+ * value - leniently, with an extra digit... - or reports the error.
+ * The fields are returned packed in a long, see {@link #year(long)}, {@link #month(long)}...
+ */
+public final class CompiledDatePattern {
+
+    /**
+     * the pseudo pattern of a number of milliseconds since the epoch, it is not a valid pattern for
+     * SimpleDateFormat nor DateTimeFormatter.
+     */
+    public static final String EPOCH_MILLIS = "epoch_millis";
+
+    /**
+     * returned by parse when the value does not match the pattern.
+     */
+    public static final long INVALID = -1;
+
+    private static final int LITERAL = 0;
+    private static final int YEAR = 1;
+    private static final int MONTH = 2;
+    private static final int DAY = 3;
+    private static final int HOUR = 4;
+    private static final int MINUTE = 5;
+    private static final int SECOND = 6;
+    private static final int MILLISECOND = 7;
+    private static final int OFFSET = 8;
+    // optional :ss then optional fraction as in ISO_LOCAL_TIME
+    private static final int ISO_SECOND_FRACTION = 9;
+
+    private static final int MAX_OFFSET_MINUTES = 18 * 60;
+    private static final int MAX_EPOCH_MILLIS_DIGITS = 18;
+
+    private static final int[] DAYS_IN_MONTH = { 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
+
+    private static final CompiledDatePattern EPOCH_MILLIS_PATTERN = new CompiledDatePattern(new int[0], new char[0], EPOCH_MILLIS);
+
+    private final int[] elements;
+    private final char[] literals;
+    private final String pattern;
+    private final boolean hasTime;
+    private final boolean hasOffset;
+
+    private CompiledDatePattern(int[] elements, char[] literals, String pattern) {
+        this.elements = elements;
+        this.literals = literals;
+        this.pattern = pattern;
+        this.hasTime = contains(elements, HOUR) && contains(elements, MINUTE);
+        this.hasOffset = contains(elements, OFFSET);
+    }
+
+    /**
+     * compile the pattern.
+     * @param pattern the SimpleDateFormat or DateTimeFormatter pattern, or {@link #EPOCH_MILLIS}
+     * @return the compiled pattern, null if the pattern is not supported
+     */
+    public static CompiledDatePattern compile(String pattern) {
+        if (EPOCH_MILLIS.equals(pattern)) {
+            return EPOCH_MILLIS_PATTERN;
+        }
+        int n = pattern.length();
+        int[] elements = new int[n];
+        char[] literals = new char[n];
+        int nbElements = 0;
+        int i = 0;
+        while (i < n) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                i++;
+                if (i < n && pattern.charAt(i) == '\'') {
+                    elements[nbElements] = LITERAL;
+                    literals[nbElements++] = '\'';
+                    i++;
+                    continue;
+                }
+                while (true) {
+                    if (i >= n) {
+                        return null;
+                    }
+                    c = pattern.charAt(i++);
+                    if (c == '\'') {
+                        if (i < n && pattern.charAt(i) == '\'') {
+                            i++;
+                        } else {
+                            break;
+                        }
+                    }
+                    elements[nbElements] = LITERAL;
+                    literals[nbElements++] = c;
+                }
+            } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                int start = i;
+                while (i < n && pattern.charAt(i) == c) {
+                    i++;
+                }
+                int element = fieldElement(c, i - start);
+                if (element == -1 || contains(elements, nbElements, element)) {
+                    return null;
+                }
+                elements[nbElements++] = element;
+            } else if (c == '[' || c == ']' || c == '{' || c == '}' || c == '#') {
+                // optional sections and reserved chars of DateTimeFormatter
+                return null;
+            } else {
+                elements[nbElements] = LITERAL;
+                literals[nbElements++] = c;
+                i++;
+            }
+        }
+        elements = copyOf(elements, nbElements);
+        if (!contains(elements, YEAR) || !contains(elements, MONTH) || !contains(elements, DAY)
+                || (contains(elements, MINUTE) && !contains(elements, HOUR))
+                || (contains(elements, SECOND) && !contains(elements, MINUTE))
+                || (contains(elements, MILLISECOND) && !contains(elements, SECOND))) {
+            return null;
+        }
+        return new CompiledDatePattern(elements, copyOf(literals, nbElements), pattern);
+    }
+
+    /**
+     * @return the pattern of DateTimeFormatter.ISO_LOCAL_DATE
+     */
+    public static CompiledDatePattern isoLocalDate() {
+        return compile("yyyy-MM-dd");
+    }
+
+    /**
+     * @return the pattern of DateTimeFormatter.ISO_LOCAL_DATE_TIME, the seconds and the fraction are optional
+     */
+    public static CompiledDatePattern isoLocalDateTime() {
+        return new CompiledDatePattern(
+                new int[] { YEAR, LITERAL, MONTH, LITERAL, DAY, LITERAL, HOUR, LITERAL, MINUTE, ISO_SECOND_FRACTION },
+                new char[] { 0, '-', 0, '-', 0, 'T', 0, ':', 0, 0 },
+                "ISO_LOCAL_DATE_TIME");
+    }
+
+    /**
+     * @return the pattern of DateTimeFormatter.ISO_OFFSET_DATE_TIME, the seconds and the fraction are optional
+     */
+    public static CompiledDatePattern isoOffsetDateTime() {
+        return new CompiledDatePattern(
+                new int[] { YEAR, LITERAL, MONTH, LITERAL, DAY, LITERAL, HOUR, LITERAL, MINUTE, ISO_SECOND_FRACTION, OFFSET },
+                new char[] { 0, '-', 0, '-', 0, 'T', 0, ':', 0, 0, 0 },
+                "ISO_OFFSET_DATE_TIME");
+    }
+
+    private static int fieldElement(char c, int count) {
+        switch (c) {
+            case 'y': return count == 4 ? YEAR : -1;
+            case 'M': return count == 2 ? MONTH : -1;
+            case 'd': return count == 2 ? DAY : -1;
+            case 'H': return count == 2 ? HOUR : -1;
+            case 'm': return count == 2 ? MINUTE : -1;
+            case 's': return count == 2 ? SECOND : -1;
+            case 'S': return count == 3 ? MILLISECOND : -1;
+            case 'X': return count == 3 ? OFFSET : -1;
+            default: return -1;
+        }
+    }
+
+    public boolean isEpochMillis() {
+        return this == EPOCH_MILLIS_PATTERN;
+    }
+
+    /**
+     * @return true if the pattern has at least the hours and the minutes
+     */
+    public boolean hasTime() {
+        return hasTime;
+    }
+
+    public boolean hasOffset() {
+        return hasOffset;
+    }
+
+    public long parse(CharSequence chars) {
+        if (isEpochMillis()) {
+            return INVALID;
+        }
+        int i = 0;
+        int end = chars.length();
+        int year = 0, month = 0, day = 0, hour = 0, minute = 0, second = 0, millisecond = 0;
+        int offsetMinutes = 0;
+        boolean offsetParsed = false;
+        for (int e = 0; e < elements.length; e++) {
+            switch (elements[e]) {
+                case LITERAL:
+                    if (i >= end || chars.charAt(i) != literals[e]) {
+                        return INVALID;
+                    }
+                    i++;
+                    break;
+                case YEAR:
+                    if (end - i < 4 || (year = digits(chars, i, 4)) <= 0) {
+                        return INVALID;
+                    }
+                    i += 4;
+                    break;
+                case MONTH:
+                    if (end - i < 2 || (month = digits(chars, i, 2)) < 1 || month > 12) {
+                        return INVALID;
+                    }
+                    i += 2;
+                    break;
+                case DAY:
+                    if (end - i < 2 || (day = digits(chars, i, 2)) < 1) {
+                        return INVALID;
+                    }
+                    i += 2;
+                    break;
+                case HOUR:
+                    if (end - i < 2 || (hour = digits(chars, i, 2)) < 0 || hour > 23) {
+                        return INVALID;
+                    }
+                    i += 2;
+                    break;
+                case MINUTE:
+                    if (end - i < 2 || (minute = digits(chars, i, 2)) < 0 || minute > 59) {
+                        return INVALID;
+                    }
+                    i += 2;
+                    break;
+                case SECOND:
+                    if (end - i < 2 || (second = digits(chars, i, 2)) < 0 || second > 59) {
+                        return INVALID;
+                    }
+                    i += 2;
+                    break;
+                case MILLISECOND:
+                    if (end - i < 3 || (millisecond = digits(chars, i, 3)) < 0) {
+                        return INVALID;
+                    }
+                    i += 3;
+                    break;
+                case ISO_SECOND_FRACTION:
+                    if (i < end && chars.charAt(i) == ':') {
+                        if (end - i < 3 || (second = digits(chars, i + 1, 2)) < 0 || second > 59) {
+                            return INVALID;
+                        }
+                        i += 3;
+                        if (i < end && chars.charAt(i) == '.') {
+                            int start = ++i;
+                            int fractionEnd = Math.min(end, start + 9);
+                            for (; i < fractionEnd; i++) {
+                                char c = chars.charAt(i);
+                                if (c < '0' || c > '9') {
+                                    break;
+                                }
+                                if (i - start < 3) {
+                                    millisecond = millisecond * 10 + (c - '0');
+                                } else if (c != '0') {
+                                    // below the millisecond
+                                    return INVALID;
+                                }
+                            }
+                            if (i == start) {
+                                return INVALID;
+                            }
+                            for (int k = i - start; k < 3; k++) {
+                                millisecond *= 10;
+                            }
+                        }
+                    }
+                    break;
+                case OFFSET:
+                    if (i < end && chars.charAt(i) == 'Z') {
+                        i++;
+                    } else {
+                        if (end - i < 6) {
+                            return INVALID;
+                        }
+                        char sign = chars.charAt(i);
+                        int hours = digits(chars, i + 1, 2);
+                        int minutes = digits(chars, i + 4, 2);
+                        if ((sign != '+' && sign != '-') || chars.charAt(i + 3) != ':' || hours < 0 || minutes < 0 || minutes > 59) {
+                            return INVALID;
+                        }
+                        offsetMinutes = hours * 60 + minutes;
+                        if (offsetMinutes > MAX_OFFSET_MINUTES || (sign == '-' && offsetMinutes == 0)) {
+                            return INVALID;
+                        }
+                        if (sign == '-') {
+                            offsetMinutes = -offsetMinutes;
+                        }
+                        i += 6;
+                    }
+                    offsetParsed = true;
+                    break;
+                default:
+                    return INVALID;
+            }
+        }
+        if (i != end || day > monthLength(year, month)) {
+            return INVALID;
+        }
+        return pack(year, month, day, hour, minute, second, millisecond, offsetParsed, offsetMinutes);
+    }
+
+    public long parse(char[] chars, int offset, int length) {
+        if (isEpochMillis()) {
+            return INVALID;
+        }
+        int i = offset;
+        int end = offset + length;
+        int year = 0, month = 0, day = 0, hour = 0, minute = 0, second = 0, millisecond = 0;
+        int offsetMinutes = 0;
+        boolean offsetParsed = false;
+        for (int e = 0; e < elements.length; e++) {
+            switch (elements[e]) {
+                case LITERAL:
+                    if (i >= end || chars[i] != literals[e]) {
+                        return INVALID;
+                    }
+                    i++;
+                    break;
+                case YEAR:
+                    if (end - i < 4 || (year = digits(chars, i, 4)) <= 0) {
+                        return INVALID;
+                    }
+                    i += 4;
+                    break;
+                case MONTH:
+                    if (end - i < 2 || (month = digits(chars, i, 2)) < 1 || month > 12) {
+                        return INVALID;
+                    }
+                    i += 2;
+                    break;
+                case DAY:
+                    if (end - i < 2 || (day = digits(chars, i, 2)) < 1) {
+                        return INVALID;
+                    }
+                    i += 2;
+                    break;
+                case HOUR:
+                    if (end - i < 2 || (hour = digits(chars, i, 2)) < 0 || hour > 23) {
+                        return INVALID;
+                    }
+                    i += 2;
+                    break;
+                case MINUTE:
+                    if (end - i < 2 || (minute = digits(chars, i, 2)) < 0 || minute > 59) {
+                        return INVALID;
+                    }
+                    i += 2;
+                    break;
+                case SECOND:
+                    if (end - i < 2 || (second = digits(chars, i, 2)) < 0 || second > 59) {
+                        return INVALID;
+                    }
+                    i += 2;
+                    break;
+                case MILLISECOND:
+                    if (end - i < 3 || (millisecond = digits(chars, i, 3)) < 0) {
+                        return INVALID;
+                    }
+                    i += 3;
+                    break;
+                case ISO_SECOND_FRACTION:
+                    if (i < end && chars[i] == ':') {
+                        if (end - i < 3 || (second = digits(chars, i + 1, 2)) < 0 || second > 59) {
+                            return INVALID;
+                        }
+                        i += 3;
+                        if (i < end && chars[i] == '.') {
+                            int start = ++i;
+                            int fractionEnd = Math.min(end, start + 9);
+                            for (; i < fractionEnd; i++) {
+                                char c = chars[i];
+                                if (c < '0' || c > '9') {
+                                    break;
+                                }
+                                if (i - start < 3) {
+                                    millisecond = millisecond * 10 + (c - '0');
+                                } else if (c != '0') {
+                                    // below the millisecond
+                                    return INVALID;
+                                }
+                            }
+                            if (i == start) {
+                                return INVALID;
+                            }
+                            for (int k = i - start; k < 3; k++) {
+                                millisecond *= 10;
+                            }
+                        }
+                    }
+                    break;
+                case OFFSET:
+                    if (i < end && chars[i] == 'Z') {
+                        i++;
+                    } else {
+                        if (end - i < 6) {
+                            return INVALID;
+                        }
+                        char sign = chars[i];
+                        int hours = digits(chars, i + 1, 2);
+                        int minutes = digits(chars, i + 4, 2);
+                        if ((sign != '+' && sign != '-') || chars[i + 3] != ':' || hours < 0 || minutes < 0 || minutes > 59) {
+                            return INVALID;
+                        }
+                        offsetMinutes = hours * 60 + minutes;
+                        if (offsetMinutes > MAX_OFFSET_MINUTES || (sign == '-' && offsetMinutes == 0)) {
+                            return INVALID;
+                        }
+                        if (sign == '-') {
+                            offsetMinutes = -offsetMinutes;
+                        }
+                        i += 6;
+                    }
+                    offsetParsed = true;
+                    break;
+                default:
+                    return INVALID;
+            }
+        }
+        if (i != end || day > monthLength(year, month)) {
+            return INVALID;
+        }
+        return pack(year, month, day, hour, minute, second, millisecond, offsetParsed, offsetMinutes);
+    }
+
+    /**
+     * parse the number of milliseconds since the epoch of the {@link #EPOCH_MILLIS} pattern.
+     * @param chars the chars
+     * @return the number of milliseconds
+     * @throws NumberFormatException if the chars are not a long
+     */
+    public static long parseEpochMillis(CharSequence chars) {
+        int end = chars.length();
+        int i = 0;
+        boolean negative = false;
+        if (end > 0 && (chars.charAt(0) == '-' || chars.charAt(0) == '+')) {
+            negative = chars.charAt(0) == '-';
+            i++;
+        }
+        if (i == end || end - i > MAX_EPOCH_MILLIS_DIGITS) {
+            // let Long report the error, or parse a value close to the limits
+            return Long.parseLong(chars.toString());
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            char c = chars.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("For input string: \"" + chars + "\"");
+            }
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    public static long parseEpochMillis(char[] chars, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+        if (i == end || end - i > MAX_EPOCH_MILLIS_DIGITS) {
+            // let Long report the error, or parse a value close to the limits
+            return Long.parseLong(new String(chars, offset, length));
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("For input string: \"" + new String(chars, offset, length) + "\"");
+            }
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * set the fields in the calendar, the same way {@link java.text.SimpleDateFormat} does, and return the date.
+     * @param fields the packed fields
+     * @param calendar the calendar
+     * @return the date
+     */
+    public static Date toDate(long fields, Calendar calendar) {
+        calendar.clear();
+        calendar.set(year(fields), month(fields) - 1, dayOfMonth(fields), hour(fields), minute(fields), second(fields));
+        calendar.set(Calendar.MILLISECOND, millisecond(fields));
+        if (hasOffset(fields)) {
+            calendar.set(Calendar.ZONE_OFFSET, offsetSeconds(fields) * 1000);
+            calendar.set(Calendar.DST_OFFSET, 0);
+        }
+        return calendar.getTime();
+    }
+
+    /**
+     * @param fields the packed fields
+     * @return the seconds since the epoch of the local date time in the proleptic gregorian calendar at UTC, the offset
+     * is ignored
+     */
+    public static long localEpochSecond(long fields) {
+        long y = year(fields);
+        int m = month(fields);
+        // days since 0000-03-01, the leap day at the end of the year
+        if (m <= 2) {
+            y--;
+            m += 12;
+        }
+        long days = 365 * y + y / 4 - y / 100 + y / 400 + (153 * (m - 3) + 2) / 5 + dayOfMonth(fields) - 1;
+        // 0000-03-01 to 1970-01-01
+        days -= 719468;
+        return days * 86400 + hour(fields) * 3600 + minute(fields) * 60 + second(fields);
+    }
+
+    public static int year(long fields) {
+        return (int) (fields >>> 36) & 0x3FFF;
+    }
+
+    /**
+     * @param fields the packed fields
+     * @return the month, from 1 to 12
+     */
+    public static int month(long fields) {
+        return (int) (fields >>> 32) & 0xF;
+    }
+
+    public static int dayOfMonth(long fields) {
+        return (int) (fields >>> 27) & 0x1F;
+    }
+
+    public static int hour(long fields) {
+        return (int) (fields >>> 22) & 0x1F;
+    }
+
+    public static int minute(long fields) {
+        return (int) (fields >>> 16) & 0x3F;
+    }
+
+    public static int second(long fields) {
+        return (int) (fields >>> 10) & 0x3F;
+    }
+
+    public static int millisecond(long fields) {
+        return (int) fields & 0x3FF;
+    }
+
+    public static boolean hasOffset(long fields) {
+        return ((fields >>> 50) & 1) != 0;
+    }
+
+    public static int offsetSeconds(long fields) {
+        return (((int) (fields >>> 51) & 0xFFF) - MAX_OFFSET_MINUTES) * 60;
+    }
+
+    // sign bit stays 0, INVALID is never a valid value
+    private static long pack(int year, int month, int day, int hour, int minute, int second, int millisecond, boolean hasOffset, int offsetMinutes) {
+        long fields = millisecond
+                | (long) second << 10
+                | (long) minute << 16
+                | (long) hour << 22
+                | (long) day << 27
+                | (long) month << 32
+                | (long) year << 36;
+        if (hasOffset) {
+            fields |= 1L << 50 | (long) (offsetMinutes + MAX_OFFSET_MINUTES) << 51;
+        }
+        return fields;
+    }
+
+    // -1 if not all digits
+    private static int digits(CharSequence chars, int start, int length) {
+        int value = 0;
+        for (int i = start; i < start + length; i++) {
+            char c = chars.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int digits(char[] chars, int start, int length) {
+        int value = 0;
+        for (int i = start; i < start + length; i++) {
+            char c = chars[i];
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int monthLength(int year, int month) {
+        if (month == 2 && (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0)) {
+            return 29;
+        }
+        return DAYS_IN_MONTH[month - 1];
+    }
+
+    private static boolean contains(int[] elements, int element) {
+        return contains(elements, elements.length, element);
+    }
+
+    private static boolean contains(int[] elements, int length, int element) {
+        for (int i = 0; i < length; i++) {
+            if (elements[i] == element) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] copyOf(int[] array, int length) {
+        int[] copy = new int[length];
+        System.arraycopy(array, 0, copy, 0, length);
+        return copy;
+    }
+
+    private static char[] copyOf(char[] array, int length) {
+        char[] copy = new char[length];
+        System.arraycopy(array, 0, copy, 0, length);
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledDatePattern{" +
+                "pattern='" + pattern + '\'' +
+                '}';
+    }
+}
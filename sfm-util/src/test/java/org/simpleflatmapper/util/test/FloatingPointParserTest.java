@@ -0,0 +1,77 @@
+package org.simpleflatmapper.util.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.simpleflatmapper.util.FloatingPointParser;
+
+import java.util.Random;
+
+public class FloatingPointParserTest {
+
+    private static final String[] VALUES = {
+            "0", "-0", "0.0", "-0.0", "+0", "1", "-1", "1.5", "+1.5", ".5", "5.", "0001.2500",
+            "0.1", "0.2", "0.3", "123456.789", "-1.5e10", "1E-5", "1e+5",
+            "1e22", "1e23", "9007199254740992", "9007199254740993", "16777216", "16777217",
+            "9999999999999999999", "12345678901234567890123", "0.000000000000000000000000000001",
+            "1.7976931348623157e308", "1.7976931348623158e308", "1.8e308", "1e309",
+            "2.2250738585072014E-308", "2.2250738585072011E-308", "4.9e-324", "2.4e-324", "1e-400",
+            "3.4028235e38", "3.4028236e38", "1.17549435E-38", "1.4e-45", "7.038531e-26",
+            "NaN", "-Infinity", " 1.5 ", "1.5d", "1.5f", "0x1p3", "1e0000000000000000000010"
+    };
+
+    private static final String[] INVALIDS = { "", "-", "+", ".", "e5", "1e", "1e+", "1.5.5", "1,5", "abc", "--1" };
+
+    @Test
+    public void testParseSameAsJdk() {
+        for (String value : VALUES) {
+            assertParseSameAsJdk(value);
+        }
+    }
+
+    @Test
+    public void testParseRandomSameAsJdk() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            assertParseSameAsJdk(Double.toString(Double.longBitsToDouble(random.nextLong())));
+            assertParseSameAsJdk(Float.toString(Float.intBitsToFloat(random.nextInt())));
+            assertParseSameAsJdk(Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20)));
+            assertParseSameAsJdk((random.nextLong() >>> random.nextInt(64)) + "e" + (random.nextInt(700) - 350));
+        }
+    }
+
+    @Test
+    public void testParseInvalid() {
+        for (String value : INVALIDS) {
+            try {
+                FloatingPointParser.parseDouble(value.toCharArray(), 0, value.length());
+                Assert.fail("Expect NumberFormatException on " + value);
+            } catch (NumberFormatException e) {
+                // expected
+            }
+            try {
+                FloatingPointParser.parseFloat(value);
+                Assert.fail("Expect NumberFormatException on " + value);
+            } catch (NumberFormatException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testParseCharRange() {
+        char[] chars = "a12.5e1b".toCharArray();
+        Assert.assertEquals(125.0, FloatingPointParser.parseDouble(chars, 1, 6), 0);
+        Assert.assertEquals(12.5f, FloatingPointParser.parseFloat(chars, 1, 4), 0);
+    }
+
+    private void assertParseSameAsJdk(String value) {
+        char[] chars = ("_" + value + "_").toCharArray();
+        long expectedDouble = Double.doubleToRawLongBits(Double.parseDouble(value));
+        Assert.assertEquals(value, expectedDouble, Double.doubleToRawLongBits(FloatingPointParser.parseDouble(chars, 1, value.length())));
+        Assert.assertEquals(value, expectedDouble, Double.doubleToRawLongBits(FloatingPointParser.parseDouble(value)));
+
+        int expectedFloat = Float.floatToRawIntBits(Float.parseFloat(value));
+        Assert.assertEquals(value, expectedFloat, Float.floatToRawIntBits(FloatingPointParser.parseFloat(chars, 1, value.length())));
+        Assert.assertEquals(value, expectedFloat, Float.floatToRawIntBits(FloatingPointParser.parseFloat(value)));
+    }
+}
@@ -0,0 +1,126 @@
+package org.simpleflatmapper.util.test;
+
+import org.junit.After;
+import org.junit.Test;
+import org.simpleflatmapper.util.ParallelInputStream;
+import org.simpleflatmapper.util.WaitingStrategies;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParallelInputStreamTest {
+
+    ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testReadRandomBytes() throws IOException {
+        Random random = new Random(11);
+        for(int i = 0; i < 64; i++) {
+            byte[] bytes = new byte[random.nextInt(1024 * 64)];
+            random.nextBytes(bytes);
+            int bufferSize = random.nextInt(4096) + 1;
+
+            ParallelInputStream parallelInputStream = new ParallelInputStream(new ByteArrayInputStream(bytes), executorService, 1 << 10, 512, WaitingStrategies.parkWithBackoff(TimeUnit.MICROSECONDS.toNanos(50)));
+            ByteArrayOutputStream os = new ByteArrayOutputStream();
+            try {
+                byte[] buffer = new byte[bufferSize];
+                int l;
+                while((l = parallelInputStream.read(buffer, 0, buffer.length)) != -1) {
+                    os.write(buffer, 0, l);
+                }
+            } finally {
+                parallelInputStream.close();
+            }
+            assertArrayEquals(bytes, os.toByteArray());
+        }
+    }
+
+    @Test
+    public void testReadSingleBytes() throws IOException {
+        byte[] bytes = { 0, 1, (byte) 0x80, (byte) 0xFF, 127 };
+        ParallelInputStream parallelInputStream = new ParallelInputStream(new ByteArrayInputStream(bytes), executorService, 4);
+        try {
+            for(byte b : bytes) {
+                assertEquals(b & 0xFF, parallelInputStream.read());
+            }
+            assertEquals(-1, parallelInputStream.read());
+        } finally {
+            parallelInputStream.close();
+        }
+    }
+
+    @Test
+    public void testExceptionIsPropagated() {
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("read failed");
+            }
+        };
+        ParallelInputStream parallelInputStream = new ParallelInputStream(failing, executorService, 16, 16, WaitingStrategies.blocking(TimeUnit.MILLISECONDS.toNanos(10)));
+        try {
+            parallelInputStream.read(new byte[10], 0, 10);
+            fail();
+        } catch (IOException e) {
+            assertEquals("read failed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testConsumerStallIsMeasuredOnSlowProducer() throws IOException {
+        final byte[] bytes = new byte[64];
+        new Random(13).nextBytes(bytes);
+        InputStream slowInputStream = new InputStream() {
+            int index;
+            @Override
+            public int read() throws IOException {
+                if (index == bytes.length) {
+                    return -1;
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(2));
+                return bytes[index++] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int r = read();
+                if (r == -1) {
+                    return -1;
+                }
+                b[off] = (byte) r;
+                return 1;
+            }
+        };
+        ParallelInputStream parallelInputStream = new ParallelInputStream(slowInputStream, executorService, 64, 64, WaitingStrategies.blocking(TimeUnit.MILLISECONDS.toNanos(10)));
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try {
+            byte[] buffer = new byte[16];
+            int l;
+            while((l = parallelInputStream.read(buffer, 0, buffer.length)) != -1) {
+                os.write(buffer, 0, l);
+            }
+        } finally {
+            parallelInputStream.close();
+        }
+        assertArrayEquals(bytes, os.toByteArray());
+        assertTrue(parallelInputStream.getConsumerStallCount() > 0);
+        assertTrue(parallelInputStream.getConsumerStallNanos() >= TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
@@ -2,9 +2,15 @@ package org.simpleflatmapper.util.test;
 
 import org.junit.Test;
 import org.simpleflatmapper.util.ParallelReader;
+import org.simpleflatmapper.util.Supplier;
+import org.simpleflatmapper.util.WaitingStrategies;
+import org.simpleflatmapper.util.WaitingStrategy;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -12,6 +18,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.LockSupport;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class ParallelReaderTest {
 
@@ -84,4 +91,93 @@ public class ParallelReaderTest {
         }
     }
 
+    @Test
+    public void testWaitingStrategies() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for(int i = 0; i < 20000; i++) {
+            sb.append(data);
+        }
+        String str = sb.toString();
+        List<Supplier<WaitingStrategy>> strategies = Arrays.asList(
+                WaitingStrategies.BUSY_SPIN,
+                WaitingStrategies.YIELD,
+                WaitingStrategies.parkWithBackoff(TimeUnit.MICROSECONDS.toNanos(100)),
+                WaitingStrategies.blocking(TimeUnit.MILLISECONDS.toNanos(10)));
+        for(Supplier<WaitingStrategy> strategy : strategies) {
+            StringBuilder result = new StringBuilder();
+            ParallelReader parallelReader = new ParallelReader(new StringReader(str), executorService, 1 << 10, 256, strategy);
+            try {
+                char[] buffer = new char[100];
+                int l;
+                while((l = parallelReader.read(buffer, 0, buffer.length)) != -1) {
+                    result.append(buffer, 0, l);
+                }
+            } finally {
+                parallelReader.close();
+            }
+            assertEquals(str, result.toString());
+            assertTrue(parallelReader.getConsumerStallCount() == 0 || parallelReader.getConsumerStallNanos() > 0);
+            assertTrue(parallelReader.getProducerStallCount() == 0 || parallelReader.getProducerStallNanos() > 0);
+        }
+    }
+
+    @Test
+    public void testProducerStallIsMeasuredOnSlowConsumer() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for(int i = 0; i < 100; i++) {
+            sb.append(data);
+        }
+        String str = sb.toString();
+        ParallelReader parallelReader = new ParallelReader(new StringReader(str), executorService, 64, 64, WaitingStrategies.blocking(TimeUnit.MILLISECONDS.toNanos(10)));
+        StringBuilder result = new StringBuilder();
+        try {
+            int c;
+            while((c = parallelReader.read()) != -1) {
+                result.append((char) c);
+                if (result.length() % 512 == 0) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(2));
+                }
+            }
+        } finally {
+            parallelReader.close();
+        }
+        assertEquals(str, result.toString());
+        assertTrue(parallelReader.getProducerStallCount() > 0);
+        assertTrue(parallelReader.getProducerStallNanos() > 0);
+    }
+
+    @Test
+    public void testConsumerStallIsMeasuredOnSlowProducer() throws IOException {
+        final String str = data + data + data;
+        Reader slowReader = new Reader() {
+            int index;
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                if (index == str.length()) {
+                    return -1;
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(2));
+                cbuf[off] = str.charAt(index++);
+                return 1;
+            }
+
+            @Override
+            public void close() throws IOException {
+            }
+        };
+        ParallelReader parallelReader = new ParallelReader(slowReader, executorService, 64, 64, WaitingStrategies.blocking(TimeUnit.MILLISECONDS.toNanos(10)));
+        StringBuilder result = new StringBuilder();
+        try {
+            int c;
+            while((c = parallelReader.read()) != -1) {
+                result.append((char) c);
+            }
+        } finally {
+            parallelReader.close();
+        }
+        assertEquals(str, result.toString());
+        assertTrue(parallelReader.getConsumerStallCount() > 0);
+        assertTrue(parallelReader.getConsumerStallNanos() >= TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
 }
@@ -0,0 +1,105 @@
+package org.simpleflatmapper.util.test.date;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.simpleflatmapper.util.date.CompiledDatePattern;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+
+public class CompiledDatePatternTest {
+
+    @Test
+    public void testCompile() {
+        Assert.assertNotNull(CompiledDatePattern.compile("yyyy-MM-dd"));
+        Assert.assertNotNull(CompiledDatePattern.compile("yyyyMMdd"));
+        Assert.assertNotNull(CompiledDatePattern.compile("dd/MM/yyyy HH:mm"));
+        Assert.assertNotNull(CompiledDatePattern.compile("yyyy-MM-dd'T'HH:mm:ss.SSSXXX"));
+        Assert.assertTrue(CompiledDatePattern.compile(CompiledDatePattern.EPOCH_MILLIS).isEpochMillis());
+
+        Assert.assertNull(CompiledDatePattern.compile("yy-MM-dd"));
+        Assert.assertNull(CompiledDatePattern.compile("yyyy-MMM-dd"));
+        Assert.assertNull(CompiledDatePattern.compile("yyyy-MM"));
+        Assert.assertNull(CompiledDatePattern.compile("yyyy-MM-dd HH:mm:ss z"));
+        Assert.assertNull(CompiledDatePattern.compile("yyyy-MM-dd[ HH:mm]"));
+        Assert.assertNull(CompiledDatePattern.compile("yyyy-MM-dd 'T"));
+        Assert.assertNull(CompiledDatePattern.compile("yyyy-MM-dd ss"));
+    }
+
+    @Test
+    public void testParseFields() {
+        CompiledDatePattern pattern = CompiledDatePattern.compile("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
+
+        long fields = pattern.parse("2017-06-07T13:45:12.123-05:30");
+        Assert.assertEquals(2017, CompiledDatePattern.year(fields));
+        Assert.assertEquals(6, CompiledDatePattern.month(fields));
+        Assert.assertEquals(7, CompiledDatePattern.dayOfMonth(fields));
+        Assert.assertEquals(13, CompiledDatePattern.hour(fields));
+        Assert.assertEquals(45, CompiledDatePattern.minute(fields));
+        Assert.assertEquals(12, CompiledDatePattern.second(fields));
+        Assert.assertEquals(123, CompiledDatePattern.millisecond(fields));
+        Assert.assertTrue(CompiledDatePattern.hasOffset(fields));
+        Assert.assertEquals(-(5 * 3600 + 30 * 60), CompiledDatePattern.offsetSeconds(fields));
+
+        char[] chars = "_2017-06-07T13:45:12.123Z_".toCharArray();
+        fields = pattern.parse(chars, 1, chars.length - 2);
+        Assert.assertEquals(0, CompiledDatePattern.offsetSeconds(fields));
+        Assert.assertEquals(1496843112L, CompiledDatePattern.localEpochSecond(fields));
+    }
+
+    @Test
+    public void testParseInvalid() {
+        CompiledDatePattern pattern = CompiledDatePattern.compile("yyyy-MM-dd HH:mm");
+        String[] invalids = { "2017-06-07 13:4", "2017-06-07 13:456", "2017-06-07T13:45", "2017-13-07 13:45",
+                "2017-02-29 13:45", "2017-06-31 13:45", "2017-06-07 24:00", "0000-06-07 13:45", "2017-06-0a 13:45", "" };
+        for (String invalid : invalids) {
+            Assert.assertEquals(invalid, CompiledDatePattern.INVALID, pattern.parse(invalid));
+        }
+        Assert.assertTrue(pattern.parse("2016-02-29 13:45") != CompiledDatePattern.INVALID);
+    }
+
+    @Test
+    public void testIsoOffsetDateTime() {
+        CompiledDatePattern pattern = CompiledDatePattern.isoOffsetDateTime();
+
+        Assert.assertEquals(0, CompiledDatePattern.second(pattern.parse("2017-06-07T13:45+01:00")));
+        Assert.assertEquals(120, CompiledDatePattern.millisecond(pattern.parse("2017-06-07T13:45:12.12+01:00")));
+        Assert.assertEquals(123, CompiledDatePattern.millisecond(pattern.parse("2017-06-07T13:45:12.123000000Z")));
+        // below the millisecond, left to the formatter
+        Assert.assertEquals(CompiledDatePattern.INVALID, pattern.parse("2017-06-07T13:45:12.1234Z"));
+        Assert.assertEquals(CompiledDatePattern.INVALID, pattern.parse("2017-06-07T13:45:12.Z"));
+        Assert.assertEquals(CompiledDatePattern.INVALID, pattern.parse("2017-06-07T13:45:12"));
+    }
+
+    @Test
+    public void testToDateSameAsSimpleDateFormat() throws Exception {
+        String[] patterns = { "yyyy-MM-dd", "yyyyMMdd HH:mm:ss", "yyyy-MM-dd'T'HH:mm:ss.SSSXXX" };
+        String[] values = { "2017-06-07", "20210328 02:30:00", "2021-10-31T02:30:00.123+02:00" };
+        for (int i = 0; i < patterns.length; i++) {
+            SimpleDateFormat sdf = new SimpleDateFormat(patterns[i]);
+            sdf.setTimeZone(TimeZone.getTimeZone("Europe/Paris"));
+            Date expected = sdf.parse(values[i]);
+            long fields = CompiledDatePattern.compile(patterns[i]).parse(values[i]);
+            Assert.assertEquals(expected, CompiledDatePattern.toDate(fields, sdf.getCalendar()));
+        }
+    }
+
+    @Test
+    public void testParseEpochMillis() {
+        Assert.assertEquals(1496843112123L, CompiledDatePattern.parseEpochMillis("1496843112123"));
+        Assert.assertEquals(-1, CompiledDatePattern.parseEpochMillis("-1"));
+        Assert.assertEquals(Long.MAX_VALUE, CompiledDatePattern.parseEpochMillis(String.valueOf(Long.MAX_VALUE)));
+        char[] chars = "a12b".toCharArray();
+        Assert.assertEquals(12, CompiledDatePattern.parseEpochMillis(chars, 1, 2));
+        String[] invalids = { "", "-", "12a", "2017-06-07", "99999999999999999999" };
+        for (String invalid : invalids) {
+            try {
+                CompiledDatePattern.parseEpochMillis(invalid);
+                Assert.fail("Expect NumberFormatException on " + invalid);
+            } catch (NumberFormatException e) {
+                // expected
+            }
+        }
+    }
+}